@@ -0,0 +1,55 @@
+package com.example.benchmarks;
+
+import com.example.wallet_service.exception.GlobalExceptionHandler;
+import com.example.wallet_service.exception.JwtValidationException;
+import com.example.wallet_service.exception.LimitExceededException;
+import com.example.wallet_service.exception.WalletIdNotFoundException;
+import com.example.wallet_service.service.walletMetricsService.WalletMetrics;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Error responses end to end: building the body in wallet-service's GlobalExceptionHandler and
+ * rendering it to JSON. Exceptions are created once; only the handler and serializer are timed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GlobalExceptionHandlerBenchmark {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(new WalletMetrics(new SimpleMeterRegistry()));
+
+    private final ObjectMapper mapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final WalletIdNotFoundException walletNotFound = new WalletIdNotFoundException("Wallet ID not found: 42");
+    private final LimitExceededException limitExceeded =
+            new LimitExceededException("DEBIT daily limit exceeded: Attempt 60000.00 > Allowed 50000.00", "LIMIT_EXCEEDED");
+    private final JwtValidationException jwtExpired = new JwtValidationException("TOKEN_EXPIRED", "JWT token has expired");
+
+    @Benchmark
+    public byte[] walletNotFound() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(handler.handleWalletNotFound(walletNotFound).getBody());
+    }
+
+    @Benchmark
+    public byte[] limitExceeded() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(handler.handleLimitExceeded(limitExceeded).getBody());
+    }
+
+    @Benchmark
+    public byte[] jwtValidation() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(handler.handleJwtValidation(jwtExpired).getBody());
+    }
+}
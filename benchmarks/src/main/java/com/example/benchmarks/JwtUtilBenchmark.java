@@ -0,0 +1,58 @@
+package com.example.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue (user-service) and verification (wallet-service). {@code filterChain} repeats what
+ * wallet-service's JwtAuthFilter does per request: one validation plus three claim extractions,
+ * each of which parses and verifies the token again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    //  Any 256-bit key will do; both services must share it
+    private static final String SECRET = "benchmark-secret-key-benchmark-secret-key-0123456789";
+    private static final long EXPIRATION_MS = 3_600_000L;
+
+    private com.example.user_service.security.JwtUtil issuer;
+    private com.example.wallet_service.security.JwtUtil verifier;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        issuer = new com.example.user_service.security.JwtUtil(SECRET, EXPIRATION_MS);
+        verifier = new com.example.wallet_service.security.JwtUtil(SECRET, EXPIRATION_MS);
+        token = issuer.generateToken(42L, "benchmark-user", "USER");
+    }
+
+    @Benchmark
+    public String generate() {
+        return issuer.generateToken(42L, "benchmark-user", "USER");
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return verifier.isTokenValid(token);
+    }
+
+    @Benchmark
+    public Long extractUserId() {
+        return verifier.extractUserId(token);
+    }
+
+    @Benchmark
+    public void filterChain(Blackhole bh) {
+        bh.consume(verifier.isTokenValid(token));
+        bh.consume(verifier.extractUsername(token));
+        bh.consume(verifier.extractRole(token));
+        bh.consume(verifier.extractUserId(token));
+    }
+}
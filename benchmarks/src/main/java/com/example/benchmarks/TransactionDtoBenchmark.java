@@ -0,0 +1,70 @@
+package com.example.benchmarks;
+
+import com.example.wallet_service.dto.transactionDto.TransactionDTO;
+import com.example.wallet_service.model.transaction.Transaction;
+import com.example.wallet_service.model.wallet.Wallet;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping and JSON rendering of transactions, singly and as a history page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionDtoBenchmark {
+
+    @Param({"20", "500"})
+    public int pageSize;
+
+    //  Same date handling as the services' Spring Boot ObjectMapper (ISO strings, not arrays)
+    private final ObjectMapper mapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private Transaction transaction;
+    private TransactionDTO dto;
+    private List<TransactionDTO> page;
+
+    @Setup
+    public void setUp() {
+        Wallet wallet = new Wallet(7L, "Main", new BigDecimal("1000.00"), 42L);
+        transaction = new Transaction(wallet, new BigDecimal("125.50"), Transaction.Type.DEBIT, "Groceries");
+        transaction.setId(1001L);
+        transaction.setTimestamp(LocalDateTime.of(2024, 6, 1, 12, 30));
+        dto = new TransactionDTO(transaction);
+
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            page.add(dto);
+        }
+    }
+
+    @Benchmark
+    public TransactionDTO construct() {
+        return new TransactionDTO(transaction);
+    }
+
+    @Benchmark
+    public String serialize() throws JsonProcessingException {
+        return mapper.writeValueAsString(dto);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(page);
+    }
+}
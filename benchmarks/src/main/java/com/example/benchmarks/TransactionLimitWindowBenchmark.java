@@ -0,0 +1,34 @@
+package com.example.benchmarks;
+
+import com.example.wallet_service.service.transactionService.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The IST day/month window arithmetic done on every credit and debit by
+ * TransactionService.validateTransactionLimits, without the two total queries that follow it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionLimitWindowBenchmark {
+
+    private final LocalDate today = LocalDate.of(2024, 6, 15);
+
+    @Benchmark
+    public TransactionService.LimitWindows limitWindows() {
+        return TransactionService.limitWindows(today);
+    }
+
+    //  As called in production, including the zone lookup and clock read
+    @Benchmark
+    public TransactionService.LimitWindows limitWindowsForNow() {
+        return TransactionService.limitWindows(LocalDate.now(ZoneId.of("Asia/Kolkata")));
+    }
+}
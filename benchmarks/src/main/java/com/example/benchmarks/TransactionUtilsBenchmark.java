@@ -0,0 +1,60 @@
+package com.example.benchmarks;
+
+import com.example.wallet_service.data.WalletTransaction;
+import com.example.wallet_service.util.TransactionUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stream-based aggregation and filtering over in-memory transaction lists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionUtilsBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private static final BigDecimal MIN_AMOUNT = new BigDecimal("500.00");
+
+    private List<WalletTransaction> transactions;
+
+    @Setup
+    public void setUp() {
+        //  Fixed seed so every run and every version sees the same data
+        SplittableRandom random = new SplittableRandom(42);
+        WalletTransaction.Type[] types = WalletTransaction.Type.values();
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            transactions.add(new WalletTransaction(
+                    (long) i,
+                    1L + random.nextInt(1_000),
+                    BigDecimal.valueOf(1 + random.nextInt(100_000), 2),
+                    types[random.nextInt(types.length)],
+                    "tx " + i,
+                    base.plusMinutes(i)));
+        }
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotal() {
+        return TransactionUtils.calculateTotal(transactions, WalletTransaction.Type.CREDIT);
+    }
+
+    @Benchmark
+    public List<WalletTransaction> filterByMinAmount() {
+        return TransactionUtils.filterByMinAmount(transactions, MIN_AMOUNT);
+    }
+}
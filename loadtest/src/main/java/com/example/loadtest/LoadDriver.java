@@ -0,0 +1,156 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop driver: {@code concurrency} virtual threads each pick a user and an operation by
+ * weight, send it and wait for the answer before sending the next. Requests that complete during
+ * the warmup are not recorded.
+ */
+final class LoadDriver {
+
+    /** A seeded user: bearer token plus the wallets it owns. */
+    record LoadUser(long userId, String token, long[] walletIds) {}
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final URI baseUri;
+    private final List<LoadUser> users;
+    private final LoadTestOptions options;
+    private final HttpClient client;
+    private final Operation[] weighted;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+    LoadDriver(URI baseUri, List<LoadUser> users, LoadTestOptions options) {
+        this.baseUri = baseUri;
+        this.users = users;
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        //  One slot per unit of weight, so picking an operation is a single array index
+        List<Operation> slots = new ArrayList<>();
+        options.mix().forEach((op, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(op);
+            }
+            stats.put(op, new OperationStats());
+        });
+        this.weighted = slots.toArray(Operation[]::new);
+    }
+
+    /** Runs warmup plus measurement and returns the stats with the measured wall time in nanos. */
+    Result run() throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+        long stopAt = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.concurrency(); i++) {
+                SplittableRandom random = new SplittableRandom(options.seed() + i);
+                workers.submit(() -> loop(random, measureFrom, stopAt));
+            }
+            workers.shutdown();
+            if (!workers.awaitTermination(options.warmupSeconds() + options.durationSeconds() + 120L, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        }
+        return new Result(stats, stopAt - measureFrom);
+    }
+
+    record Result(Map<Operation, OperationStats> stats, long measuredNanos) {}
+
+    private void loop(SplittableRandom random, long measureFrom, long stopAt) {
+        while (System.nanoTime() < stopAt) {
+            Operation op = weighted[random.nextInt(weighted.length)];
+            HttpRequest request = request(op, random);
+
+            long sent = System.nanoTime();
+            String outcome = send(request);
+            long done = System.nanoTime();
+
+            if (sent >= measureFrom && done <= stopAt) {
+                stats.get(op).record(done - sent, outcome);
+            }
+        }
+    }
+
+    private HttpRequest request(Operation op, SplittableRandom random) {
+        LoadUser user = users.get(random.nextInt(users.size()));
+        long walletId = user.walletIds()[random.nextInt(user.walletIds().length)];
+        String amount = BigDecimal.valueOf(1 + random.nextLong(options.maxAmountCents()), 2).toPlainString();
+
+        return switch (op) {
+            case CREDIT -> post(user, "/api/wallets/" + walletId + "/credit?amount=" + amount + "&description=load");
+            case DEBIT -> post(user, "/api/wallets/" + walletId + "/debit?amount=" + amount + "&description=load");
+            case TRANSFER -> {
+                LoadUser other = users.get(random.nextInt(users.size()));
+                while (other == user) {
+                    other = users.get(random.nextInt(users.size()));
+                }
+                long toWalletId = other.walletIds()[random.nextInt(other.walletIds().length)];
+                yield post(user, "/api/wallets/transfer?fromWalletId=" + walletId
+                        + "&toWalletId=" + toWalletId + "&amount=" + amount);
+            }
+            case HISTORY -> builder(user, "/api/transactions/history/cursor?walletId=" + walletId + "&size=20")
+                    .GET()
+                    .build();
+        };
+    }
+
+    private HttpRequest post(LoadUser user, String path) {
+        return builder(user, path).POST(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private HttpRequest.Builder builder(LoadUser user, String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + user.token());
+    }
+
+    //  "OK", the errorCode from the error body, or a transport-level code
+    private String send(HttpRequest request) {
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            return classify(response.statusCode(), response.body());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "INTERRUPTED";
+        } catch (Exception e) {
+            return "IO_ERROR";
+        }
+    }
+
+    static String classify(int status, String body) {
+        if (status >= 200 && status < 300) {
+            return OperationStats.OK;
+        }
+        try {
+            JsonNode errorCode = MAPPER.readTree(body).get("errorCode");
+            if (errorCode != null && errorCode.isTextual()) {
+                return errorCode.asText();
+            }
+        } catch (Exception ignored) {
+            //  Not a JSON error body; fall through to the status code
+        }
+        return status == 429 ? "RATE_LIMITED" : "HTTP_" + status;
+    }
+}
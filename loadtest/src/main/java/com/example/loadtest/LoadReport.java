@@ -0,0 +1,99 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Machine-readable summary of a run: per operation and overall throughput, latency percentiles
+ * (microseconds) and outcome counts by failure code.
+ */
+record LoadReport(Map<String, Object> options, Map<String, Object> total, Map<String, Object> operations) {
+
+    static LoadReport of(LoadTestOptions options, LoadDriver.Result result) {
+        double seconds = result.measuredNanos() / 1e9;
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("users", options.users());
+        config.put("walletsPerUser", options.walletsPerUser());
+        config.put("initialBalance", options.initialBalance());
+        config.put("concurrency", options.concurrency());
+        config.put("warmupSeconds", options.warmupSeconds());
+        config.put("durationSeconds", options.durationSeconds());
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        options.mix().forEach((op, weight) -> mix.put(op.key(), weight));
+        config.put("mix", mix);
+        config.put("seed", options.seed());
+        config.put("rateLimit", options.rateLimit());
+
+        Histogram all = new Histogram(3);
+        Map<String, Long> allOutcomes = new TreeMap<>();
+        Map<String, Object> operations = new LinkedHashMap<>();
+        result.stats().forEach((op, stats) -> {
+            all.add(stats.latency());
+            stats.outcomes().forEach((code, count) -> allOutcomes.merge(code, count, Long::sum));
+            operations.put(op.key(), section(stats.latency(), stats.outcomes(), seconds));
+        });
+
+        return new LoadReport(config, section(all, allOutcomes, seconds), operations);
+    }
+
+    private static Map<String, Object> section(Histogram latency, Map<String, Long> outcomes, double seconds) {
+        long requests = latency.getTotalCount();
+        long ok = outcomes.getOrDefault(OperationStats.OK, 0L);
+        long conflicts = outcomes.getOrDefault(OperationStats.CONFLICT, 0L);
+
+        Map<String, Object> section = new LinkedHashMap<>();
+        section.put("requests", requests);
+        section.put("throughputPerSecond", round(requests / seconds));
+        section.put("successPerSecond", round(ok / seconds));
+        section.put("conflictRate", requests == 0 ? 0.0 : round((double) conflicts / requests));
+
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        percentiles.put("p50", latency.getValueAtPercentile(50));
+        percentiles.put("p99", latency.getValueAtPercentile(99));
+        percentiles.put("p999", latency.getValueAtPercentile(99.9));
+        percentiles.put("max", latency.getMaxValue());
+        percentiles.put("mean", round(latency.getMean()));
+        section.put("latencyMicros", percentiles);
+
+        section.put("outcomes", outcomes);
+        return section;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    void write(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), this);
+    }
+
+    @SuppressWarnings("unchecked")
+    void print(PrintStream out) {
+        out.printf("%-10s %10s %10s %10s %10s %10s %10s%n", "operation", "requests", "req/s", "p50 us", "p99 us", "p999 us", "conflicts");
+        Map<String, Object> rows = new LinkedHashMap<>(operations);
+        rows.put("total", total);
+        rows.forEach((name, value) -> {
+            Map<String, Object> section = (Map<String, Object>) value;
+            Map<String, Object> latency = (Map<String, Object>) section.get("latencyMicros");
+            out.printf("%-10s %10d %10.1f %10d %10d %10d %10.4f%n", name,
+                    (Long) section.get("requests"), (Double) section.get("throughputPerSecond"),
+                    (Long) latency.get("p50"), (Long) latency.get("p99"), (Long) latency.get("p999"),
+                    (Double) section.get("conflictRate"));
+        });
+        out.println("outcomes: " + total.get("outcomes"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.loadtest;
+
+import com.example.wallet_service.WalletServiceApplication;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * End-to-end load test: boots wallet-service on in-memory H2 (MySQL mode, same data.sql as
+ * production), points it at {@link UserServiceStandIn}, seeds users and wallets, drives the
+ * configured operation mix over HTTP and writes a JSON report.
+ */
+public final class LoadTestMain {
+
+    private static final String JWT_SECRET = "load-test-secret-load-test-secret-0123456789";
+    private static final long FIRST_USER = 1_000_000L;
+    private static final long FIRST_WALLET = 1_000_000L;
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        try (UserServiceStandIn userService = UserServiceStandIn.start();
+             ConfigurableApplicationContext walletService = boot(options, userService.baseUrl())) {
+
+            int port = ((WebServerApplicationContext) walletService).getWebServer().getPort();
+            List<LoadDriver.LoadUser> users = seed(walletService.getBean(JdbcTemplate.class), options);
+            System.out.printf("Seeded %d users x %d wallets; wallet-service on port %d, %ds warmup + %ds measured, %d workers%n",
+                    options.users(), options.walletsPerUser(), port,
+                    options.warmupSeconds(), options.durationSeconds(), options.concurrency());
+
+            LoadDriver.Result result = new LoadDriver(URI.create("http://localhost:" + port), users, options).run();
+
+            LoadReport report = LoadReport.of(options, result);
+            report.write(options.output());
+            report.print(System.out);
+            System.out.println("Report written to " + options.output().toAbsolutePath());
+        }
+    }
+
+    //  Command-line arguments outrank application.yml, so these replace the MySQL and file-logging settings
+    private static ConfigurableApplicationContext boot(LoadTestOptions options, String userServiceUrl) {
+        return new SpringApplicationBuilder(WalletServiceApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.h2.console.enabled=false",
+                "--server.port=0",
+                "--user.service.url=" + userServiceUrl,
+                "--jwt.secret=" + JWT_SECRET,
+                "--rate-limit.enabled=" + options.rateLimit(),
+                "--transaction-backfill.user-id.run-on-startup=false",
+                "--logging.file.name=",
+                "--logging.level.root=WARN",
+                "--logging.level.com.example.wallet_service=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+    }
+
+    private static List<LoadDriver.LoadUser> seed(JdbcTemplate jdbcTemplate, LoadTestOptions options) {
+        Key key = Keys.hmacShaKeyFor(JWT_SECRET.getBytes(StandardCharsets.UTF_8));
+        Date expiresAt = new Date(System.currentTimeMillis() + 24L * 3600 * 1000);
+
+        List<LoadDriver.LoadUser> users = new ArrayList<>(options.users());
+        List<Object[]> wallets = new ArrayList<>();
+        long walletId = FIRST_WALLET;
+        for (int u = 0; u < options.users(); u++) {
+            long userId = FIRST_USER + u;
+            long[] walletIds = new long[options.walletsPerUser()];
+            for (int w = 0; w < walletIds.length; w++) {
+                walletIds[w] = walletId;
+                wallets.add(new Object[]{walletId, "load-" + walletId, options.initialBalance(), userId});
+                walletId++;
+            }
+            String token = Jwts.builder()
+                    .setSubject("load-user-" + userId)
+                    .claim("userId", userId)
+                    .claim("role", "USER")
+                    .setIssuedAt(new Date())
+                    .setExpiration(expiresAt)
+                    .signWith(key, SignatureAlgorithm.HS256)
+                    .compact();
+            users.add(new LoadDriver.LoadUser(userId, token, walletIds));
+        }
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO wallets (id, wallet_name, balance, blacklisted, user_id, version) VALUES (?, ?, ?, FALSE, ?, 0)",
+                wallets);
+        return users;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.loadtest;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command-line options, all {@code --key=value}; anything omitted keeps its default.
+ */
+public record LoadTestOptions(
+        int users,
+        int walletsPerUser,
+        long initialBalance,
+        long maxAmountCents,
+        int concurrency,
+        int warmupSeconds,
+        int durationSeconds,
+        Map<Operation, Integer> mix,
+        long seed,
+        boolean rateLimit,
+        Path output
+) {
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("users", "1000")),
+                Integer.parseInt(values.getOrDefault("wallets-per-user", "1")),
+                Long.parseLong(values.getOrDefault("initial-balance", "5000")),
+                Long.parseLong(values.getOrDefault("max-amount-cents", "10000")),
+                Integer.parseInt(values.getOrDefault("concurrency", "64")),
+                Integer.parseInt(values.getOrDefault("warmup-seconds", "10")),
+                Integer.parseInt(values.getOrDefault("duration-seconds", "30")),
+                parseMix(values.getOrDefault("mix", "credit:35,debit:35,transfer:20,history:10")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Boolean.parseBoolean(values.getOrDefault("rate-limit", "false")),
+                Path.of(values.getOrDefault("output", "build/results/loadtest/report.json"))
+        );
+        if (options.users() < 2 || options.walletsPerUser() < 1 || options.concurrency() < 1 || options.durationSeconds() < 1) {
+            throw new IllegalArgumentException("Need at least 2 users, 1 wallet per user, 1 worker and 1 second");
+        }
+        return options;
+    }
+
+    //  "credit:40,debit:30,transfer:20,history:10" -> relative weights
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] kv = part.split(":");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Bad --mix entry: " + part);
+            }
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.fromKey(kv[0]), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("--mix has no operation with a positive weight");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.loadtest;
+
+import java.util.Locale;
+
+/** Request kinds the driver can mix; names as used in {@code --mix}. */
+public enum Operation {
+    CREDIT, DEBIT, TRANSFER, HISTORY;
+
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static Operation fromKey(String key) {
+        return valueOf(key.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counts for one operation. Outcomes are "OK" or the errorCode the
+ * service answered with (the WalletOperationResult failure code, e.g. CONFLICT).
+ */
+final class OperationStats {
+
+    static final String OK = "OK";
+    static final String CONFLICT = "CONFLICT";
+
+    //  Microseconds, up to one minute, 3 significant digits
+    private final Histogram latencyMicros = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+    private final ConcurrentHashMap<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+    void record(long elapsedNanos, String outcome) {
+        latencyMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), latencyMicros.getHighestTrackableValue()));
+        outcomes.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+    }
+
+    long requests() {
+        return latencyMicros.getTotalCount();
+    }
+
+    long count(String outcome) {
+        LongAdder adder = outcomes.get(outcome);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    Histogram latency() {
+        return latencyMicros;
+    }
+
+    Map<String, Long> outcomes() {
+        Map<String, Long> counts = new TreeMap<>();
+        outcomes.forEach((code, adder) -> counts.put(code, adder.sum()));
+        return counts;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * Answers the user-service endpoints wallet-service calls, for every user id: nobody is
+ * blacklisted and every user exists. Keeps the load on wallet-service alone.
+ */
+public final class UserServiceStandIn implements AutoCloseable {
+
+    private final HttpServer server;
+
+    private UserServiceStandIn(HttpServer server) {
+        this.server = server;
+    }
+
+    public static UserServiceStandIn start() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/internal/users/", exchange -> respond(exchange, "{\"blacklisted\":false}"));
+        server.createContext("/api/users/", exchange -> {
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            String id = path.length > 3 ? path[3] : "0";
+            respond(exchange, "{\"id\":" + id + ",\"username\":\"load-user-" + id + "\",\"role\":\"USER\"}");
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        return new UserServiceStandIn(server);
+    }
+
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.user_service.config.loggingConfig;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one in {@code every} events at or below {@code level} from loggers under
+ * {@code loggerName}; events above the level always pass. Runs as a turbo filter, so dropped
+ * events are discarded before their message is formatted or queued.
+ * <p>
+ * Configured from logback-prod.xml, one instance per sampled logger:
+ * <pre>{@code
+ * <turboFilter class="...SamplingTurboFilter">
+ *     <loggerName>com.example.user_service.controller.userController.UserController</loggerName>
+ *     <level>INFO</level>
+ *     <every>100</every>
+ * </turboFilter>
+ * }</pre>
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final AtomicLong counter = new AtomicLong();
+
+    private String loggerName;
+    private Level level = Level.INFO;
+    private int every = 1;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level eventLevel, String format, Object[] params, Throwable t) {
+        //  A null format is an isXxxEnabled() check, not an event; leave it to the level settings
+        if (!isStarted() || format == null || eventLevel.toInt() > level.toInt()) {
+            return FilterReply.NEUTRAL;
+        }
+        if (!matches(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        return counter.getAndIncrement() % every == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean matches(String name) {
+        return name.startsWith(loggerName)
+                && (name.length() == loggerName.length() || name.charAt(loggerName.length()) == '.');
+    }
+
+    @Override
+    public void start() {
+        if (loggerName == null || loggerName.isBlank()) {
+            addError("No loggerName set for SamplingTurboFilter " + getName());
+            return;
+        }
+        if (every < 1) {
+            addError("every must be at least 1, was " + every);
+            return;
+        }
+        super.start();
+    }
+
+    public void setLoggerName(String loggerName) { this.loggerName = loggerName; }
+    public void setLevel(String level) { this.level = Level.toLevel(level, Level.INFO); }
+    public void setEvery(int every) { this.every = every; }
+}
@@ -0,0 +1,55 @@
+package com.example.user_service.config.loginAttemptConfig;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LoginAttemptConfig {
+
+    @Value("${login-throttle.enabled:true}")
+    private boolean enabled;
+
+    @Value("${login-throttle.window-seconds}")
+    private long windowSeconds;
+
+    @Value("${login-throttle.username.delay-after}")
+    private int usernameDelayAfter;
+
+    @Value("${login-throttle.username.lockout-after}")
+    private int usernameLockoutAfter;
+
+    @Value("${login-throttle.ip.delay-after}")
+    private int ipDelayAfter;
+
+    @Value("${login-throttle.ip.lockout-after}")
+    private int ipLockoutAfter;
+
+    @Value("${login-throttle.base-delay-ms}")
+    private long baseDelayMs;
+
+    @Value("${login-throttle.max-delay-ms}")
+    private long maxDelayMs;
+
+    @Value("${login-throttle.lockout-seconds}")
+    private long lockoutSeconds;
+
+    @Value("${login-throttle.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${login-throttle.trust-forwarded-for:${rate-limit.trust-forwarded-for:false}}")
+    private boolean trustForwardedFor;
+
+    public boolean isEnabled() { return enabled; }
+    public long getWindowMillis() { return windowSeconds * 1000; }
+
+    public int getUsernameDelayAfter() { return usernameDelayAfter; }
+    public int getUsernameLockoutAfter() { return usernameLockoutAfter; }
+    public int getIpDelayAfter() { return ipDelayAfter; }
+    public int getIpLockoutAfter() { return ipLockoutAfter; }
+
+    public long getBaseDelayMs() { return baseDelayMs; }
+    public long getMaxDelayMs() { return maxDelayMs; }
+    public long getLockoutMillis() { return lockoutSeconds * 1000; }
+    public int getMaxEntries() { return maxEntries; }
+    public boolean isTrustForwardedFor() { return trustForwardedFor; }
+}
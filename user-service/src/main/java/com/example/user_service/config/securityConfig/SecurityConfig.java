@@ -57,6 +57,7 @@ package com.example.user_service.config.securityConfig;
 import com.example.user_service.security.CustomAccessDeniedHandler;
 import com.example.user_service.security.CustomAuthEntryPoint;
 import com.example.user_service.security.JwtAuthFilter;
+import com.example.user_service.security.RateLimitFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -73,13 +74,16 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
     private final CustomAccessDeniedHandler accessDeniedHandler;
     private final CustomAuthEntryPoint authEntryPoint;
 
     public SecurityConfig(JwtAuthFilter jwtAuthFilter,
+                          RateLimitFilter rateLimitFilter,
                           CustomAccessDeniedHandler accessDeniedHandler,
                           CustomAuthEntryPoint authEntryPoint) {
         this.jwtAuthFilter = jwtAuthFilter;
+        this.rateLimitFilter = rateLimitFilter;
         this.accessDeniedHandler = accessDeniedHandler;
         this.authEntryPoint = authEntryPoint;
     }
@@ -102,6 +106,8 @@ public class SecurityConfig {
                         ).permitAll()
                         .requestMatchers("/api/users/**").authenticated()
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        //  Runtime log level changes; JFR stats name internal frames
+                        .requestMatchers("/actuator/loggers/**", "/actuator/jfrstats").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 //  Attach custom handlers
@@ -110,6 +116,8 @@ public class SecurityConfig {
                         .authenticationEntryPoint(authEntryPoint)
                 )
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                //  Throttle after authentication so buckets are keyed by user id
+                .addFilterAfter(rateLimitFilter, JwtAuthFilter.class)
                 .httpBasic(httpBasic -> {});
 
         return http.build();
@@ -1,6 +1,7 @@
 package com.example.user_service.controller.publicController;
 
 import com.example.user_service.dto.LoginRequestDTO;
+import com.example.user_service.dto.RefreshTokenRequestDTO;
 import com.example.user_service.dto.UserDTO;
 import com.example.user_service.dto.UserDetailsDTO;
 import com.example.user_service.service.UserService;
@@ -26,6 +27,11 @@ public class AuthController {
         return userService.loginUser(loginDTO); //  no wrapping
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshTokenRequestDTO refreshDTO) {
+        return userService.refreshAccessToken(refreshDTO); //  no wrapping
+    }
+
     @PostMapping("/register")
     public ResponseEntity<?> register(@Valid @RequestBody UserDTO userDTO) {
         return userService.registerUser(userDTO); //  no wrapping
@@ -0,0 +1,19 @@
+package com.example.user_service.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class RefreshTokenRequestDTO {
+
+    @NotBlank(message = "refreshToken is required")
+    private String refreshToken;
+
+    public RefreshTokenRequestDTO() {}
+
+    public RefreshTokenRequestDTO(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    // getters & setters
+    public String getRefreshToken() { return refreshToken; }
+    public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+}
@@ -0,0 +1,20 @@
+package com.example.user_service.exception;
+
+public class LoginThrottledException extends RuntimeException {
+    private final String errorCode;
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String errorCode, String message, long retryAfterSeconds) {
+        super(message);
+        this.errorCode = errorCode;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getErrorCode() {
+        return errorCode;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.user_service.model;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "login_attempts")
+public class LoginAttempt {
+
+    //  "u:<username>" or "ip:<address>"
+    @Id
+    @Column(name = "attempt_key", length = 160)
+    private String attemptKey;
+
+    @Column(name = "window_start", nullable = false)
+    private long windowStart;
+
+    @Column(name = "previous_count", nullable = false)
+    private int previousCount;
+
+    @Column(name = "current_count", nullable = false)
+    private int currentCount;
+
+    @Column(name = "blocked_until", nullable = false)
+    private long blockedUntil;
+
+    @Column(nullable = false)
+    private boolean locked;
+
+    public LoginAttempt() {}
+
+    public LoginAttempt(String attemptKey) {
+        this.attemptKey = attemptKey;
+    }
+
+    public String getAttemptKey() { return attemptKey; }
+    public void setAttemptKey(String attemptKey) { this.attemptKey = attemptKey; }
+
+    public long getWindowStart() { return windowStart; }
+    public void setWindowStart(long windowStart) { this.windowStart = windowStart; }
+
+    public int getPreviousCount() { return previousCount; }
+    public void setPreviousCount(int previousCount) { this.previousCount = previousCount; }
+
+    public int getCurrentCount() { return currentCount; }
+    public void setCurrentCount(int currentCount) { this.currentCount = currentCount; }
+
+    public long getBlockedUntil() { return blockedUntil; }
+    public void setBlockedUntil(long blockedUntil) { this.blockedUntil = blockedUntil; }
+
+    public boolean isLocked() { return locked; }
+    public void setLocked(boolean locked) { this.locked = locked; }
+}
@@ -0,0 +1,23 @@
+package com.example.user_service.repository;
+
+import com.example.user_service.model.LoginAttempt;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface LoginAttemptRepository extends JpaRepository<LoginAttempt, String> {
+
+    //  Row lock so concurrent failures on different instances don't lose increments
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM LoginAttempt a WHERE a.attemptKey = :key")
+    Optional<LoginAttempt> findForUpdate(@Param("key") String key);
+
+    @Modifying
+    @Query("DELETE FROM LoginAttempt a WHERE a.windowStart < :windowCutoff AND a.blockedUntil <= :now")
+    int deleteStale(@Param("windowCutoff") long windowCutoff, @Param("now") long now);
+}
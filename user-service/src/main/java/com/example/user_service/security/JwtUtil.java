@@ -42,6 +42,10 @@ public class JwtUtil {
                 .compact();
     }
 
+    public long getExpirationTime() {
+        return expirationTime;
+    }
+
     // ====================================================
     // 🔹 Extract Claims
     // ====================================================
@@ -0,0 +1,138 @@
+package com.example.user_service.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token buckets kept in a fixed number of independent stripes.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding its "theoretical arrival time" (GCRA), so
+ * taking a token is one CAS and no refill thread is needed. A bucket whose arrival time is in the
+ * past is full again and carries no state, which is what makes it safe to evict.
+ * <p>
+ * Memory is bounded: every stripe holds at most {@code maxBuckets / stripes} buckets. Idle (full)
+ * buckets are swept from a stripe at most once per {@code sweepIntervalNanos}, and when a stripe is
+ * still at capacity the bucket closest to full is dropped to make room.
+ */
+public final class TokenBucketLimiter {
+
+    public record Limit(long capacity, double refillPerSecond) {
+
+        long intervalNanos() {
+            return (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+        }
+
+        long burstNanos() {
+            return intervalNanos() * capacity;
+        }
+    }
+
+    public record Decision(boolean allowed, long limit, long remaining, long resetSeconds, long retryAfterSeconds) {}
+
+    private static final class Stripe {
+        final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        final AtomicLong lastSweep;
+
+        Stripe(long now) {
+            this.lastSweep = new AtomicLong(now);
+        }
+    }
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final int maxPerStripe;
+    private final long sweepIntervalNanos;
+    private final LongSupplier clock;
+
+    public TokenBucketLimiter(int maxBuckets, int stripeCount, long sweepIntervalNanos, LongSupplier clock) {
+        int n = 1;
+        while (n < stripeCount) {
+            n <<= 1;
+        }
+        long now = clock.getAsLong();
+        this.stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new Stripe(now);
+        }
+        this.mask = n - 1;
+        this.maxPerStripe = Math.max(1, maxBuckets / n);
+        this.sweepIntervalNanos = sweepIntervalNanos;
+        this.clock = clock;
+    }
+
+    public Decision tryAcquire(String key, Limit limit) {
+        Stripe stripe = stripeFor(key);
+        long now = clock.getAsLong();
+
+        AtomicLong bucket = stripe.buckets.get(key);
+        if (bucket == null) {
+            makeRoom(stripe, now);
+            bucket = stripe.buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        long interval = limit.intervalNanos();
+        long burst = limit.burstNanos();
+
+        while (true) {
+            long tat = bucket.get();
+            long newTat = Math.max(tat, now) + interval;
+            long debt = newTat - now;
+
+            if (debt > burst) {
+                long retryAfter = debt - burst;
+                return new Decision(false, limit.capacity(), 0,
+                        toSeconds(Math.max(tat, now) - now), toSeconds(retryAfter));
+            }
+            if (bucket.compareAndSet(tat, newTat)) {
+                long remaining = (burst - debt) / interval;
+                return new Decision(true, limit.capacity(), remaining, toSeconds(debt), 0);
+            }
+        }
+    }
+
+    public int size() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            total += stripe.buckets.size();
+        }
+        return total;
+    }
+
+    private Stripe stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    private void makeRoom(Stripe stripe, long now) {
+        long lastSweep = stripe.lastSweep.get();
+        boolean sweepDue = now - lastSweep >= sweepIntervalNanos && stripe.lastSweep.compareAndSet(lastSweep, now);
+
+        if (sweepDue || stripe.buckets.size() >= maxPerStripe) {
+            stripe.buckets.values().removeIf(bucket -> bucket.get() <= now);
+        }
+
+        // Still full of active clients: drop the one with the least outstanding debt.
+        while (stripe.buckets.size() >= maxPerStripe) {
+            String victim = null;
+            long lowest = Long.MAX_VALUE;
+            for (Map.Entry<String, AtomicLong> entry : stripe.buckets.entrySet()) {
+                long tat = entry.getValue().get();
+                if (tat < lowest) {
+                    lowest = tat;
+                    victim = entry.getKey();
+                }
+            }
+            if (victim == null) {
+                return;
+            }
+            stripe.buckets.remove(victim);
+        }
+    }
+
+    private static long toSeconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+}
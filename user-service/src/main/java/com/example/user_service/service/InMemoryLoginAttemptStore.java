@@ -0,0 +1,52 @@
+package com.example.user_service.service;
+
+import com.example.user_service.config.loginAttemptConfig.LoginAttemptConfig;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+@Component
+@ConditionalOnProperty(name = "login-throttle.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryLoginAttemptStore implements LoginAttemptStore {
+
+    private final ConcurrentHashMap<String, LoginAttemptWindow> windows = new ConcurrentHashMap<>();
+    private final LoginAttemptConfig config;
+
+    public InMemoryLoginAttemptStore(LoginAttemptConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public LoginAttemptWindow find(String key) {
+        return windows.get(key);
+    }
+
+    @Override
+    public LoginAttemptWindow update(String key, long now, UnaryOperator<LoginAttemptWindow> updater) {
+        if (windows.size() >= config.getMaxEntries() && !windows.containsKey(key)) {
+            evict(now);
+        }
+        return windows.compute(key, (k, current) -> updater.apply(current));
+    }
+
+    @Override
+    public void clear(String key) {
+        windows.remove(key);
+    }
+
+    public int size() {
+        return windows.size();
+    }
+
+    private void evict(long now) {
+        long windowMillis = config.getWindowMillis();
+        windows.values().removeIf(w -> w.isStale(now, windowMillis));
+
+        //  Still full: drop keys that are not currently blocked, so lockouts survive a flood
+        if (windows.size() >= config.getMaxEntries()) {
+            windows.values().removeIf(w -> !w.isBlocked(now));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.user_service.service;
+
+import com.example.user_service.config.loginAttemptConfig.LoginAttemptConfig;
+import com.example.user_service.model.LoginAttempt;
+import com.example.user_service.repository.LoginAttemptRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+@Component
+@ConditionalOnProperty(name = "login-throttle.store", havingValue = "jdbc")
+public class JpaLoginAttemptStore implements LoginAttemptStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JpaLoginAttemptStore.class);
+
+    private static final int PURGE_EVERY = 1000;
+
+    private final LoginAttemptRepository loginAttemptRepository;
+    private final LoginAttemptConfig config;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicInteger updatesSincePurge = new AtomicInteger();
+
+    public JpaLoginAttemptStore(LoginAttemptRepository loginAttemptRepository,
+                                LoginAttemptConfig config,
+                                PlatformTransactionManager transactionManager) {
+        this.loginAttemptRepository = loginAttemptRepository;
+        this.config = config;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public LoginAttemptWindow find(String key) {
+        return loginAttemptRepository.findById(key).map(JpaLoginAttemptStore::toWindow).orElse(null);
+    }
+
+    @Override
+    public LoginAttemptWindow update(String key, long now, UnaryOperator<LoginAttemptWindow> updater) {
+        purgeOccasionally(now);
+        try {
+            return transactionTemplate.execute(status -> apply(key, updater));
+        } catch (DataIntegrityViolationException ex) {
+            //  Another instance inserted the row first; retry against the locked row
+            logger.debug("Concurrent insert of login attempt row {}, retrying", key);
+            return transactionTemplate.execute(status -> apply(key, updater));
+        }
+    }
+
+    @Override
+    public void clear(String key) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (loginAttemptRepository.existsById(key)) {
+                loginAttemptRepository.deleteById(key);
+            }
+        });
+    }
+
+    private LoginAttemptWindow apply(String key, UnaryOperator<LoginAttemptWindow> updater) {
+        LoginAttempt row = loginAttemptRepository.findForUpdate(key).orElse(null);
+        LoginAttemptWindow updated = updater.apply(row == null ? null : toWindow(row));
+
+        if (row == null) {
+            row = new LoginAttempt(key);
+        }
+        row.setWindowStart(updated.windowStart());
+        row.setPreviousCount(updated.previous());
+        row.setCurrentCount(updated.current());
+        row.setBlockedUntil(updated.blockedUntil());
+        row.setLocked(updated.locked());
+        loginAttemptRepository.saveAndFlush(row);
+        return updated;
+    }
+
+    private void purgeOccasionally(long now) {
+        if (updatesSincePurge.incrementAndGet() < PURGE_EVERY) {
+            return;
+        }
+        updatesSincePurge.set(0);
+        long cutoff = now - 2 * config.getWindowMillis();
+        Integer purged = transactionTemplate.execute(status -> loginAttemptRepository.deleteStale(cutoff, now));
+        logger.debug("Purged {} stale login attempt rows", purged);
+    }
+
+    private static LoginAttemptWindow toWindow(LoginAttempt row) {
+        return new LoginAttemptWindow(
+                row.getWindowStart(),
+                row.getPreviousCount(),
+                row.getCurrentCount(),
+                row.getBlockedUntil(),
+                row.isLocked()
+        );
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.user_service.service;
+
+import com.example.user_service.config.loginAttemptConfig.LoginAttemptConfig;
+import com.example.user_service.exception.LoginThrottledException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Brute-force protection for {@code /api/auth/login}.
+ * <p>
+ * Failed attempts are counted per username and per client IP. Past {@code delay-after} failures a
+ * key must wait an exponentially growing delay before its next attempt; past {@code lockout-after}
+ * it is locked for {@code lockout-seconds}. Blocked attempts are rejected by
+ * {@link #checkAllowed} before any BCrypt work is done, and the caller is told when to retry
+ * instead of having a request thread parked on a sleep.
+ */
+@Service
+public class LoginAttemptService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginAttemptService.class);
+
+    private record Policy(int delayAfter, int lockoutAfter) {}
+
+    private final LoginAttemptStore store;
+    private final LoginAttemptConfig config;
+    private final LongSupplier clock;
+
+    @Autowired
+    public LoginAttemptService(LoginAttemptStore store, LoginAttemptConfig config) {
+        this(store, config, System::currentTimeMillis);
+    }
+
+    LoginAttemptService(LoginAttemptStore store, LoginAttemptConfig config, LongSupplier clock) {
+        this.store = store;
+        this.config = config;
+        this.clock = clock;
+    }
+
+    // ====================================================
+    // 🔹 Gate: called before authenticationManager.authenticate
+    // ====================================================
+    public void checkAllowed(String username, String clientIp) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        long now = clock.getAsLong();
+        checkUsername(usernameKey(username), now);
+        checkIp(ipKey(clientIp), now);
+    }
+
+    public void recordFailure(String username, String clientIp) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        long now = clock.getAsLong();
+        fail(usernameKey(username), now, new Policy(config.getUsernameDelayAfter(), config.getUsernameLockoutAfter()));
+        fail(ipKey(clientIp), now, new Policy(config.getIpDelayAfter(), config.getIpLockoutAfter()));
+    }
+
+    //  Only the username is reset: one valid login must not clear a stuffing IP's record
+    public void recordSuccess(String username) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        store.clear(usernameKey(username));
+    }
+
+    public String currentClientIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return "unknown";
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        if (config.isTrustForwardedFor()) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                int comma = forwarded.indexOf(',');
+                return (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void checkUsername(String key, long now) {
+        LoginAttemptWindow window = blocking(key, now);
+        if (window == null) {
+            return;
+        }
+        long retryAfter = retryAfterSeconds(window, now);
+        if (window.locked()) {
+            throw new LoginThrottledException("ACCOUNT_LOCKED",
+                    "Too many failed login attempts. Try again in " + retryAfter + " seconds.", retryAfter);
+        }
+        throw new LoginThrottledException("LOGIN_THROTTLED",
+                "Login attempts are being throttled. Try again in " + retryAfter + " seconds.", retryAfter);
+    }
+
+    //  The block is on the caller's address, not on any account, so it gets its own code
+    private void checkIp(String key, long now) {
+        LoginAttemptWindow window = blocking(key, now);
+        if (window == null) {
+            return;
+        }
+        long retryAfter = retryAfterSeconds(window, now);
+        throw new LoginThrottledException("IP_THROTTLED",
+                "Too many failed login attempts from this address. Try again in " + retryAfter + " seconds.", retryAfter);
+    }
+
+    private LoginAttemptWindow blocking(String key, long now) {
+        LoginAttemptWindow window = store.find(key);
+        return window != null && window.isBlocked(now) ? window : null;
+    }
+
+    private static long retryAfterSeconds(LoginAttemptWindow window, long now) {
+        return (window.blockedUntil() - now + 999) / 1000;
+    }
+
+    private void fail(String key, long now, Policy policy) {
+        long windowMillis = config.getWindowMillis();
+
+        LoginAttemptWindow updated = store.update(key, now, current -> {
+            LoginAttemptWindow window = (current == null ? LoginAttemptWindow.empty(now, windowMillis) : current)
+                    .roll(now, windowMillis)
+                    .withFailure();
+
+            double failures = window.estimate(now, windowMillis);
+            if (failures >= policy.lockoutAfter()) {
+                return window.blockUntil(now + config.getLockoutMillis(), true);
+            }
+            if (failures >= policy.delayAfter()) {
+                int steps = Math.min(30, (int) (failures - policy.delayAfter()));
+                long delay = Math.min(config.getMaxDelayMs(), config.getBaseDelayMs() << steps);
+                return window.blockUntil(now + delay, false);
+            }
+            return window;
+        });
+
+        if (updated.locked() && updated.isBlocked(now)) {
+            logger.warn("Login locked for {} until {}", key, updated.blockedUntil());
+        }
+    }
+
+    private static String usernameKey(String username) {
+        return "u:" + (username == null ? "" : username.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private static String ipKey(String clientIp) {
+        return "ip:" + clientIp;
+    }
+}
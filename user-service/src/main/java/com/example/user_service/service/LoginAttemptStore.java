@@ -0,0 +1,18 @@
+package com.example.user_service.service;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Storage for {@link LoginAttemptWindow}s. The in-memory store is the default; the JPA store
+ * ({@code login-throttle.store=jdbc}) shares counters between instances.
+ */
+public interface LoginAttemptStore {
+
+    /** Returns the current window for {@code key}, or {@code null} if nothing is tracked. */
+    LoginAttemptWindow find(String key);
+
+    /** Atomically replaces the window for {@code key}; the updater receives {@code null} if absent. */
+    LoginAttemptWindow update(String key, long now, UnaryOperator<LoginAttemptWindow> updater);
+
+    void clear(String key);
+}
@@ -0,0 +1,45 @@
+package com.example.user_service.service;
+
+/**
+ * Failed-login counters for one key (username or client IP) using a sliding-window counter:
+ * the previous fixed window is weighted by how much of it still overlaps the sliding window.
+ * <p>
+ * Times are epoch millis. {@code blockedUntil} is either a progressive "not before" delay or,
+ * when {@code locked} is set, a temporary lockout.
+ */
+public record LoginAttemptWindow(long windowStart, int previous, int current, long blockedUntil, boolean locked) {
+
+    public static LoginAttemptWindow empty(long now, long windowMillis) {
+        return new LoginAttemptWindow(now - (now % windowMillis), 0, 0, 0, false);
+    }
+
+    public LoginAttemptWindow roll(long now, long windowMillis) {
+        long start = now - (now % windowMillis);
+        if (start == windowStart) {
+            return this;
+        }
+        int carried = start - windowStart == windowMillis ? current : 0;
+        return new LoginAttemptWindow(start, carried, 0, blockedUntil, locked);
+    }
+
+    public LoginAttemptWindow withFailure() {
+        return new LoginAttemptWindow(windowStart, previous, current + 1, blockedUntil, locked);
+    }
+
+    public LoginAttemptWindow blockUntil(long until, boolean lockout) {
+        return new LoginAttemptWindow(windowStart, previous, current, Math.max(blockedUntil, until), lockout);
+    }
+
+    public double estimate(long now, long windowMillis) {
+        double overlap = 1.0 - (double) (now - windowStart) / windowMillis;
+        return previous * Math.max(0.0, overlap) + current;
+    }
+
+    public boolean isBlocked(long now) {
+        return blockedUntil > now;
+    }
+
+    public boolean isStale(long now, long windowMillis) {
+        return !isBlocked(now) && now - windowStart >= 2 * windowMillis;
+    }
+}
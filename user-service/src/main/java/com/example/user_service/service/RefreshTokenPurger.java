@@ -0,0 +1,70 @@
+package com.example.user_service.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes expired refresh tokens every {@code jwt.refresh-purge-interval-seconds}; every login
+ * and refresh adds a row, so without this {@code refresh_tokens} only grows.
+ * <p>
+ * Revoked tokens are kept until they expire: a revoked token presented again is how
+ * {@link RefreshTokenService#rotate} detects theft, and after expiry it is rejected anyway.
+ */
+@Component
+public class RefreshTokenPurger {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenPurger.class);
+
+    private final RefreshTokenService refreshTokenService;
+    private final long intervalSeconds;
+
+    private ScheduledExecutorService scheduler;
+
+    public RefreshTokenPurger(RefreshTokenService refreshTokenService,
+                              @Value("${jwt.refresh-purge-interval-seconds:3600}") long intervalSeconds) {
+        this.refreshTokenService = refreshTokenService;
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    @PostConstruct
+    void start() {
+        //  0 turns the purge off, e.g. when a database job already does it
+        if (intervalSeconds <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "refresh-token-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::purge, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    //  Package-private so tests can run a purge without waiting on the scheduler
+    void purge() {
+        try {
+            int purged = refreshTokenService.purgeExpired();
+            if (purged > 0) {
+                logger.info("Purged {} expired refresh token(s)", purged);
+            }
+        } catch (RuntimeException e) {
+            //  A failed run must not cancel the schedule; the next one catches up
+            logger.warn("Refresh token purge failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.user_service.service;
+
+import com.example.user_service.exception.JwtValidationException;
+import com.example.user_service.model.RefreshToken;
+import com.example.user_service.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Issues and rotates opaque refresh tokens.
+ * <p>
+ * Refresh tokens are 256-bit random values, so a single SHA-256 is enough to store them safely
+ * and a refresh costs one indexed lookup instead of a BCrypt compare. Every refresh revokes the
+ * presented token and issues a new one; presenting an already revoked token is treated as theft
+ * and revokes every active token of that user.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final long refreshExpirationTime;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${jwt.refresh-expiration}") long refreshExpirationTime) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshExpirationTime = refreshExpirationTime;
+    }
+
+    public record Rotation(Long userId, String refreshToken) {}
+
+    // ====================================================
+    // 🔹 Issue a new refresh token (login)
+    // ====================================================
+    @Transactional
+    public String issue(Long userId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        refreshTokenRepository.save(new RefreshToken(
+                userId,
+                hash(rawToken),
+                now,
+                now.plusNanos(refreshExpirationTime * 1_000_000L)
+        ));
+        return rawToken;
+    }
+
+    // ====================================================
+    // 🔹 Rotate: validate + revoke presented token, issue a new one
+    // ====================================================
+    @Transactional(noRollbackFor = JwtValidationException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new JwtValidationException("REFRESH_TOKEN_INVALID", "Refresh token is invalid"));
+
+        if (stored.isRevoked() || refreshTokenRepository.revokeIfActive(stored.getId()) == 0) {
+            logger.warn("Revoked refresh token reused for user {} - revoking all sessions", stored.getUserId());
+            refreshTokenRepository.revokeAllForUser(stored.getUserId());
+            throw new JwtValidationException("REFRESH_TOKEN_REUSED", "Refresh token has already been used");
+        }
+
+        if (stored.getExpiresAt().isBefore(LocalDateTime.now(ZoneOffset.UTC))) {
+            throw new JwtValidationException("REFRESH_TOKEN_EXPIRED", "Refresh token has expired");
+        }
+
+        return new Rotation(stored.getUserId(), issue(stored.getUserId()));
+    }
+
+    @Transactional
+    public void revokeAll(Long userId) {
+        int revoked = refreshTokenRepository.revokeAllForUser(userId);
+        logger.info("Revoked {} refresh token(s) for user {}", revoked, userId);
+    }
+
+    @Transactional
+    public int purgeExpired() {
+        return refreshTokenRepository.deleteExpired(LocalDateTime.now(ZoneOffset.UTC));
+    }
+
+    static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
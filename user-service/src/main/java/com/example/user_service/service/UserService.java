@@ -1,6 +1,7 @@
 package com.example.user_service.service;
 
 import com.example.user_service.dto.LoginRequestDTO;
+import com.example.user_service.dto.RefreshTokenRequestDTO;
 import com.example.user_service.dto.UserDTO;
 import com.example.user_service.dto.UserSummaryDTO;
 import org.springframework.http.ResponseEntity;
@@ -8,5 +9,6 @@ import org.springframework.http.ResponseEntity;
 public interface UserService {
     ResponseEntity<?> registerUser(UserDTO userDTO);
     ResponseEntity<?> loginUser(LoginRequestDTO loginRequestDTO);
+    ResponseEntity<?> refreshAccessToken(RefreshTokenRequestDTO refreshTokenRequestDTO);
     UserSummaryDTO getUserById(Long id);
 }
@@ -35,17 +35,23 @@ public class UserServiceImpl implements UserService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final RefreshTokenService refreshTokenService;
+    private final LoginAttemptService loginAttemptService;
 
     public UserServiceImpl(UserRepository userRepository,
                            WalletClient walletClient,
                            PasswordEncoder passwordEncoder,
                            JwtUtil jwtUtil,
-                           AuthenticationManager authenticationManager) {
+                           AuthenticationManager authenticationManager,
+                           RefreshTokenService refreshTokenService,
+                           LoginAttemptService loginAttemptService) {
         this.userRepository = userRepository;
         this.walletClient = walletClient;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
         this.authenticationManager = authenticationManager;
+        this.refreshTokenService = refreshTokenService;
+        this.loginAttemptService = loginAttemptService;
     }
 
     @Override
@@ -97,11 +103,16 @@ public class UserServiceImpl implements UserService {
     @Override
     public ResponseEntity<?> loginUser(LoginRequestDTO loginDTO) {
         logger.info("Login attempt by '{}'", loginDTO.getUsername());
+        String clientIp = loginAttemptService.currentClientIp();
+
+        //  Reject throttled / locked callers before paying for a BCrypt compare
+        loginAttemptService.checkAllowed(loginDTO.getUsername(), clientIp);
         try {
             authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(loginDTO.getUsername(), loginDTO.getPassword())
             );
         } catch (BadCredentialsException ex) {
+            loginAttemptService.recordFailure(loginDTO.getUsername(), clientIp);
             throw new InvalidCredentialsException("Incorrect username or password");
         } catch (Exception ex) {
             throw new RuntimeException("Login failed due to internal error", ex);
@@ -109,6 +120,7 @@ public class UserServiceImpl implements UserService {
 
         User existingUser = userRepository.findByUsername(loginDTO.getUsername())
                 .orElseThrow(() -> new UserNotFoundException("User not found: " + loginDTO.getUsername()));
+        loginAttemptService.recordSuccess(loginDTO.getUsername());
 
         //  Block login if blacklisted
         if (existingUser.isBlacklisted()) {
@@ -124,11 +136,50 @@ public class UserServiceImpl implements UserService {
                 existingUser.getUsername(),
                 existingUser.getRole()
         );
+        String refreshToken = refreshTokenService.issue(existingUser.getId());
 
         logger.info("User '{}' logged in successfully", existingUser.getUsername());
 
         return ResponseEntity.ok(Map.of(
                 "token", token,
+                "refreshToken", refreshToken,
+                "expiresIn", jwtUtil.getExpirationTime(),
+                "userId", existingUser.getId(),
+                "username", existingUser.getUsername(),
+                "role", existingUser.getRole()
+        ));
+    }
+
+
+    @Override
+    public ResponseEntity<?> refreshAccessToken(RefreshTokenRequestDTO refreshDTO) {
+        //  No password check here: the rotated refresh token is the credential
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshDTO.getRefreshToken());
+
+        User existingUser = userRepository.findById(rotation.userId())
+                .orElseThrow(() -> new UserNotFoundException("User not found with ID " + rotation.userId()));
+
+        if (existingUser.isBlacklisted()) {
+            logger.warn("Blocked token refresh by blacklisted user '{}'", existingUser.getUsername());
+            refreshTokenService.revokeAll(existingUser.getId());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                    "errorCode", "USER_BLACKLISTED",
+                    "message", "Your account has been blacklisted. Please contact support."
+            ));
+        }
+
+        String token = jwtUtil.generateToken(
+                existingUser.getId(),
+                existingUser.getUsername(),
+                existingUser.getRole()
+        );
+
+        logger.debug("Access token refreshed for user '{}'", existingUser.getUsername());
+
+        return ResponseEntity.ok(Map.of(
+                "token", token,
+                "refreshToken", rotation.refreshToken(),
+                "expiresIn", jwtUtil.getExpirationTime(),
                 "userId", existingUser.getId(),
                 "username", existingUser.getUsername(),
                 "role", existingUser.getRole()
@@ -1,15 +1,39 @@
 -- Drop and recreate the users table
 
+DROP TABLE IF EXISTS login_attempts;
+DROP TABLE IF EXISTS refresh_tokens;
 DROP TABLE IF EXISTS users;
 
 CREATE TABLE users (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     username VARCHAR(100) NOT NULL UNIQUE,
     password VARCHAR(255) NOT NULL,
-    role VARCHAR(100) NOT NULL DEFAULT "USER",
+    role VARCHAR(100) NOT NULL DEFAULT 'USER',
     blacklisted  BOOLEAN NOT NULL DEFAULT false
 );
 
+CREATE TABLE refresh_tokens (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    token_hash CHAR(64) NOT NULL UNIQUE,
+    expires_at TIMESTAMP(6) NOT NULL,
+    revoked BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_refresh_token_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_refresh_tokens_user ON refresh_tokens (user_id);
+
+-- Shared failed-login counters (only used with login-throttle.store=jdbc)
+CREATE TABLE login_attempts (
+    attempt_key VARCHAR(160) PRIMARY KEY,
+    window_start BIGINT NOT NULL,
+    previous_count INT NOT NULL,
+    current_count INT NOT NULL,
+    blocked_until BIGINT NOT NULL,
+    locked BOOLEAN NOT NULL DEFAULT FALSE
+);
+
 -- Insert sample users
 INSERT INTO users (username, password, role, blacklisted) VALUES ('shubham', '$2a$10$/d2ImF6VIzmfOGJksiE1YeZIzEPcdfchWVTGFaPK0mT7rZGCl1Xu.','USER', FALSE);
 INSERT INTO users (username, password, role, blacklisted) VALUES ('alice', '$2a$10$It9tKsnLnLxI8TuRFFLS7.3aqrTa7vCttkTMZLUv097TE6e5EXhqO', 'USER', FALSE);
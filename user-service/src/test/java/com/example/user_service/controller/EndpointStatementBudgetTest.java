@@ -0,0 +1,146 @@
+package com.example.user_service.controller;
+
+import com.example.user_service.client.WalletClient;
+import com.example.user_service.repository.CapturingStatementInspector;
+import com.example.user_service.security.JwtUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement budget of every UserController and AuthController endpoint, counted per HTTP
+ * call through {@link CapturingStatementInspector}. An extra query (N+1, a repeated findById)
+ * fails the build; a budget only goes down when a change removes statements.
+ * <p>
+ * Authenticated calls include the user lookup JwtAuthFilter does by username.
+ */
+@SpringBootTest(properties = {
+        "rate-limit.enabled=false",
+        "login-throttle.store=memory"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class EndpointStatementBudgetTest {
+
+    private static final String USERNAME = "budget-user";
+    private static final String PASSWORD = "budget-password";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private WalletClient walletClient;
+
+    private Long userId;
+    private String token;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("INSERT INTO users (username, password, role, blacklisted) VALUES (?, ?, 'USER', FALSE)",
+                USERNAME, passwordEncoder.encode(PASSWORD));
+        userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, USERNAME);
+        token = jwtUtil.generateToken(userId, USERNAME, "USER");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM refresh_tokens WHERE user_id IN (SELECT id FROM users WHERE username LIKE 'budget-%')");
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE 'budget-%'");
+    }
+
+    // ======================== UserController ========================
+
+    @Test
+    void getUserDetails() throws Exception {
+        assertBudget(2, authorized(get("/api/users/{id}/details", userId)), 200);
+    }
+
+    @Test
+    void getUserDetailsOfSomeoneElse() throws Exception {
+        assertBudget(1, authorized(get("/api/users/{id}/details", userId + 1)), 403);
+    }
+
+    @Test
+    void getUserById() throws Exception {
+        assertBudget(2, authorized(get("/api/users/{id}", userId)), 200);
+    }
+
+    // ======================== AuthController ========================
+
+    @Test
+    void register() throws Exception {
+        assertBudget(2, post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"budget-new\",\"password\":\"secret-password\"}"), 200);
+    }
+
+    @Test
+    void login() throws Exception {
+        assertBudget(3, loginRequest(), 200);
+    }
+
+    @Test
+    void refresh() throws Exception {
+        MvcResult loggedIn = mockMvc.perform(loginRequest()).andExpect(status().isOk()).andReturn();
+        JsonNode body = objectMapper.readTree(loggedIn.getResponse().getContentAsString());
+
+        assertBudget(4, post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"" + body.get("refreshToken").asText() + "\"}"), 200);
+    }
+
+    // ======================================================================
+    // Helpers
+    // ======================================================================
+
+    private void assertBudget(int budget, MockHttpServletRequestBuilder request, int expectedStatus) throws Exception {
+        CapturingStatementInspector.clear();
+        mockMvc.perform(request).andExpect(status().is(expectedStatus));
+
+        List<String> statements = CapturingStatementInspector.statements();
+        assertEquals(budget, statements.size(), () -> "statement budget changed; SQL sent:\n  " + String.join("\n  ", statements));
+    }
+
+    private MockHttpServletRequestBuilder loginRequest() {
+        return post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD + "\"}");
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+}
@@ -4,6 +4,9 @@ import com.example.user_service.exception.GlobalExceptionHandler;
 //import org.springframework.boot.test.mock.mockito.MockitoBean;
 
 import com.example.user_service.dto.LoginRequestDTO;
+import com.example.user_service.dto.RefreshTokenRequestDTO;
+import com.example.user_service.exception.JwtValidationException;
+import com.example.user_service.exception.LoginThrottledException;
 import com.example.user_service.dto.UserDTO;
 import com.example.user_service.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -17,12 +20,12 @@ import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfigurat
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
-import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.HashMap;
@@ -52,7 +55,7 @@ class AuthControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
-    @MockBean
+    @MockitoBean
     private UserService userService;
 
     @Autowired
@@ -180,5 +183,72 @@ class AuthControllerTest {
                     .andExpect(jsonPath("$.errorCode").value("AUTHENTICATION_ERROR"))
                     .andExpect(jsonPath("$.message").value("Login failed due to internal error"));
         }
+
+        @Test
+        @DisplayName("should return 429 with Retry-After when login is locked")
+        void login_locked() throws Exception {
+            LoginRequestDTO payload = new LoginRequestDTO();
+            payload.setUsername("shiv");
+            payload.setPassword("StrongPass123");
+
+            doThrow(new LoginThrottledException("ACCOUNT_LOCKED", "Too many failed login attempts", 900))
+                    .when(userService)
+                    .loginUser(any(LoginRequestDTO.class));
+
+            mockMvc.perform(post("/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(toJson(payload)))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string("Retry-After", "900"))
+                    .andExpect(jsonPath("$.errorCode").value("ACCOUNT_LOCKED"));
+        }
+    }
+
+    // ---------------- REFRESH TESTS ----------------
+    @Nested
+    @DisplayName("POST /api/auth/refresh")
+    class RefreshTests {
+
+        @Test
+        @DisplayName("should rotate refresh token and return new jwt (200 OK)")
+        void refresh_success() throws Exception {
+            Map<String, Object> responseMap = new HashMap<>();
+            responseMap.put("token", "new-jwt");
+            responseMap.put("refreshToken", "new-refresh");
+
+            doReturn(ResponseEntity.ok(responseMap))
+                    .when(userService)
+                    .refreshAccessToken(any(RefreshTokenRequestDTO.class));
+
+            mockMvc.perform(post("/api/auth/refresh")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(toJson(new RefreshTokenRequestDTO("old-refresh"))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.token").value("new-jwt"))
+                    .andExpect(jsonPath("$.refreshToken").value("new-refresh"));
+        }
+
+        @Test
+        @DisplayName("should fail validation when refresh token missing")
+        void refresh_missingToken() throws Exception {
+            mockMvc.perform(post("/api/auth/refresh")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{}"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("should return 401 for a reused refresh token")
+        void refresh_reusedToken() throws Exception {
+            doThrow(new JwtValidationException("REFRESH_TOKEN_REUSED", "Refresh token has already been used"))
+                    .when(userService)
+                    .refreshAccessToken(any(RefreshTokenRequestDTO.class));
+
+            mockMvc.perform(post("/api/auth/refresh")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(toJson(new RefreshTokenRequestDTO("old-refresh"))))
+                    .andExpect(status().isUnauthorized())
+                    .andExpect(jsonPath("$.errorCode").value("REFRESH_TOKEN_REUSED"));
+        }
     }
 }
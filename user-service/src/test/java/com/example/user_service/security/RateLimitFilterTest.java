@@ -0,0 +1,75 @@
+package com.example.user_service.security;
+
+import com.example.user_service.config.rateLimitConfig.RateLimitConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RateLimitFilterTest {
+
+    private RateLimitConfig config;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        config = mock(RateLimitConfig.class);
+        when(config.isEnabled()).thenReturn(true);
+        when(config.getMaxBuckets()).thenReturn(1000);
+        when(config.getStripes()).thenReturn(4);
+        when(config.getIdleSweepSeconds()).thenReturn(60L);
+        when(config.getMutationsCapacity()).thenReturn(10L);
+        when(config.getMutationsRefillPerSecond()).thenReturn(1.0);
+        when(config.getReadsCapacity()).thenReturn(10L);
+        when(config.getReadsRefillPerSecond()).thenReturn(1.0);
+        when(config.getAdminCapacity()).thenReturn(10L);
+        when(config.getAdminRefillPerSecond()).thenReturn(1.0);
+        when(config.getAuthCapacity()).thenReturn(2L);
+        when(config.getAuthRefillPerSecond()).thenReturn(0.01);
+        filter = new RateLimitFilter(config);
+    }
+
+    private MockHttpServletResponse login(String remoteAddr, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void testLoginThrottledPerClientIp() throws Exception {
+        assertEquals(200, login("10.0.0.1", null).getStatus());
+        assertEquals(200, login("10.0.0.1", null).getStatus());
+
+        MockHttpServletResponse throttled = login("10.0.0.1", null);
+        assertEquals(429, throttled.getStatus());
+        assertNotNull(throttled.getHeader("Retry-After"));
+
+        assertEquals(200, login("10.0.0.2", null).getStatus());
+    }
+
+    @Test
+    void testForwardedForIgnoredUnlessTrusted() throws Exception {
+        login("10.0.0.1", "1.1.1.1");
+        login("10.0.0.1", "2.2.2.2");
+        assertEquals(429, login("10.0.0.1", "3.3.3.3").getStatus());
+    }
+
+    @Test
+    void testForwardedForUsedWhenTrusted() throws Exception {
+        when(config.isTrustForwardedFor()).thenReturn(true);
+
+        login("10.0.0.1", "1.1.1.1, 10.0.0.1");
+        login("10.0.0.1", "1.1.1.1, 10.0.0.1");
+        assertEquals(429, login("10.0.0.1", "1.1.1.1, 10.0.0.1").getStatus());
+        assertEquals(200, login("10.0.0.1", "2.2.2.2, 10.0.0.1").getStatus());
+    }
+}
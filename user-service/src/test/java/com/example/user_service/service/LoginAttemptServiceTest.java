@@ -0,0 +1,136 @@
+package com.example.user_service.service;
+
+import com.example.user_service.config.loginAttemptConfig.LoginAttemptConfig;
+import com.example.user_service.exception.LoginThrottledException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LoginAttemptServiceTest {
+
+    private static final long WINDOW = 900_000L;
+
+    private final AtomicLong clock = new AtomicLong(10 * WINDOW);
+    private LoginAttemptConfig config;
+    private InMemoryLoginAttemptStore store;
+    private LoginAttemptService loginAttemptService;
+
+    @BeforeEach
+    void setUp() {
+        config = mock(LoginAttemptConfig.class);
+        when(config.isEnabled()).thenReturn(true);
+        when(config.getWindowMillis()).thenReturn(WINDOW);
+        when(config.getUsernameDelayAfter()).thenReturn(3);
+        when(config.getUsernameLockoutAfter()).thenReturn(6);
+        when(config.getIpDelayAfter()).thenReturn(50);
+        when(config.getIpLockoutAfter()).thenReturn(100);
+        when(config.getBaseDelayMs()).thenReturn(1000L);
+        when(config.getMaxDelayMs()).thenReturn(30_000L);
+        when(config.getLockoutMillis()).thenReturn(600_000L);
+        when(config.getMaxEntries()).thenReturn(1000);
+
+        store = new InMemoryLoginAttemptStore(config);
+        loginAttemptService = new LoginAttemptService(store, config, clock::get);
+    }
+
+    private void failTimes(String username, String ip, int times) {
+        for (int i = 0; i < times; i++) {
+            loginAttemptService.recordFailure(username, ip);
+        }
+    }
+
+    @Test
+    void testFewFailuresAreNotThrottled() {
+        failTimes("alice", "10.0.0.1", 2);
+        assertDoesNotThrow(() -> loginAttemptService.checkAllowed("alice", "10.0.0.1"));
+    }
+
+    @Test
+    void testProgressiveDelayAfterThreshold() {
+        failTimes("alice", "10.0.0.1", 3);
+
+        LoginThrottledException ex = assertThrows(LoginThrottledException.class,
+                () -> loginAttemptService.checkAllowed("alice", "10.0.0.2"));
+        assertEquals("LOGIN_THROTTLED", ex.getErrorCode());
+        assertEquals(1, ex.getRetryAfterSeconds());
+
+        clock.addAndGet(1000);
+        assertDoesNotThrow(() -> loginAttemptService.checkAllowed("alice", "10.0.0.2"));
+
+        loginAttemptService.recordFailure("alice", "10.0.0.1");
+        ex = assertThrows(LoginThrottledException.class,
+                () -> loginAttemptService.checkAllowed("alice", "10.0.0.2"));
+        assertEquals(2, ex.getRetryAfterSeconds());
+    }
+
+    @Test
+    void testLockoutAfterThresholdAndExpiry() {
+        failTimes("alice", "10.0.0.1", 6);
+
+        LoginThrottledException ex = assertThrows(LoginThrottledException.class,
+                () -> loginAttemptService.checkAllowed("ALICE ", "10.0.0.9"));
+        assertEquals("ACCOUNT_LOCKED", ex.getErrorCode());
+        assertEquals(600, ex.getRetryAfterSeconds());
+
+        clock.addAndGet(600_000L);
+        assertDoesNotThrow(() -> loginAttemptService.checkAllowed("alice", "10.0.0.9"));
+    }
+
+    @Test
+    void testIpThrottledAcrossUsernames() {
+        for (int i = 0; i < 50; i++) {
+            loginAttemptService.recordFailure("user" + i, "10.0.0.1");
+        }
+
+        LoginThrottledException ex = assertThrows(LoginThrottledException.class,
+                () -> loginAttemptService.checkAllowed("someone-else", "10.0.0.1"));
+        assertEquals("IP_THROTTLED", ex.getErrorCode());
+        assertDoesNotThrow(() -> loginAttemptService.checkAllowed("someone-else", "10.0.0.2"));
+    }
+
+    @Test
+    void testIpLockoutIsNotReportedAsAccountLock() {
+        for (int i = 0; i < 100; i++) {
+            loginAttemptService.recordFailure("user" + i, "10.0.0.1");
+        }
+
+        LoginThrottledException ex = assertThrows(LoginThrottledException.class,
+                () -> loginAttemptService.checkAllowed("someone-else", "10.0.0.1"));
+        assertEquals("IP_THROTTLED", ex.getErrorCode());
+        assertEquals(600, ex.getRetryAfterSeconds());
+    }
+
+    @Test
+    void testSuccessResetsUsernameButNotIp() {
+        failTimes("alice", "10.0.0.1", 2);
+        loginAttemptService.recordSuccess("alice");
+
+        failTimes("alice", "10.0.0.1", 2);
+        assertDoesNotThrow(() -> loginAttemptService.checkAllowed("alice", "10.0.0.1"));
+        assertEquals(4, store.find("ip:10.0.0.1").current());
+    }
+
+    @Test
+    void testSlidingWindowDecaysOldFailures() {
+        failTimes("alice", "10.0.0.1", 2);
+
+        //  Three quarters into the next window only a quarter of the old failures still count
+        clock.addAndGet(WINDOW + WINDOW * 3 / 4);
+        loginAttemptService.recordFailure("alice", "10.0.0.1");
+
+        assertDoesNotThrow(() -> loginAttemptService.checkAllowed("alice", "10.0.0.1"));
+    }
+
+    @Test
+    void testDisabledSkipsEverything() {
+        when(config.isEnabled()).thenReturn(false);
+        failTimes("alice", "10.0.0.1", 20);
+
+        assertDoesNotThrow(() -> loginAttemptService.checkAllowed("alice", "10.0.0.1"));
+        assertEquals(0, store.size());
+    }
+}
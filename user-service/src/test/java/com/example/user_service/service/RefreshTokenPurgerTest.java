@@ -0,0 +1,60 @@
+package com.example.user_service.service;
+
+import com.example.user_service.model.RefreshToken;
+import com.example.user_service.model.User;
+import com.example.user_service.repository.RefreshTokenRepository;
+import com.example.user_service.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+class RefreshTokenPurgerTest {
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void testPurgeDeletesExpiredAndKeepsRevokedUntilExpiry() {
+        Long userId = userRepository.save(new User("purge-user", "encoded", "USER")).getId();
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+
+        refreshTokenRepository.save(token(userId, "a", now.minusMinutes(1), false));
+        refreshTokenRepository.save(token(userId, "b", now.minusDays(3), true));
+        RefreshToken active = refreshTokenRepository.save(token(userId, "c", now.plusDays(1), false));
+        RefreshToken revoked = refreshTokenRepository.save(token(userId, "d", now.plusDays(1), true));
+
+        new RefreshTokenPurger(new RefreshTokenService(refreshTokenRepository, 60_000L), 3600).purge();
+
+        assertEquals(2, refreshTokenRepository.count());
+        assertTrue(refreshTokenRepository.existsById(active.getId()));
+        assertTrue(refreshTokenRepository.existsById(revoked.getId()), "revoked tokens are kept for reuse detection");
+    }
+
+    @Test
+    void testFailedPurgeDoesNotPropagate() {
+        RefreshTokenService service = mock(RefreshTokenService.class);
+        when(service.purgeExpired()).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertDoesNotThrow(() -> new RefreshTokenPurger(service, 3600).purge());
+        verify(service).purgeExpired();
+    }
+
+    private static RefreshToken token(Long userId, String raw, LocalDateTime expiresAt, boolean revoked) {
+        RefreshToken token = new RefreshToken(userId, RefreshTokenService.hash(raw), expiresAt.minusDays(14), expiresAt);
+        token.setRevoked(revoked);
+        return token;
+    }
+}
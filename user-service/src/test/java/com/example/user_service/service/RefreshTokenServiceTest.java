@@ -0,0 +1,105 @@
+package com.example.user_service.service;
+
+import com.example.user_service.exception.JwtValidationException;
+import com.example.user_service.model.RefreshToken;
+import com.example.user_service.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, 60_000L);
+    }
+
+    private RefreshToken stored(String rawToken, boolean revoked, LocalDateTime expiresAt) {
+        RefreshToken token = new RefreshToken(7L, RefreshTokenService.hash(rawToken),
+                LocalDateTime.now(ZoneOffset.UTC), expiresAt);
+        token.setId(1L);
+        token.setRevoked(revoked);
+        return token;
+    }
+
+    @Test
+    void testIssue_StoresOnlyHash() {
+        String raw = refreshTokenService.issue(7L);
+
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+
+        assertNotEquals(raw, captor.getValue().getTokenHash());
+        assertEquals(RefreshTokenService.hash(raw), captor.getValue().getTokenHash());
+        assertEquals(7L, captor.getValue().getUserId());
+    }
+
+    @Test
+    void testRotate_Success() {
+        RefreshToken token = stored("raw", false, LocalDateTime.now(ZoneOffset.UTC).plusMinutes(5));
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("raw"))).thenReturn(Optional.of(token));
+        when(refreshTokenRepository.revokeIfActive(1L)).thenReturn(1);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("raw");
+
+        assertEquals(7L, rotation.userId());
+        assertNotEquals("raw", rotation.refreshToken());
+        verify(refreshTokenRepository).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void testRotate_UnknownToken() {
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.empty());
+
+        JwtValidationException ex = assertThrows(JwtValidationException.class,
+                () -> refreshTokenService.rotate("unknown"));
+        assertEquals("REFRESH_TOKEN_INVALID", ex.getErrorCode());
+    }
+
+    @Test
+    void testRotate_ReusedToken_RevokesAllSessions() {
+        RefreshToken token = stored("raw", true, LocalDateTime.now(ZoneOffset.UTC).plusMinutes(5));
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("raw"))).thenReturn(Optional.of(token));
+
+        JwtValidationException ex = assertThrows(JwtValidationException.class,
+                () -> refreshTokenService.rotate("raw"));
+        assertEquals("REFRESH_TOKEN_REUSED", ex.getErrorCode());
+        verify(refreshTokenRepository).revokeAllForUser(7L);
+    }
+
+    @Test
+    void testRotate_ConcurrentRotationLoses() {
+        RefreshToken token = stored("raw", false, LocalDateTime.now(ZoneOffset.UTC).plusMinutes(5));
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("raw"))).thenReturn(Optional.of(token));
+        when(refreshTokenRepository.revokeIfActive(1L)).thenReturn(0);
+
+        assertThrows(JwtValidationException.class, () -> refreshTokenService.rotate("raw"));
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void testRotate_ExpiredToken() {
+        RefreshToken token = stored("raw", false, LocalDateTime.now(ZoneOffset.UTC).minusMinutes(1));
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("raw"))).thenReturn(Optional.of(token));
+        when(refreshTokenRepository.revokeIfActive(1L)).thenReturn(1);
+
+        JwtValidationException ex = assertThrows(JwtValidationException.class,
+                () -> refreshTokenService.rotate("raw"));
+        assertEquals("REFRESH_TOKEN_EXPIRED", ex.getErrorCode());
+    }
+}
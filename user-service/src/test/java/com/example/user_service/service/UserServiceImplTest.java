@@ -3,6 +3,8 @@ package com.example.user_service.service;
 import com.example.user_service.client.WalletClient;
 import com.example.user_service.dto.*;
 import com.example.user_service.exception.InvalidCredentialsException;
+import com.example.user_service.exception.JwtValidationException;
+import com.example.user_service.exception.LoginThrottledException;
 import com.example.user_service.exception.UserNotFoundException;
 import com.example.user_service.model.User;
 import com.example.user_service.repository.UserRepository;
@@ -42,6 +44,12 @@ class UserServiceImplTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private LoginAttemptService loginAttemptService;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -112,12 +120,15 @@ class UserServiceImplTest {
         when(userRepository.findByUsername("shubham")).thenReturn(Optional.of(user));
         when(jwtUtil.generateToken(user.getId(), user.getUsername(), user.getRole()))
                 .thenReturn("mockToken");
+        when(refreshTokenService.issue(user.getId())).thenReturn("mockRefresh");
 
         ResponseEntity<?> response = userService.loginUser(dto);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         Map<String, Object> res = (Map<String, Object>) response.getBody();
         assertEquals("mockToken", res.get("token"));
+        assertEquals("mockRefresh", res.get("refreshToken"));
+        verify(loginAttemptService).recordSuccess("shubham");
     }
 
     @Test
@@ -131,8 +142,26 @@ class UserServiceImplTest {
                 .when(authenticationManager)
                 .authenticate(any(UsernamePasswordAuthenticationToken.class));
 
+        when(loginAttemptService.currentClientIp()).thenReturn("10.0.0.1");
+
         assertThrows(InvalidCredentialsException.class,
                 () -> userService.loginUser(dto));
+        verify(loginAttemptService).recordFailure("shubham", "10.0.0.1");
+    }
+
+    @Test
+    void testLoginUser_ThrottledSkipsAuthentication() {
+
+        LoginRequestDTO dto = new LoginRequestDTO();
+        dto.setUsername("shubham");
+        dto.setPassword("password");
+
+        when(loginAttemptService.currentClientIp()).thenReturn("10.0.0.1");
+        doThrow(new LoginThrottledException("ACCOUNT_LOCKED", "locked", 60))
+                .when(loginAttemptService).checkAllowed("shubham", "10.0.0.1");
+
+        assertThrows(LoginThrottledException.class, () -> userService.loginUser(dto));
+        verify(authenticationManager, never()).authenticate(any());
     }
 
     @Test
@@ -154,6 +183,50 @@ class UserServiceImplTest {
         assertEquals("USER_BLACKLISTED", res.get("errorCode"));
     }
 
+    // -----------------------------------------------------------------------
+    // 2b. REFRESH ACCESS TOKEN
+    // -----------------------------------------------------------------------
+    @Test
+    void testRefreshAccessToken_Success() {
+        when(refreshTokenService.rotate("oldRefresh"))
+                .thenReturn(new RefreshTokenService.Rotation(1L, "newRefresh"));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(jwtUtil.generateToken(user.getId(), user.getUsername(), user.getRole()))
+                .thenReturn("newToken");
+
+        ResponseEntity<?> response = userService.refreshAccessToken(new RefreshTokenRequestDTO("oldRefresh"));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Map<String, Object> res = (Map<String, Object>) response.getBody();
+        assertEquals("newToken", res.get("token"));
+        assertEquals("newRefresh", res.get("refreshToken"));
+        verify(authenticationManager, never()).authenticate(any());
+        verify(passwordEncoder, never()).matches(any(), any());
+    }
+
+    @Test
+    void testRefreshAccessToken_InvalidToken() {
+        when(refreshTokenService.rotate("bad"))
+                .thenThrow(new JwtValidationException("REFRESH_TOKEN_INVALID", "Refresh token is invalid"));
+
+        assertThrows(JwtValidationException.class,
+                () -> userService.refreshAccessToken(new RefreshTokenRequestDTO("bad")));
+        verify(jwtUtil, never()).generateToken(any(), any(), any());
+    }
+
+    @Test
+    void testRefreshAccessToken_BlacklistedUser() {
+        user.setBlacklisted(true);
+        when(refreshTokenService.rotate("oldRefresh"))
+                .thenReturn(new RefreshTokenService.Rotation(1L, "newRefresh"));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        ResponseEntity<?> response = userService.refreshAccessToken(new RefreshTokenRequestDTO("oldRefresh"));
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verify(refreshTokenService).revokeAll(1L);
+    }
+
     // -----------------------------------------------------------------------
     // 3. TOGGLE BLACKLIST
     // -----------------------------------------------------------------------
@@ -2,6 +2,7 @@ package com.example.wallet_service.client.userClient;
 
 import com.example.wallet_service.dto.UserDTO;
 import com.example.wallet_service.security.JwtRequestContext;
+import com.example.wallet_service.service.walletMetricsService.WalletMetrics;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
@@ -14,6 +15,7 @@ public class UserClient {
 
     private final RestTemplate restTemplate;
     private final String userServiceBaseUrl;
+    private final WalletMetrics walletMetrics;
 
     @Value("${internal.service.key}")
     private String internalToken;
@@ -21,9 +23,11 @@ public class UserClient {
     //private final String internalToken = "wallet-service-internal-key"; // same key as above
 
     public UserClient(RestTemplate restTemplate,
-                      @Value("${user.service.url}") String userServiceBaseUrl) {
+                      @Value("${user.service.url}") String userServiceBaseUrl,
+                      WalletMetrics walletMetrics) {
         this.restTemplate = restTemplate;
         this.userServiceBaseUrl = userServiceBaseUrl;
+        this.walletMetrics = walletMetrics;
     }
 
     public boolean isUserBlacklisted(Long userId) {
@@ -35,7 +39,8 @@ public class UserClient {
         HttpEntity<Void> entity = new HttpEntity<>(headers);
 
         try {
-            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, entity, Map.class);
+            ResponseEntity<Map> response = walletMetrics.timeUserClient("status",
+                    () -> restTemplate.exchange(url, HttpMethod.GET, entity, Map.class));
             return (Boolean) response.getBody().get("blacklisted");
         } catch (Exception e) {
             throw new RuntimeException("Unable to verify user status", e);
@@ -55,9 +60,8 @@ public class UserClient {
 
         HttpEntity<Void> entity = new HttpEntity<>(headers);
 
-        ResponseEntity<UserDTO> response = restTemplate.exchange(
-                url, HttpMethod.GET, entity, UserDTO.class
-        );
+        ResponseEntity<UserDTO> response = walletMetrics.timeUserClient("details",
+                () -> restTemplate.exchange(url, HttpMethod.GET, entity, UserDTO.class));
 
         return response.getBody();
     }
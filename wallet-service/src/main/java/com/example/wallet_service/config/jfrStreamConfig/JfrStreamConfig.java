@@ -0,0 +1,37 @@
+package com.example.wallet_service.config.jfrStreamConfig;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class JfrStreamConfig {
+
+    @Value("${jfr-stream.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jfr-stream.window-seconds:10}")
+    private int windowSeconds;
+
+    @Value("${jfr-stream.windows:6}")
+    private int windows;
+
+    @Value("${jfr-stream.top-frames:10}")
+    private int topFrames;
+
+    @Value("${jfr-stream.contention-threshold-ms:10}")
+    private long contentionThresholdMs;
+
+    @Value("${jfr-stream.allocation-samples-per-second:100}")
+    private int allocationSamplesPerSecond;
+
+    @Value("${jfr-stream.app-package:com.example.wallet_service}")
+    private String appPackage;
+
+    public boolean isEnabled() { return enabled; }
+    public int getWindowSeconds() { return windowSeconds; }
+    public int getWindows() { return windows; }
+    public int getTopFrames() { return topFrames; }
+    public long getContentionThresholdMs() { return contentionThresholdMs; }
+    public int getAllocationSamplesPerSecond() { return allocationSamplesPerSecond; }
+    public String getAppPackage() { return appPackage; }
+}
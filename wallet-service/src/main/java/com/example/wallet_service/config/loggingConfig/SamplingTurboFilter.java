@@ -0,0 +1,83 @@
+package com.example.wallet_service.config.loggingConfig;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one in {@code every} events at or below {@code level} from loggers under
+ * {@code loggerName}; events above the level always pass. Runs as a turbo filter, so dropped
+ * events are discarded before their message is formatted or queued.
+ * <p>
+ * With {@code sampleBy} set to {@code firstArgument}, the decision is a hash of the event's first
+ * argument instead of a running count: every line logged with the same wallet id is kept or
+ * dropped together, so a kept operation shows its request and its outcome.
+ * <p>
+ * Configured from logback-prod.xml, one instance per sampled logger:
+ * <pre>{@code
+ * <turboFilter class="...SamplingTurboFilter">
+ *     <loggerName>com.example.wallet_service.service.walletService.WalletService.ops</loggerName>
+ *     <level>INFO</level>
+ *     <every>100</every>
+ *     <sampleBy>firstArgument</sampleBy>
+ * </turboFilter>
+ * }</pre>
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final AtomicLong counter = new AtomicLong();
+
+    private String loggerName;
+    private Level level = Level.INFO;
+    private int every = 1;
+    private boolean byFirstArgument;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level eventLevel, String format, Object[] params, Throwable t) {
+        //  A null format is an isXxxEnabled() check, not an event; leave it to the level settings
+        if (!isStarted() || format == null || eventLevel.toInt() > level.toInt()) {
+            return FilterReply.NEUTRAL;
+        }
+        if (!matches(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        return keep(params) ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean keep(Object[] params) {
+        if (byFirstArgument && params != null && params.length > 0 && params[0] != null) {
+            //  Mixed so that sequential ids do not all fall into the same residue
+            long h = params[0].hashCode() * 0x9E3779B97F4A7C15L;
+            return Math.floorMod(h ^ (h >>> 32), every) == 0;
+        }
+        return counter.getAndIncrement() % every == 0;
+    }
+
+    private boolean matches(String name) {
+        return name.startsWith(loggerName)
+                && (name.length() == loggerName.length() || name.charAt(loggerName.length()) == '.');
+    }
+
+    @Override
+    public void start() {
+        if (loggerName == null || loggerName.isBlank()) {
+            addError("No loggerName set for SamplingTurboFilter " + getName());
+            return;
+        }
+        if (every < 1) {
+            addError("every must be at least 1, was " + every);
+            return;
+        }
+        super.start();
+    }
+
+    public void setLoggerName(String loggerName) { this.loggerName = loggerName; }
+    public void setLevel(String level) { this.level = Level.toLevel(level, Level.INFO); }
+    public void setEvery(int every) { this.every = every; }
+    //  "count" (default) or "firstArgument"
+    public void setSampleBy(String sampleBy) { this.byFirstArgument = "firstArgument".equalsIgnoreCase(sampleBy); }
+}
@@ -0,0 +1,17 @@
+package com.example.wallet_service.config.phaseTimingConfig;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PhaseTimingConfig {
+
+    @Value("${phase-timing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${phase-timing.server-timing-header:false}")
+    private boolean serverTimingHeader;
+
+    public boolean isEnabled() { return enabled; }
+    public boolean isServerTimingHeader() { return serverTimingHeader; }
+}
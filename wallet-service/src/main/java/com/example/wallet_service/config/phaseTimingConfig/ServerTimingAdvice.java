@@ -0,0 +1,43 @@
+package com.example.wallet_service.config.phaseTimingConfig;
+
+import com.example.wallet_service.service.walletMetricsService.WalletPhaseTimings;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds a {@code Server-Timing} header with the request's phase durations to wallet mutation
+ * responses when {@code phase-timing.server-timing-header} is on. Debugging aid only: it tells the
+ * client how the server spent its time.
+ */
+@ControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    private final PhaseTimingConfig config;
+    private final WalletPhaseTimings phaseTimings;
+
+    public ServerTimingAdvice(PhaseTimingConfig config, WalletPhaseTimings phaseTimings) {
+        this.config = config;
+        this.phaseTimings = phaseTimings;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return config.isServerTimingHeader();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        String serverTiming = phaseTimings.serverTiming();
+        if (serverTiming != null) {
+            response.getHeaders().add("Server-Timing", serverTiming);
+        }
+        return body;
+    }
+}
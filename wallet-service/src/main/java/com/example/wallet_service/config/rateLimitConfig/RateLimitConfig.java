@@ -0,0 +1,62 @@
+package com.example.wallet_service.config.rateLimitConfig;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class RateLimitConfig {
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.max-buckets:100000}")
+    private int maxBuckets;
+
+    @Value("${rate-limit.stripes:64}")
+    private int stripes;
+
+    @Value("${rate-limit.idle-sweep-seconds:60}")
+    private long idleSweepSeconds;
+
+    @Value("${rate-limit.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    @Value("${rate-limit.mutations.capacity}")
+    private long mutationsCapacity;
+
+    @Value("${rate-limit.mutations.refill-per-second}")
+    private double mutationsRefillPerSecond;
+
+    @Value("${rate-limit.reads.capacity}")
+    private long readsCapacity;
+
+    @Value("${rate-limit.reads.refill-per-second}")
+    private double readsRefillPerSecond;
+
+    @Value("${rate-limit.admin.capacity}")
+    private long adminCapacity;
+
+    @Value("${rate-limit.admin.refill-per-second}")
+    private double adminRefillPerSecond;
+
+    @Value("${rate-limit.auth.capacity}")
+    private long authCapacity;
+
+    @Value("${rate-limit.auth.refill-per-second}")
+    private double authRefillPerSecond;
+
+    public boolean isEnabled() { return enabled; }
+    public int getMaxBuckets() { return maxBuckets; }
+    public int getStripes() { return stripes; }
+    public long getIdleSweepSeconds() { return idleSweepSeconds; }
+    public boolean isTrustForwardedFor() { return trustForwardedFor; }
+
+    public long getMutationsCapacity() { return mutationsCapacity; }
+    public double getMutationsRefillPerSecond() { return mutationsRefillPerSecond; }
+    public long getReadsCapacity() { return readsCapacity; }
+    public double getReadsRefillPerSecond() { return readsRefillPerSecond; }
+    public long getAdminCapacity() { return adminCapacity; }
+    public double getAdminRefillPerSecond() { return adminRefillPerSecond; }
+    public long getAuthCapacity() { return authCapacity; }
+    public double getAuthRefillPerSecond() { return authRefillPerSecond; }
+}
@@ -0,0 +1,17 @@
+package com.example.wallet_service.config.recentTransactionsConfig;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class RecentTransactionsConfig {
+
+    @Value("${recent-transactions.capacity:50}")
+    private int capacity;
+
+    @Value("${recent-transactions.max-wallets:10000}")
+    private int maxWallets;
+
+    public int getCapacity() { return capacity; }
+    public int getMaxWallets() { return maxWallets; }
+}
@@ -0,0 +1,17 @@
+package com.example.wallet_service.config.replicaConfig;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReplicaConfig {
+
+    @Value("${replica.max-lag-ms:2000}")
+    private long maxLagMillis;
+
+    @Value("${replica.heartbeat-interval-ms:1000}")
+    private long heartbeatIntervalMillis;
+
+    public long getMaxLagMillis() { return maxLagMillis; }
+    public long getHeartbeatIntervalMillis() { return heartbeatIntervalMillis; }
+}
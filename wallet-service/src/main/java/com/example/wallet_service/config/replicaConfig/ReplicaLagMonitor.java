@@ -0,0 +1,93 @@
+package com.example.wallet_service.config.replicaConfig;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures replica lag with a heartbeat row: each tick writes the current time to
+ * {@code replica_heartbeat} on the primary and reads the replicated value back from the replica.
+ * Lag is the distance between the last written beat and what the replica has, so it is measured
+ * in steps of the heartbeat interval.
+ * <p>
+ * The replica is only used after a successful check within tolerance; any error marks it
+ * unusable until the next good tick.
+ */
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile boolean replicaUsable;
+    private volatile long lagMillis = -1;
+    private long lastWrittenBeat = -1;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, ReplicaConfig config) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMillis = config.getMaxLagMillis();
+
+        long interval = Math.max(50, config.getHeartbeatIntervalMillis());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::check, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    /** Last measured lag, or -1 before the first successful check. */
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    //  Package-private so tests can drive ticks without waiting on the scheduler
+    synchronized void check() {
+        boolean usable;
+        try {
+            Long replicaBeat = replica.queryForObject("SELECT beat_at FROM replica_heartbeat WHERE id = 1", Long.class);
+            if (lastWrittenBeat >= 0 && replicaBeat != null) {
+                lagMillis = Math.max(0, lastWrittenBeat - replicaBeat);
+                usable = lagMillis <= maxLagMillis;
+            } else {
+                usable = false;
+            }
+
+            long now = System.currentTimeMillis();
+            primary.update("UPDATE replica_heartbeat SET beat_at = ? WHERE id = 1", now);
+            lastWrittenBeat = now;
+        } catch (RuntimeException e) {
+            logger.debug("Replica heartbeat check failed: {}", e.getMessage());
+            usable = false;
+        }
+
+        if (usable != replicaUsable) {
+            if (usable) {
+                logger.info("Replica within lag tolerance ({} ms <= {} ms), routing read-only transactions to it",
+                        lagMillis, maxLagMillis);
+            } else {
+                logger.warn("Replica lagging or unreachable (lag {} ms, limit {} ms), routing reads to primary",
+                        lagMillis, maxLagMillis);
+            }
+        }
+        replicaUsable = usable;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -38,6 +38,8 @@ package com.example.wallet_service.config.securityConfig;
 import com.example.wallet_service.security.CustomAccessDeniedHandler;
 import com.example.wallet_service.security.CustomAuthEntryPoint;
 import com.example.wallet_service.security.JwtAuthFilter;
+import com.example.wallet_service.security.RateLimitFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -48,13 +50,15 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     private final CustomAccessDeniedHandler accessDeniedHandler;
     private final CustomAuthEntryPoint authEntryPoint;
 
 
-    public SecurityConfig(JwtAuthFilter jwtAuthFilter, CustomAccessDeniedHandler accessDeniedHandler, CustomAuthEntryPoint authEntryPoint) {
+    public SecurityConfig(JwtAuthFilter jwtAuthFilter, RateLimitFilter rateLimitFilter, CustomAccessDeniedHandler accessDeniedHandler, CustomAuthEntryPoint authEntryPoint) {
         this.jwtAuthFilter = jwtAuthFilter;
+        this.rateLimitFilter = rateLimitFilter;
         this.accessDeniedHandler = accessDeniedHandler;
         this.authEntryPoint = authEntryPoint;
     }
@@ -64,6 +68,11 @@ public class SecurityConfig {
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        //  Streamed responses (transaction export) finish on an ASYNC dispatch; the JWT is not
+                        //  re-read there, and the request was already authorized on its first pass
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        //  Runtime log level changes; JFR stats name internal frames
+                        .requestMatchers("/actuator/loggers/**", "/actuator/jfrstats").hasRole("ADMIN")
                         //  Public endpoints (health checks etc.)
                         .requestMatchers("/actuator/**").permitAll()
                         .requestMatchers(
@@ -91,7 +100,9 @@ public class SecurityConfig {
                         .accessDeniedHandler(accessDeniedHandler)
                         .authenticationEntryPoint(authEntryPoint)
                 )
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                //  Throttle after authentication so buckets are keyed by user id
+                .addFilterAfter(rateLimitFilter, JwtAuthFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,25 @@
+package com.example.wallet_service.config.transactionArchiveConfig;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TransactionArchiveConfig {
+
+    @Value("${transaction-archive.retention-months:12}")
+    private int retentionMonths;
+
+    @Value("${transaction-archive.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${transaction-archive.run-on-startup:false}")
+    private boolean runOnStartup;
+
+    @Value("${transaction-archive.interval-minutes:1440}")
+    private long intervalMinutes;
+
+    public int getRetentionMonths() { return retentionMonths; }
+    public int getBatchSize() { return batchSize; }
+    public boolean isRunOnStartup() { return runOnStartup; }
+    public long getIntervalMinutes() { return intervalMinutes; }
+}
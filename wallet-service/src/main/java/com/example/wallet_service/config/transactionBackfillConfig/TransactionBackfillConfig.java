@@ -0,0 +1,17 @@
+package com.example.wallet_service.config.transactionBackfillConfig;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TransactionBackfillConfig {
+
+    @Value("${transaction-backfill.user-id.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${transaction-backfill.user-id.run-on-startup:true}")
+    private boolean runOnStartup;
+
+    public int getBatchSize() { return batchSize; }
+    public boolean isRunOnStartup() { return runOnStartup; }
+}
@@ -0,0 +1,65 @@
+package com.example.wallet_service.config.walletCacheConfig;
+
+import com.example.wallet_service.model.wallet.Wallet;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache backed by Ehcache through the JCache API.
+ * <p>
+ * Regions are created here rather than from an XML file, sized from {@link WalletCacheConfig},
+ * and Hibernate is told to fail on any region it cannot find so a renamed region cannot silently
+ * fall back to an unbounded default cache. {@code wallet-cache.enabled=false} turns the cache off
+ * (the h2 test profile does, so repository tests see every statement).
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager jcacheManager(WalletCacheConfig walletCacheConfig) {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        ClassLoader classLoader = getClass().getClassLoader();
+
+        //  Own URI per application context, so contexts never share (or close) each other's manager
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("urn:wallet-service:l2:" + UUID.randomUUID()), new DefaultConfiguration(classLoader));
+
+        cacheManager.createCache(Wallet.CACHE_REGION, Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder
+                        .newCacheConfigurationBuilder(Object.class, Object.class,
+                                ResourcePoolsBuilder.heap(walletCacheConfig.getMaxEntries()))
+                        .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(
+                                Duration.ofSeconds(walletCacheConfig.getTtlSeconds())))));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager jcacheManager,
+                                                                  WalletCacheConfig walletCacheConfig) {
+        return properties -> {
+            //  Feeds the hit/miss/DB-load counters behind /api/wallets/admin/cache/stats
+            properties.put("hibernate.generate_statistics", true);
+            if (!walletCacheConfig.isEnabled()) {
+                properties.put("hibernate.cache.use_second_level_cache", false);
+                return;
+            }
+            properties.put("hibernate.cache.use_second_level_cache", true);
+            properties.put("hibernate.cache.region.factory_class", "jcache");
+            properties.put("hibernate.javax.cache.cache_manager", jcacheManager);
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+        };
+    }
+}
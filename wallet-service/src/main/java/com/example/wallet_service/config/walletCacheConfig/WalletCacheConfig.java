@@ -0,0 +1,21 @@
+package com.example.wallet_service.config.walletCacheConfig;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class WalletCacheConfig {
+
+    @Value("${wallet-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${wallet-cache.max-entries:10000}")
+    private long maxEntries;
+
+    @Value("${wallet-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    public boolean isEnabled() { return enabled; }
+    public long getMaxEntries() { return maxEntries; }
+    public long getTtlSeconds() { return ttlSeconds; }
+}
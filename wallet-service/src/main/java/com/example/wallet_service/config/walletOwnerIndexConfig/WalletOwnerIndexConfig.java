@@ -0,0 +1,13 @@
+package com.example.wallet_service.config.walletOwnerIndexConfig;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class WalletOwnerIndexConfig {
+
+    @Value("${wallet-owner-index.max-entries:1000000}")
+    private int maxEntries;
+
+    public int getMaxEntries() { return maxEntries; }
+}
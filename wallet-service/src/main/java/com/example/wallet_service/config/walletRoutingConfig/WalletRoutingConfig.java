@@ -0,0 +1,39 @@
+package com.example.wallet_service.config.walletRoutingConfig;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class WalletRoutingConfig {
+
+    @Value("${wallet-routing.enabled:false}")
+    private boolean enabled;
+
+    @Value("${wallet-routing.self-url:}")
+    private String selfUrl;
+
+    @Value("${wallet-routing.instances:}")
+    private List<String> instances;
+
+    @Value("${wallet-routing.virtual-nodes:160}")
+    private int virtualNodes;
+
+    @Value("${wallet-routing.health-check-interval-ms:2000}")
+    private long healthCheckIntervalMillis;
+
+    @Value("${wallet-routing.connect-timeout-ms:500}")
+    private long connectTimeoutMillis;
+
+    @Value("${wallet-routing.forward-timeout-ms:10000}")
+    private long forwardTimeoutMillis;
+
+    public boolean isEnabled() { return enabled; }
+    public String getSelfUrl() { return selfUrl; }
+    public List<String> getInstances() { return instances; }
+    public int getVirtualNodes() { return virtualNodes; }
+    public long getHealthCheckIntervalMillis() { return healthCheckIntervalMillis; }
+    public long getConnectTimeoutMillis() { return connectTimeoutMillis; }
+    public long getForwardTimeoutMillis() { return forwardTimeoutMillis; }
+}
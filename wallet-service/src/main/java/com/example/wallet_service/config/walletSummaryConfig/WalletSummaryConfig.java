@@ -0,0 +1,17 @@
+package com.example.wallet_service.config.walletSummaryConfig;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class WalletSummaryConfig {
+
+    @Value("${wallet-summary.rebuild.threads:4}")
+    private int rebuildThreads;
+
+    @Value("${wallet-summary.rebuild.chunk-size:500}")
+    private int rebuildChunkSize;
+
+    public int getRebuildThreads() { return rebuildThreads; }
+    public int getRebuildChunkSize() { return rebuildChunkSize; }
+}
@@ -3,7 +3,11 @@ package com.example.wallet_service.controller.admin;
 import com.example.wallet_service.dto.walletDto.CreateWalletDTO;
 import com.example.wallet_service.model.wallet.Wallet;
 import com.example.wallet_service.security.UserPrincipal;
+import com.example.wallet_service.service.transactionArchiveService.TransactionArchiveService;
+import com.example.wallet_service.service.transactionService.TransactionUserBackfillService;
+import com.example.wallet_service.service.walletCacheService.WalletCacheService;
 import com.example.wallet_service.service.walletService.WalletService;
+import com.example.wallet_service.service.walletSummaryService.WalletSummaryService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,9 +25,20 @@ public class WalletAdminController {
     private static final Logger logger = LoggerFactory.getLogger(WalletAdminController.class);
 
     private final WalletService walletService;
-
-    public WalletAdminController(WalletService walletService) {
+    private final WalletSummaryService walletSummaryService;
+    private final TransactionUserBackfillService transactionUserBackfillService;
+    private final TransactionArchiveService transactionArchiveService;
+    private final WalletCacheService walletCacheService;
+
+    public WalletAdminController(WalletService walletService, WalletSummaryService walletSummaryService,
+                                 TransactionUserBackfillService transactionUserBackfillService,
+                                 TransactionArchiveService transactionArchiveService,
+                                 WalletCacheService walletCacheService) {
         this.walletService = walletService;
+        this.walletSummaryService = walletSummaryService;
+        this.transactionUserBackfillService = transactionUserBackfillService;
+        this.transactionArchiveService = transactionArchiveService;
+        this.walletCacheService = walletCacheService;
     }
 
     private UserPrincipal getCurrentUser() {
@@ -81,5 +96,98 @@ public class WalletAdminController {
     }
 
 
-}
+    // 3️⃣ Admin recomputes every wallet_summary row from transaction history
+    @PostMapping("/admin/summaries/rebuild")
+    public ResponseEntity<?> rebuildSummaries() {
+        UserPrincipal principal = getCurrentUser();
+
+        if (!"ADMIN".equalsIgnoreCase(principal.getRole())) {
+            return ResponseEntity.status(403).body(Map.of(
+                    "errorCode", "ACCESS_DENIED",
+                    "reason", "Only ADMIN can rebuild wallet summaries"
+            ));
+        }
+
+        logger.info("Admin {} triggered wallet summary rebuild", principal.getUserId());
+        WalletSummaryService.RebuildResult result = walletSummaryService.rebuild();
+        return ResponseEntity.ok(Map.of(
+                "message", "Wallet summaries rebuilt",
+                "chunks", result.chunks(),
+                "wallets", result.wallets(),
+                "rows", result.rows(),
+                "elapsedMillis", result.elapsedMillis()
+        ));
+    }
+
+
+    // 4️⃣ Admin fills transactions.user_id for rows written before the column existed
+    @PostMapping("/admin/transactions/backfill-user-id")
+    public ResponseEntity<?> backfillTransactionUserIds() {
+        UserPrincipal principal = getCurrentUser();
+
+        if (!"ADMIN".equalsIgnoreCase(principal.getRole())) {
+            return ResponseEntity.status(403).body(Map.of(
+                    "errorCode", "ACCESS_DENIED",
+                    "reason", "Only ADMIN can backfill transaction user ids"
+            ));
+        }
+
+        logger.info("Admin {} triggered transaction user_id backfill", principal.getUserId());
+        TransactionUserBackfillService.BackfillResult result = transactionUserBackfillService.backfill();
+        return ResponseEntity.ok(Map.of(
+                "message", "Transaction user ids backfilled",
+                "batches", result.batches(),
+                "rows", result.rows(),
+                "complete", transactionUserBackfillService.isComplete(),
+                "elapsedMillis", result.elapsedMillis()
+        ));
+    }
 
+
+    // 5️⃣ Admin moves transactions older than the retention window into the archive table
+    @PostMapping("/admin/transactions/archive")
+    public ResponseEntity<?> archiveTransactions() {
+        UserPrincipal principal = getCurrentUser();
+
+        if (!"ADMIN".equalsIgnoreCase(principal.getRole())) {
+            return ResponseEntity.status(403).body(Map.of(
+                    "errorCode", "ACCESS_DENIED",
+                    "reason", "Only ADMIN can archive transactions"
+            ));
+        }
+
+        logger.info("Admin {} triggered transaction archiving", principal.getUserId());
+        TransactionArchiveService.ArchiveResult result = transactionArchiveService.archive();
+        return ResponseEntity.ok(Map.of(
+                "message", "Transactions archived",
+                "cutoff", result.cutoff().toString(),
+                "batches", result.batches(),
+                "rows", result.rows(),
+                "elapsedMillis", result.elapsedMillis()
+        ));
+    }
+
+
+    // 6️⃣ Admin reads wallet second-level cache effectiveness (hits vs. DB loads)
+    @GetMapping("/admin/cache/stats")
+    public ResponseEntity<?> walletCacheStats() {
+        UserPrincipal principal = getCurrentUser();
+
+        if (!"ADMIN".equalsIgnoreCase(principal.getRole())) {
+            return ResponseEntity.status(403).body(Map.of(
+                    "errorCode", "ACCESS_DENIED",
+                    "reason", "Only ADMIN can view cache statistics"
+            ));
+        }
+
+        WalletCacheService.WalletCacheStats stats = walletCacheService.stats();
+        return ResponseEntity.ok(Map.of(
+                "region", Wallet.CACHE_REGION,
+                "hits", stats.hits(),
+                "misses", stats.misses(),
+                "puts", stats.puts(),
+                "dbLoads", stats.dbLoads(),
+                "hitRatio", stats.hitRatio()
+        ));
+    }
+}
@@ -1,14 +1,20 @@
 package com.example.wallet_service.controller.transactionController;
 
-import com.example.wallet_service.dto.transactionDto.TransactionDTO;
-import com.example.wallet_service.model.transaction.Transaction;
-import com.example.wallet_service.model.wallet.Wallet;
+import com.example.wallet_service.data.WalletAccessResult;
+import com.example.wallet_service.dto.transactionDto.TransactionOwnerView;
+import com.example.wallet_service.exception.WalletIdNotFoundException;
 import com.example.wallet_service.security.UserPrincipal;
+import com.example.wallet_service.service.transactionService.RecentTransactionCache;
+import com.example.wallet_service.service.transactionService.TransactionExportService;
 import com.example.wallet_service.service.transactionService.TransactionService;
 import com.example.wallet_service.service.walletService.WalletService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 import java.util.Map;
@@ -18,13 +24,19 @@ import java.util.Optional;
 @RequestMapping("/api/transactions")
 public class TransactionController {
 
+    private static final ObjectMapper ERROR_WRITER = new ObjectMapper();
+
     private final TransactionService transactionService;
 
     private final WalletService walletService;
 
-    public TransactionController(TransactionService transactionService, WalletService walletService) {
+    private final TransactionExportService transactionExportService;
+
+    public TransactionController(TransactionService transactionService, WalletService walletService,
+                                 TransactionExportService transactionExportService) {
         this.transactionService = transactionService;
         this.walletService = walletService;
+        this.transactionExportService = transactionExportService;
     }
 
     //  Helper to get current authenticated user
@@ -40,6 +52,18 @@ public class TransactionController {
         ));
     }
 
+    //  Maps the outcome of WalletService.authorizeAndExecute to the granted response, 404 or 403
+    private ResponseEntity<?> accessResponse(WalletAccessResult<ResponseEntity<?>> access,
+                                             Long walletId, String forbiddenMessage) {
+        if (access instanceof WalletAccessResult.Granted<ResponseEntity<?>> granted) {
+            return granted.value();
+        }
+        if (access instanceof WalletAccessResult.Denied<ResponseEntity<?>>) {
+            return forbidden(forbiddenMessage);
+        }
+        return notFound("Wallet not found with ID " + walletId);
+    }
+
     // Helper for 404 Not Found response
     private ResponseEntity<?> notFound(String message) {
         return ResponseEntity.status(404).body(Map.of(
@@ -54,18 +78,86 @@ public class TransactionController {
     public ResponseEntity<?> getTransactionsByWallet(@PathVariable Long walletId) {
         UserPrincipal principal = getCurrentUser();
 
-        Wallet wallet = walletService.getWalletById(walletId).orElse(null);
-        if (wallet == null) {
+        //  Ownership check
+        WalletAccessResult<ResponseEntity<?>> access = walletService.authorizeAndExecute(walletId, principal,
+                () -> ResponseEntity.ok(transactionService.getTransactionsByWallet(walletId)));
+
+        return accessResponse(access, walletId, "You can only view transactions of your own wallets");
+    }
+
+    // ======================== RECENT TRANSACTIONS (CACHED) ========================
+    @GetMapping("/wallet/{walletId}/recent")
+    public ResponseEntity<?> getRecentTransactions(
+            @PathVariable Long walletId,
+            @RequestParam(defaultValue = "10") int n
+    ) {
+        UserPrincipal principal = getCurrentUser();
+
+        RecentTransactionCache.Snapshot recent;
+        try {
+            //  Owner comes back with the cached rows, so a warm wallet costs no database round trip
+            recent = transactionService.getRecentTransactions(walletId, n);
+        } catch (WalletIdNotFoundException e) {
             return notFound("Wallet not found with ID " + walletId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "errorCode", "INVALID_REQUEST",
+                    "reason", e.getMessage()
+            ));
         }
 
-        //  Ownership check
         if (!"ADMIN".equalsIgnoreCase(principal.getRole()) &&
-                !wallet.getUserId().equals(principal.getUserId())) {
+                !recent.ownerId().equals(principal.getUserId())) {
             return forbidden("You can only view transactions of your own wallets");
         }
 
-        return ResponseEntity.ok(transactionService.getTransactionsByWallet(walletId));
+        return ResponseEntity.ok(recent.items());
+    }
+
+    // ======================== EXPORT TRANSACTIONS (STREAMED) ========================
+    @GetMapping("/wallet/{walletId}/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @PathVariable Long walletId,
+            @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        UserPrincipal principal = getCurrentUser();
+
+        WalletAccessResult<ResponseEntity<?>> access = walletService.authorizeAndExecute(walletId, principal,
+                () -> exportResponse(walletId, format));
+
+        return streamed(accessResponse(access, walletId, "You can only export transactions of your own wallets"));
+    }
+
+    //  Spring only streams a ResponseEntity declared as StreamingResponseBody, so error bodies are streamed as JSON too
+    private ResponseEntity<StreamingResponseBody> streamed(ResponseEntity<?> response) {
+        if (response.getBody() instanceof StreamingResponseBody body) {
+            return ResponseEntity.status(response.getStatusCode()).headers(response.getHeaders()).body(body);
+        }
+        Object error = response.getBody();
+        return ResponseEntity.status(response.getStatusCode())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> ERROR_WRITER.writeValue(out, error));
+    }
+
+    private ResponseEntity<?> exportResponse(Long walletId, String format) {
+        TransactionExportService.Format exportFormat;
+        try {
+            exportFormat = TransactionExportService.Format.from(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "errorCode", "INVALID_REQUEST",
+                    "reason", e.getMessage()
+            ));
+        }
+
+        //  Rows are written to the response as they are read; nothing is collected in memory
+        StreamingResponseBody body = out -> transactionExportService.export(walletId, exportFormat, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"wallet-" + walletId + "-transactions." + exportFormat.getExtension() + "\"")
+                .body(body);
     }
 
     // ======================== GET TRANSACTION HISTORY (ADMIN ONLY) ========================
@@ -79,33 +171,55 @@ public class TransactionController {
             @RequestParam(defaultValue = "10") int size
     ) {
 
-        Wallet wallet = walletService.getWalletById(walletId).orElse(null);
+        UserPrincipal principal = getCurrentUser();
 
-        if (wallet == null) {
-            return notFound("Wallet not found with ID " + walletId);
-        }
+        WalletAccessResult<ResponseEntity<?>> access = walletService.authorizeAndExecute(walletId, principal, () -> {
+            try {
 
-        UserPrincipal principal = getCurrentUser();
+                var transactionPage = transactionService.getTransactionHistory(walletId, type, start, end, page, size);
 
-        if (!"ADMIN".equalsIgnoreCase(principal.getRole()) &&
-                !wallet.getUserId().equals(principal.getUserId())) {
-            return forbidden("You can only view transactions of your own wallets");
-        }
+                //  Return only the list (no pagination metadata)
+                return ResponseEntity.ok(transactionPage.getContent());
 
-        try {
 
-            var transactionPage = transactionService.getTransactionHistory(walletId, type, start, end, page, size);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of(
+                        "errorCode", "INVALID_REQUEST",
+                        "reason", e.getMessage()
+                ));
+            }
+        });
 
-            //  Return only the list (no pagination metadata)
-            return ResponseEntity.ok(transactionPage.getContent());
+        return accessResponse(access, walletId, "You can only view transactions of your own wallets");
+    }
 
+    // ======================== GET TRANSACTION HISTORY (CURSOR) ========================
+    @GetMapping("/history/cursor")
+    public ResponseEntity<?> getTransactionHistoryByCursor(
+            @RequestParam Long walletId,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String start,
+            @RequestParam(required = false) String end,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
 
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(Map.of(
-                    "errorCode", "INVALID_REQUEST",
-                    "reason", e.getMessage()
-            ));
-        }
+        UserPrincipal principal = getCurrentUser();
+
+        WalletAccessResult<ResponseEntity<?>> access = walletService.authorizeAndExecute(walletId, principal, () -> {
+            try {
+                return ResponseEntity.ok(
+                        transactionService.getTransactionHistoryByCursor(walletId, type, start, end, cursor, size)
+                );
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of(
+                        "errorCode", "INVALID_REQUEST",
+                        "reason", e.getMessage()
+                ));
+            }
+        });
+
+        return accessResponse(access, walletId, "You can only view transactions of your own wallets");
     }
 
     // ======================== GET USER TRANSACTIONS (USER or ADMIN) ========================
@@ -142,7 +256,7 @@ public class TransactionController {
 public ResponseEntity<?> getTransactionById(@PathVariable Long transactionId) {
     UserPrincipal principal = getCurrentUser();
 
-    Optional<Transaction> transactionOpt = transactionService.getTransactionById(transactionId);
+    Optional<TransactionOwnerView> transactionOpt = transactionService.getTransactionById(transactionId);
 
     //  Handle not found
     if (transactionOpt.isEmpty()) {
@@ -152,8 +266,8 @@ public ResponseEntity<?> getTransactionById(@PathVariable Long transactionId) {
         ));
     }
 
-    Transaction transaction = transactionOpt.get();
-    Long walletOwnerId = transaction.getWallet().getUserId();
+    TransactionOwnerView transaction = transactionOpt.get();
+    Long walletOwnerId = transaction.walletOwnerId();
 
     //  Authorization: allow only ADMIN or the wallet owner
     if (!"ADMIN".equalsIgnoreCase(principal.getRole()) &&
@@ -165,9 +279,8 @@ public ResponseEntity<?> getTransactionById(@PathVariable Long transactionId) {
         ));
     }
 
-    //  Return clean DTO, not entity
-    TransactionDTO transactionDTO = new TransactionDTO(transaction);
-    return ResponseEntity.ok(transactionDTO);
+    //  Owner id is only needed for the check above; respond with the plain view
+    return ResponseEntity.ok(transaction.toView());
 }
 
 
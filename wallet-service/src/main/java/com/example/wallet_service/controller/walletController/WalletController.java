@@ -1,6 +1,7 @@
 package com.example.wallet_service.controller.walletController;
 
 import com.example.wallet_service.client.userClient.UserClient;
+import com.example.wallet_service.data.WalletAccessResult;
 import com.example.wallet_service.data.WalletOperationResult;
 import com.example.wallet_service.dto.walletDto.CreateWalletDTO;
 import com.example.wallet_service.dto.walletDto.WalletBalanceDTO;
@@ -8,6 +9,8 @@ import com.example.wallet_service.model.wallet.Wallet;
 import com.example.wallet_service.security.UserPrincipal;
 import com.example.wallet_service.service.walletService.WalletService;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -76,37 +79,41 @@ public class WalletController {
 
     // ========================== GET BALANCE ==========================
 
+    //  ETag is the wallet's @Version, which changes on every balance update. Ownership comes from
+    //  the owner index, so the balance read is the only wallet access; when If-None-Match still
+    //  matches, the answer is a bodyless 304.
     @GetMapping("/{walletId}")
-    public ResponseEntity<?> getWalletBalance(@PathVariable Long walletId) {
+    public ResponseEntity<?> getWalletBalance(@PathVariable Long walletId,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         UserPrincipal principal = getCurrentUser();
 
-        // Fetch wallet from service
-        Optional<Wallet> walletOpt = walletService.getWalletById(walletId);
-        if (walletOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("errorCode", "WALLET_NOT_FOUND", "message", "Wallet not found with ID " + walletId));
-        }
-
-        Wallet wallet = walletOpt.get();
-
         //  Authorization check — user can only see their own wallet
-        boolean isAdmin = "ADMIN".equalsIgnoreCase(principal.getRole());
-        boolean ownsWallet = wallet.getUserId().equals(principal.getUserId());
-
-        if (!isAdmin && !ownsWallet) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(Map.of("errorCode", "ACCESS_DENIED", "message", "You can only view your own wallet balance"));
-        }
-
-        //  Delegate to service for actual balance retrieval
-        WalletOperationResult result = walletService.getBalance(walletId);
+        WalletAccessResult<ResponseEntity<?>> access = walletService.authorizeAndExecute(walletId, principal,
+                () -> balanceResponse(walletService.getBalance(walletId), ifNoneMatch));
+
+        return accessResponse(access,
+                ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("errorCode", "WALLET_NOT_FOUND", "message", "Wallet not found with ID " + walletId)),
+                ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(Map.of("errorCode", "ACCESS_DENIED", "message", "You can only view your own wallet balance")));
+    }
 
-        //  Build proper response
+    private ResponseEntity<?> balanceResponse(WalletOperationResult result, String ifNoneMatch) {
         if (result instanceof WalletOperationResult.Balance balance) {
-            return ResponseEntity.ok(Map.of(
-                    "walletId", balance.walletId(),
-                    "balance", balance.balance()
-            ));
+            String currentTag = versionTag(balance.version());
+            if (matchesAny(ifNoneMatch, currentTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(currentTag)
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .build();
+            }
+            return ResponseEntity.ok()
+                    .eTag(currentTag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(Map.of(
+                            "walletId", balance.walletId(),
+                            "balance", balance.balance()
+                    ));
         }
 
         if (result instanceof WalletOperationResult.Failure failure) {
@@ -118,6 +125,27 @@ public class WalletController {
                 .body(Map.of("errorCode", "UNKNOWN_ERROR", "message", "Unexpected error"));
     }
 
+    private static String versionTag(Long version) {
+        return "\"" + (version == null ? 0L : version) + "\"";
+    }
+
+    //  If-None-Match may list several tags, weak (W/) or strong, or be "*"
+    private static boolean matchesAny(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals("*") || trimmed.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 
 
     // ========================== GET TRANSACTION SUMMARY ==========================
@@ -125,20 +153,12 @@ public class WalletController {
     public ResponseEntity<?> getTransactionSummary(@PathVariable Long walletId) {
         UserPrincipal principal = getCurrentUser();
 
-        Wallet wallet = walletService.getWalletById(walletId).orElse(null);
-        if (wallet == null) {
-            return ResponseEntity.status(404).body(Map.of("errorCode", "NOT_FOUND", "reason", "Wallet not found"));
-        }
-
         // 🧩 Ownership check
-        if (!"ADMIN".equalsIgnoreCase(principal.getRole()) && !wallet.getUserId().equals(principal.getUserId())) {
-            return ResponseEntity.status(403).body(Map.of(
-                    "errorCode", "ACCESS_DENIED",
-                    "reason", "You can only view your own wallet transactions"
-            ));
-        }
+        WalletAccessResult<ResponseEntity<?>> access = walletService.authorizeAndExecute(walletId, principal,
+                () -> ResponseEntity.ok(walletService.getTransactionSummary(walletId)));
 
-        return ResponseEntity.ok(walletService.getTransactionSummary(walletId));
+        return accessResponse(access, notFound("Wallet not found"),
+                forbidden("You can only view your own wallet transactions"));
     }
 
 
@@ -149,18 +169,14 @@ public class WalletController {
                                           @RequestParam(required = false) String description) {
 
         UserPrincipal principal = getCurrentUser();
-        Wallet wallet = walletService.getWalletById(walletId).orElse(null);
 
-        if (wallet == null)
-            return ResponseEntity.status(404).body(Map.of("errorCode", "NOT_FOUND", "reason", "Wallet not found"));
+        WalletAccessResult<ResponseEntity<?>> access = walletService.authorizeAndExecute(walletId, principal, () -> {
+            if (amount.compareTo(BigDecimal.ZERO) <= 0)
+                return badRequest("INVALID_AMOUNT", "Amount must be positive");
+            return buildResponse(walletService.credit(walletId, amount, description));
+        });
 
-        if (!"ADMIN".equalsIgnoreCase(principal.getRole()) && !wallet.getUserId().equals(principal.getUserId()))
-            return forbidden("You can only credit your own wallet");
-
-        if (amount.compareTo(BigDecimal.ZERO) <= 0)
-            return badRequest("INVALID_AMOUNT", "Amount must be positive");
-
-        return buildResponse(walletService.credit(walletId, amount, description));
+        return accessResponse(access, notFound("Wallet not found"), forbidden("You can only credit your own wallet"));
     }
 
 
@@ -172,18 +188,14 @@ public class WalletController {
                                          @RequestParam(required = false) String description) {
 
         UserPrincipal principal = getCurrentUser();
-        Wallet wallet = walletService.getWalletById(walletId).orElse(null);
-
-        if (wallet == null)
-            return ResponseEntity.status(404).body(Map.of("errorCode", "NOT_FOUND", "reason", "Wallet not found"));
 
-        if (!"ADMIN".equalsIgnoreCase(principal.getRole()) && !wallet.getUserId().equals(principal.getUserId()))
-            return forbidden("You can only debit your own wallet");
+        WalletAccessResult<ResponseEntity<?>> access = walletService.authorizeAndExecute(walletId, principal, () -> {
+            if (amount.compareTo(BigDecimal.ZERO) <= 0)
+                return badRequest("INVALID_AMOUNT", "Amount must be positive");
+            return buildResponse(walletService.debit(walletId, amount, description));
+        });
 
-        if (amount.compareTo(BigDecimal.ZERO) <= 0)
-            return badRequest("INVALID_AMOUNT", "Amount must be positive");
-
-        return buildResponse(walletService.debit(walletId, amount, description));
+        return accessResponse(access, notFound("Wallet not found"), forbidden("You can only debit your own wallet"));
     }
 
 
@@ -200,20 +212,13 @@ public class WalletController {
                                       @RequestParam(required = false) String description) {
 
         UserPrincipal principal = getCurrentUser();
-        Wallet fromWallet = walletService.getWalletById(fromWalletId).orElse(null);
-
-        if (fromWallet == null)
-            return ResponseEntity.status(404).body(Map.of("errorCode", "NOT_FOUND", "reason", "Source wallet not found"));
 
-        // Ownership check
-        boolean isAdmin = "ADMIN".equalsIgnoreCase(principal.getRole());
-        boolean ownsFromWallet = fromWallet.getUserId().equals(principal.getUserId());
-        if (!isAdmin && !ownsFromWallet)
-            return forbidden("You can only transfer from your own wallet");
+        // Ownership check on the source wallet, then delegate to service
+        WalletAccessResult<ResponseEntity<?>> access = walletService.authorizeAndExecute(fromWalletId, principal,
+                () -> buildResponse(walletService.transfer(fromWalletId, toWalletId, amount, description)));
 
-        // Delegate to service
-        WalletOperationResult result = walletService.transfer(fromWalletId, toWalletId, amount, description);
-        return buildResponse(result);
+        return accessResponse(access, notFound("Source wallet not found"),
+                forbidden("You can only transfer from your own wallet"));
     }
 
 
@@ -231,6 +236,19 @@ public class WalletController {
         return ResponseEntity.status(403).body(Map.of("errorCode", "ACCESS_DENIED", "reason", reason));
     }
 
+    private ResponseEntity<?> notFound(String reason) {
+        return ResponseEntity.status(404).body(Map.of("errorCode", "NOT_FOUND", "reason", reason));
+    }
+
+    private ResponseEntity<?> accessResponse(WalletAccessResult<ResponseEntity<?>> access,
+                                             ResponseEntity<?> notFound, ResponseEntity<?> forbidden) {
+        if (access instanceof WalletAccessResult.Granted<ResponseEntity<?>> granted)
+            return granted.value();
+        if (access instanceof WalletAccessResult.Denied<ResponseEntity<?>>)
+            return forbidden;
+        return notFound;
+    }
+
     private ResponseEntity<?> buildResponse(WalletOperationResult result) {
         if (result instanceof WalletOperationResult.Success success)
             return ResponseEntity.ok(Map.of("message", success.message()));
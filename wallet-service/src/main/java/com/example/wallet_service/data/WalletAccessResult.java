@@ -0,0 +1,9 @@
+package com.example.wallet_service.data;
+
+public sealed interface WalletAccessResult<T>
+        permits WalletAccessResult.Granted, WalletAccessResult.NotFound, WalletAccessResult.Denied {
+
+    record Granted<T>(T value) implements WalletAccessResult<T> {}
+    record NotFound<T>(Long walletId) implements WalletAccessResult<T> {}
+    record Denied<T>(Long walletId) implements WalletAccessResult<T> {}
+}
@@ -4,6 +4,6 @@ public sealed interface WalletOperationResult
 
     record Success(String message) implements WalletOperationResult {}
     record Failure(String errorCode, String reason) implements WalletOperationResult {}
-    record Balance(Long walletId, String balance) implements WalletOperationResult {}
+    record Balance(Long walletId, String balance, Long version) implements WalletOperationResult {}
 }
 
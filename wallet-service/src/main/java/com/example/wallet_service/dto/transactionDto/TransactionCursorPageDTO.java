@@ -0,0 +1,9 @@
+package com.example.wallet_service.dto.transactionDto;
+
+import java.util.List;
+
+public record TransactionCursorPageDTO(
+        List<TransactionView> items,
+        String nextCursor,
+        boolean hasNext
+) {}
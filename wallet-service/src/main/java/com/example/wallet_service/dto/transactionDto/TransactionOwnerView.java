@@ -0,0 +1,24 @@
+package com.example.wallet_service.dto.transactionDto;
+
+import com.example.wallet_service.model.transaction.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * {@link TransactionView} plus the wallet owner's user id, so ownership checks need no wallet load.
+ */
+public record TransactionOwnerView(
+        Long id,
+        Long walletId,
+        Long walletOwnerId,
+        BigDecimal amount,
+        Transaction.Type type,
+        String description,
+        LocalDateTime timestamp
+) {
+
+    public TransactionView toView() {
+        return new TransactionView(id, walletId, amount, type, description, timestamp);
+    }
+}
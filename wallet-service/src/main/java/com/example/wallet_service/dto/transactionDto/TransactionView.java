@@ -0,0 +1,39 @@
+package com.example.wallet_service.dto.transactionDto;
+
+import com.example.wallet_service.model.transaction.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * Read-only row selected straight from a JPQL constructor expression: no managed entity,
+ * no wallet proxy, nothing for Hibernate to dirty-check.
+ */
+public record TransactionView(
+        Long id,
+        Long walletId,
+        BigDecimal amount,
+        Transaction.Type type,
+        String description,
+        LocalDateTime timestamp
+) {
+
+    //  The order every history listing uses: timestamp DESC, id DESC
+    public static final Comparator<TransactionView> NEWEST_FIRST =
+            Comparator.comparing(TransactionView::timestamp, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(TransactionView::id, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .reversed();
+
+    //  For rows this service just wrote: the saved entity is already in hand
+    public static TransactionView of(Transaction transaction) {
+        return new TransactionView(
+                transaction.getId(),
+                transaction.getWallet() != null ? transaction.getWallet().getId() : null,
+                transaction.getAmount(),
+                transaction.getType(),
+                transaction.getDescription(),
+                transaction.getTimestamp()
+        );
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.wallet_service.exception;
 
+import com.example.wallet_service.service.walletMetricsService.WalletMetrics;
 import jakarta.persistence.OptimisticLockException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -19,6 +21,12 @@ public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private final WalletMetrics walletMetrics;
+
+    public GlobalExceptionHandler(WalletMetrics walletMetrics) {
+        this.walletMetrics = walletMetrics;
+    }
+
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<Map<String, Object>> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
         String invalidValue = ex.getValue() != null ? ex.getValue().toString() : "null";
@@ -88,8 +96,14 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
-    @ExceptionHandler(OptimisticLockException.class)
-    public ResponseEntity<?> handleOptimisticLockException(OptimisticLockException ex) {
+    //  The version check normally fails at commit, after the service method has returned, and
+    //  reaches here wrapped by Spring; both forms are the same conflict
+    @ExceptionHandler({OptimisticLockException.class, ObjectOptimisticLockingFailureException.class})
+    public ResponseEntity<?> handleOptimisticLockException(Exception ex) {
+        //  Spring's wrapper names the entity that failed the check; for a Wallet that is the wallet id
+        Long walletId = ex instanceof ObjectOptimisticLockingFailureException failure
+                && failure.getIdentifier() instanceof Long id ? id : null;
+        walletMetrics.conflict("commit", walletId, null);
         return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
                 "errorCode", "CONFLICT",
                 "reason", "Wallet was modified by another transaction. Please retry."
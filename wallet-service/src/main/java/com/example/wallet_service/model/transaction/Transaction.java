@@ -34,6 +34,10 @@ public class Transaction {
     @Column(name = "timestamp", columnDefinition = "TIMESTAMP(6)")
     private LocalDateTime timestamp;
 
+    //  Copy of wallet.userId taken at write time, so per-user reports skip the wallets join
+    @Column(name = "user_id")
+    private Long userId;
+
 
     public enum Type {
         CREDIT, DEBIT, TRANSFER
@@ -44,6 +48,7 @@ public class Transaction {
     public Transaction(Wallet wallet, BigDecimal amount, Type type, String description) {
 
         this.wallet = wallet;
+        this.userId = wallet != null ? wallet.getUserId() : null;
         this.amount = amount;
         this.type = type;
         this.description = description;
@@ -52,6 +57,9 @@ public class Transaction {
     @PrePersist
     protected void onCreate() {
         this.timestamp = LocalDateTime.now(ZoneOffset.UTC);
+        if (this.userId == null && this.wallet != null) {
+            this.userId = this.wallet.getUserId();
+        }
     }
 
 
@@ -73,6 +81,9 @@ public class Transaction {
     public LocalDateTime getTimestamp() { return timestamp; }
     public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
 
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
     @Override
     public String toString() {
         return "Transaction{" +
@@ -0,0 +1,55 @@
+package com.example.wallet_service.model.transactionArchive;
+
+import com.example.wallet_service.dto.transactionDto.TransactionView;
+import com.example.wallet_service.model.transaction.Transaction;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A transaction moved out of {@code transactions} once it fell behind the retention window.
+ * Rows keep their original id, and are only ever written by the archive job, hence immutable.
+ */
+@Entity
+@Immutable
+@Table(name = "transactions_archive")
+public class ArchivedTransaction {
+
+    @Id
+    private Long id;
+
+    @Column(name = "wallet_id", nullable = false)
+    private Long walletId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Transaction.Type type;
+
+    @Column(length = 255)
+    private String description;
+
+    @Column(name = "timestamp", columnDefinition = "TIMESTAMP(6)")
+    private LocalDateTime timestamp;
+
+    public ArchivedTransaction() {}
+
+    public Long getId() { return id; }
+    public Long getWalletId() { return walletId; }
+    public Long getUserId() { return userId; }
+    public BigDecimal getAmount() { return amount; }
+    public Transaction.Type getType() { return type; }
+    public String getDescription() { return description; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+
+    public TransactionView toView() {
+        return new TransactionView(id, walletId, amount, type, description, timestamp);
+    }
+}
@@ -1,12 +1,21 @@
 package com.example.wallet_service.model.wallet;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.math.BigDecimal;
 
+//  Second-level cached: ownership checks read wallets by id several times per request.
+//  READ_WRITE soft-locks an entry while it is being updated and never lets an older version overwrite a newer one.
 @Entity
 @Table(name = "wallets")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Wallet.CACHE_REGION)
 public class Wallet {
 
+    public static final String CACHE_REGION = "wallets";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
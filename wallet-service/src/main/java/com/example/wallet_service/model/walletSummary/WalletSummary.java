@@ -0,0 +1,73 @@
+package com.example.wallet_service.model.walletSummary;
+
+import com.example.wallet_service.model.transaction.Transaction;
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Running totals per wallet and transaction type, kept in step with {@code transactions} by
+ * every credit/debit so the summary endpoint never has to aggregate history.
+ */
+@Entity
+@Table(name = "wallet_summary")
+@IdClass(WalletSummary.Key.class)
+public class WalletSummary {
+
+    @Id
+    @Column(name = "wallet_id")
+    private Long walletId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Transaction.Type type;
+
+    @Column(name = "total_amount", nullable = false)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(name = "tx_count", nullable = false)
+    private long txCount;
+
+    public WalletSummary() {}
+
+    public WalletSummary(Long walletId, Transaction.Type type, BigDecimal totalAmount, long txCount) {
+        this.walletId = walletId;
+        this.type = type;
+        this.totalAmount = totalAmount;
+        this.txCount = txCount;
+    }
+
+    // 🔹 Getters
+    public Long getWalletId() { return walletId; }
+    public Transaction.Type getType() { return type; }
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public long getTxCount() { return txCount; }
+
+    public static class Key implements Serializable {
+
+        private Long walletId;
+        private Transaction.Type type;
+
+        public Key() {}
+
+        public Key(Long walletId, Transaction.Type type) {
+            this.walletId = walletId;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(walletId, key.walletId) && type == key.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(walletId, type);
+        }
+    }
+}
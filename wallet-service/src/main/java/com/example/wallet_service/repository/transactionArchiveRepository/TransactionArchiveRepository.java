@@ -0,0 +1,112 @@
+package com.example.wallet_service.repository.transactionArchiveRepository;
+
+import com.example.wallet_service.dto.transactionDto.TransactionOwnerView;
+import com.example.wallet_service.dto.transactionDto.TransactionView;
+import com.example.wallet_service.model.transaction.Transaction;
+import com.example.wallet_service.model.transactionArchive.ArchivedTransaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Reads against {@code transactions_archive} mirroring the hot-table queries in
+ * TransactionRepository, plus the statements the archive job uses to move rows across. Archive
+ * reads with optional filters are built per filter shape in TransactionHistoryRepositoryImpl.
+ */
+@Repository
+public interface TransactionArchiveRepository extends JpaRepository<ArchivedTransaction, Long> {
+
+    //  Newest archived row; read via idx_txa_ts_id
+    @Query("SELECT MAX(a.timestamp) FROM ArchivedTransaction a")
+    LocalDateTime findNewestTimestamp();
+
+    // ======================== Reads ========================
+
+    @Query("""
+    SELECT new com.example.wallet_service.dto.transactionDto.TransactionView(a.id, a.walletId, a.amount, a.type, a.description, a.timestamp)
+    FROM ArchivedTransaction a
+    WHERE a.walletId = :walletId
+    """)
+    List<TransactionView> findViewsByWalletId(@Param("walletId") Long walletId);
+
+    @Query("""
+    SELECT new com.example.wallet_service.dto.transactionDto.TransactionOwnerView(
+        a.id, a.walletId, a.userId, a.amount, a.type, a.description, a.timestamp)
+    FROM ArchivedTransaction a
+    WHERE a.id = :id
+    """)
+    Optional<TransactionOwnerView> findViewById(@Param("id") Long id);
+
+    @Query("""
+    SELECT COALESCE(SUM(a.amount), 0)
+    FROM ArchivedTransaction a
+    WHERE a.walletId = :walletId
+    AND a.type = :type
+    AND a.timestamp BETWEEN :start AND :end
+    """)
+    BigDecimal getTotalAmountByWalletAndTypeBetweenDates(
+            @Param("walletId") Long walletId,
+            @Param("type") Transaction.Type type,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
+    );
+
+    @Query("""
+    SELECT new com.example.wallet_service.dto.transactionDto.TransactionView(a.id, a.walletId, a.amount, a.type, a.description, a.timestamp)
+    FROM ArchivedTransaction a
+    WHERE a.walletId = :walletId
+    ORDER BY a.timestamp DESC, a.id DESC
+    """)
+    List<TransactionView> findTopTransactionsByWalletId(@Param("walletId") Long walletId, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT a FROM ArchivedTransaction a WHERE a.walletId = :walletId ORDER BY a.timestamp, a.id")
+    Stream<ArchivedTransaction> streamByWalletId(@Param("walletId") Long walletId);
+
+    // ======================== Archive job ========================
+
+    @Query(value = "SELECT MIN(id) FROM transactions WHERE timestamp < :cutoff", nativeQuery = true)
+    Long findMinHotIdBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Query(value = "SELECT MAX(id) FROM transactions WHERE timestamp < :cutoff", nativeQuery = true)
+    Long findMaxHotIdBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    //  user_id is resolved here for rows the user_id backfill has not reached yet
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "transactions_archive"))
+    @Query(value = """
+    INSERT INTO transactions_archive (id, wallet_id, user_id, amount, type, description, timestamp)
+    SELECT t.id, t.wallet_id,
+           COALESCE(t.user_id, (SELECT w.user_id FROM wallets w WHERE w.id = t.wallet_id)),
+           t.amount, t.type, t.description, t.timestamp
+    FROM transactions t
+    WHERE t.id BETWEEN :fromId AND :toId
+    AND t.timestamp < :cutoff
+    """, nativeQuery = true)
+    int copyToArchive(@Param("fromId") Long fromId, @Param("toId") Long toId, @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "transactions"))
+    @Query(value = """
+    DELETE FROM transactions
+    WHERE id BETWEEN :fromId AND :toId
+    AND timestamp < :cutoff
+    """, nativeQuery = true)
+    int deleteFromHot(@Param("fromId") Long fromId, @Param("toId") Long toId, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,101 @@
+package com.example.wallet_service.repository.transactionRepository;
+
+import com.example.wallet_service.dto.transactionDto.TransactionView;
+import com.example.wallet_service.model.transaction.Transaction;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Custom fragment of {@link TransactionRepository} for the history searches and user reports,
+ * whose WHERE clause depends on which filters the caller supplied.
+ */
+public interface TransactionHistoryRepository {
+
+    //  Any filter may be null; null filters are left out of the query rather than OR-ed away
+    Slice<TransactionView> findTransactionsWithFilters(
+            Long walletId,
+            Transaction.Type type,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            Pageable pageable
+    );
+
+    //  Same search over transactions_archive
+    Slice<TransactionView> findArchivedTransactionsWithFilters(
+            Long walletId,
+            Transaction.Type type,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            Pageable pageable
+    );
+
+    // ========================= KEYSET (SEEK) PAGINATION =========================
+
+    //  Newest rows of one wallet; type and dates may be null
+    List<TransactionView> findHistoryFirstPage(
+            Long walletId,
+            Transaction.Type type,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            Limit limit
+    );
+
+    //  Seeks past the last row of the previous page, so page N costs the same as page 0
+    List<TransactionView> findHistoryPageAfter(
+            Long walletId,
+            Transaction.Type type,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            LocalDateTime cursorTimestamp,
+            Long cursorId,
+            Limit limit
+    );
+
+    //  Same pages over transactions_archive; archived rows keep their ids, so one cursor seeks in both
+    List<TransactionView> findArchivedHistoryFirstPage(
+            Long walletId,
+            Transaction.Type type,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            Limit limit
+    );
+
+    List<TransactionView> findArchivedHistoryPageAfter(
+            Long walletId,
+            Transaction.Type type,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            LocalDateTime cursorTimestamp,
+            Long cursorId,
+            Limit limit
+    );
+
+    // ========================= USER REPORTS =========================
+
+    //  One range scan of idx_tx_user_ts over the denormalised user_id; type (nullable) is a residual filter
+    List<TransactionView> findUserTransactionsBetweenDates(
+            Long userId,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            Transaction.Type type
+    );
+
+    //  Pre-backfill form: resolves the user through wallets, used until every row carries user_id
+    List<TransactionView> findUserTransactionsBetweenDatesViaWallets(
+            Long userId,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            Transaction.Type type
+    );
+
+    List<TransactionView> findArchivedUserTransactionsBetweenDates(
+            Long userId,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            Transaction.Type type
+    );
+}
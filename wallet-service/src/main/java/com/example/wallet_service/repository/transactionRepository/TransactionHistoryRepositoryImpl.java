@@ -0,0 +1,273 @@
+package com.example.wallet_service.repository.transactionRepository;
+
+import com.example.wallet_service.dto.transactionDto.TransactionView;
+import com.example.wallet_service.model.transaction.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Builds the history and user-report queries from only the filters that were supplied.
+ * <p>
+ * The old single query used catch-all predicates like {@code (:walletId IS NULL OR w.id = :walletId)},
+ * which the optimizer has to plan for every combination at once and so falls back to a scan.
+ * Here each of the 16 filter combinations ("shapes") gets its own JPQL string with plain
+ * equality/range predicates. The strings are built once, up front, so every call for a shape hands
+ * Hibernate the identical text and its query plan cache compiles each shape only once.
+ * The archive table gets the same 16 shapes over {@code ArchivedTransaction}.
+ * <p>
+ * The cursor history reuses the shapes that include the wallet: its first page is the same string
+ * as the offset search, and later pages add the (timestamp, id) seek. User reports only vary by
+ * whether a type was given.
+ */
+class TransactionHistoryRepositoryImpl implements TransactionHistoryRepository {
+
+    static final int WALLET = 1;
+    static final int TYPE = 1 << 1;
+    static final int START = 1 << 2;
+    static final int END = 1 << 3;
+
+    static final int SHAPES = 1 << 4;
+
+    private static final String SEEK =
+            "(t.timestamp < :cursorTimestamp OR (t.timestamp = :cursorTimestamp AND t.id < :cursorId))";
+
+    private static final String[] QUERIES = new String[SHAPES];
+    private static final String[] ARCHIVE_QUERIES = new String[SHAPES];
+    private static final String[] SEEK_QUERIES = new String[SHAPES];
+    private static final String[] ARCHIVE_SEEK_QUERIES = new String[SHAPES];
+
+    //  Indexed by whether a type filter is present
+    private static final String[] USER_QUERIES = new String[2];
+    private static final String[] USER_VIA_WALLETS_QUERIES = new String[2];
+    private static final String[] ARCHIVE_USER_QUERIES = new String[2];
+
+    static {
+        for (int shape = 0; shape < SHAPES; shape++) {
+            QUERIES[shape] = buildQuery(shape, "Transaction", "t.wallet.id", false);
+            ARCHIVE_QUERIES[shape] = buildQuery(shape, "ArchivedTransaction", "t.walletId", false);
+            SEEK_QUERIES[shape] = buildQuery(shape, "Transaction", "t.wallet.id", true);
+            ARCHIVE_SEEK_QUERIES[shape] = buildQuery(shape, "ArchivedTransaction", "t.walletId", true);
+        }
+        for (int typed = 0; typed < 2; typed++) {
+            USER_QUERIES[typed] = buildUserQuery(typed == 1, "Transaction t", "t.wallet.id", "t.userId");
+            USER_VIA_WALLETS_QUERIES[typed] = buildUserQuery(typed == 1, "Transaction t JOIN t.wallet w", "t.wallet.id", "w.userId");
+            ARCHIVE_USER_QUERIES[typed] = buildUserQuery(typed == 1, "ArchivedTransaction t", "t.walletId", "t.userId");
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<TransactionView> findTransactionsWithFilters(Long walletId,
+                                                              Transaction.Type type,
+                                                              LocalDateTime startDate,
+                                                              LocalDateTime endDate,
+                                                              Pageable pageable) {
+        return find(QUERIES, walletId, type, startDate, endDate, pageable);
+    }
+
+    @Override
+    public Slice<TransactionView> findArchivedTransactionsWithFilters(Long walletId,
+                                                                      Transaction.Type type,
+                                                                      LocalDateTime startDate,
+                                                                      LocalDateTime endDate,
+                                                                      Pageable pageable) {
+        return find(ARCHIVE_QUERIES, walletId, type, startDate, endDate, pageable);
+    }
+
+    // ========================= KEYSET (SEEK) PAGINATION =========================
+
+    @Override
+    public List<TransactionView> findHistoryFirstPage(Long walletId,
+                                                      Transaction.Type type,
+                                                      LocalDateTime startDate,
+                                                      LocalDateTime endDate,
+                                                      Limit limit) {
+        return limited(bind(QUERIES, walletId, type, startDate, endDate), limit);
+    }
+
+    @Override
+    public List<TransactionView> findHistoryPageAfter(Long walletId,
+                                                      Transaction.Type type,
+                                                      LocalDateTime startDate,
+                                                      LocalDateTime endDate,
+                                                      LocalDateTime cursorTimestamp,
+                                                      Long cursorId,
+                                                      Limit limit) {
+        return limited(seek(bind(SEEK_QUERIES, walletId, type, startDate, endDate), cursorTimestamp, cursorId), limit);
+    }
+
+    @Override
+    public List<TransactionView> findArchivedHistoryFirstPage(Long walletId,
+                                                              Transaction.Type type,
+                                                              LocalDateTime startDate,
+                                                              LocalDateTime endDate,
+                                                              Limit limit) {
+        return limited(bind(ARCHIVE_QUERIES, walletId, type, startDate, endDate), limit);
+    }
+
+    @Override
+    public List<TransactionView> findArchivedHistoryPageAfter(Long walletId,
+                                                              Transaction.Type type,
+                                                              LocalDateTime startDate,
+                                                              LocalDateTime endDate,
+                                                              LocalDateTime cursorTimestamp,
+                                                              Long cursorId,
+                                                              Limit limit) {
+        return limited(seek(bind(ARCHIVE_SEEK_QUERIES, walletId, type, startDate, endDate), cursorTimestamp, cursorId), limit);
+    }
+
+    // ========================= USER REPORTS =========================
+
+    @Override
+    public List<TransactionView> findUserTransactionsBetweenDates(Long userId,
+                                                                  LocalDateTime startDate,
+                                                                  LocalDateTime endDate,
+                                                                  Transaction.Type type) {
+        return findUser(USER_QUERIES, userId, startDate, endDate, type);
+    }
+
+    @Override
+    public List<TransactionView> findUserTransactionsBetweenDatesViaWallets(Long userId,
+                                                                            LocalDateTime startDate,
+                                                                            LocalDateTime endDate,
+                                                                            Transaction.Type type) {
+        return findUser(USER_VIA_WALLETS_QUERIES, userId, startDate, endDate, type);
+    }
+
+    @Override
+    public List<TransactionView> findArchivedUserTransactionsBetweenDates(Long userId,
+                                                                          LocalDateTime startDate,
+                                                                          LocalDateTime endDate,
+                                                                          Transaction.Type type) {
+        return findUser(ARCHIVE_USER_QUERIES, userId, startDate, endDate, type);
+    }
+
+    private Slice<TransactionView> find(String[] queries,
+                                        Long walletId,
+                                        Transaction.Type type,
+                                        LocalDateTime startDate,
+                                        LocalDateTime endDate,
+                                        Pageable pageable) {
+        TypedQuery<TransactionView> query = bind(queries, walletId, type, startDate, endDate);
+
+        if (pageable.isUnpaged()) {
+            List<TransactionView> all = query.getResultList();
+            return new SliceImpl<>(all, pageable, false);
+        }
+
+        //  One extra row tells us whether there is a next slice, without a COUNT query
+        int size = pageable.getPageSize();
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(size + 1);
+
+        List<TransactionView> rows = query.getResultList();
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, pageable, hasNext);
+    }
+
+    private TypedQuery<TransactionView> bind(String[] queries,
+                                             Long walletId,
+                                             Transaction.Type type,
+                                             LocalDateTime startDate,
+                                             LocalDateTime endDate) {
+        int shape = shapeOf(walletId, type, startDate, endDate);
+        TypedQuery<TransactionView> query = entityManager.createQuery(queries[shape], TransactionView.class);
+
+        if ((shape & WALLET) != 0) query.setParameter("walletId", walletId);
+        if ((shape & TYPE) != 0) query.setParameter("type", type);
+        if ((shape & START) != 0) query.setParameter("startDate", startDate);
+        if ((shape & END) != 0) query.setParameter("endDate", endDate);
+        return query;
+    }
+
+    private static TypedQuery<TransactionView> seek(TypedQuery<TransactionView> query,
+                                                    LocalDateTime cursorTimestamp,
+                                                    Long cursorId) {
+        return query.setParameter("cursorTimestamp", cursorTimestamp).setParameter("cursorId", cursorId);
+    }
+
+    private static List<TransactionView> limited(TypedQuery<TransactionView> query, Limit limit) {
+        if (limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+        return query.getResultList();
+    }
+
+    private List<TransactionView> findUser(String[] queries,
+                                           Long userId,
+                                           LocalDateTime startDate,
+                                           LocalDateTime endDate,
+                                           Transaction.Type type) {
+        TypedQuery<TransactionView> query = entityManager.createQuery(queries[type != null ? 1 : 0], TransactionView.class)
+                .setParameter("userId", userId)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate);
+        if (type != null) {
+            query.setParameter("type", type);
+        }
+        return query.getResultList();
+    }
+
+    static int shapeOf(Long walletId, Transaction.Type type, LocalDateTime startDate, LocalDateTime endDate) {
+        int shape = 0;
+        if (walletId != null) shape |= WALLET;
+        if (type != null) shape |= TYPE;
+        if (startDate != null) shape |= START;
+        if (endDate != null) shape |= END;
+        return shape;
+    }
+
+    static String queryFor(int shape) {
+        return QUERIES[shape];
+    }
+
+    private static String buildQuery(int shape, String entity, String walletPath, boolean seek) {
+        StringBuilder jpql = new StringBuilder(
+                "SELECT new com.example.wallet_service.dto.transactionDto.TransactionView("
+                        + "t.id, " + walletPath + ", t.amount, t.type, t.description, t.timestamp) "
+                        + "FROM " + entity + " t");
+
+        String glue = " WHERE ";
+        if ((shape & WALLET) != 0) {
+            jpql.append(glue).append(walletPath).append(" = :walletId");
+            glue = " AND ";
+        }
+        if ((shape & TYPE) != 0) {
+            jpql.append(glue).append("t.type = :type");
+            glue = " AND ";
+        }
+        if ((shape & START) != 0) {
+            jpql.append(glue).append("t.timestamp >= :startDate");
+            glue = " AND ";
+        }
+        if ((shape & END) != 0) {
+            jpql.append(glue).append("t.timestamp <= :endDate");
+            glue = " AND ";
+        }
+        if (seek) {
+            jpql.append(glue).append(SEEK);
+        }
+
+        return jpql.append(" ORDER BY t.timestamp DESC, t.id DESC").toString();
+    }
+
+    private static String buildUserQuery(boolean typed, String from, String walletPath, String userPath) {
+        return "SELECT new com.example.wallet_service.dto.transactionDto.TransactionView("
+                + "t.id, " + walletPath + ", t.amount, t.type, t.description, t.timestamp) "
+                + "FROM " + from
+                + " WHERE " + userPath + " = :userId"
+                + " AND t.timestamp BETWEEN :startDate AND :endDate"
+                + (typed ? " AND t.type = :type" : "")
+                + " ORDER BY t.timestamp DESC";
+    }
+}
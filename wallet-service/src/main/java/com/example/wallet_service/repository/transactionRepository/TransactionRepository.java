@@ -1,51 +1,27 @@
 package com.example.wallet_service.repository.transactionRepository;
 
+import com.example.wallet_service.dto.transactionDto.TransactionOwnerView;
+import com.example.wallet_service.dto.transactionDto.TransactionSummaryDTO;
+import com.example.wallet_service.dto.transactionDto.TransactionView;
 import com.example.wallet_service.model.transaction.Transaction;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionHistoryRepository {
 
-    @Query("""
-    SELECT t FROM Transaction t
-    JOIN t.wallet w
-    WHERE (:walletId IS NULL OR w.id = :walletId)
-   
-    AND (:type IS NULL OR t.type = :type)
-    AND (:startDate IS NULL OR t.timestamp >= :startDate)
-    AND (:endDate IS NULL OR t.timestamp <= :endDate)
-    ORDER BY t.timestamp DESC
-    """)
-    Page<Transaction> findTransactionsWithFilters(
-            @Param("walletId") Long walletId,
-
-            @Param("type") Transaction.Type type,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate,
-            Pageable pageable
-    );
-
-    @Query("""
-        SELECT t FROM Transaction t
-        JOIN t.wallet w
-        WHERE w.userId = :userId
-        AND t.timestamp BETWEEN :startDate AND :endDate
-        AND (:type IS NULL OR t.type = :type)
-        ORDER BY t.timestamp DESC
-        """)
-    List<Transaction> findUserTransactionsBetweenDates(
-            @Param("userId") Long userId,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate,
-            @Param("type") Transaction.Type type
-    );
+    //  Queries with optional filters (offset and cursor history, user reports) live in TransactionHistoryRepositoryImpl
 
     @Query("""
     SELECT COALESCE(SUM(t.amount), 0)
@@ -61,11 +37,68 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             @Param("end") LocalDateTime end
     );
 
-    List<Transaction> findByWalletId(Long walletId);
+    //  Filters on t.wallet.id (the FK column) so no wallets join is needed and idx_tx_wallet_ts_id applies
+    @Query("""
+    SELECT new com.example.wallet_service.dto.transactionDto.TransactionView(t.id, t.wallet.id, t.amount, t.type, t.description, t.timestamp)
+    FROM Transaction t
+    WHERE t.wallet.id = :walletId
+    """)
+    List<TransactionView> findViewsByWalletId(@Param("walletId") Long walletId);
+
+    //  Owner id comes from the same join, so the ownership check needs no lazy wallet load
+    @Query("""
+    SELECT new com.example.wallet_service.dto.transactionDto.TransactionOwnerView(
+        t.id, w.id, w.userId, t.amount, t.type, t.description, t.timestamp)
+    FROM Transaction t
+    JOIN t.wallet w
+    WHERE t.id = :id
+    """)
+    Optional<TransactionOwnerView> findViewById(@Param("id") Long id);
+
+    //  Cursor-style read for exports: rows are pulled in fetch-size batches instead of one big List
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT t FROM Transaction t WHERE t.wallet.id = :walletId ORDER BY t.timestamp, t.id")
+    Stream<Transaction> streamByWalletId(@Param("walletId") Long walletId);
+
+    @Query("""
+    SELECT new com.example.wallet_service.dto.transactionDto.TransactionSummaryDTO(t.type, SUM(t.amount))
+    FROM Transaction t
+    WHERE t.wallet.id = :walletId
+    GROUP BY t.type
+    """)
+    List<TransactionSummaryDTO> getTransactionSumsByType(@Param("walletId") Long walletId);
+
+    //  Latest-first, bounded by the caller's Limit; walks idx_tx_wallet_ts_id backwards
+    @Query("""
+    SELECT new com.example.wallet_service.dto.transactionDto.TransactionView(t.id, t.wallet.id, t.amount, t.type, t.description, t.timestamp)
+    FROM Transaction t
+    WHERE t.wallet.id = :walletId
+    ORDER BY t.timestamp DESC, t.id DESC
+    """)
+    List<TransactionView> findTopTransactionsByWalletId(@Param("walletId") Long walletId, Limit limit);
+
+    // ======================== user_id backfill ========================
+
+    //  Seek on idx_tx_user_ts: answers from the NULL end of the index
+    boolean existsByUserIdIsNull();
+
+    @Query("SELECT MIN(t.id) FROM Transaction t WHERE t.userId IS NULL")
+    Long findMinIdWithoutUserId();
 
-    @Query("SELECT t.type, SUM(t.amount) FROM Transaction t WHERE t.wallet.id = :walletId GROUP BY t.type")
-    List<Object[]> getTransactionSumsByType(@Param("walletId") Long walletId);
+    @Query("SELECT MAX(t.id) FROM Transaction t WHERE t.userId IS NULL")
+    Long findMaxIdWithoutUserId();
 
-    @Query("SELECT t FROM Transaction t WHERE t.wallet.id = :walletId ORDER BY t.timestamp DESC")
-    List<Transaction> findTopTransactionsByWalletId(@Param("walletId") Long walletId);
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "transactions"))
+    @Query(value = """
+    UPDATE transactions t
+    SET t.user_id = (SELECT w.user_id FROM wallets w WHERE w.id = t.wallet_id)
+    WHERE t.user_id IS NULL
+    AND t.id BETWEEN :fromId AND :toId
+    """, nativeQuery = true)
+    int backfillUserIds(@Param("fromId") Long fromId, @Param("toId") Long toId);
 }
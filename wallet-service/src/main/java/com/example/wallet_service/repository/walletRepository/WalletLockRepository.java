@@ -0,0 +1,15 @@
+package com.example.wallet_service.repository.walletRepository;
+
+import com.example.wallet_service.model.wallet.Wallet;
+
+import java.util.Optional;
+
+/**
+ * Custom fragment of {@link WalletRepository} for the row lock every balance change starts with.
+ */
+public interface WalletLockRepository {
+
+    //  Credit, debit and transfer take this lock before writing anything else, the same lock the
+    //  summary rebuild takes on its wallet range, so the two queue instead of deadlocking
+    Optional<Wallet> findByIdForUpdate(Long id);
+}
@@ -0,0 +1,25 @@
+package com.example.wallet_service.repository.walletRepository;
+
+import com.example.wallet_service.model.wallet.Wallet;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.Optional;
+
+/**
+ * Locks through {@link EntityManager#find} rather than a {@code @Lock} query: a wallet the
+ * transaction has already locked is returned from the persistence context without another
+ * {@code SELECT ... FOR UPDATE}, so the debit and credit legs of a transfer do not re-lock the
+ * rows the transfer locked.
+ */
+class WalletLockRepositoryImpl implements WalletLockRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Wallet> findByIdForUpdate(Long id) {
+        return Optional.ofNullable(entityManager.find(Wallet.class, id, LockModeType.PESSIMISTIC_WRITE));
+    }
+}
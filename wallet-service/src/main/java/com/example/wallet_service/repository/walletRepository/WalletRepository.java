@@ -5,17 +5,24 @@ import com.example.wallet_service.model.wallet.Wallet;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
-public interface WalletRepository extends JpaRepository<Wallet, Long> {
+public interface WalletRepository extends JpaRepository<Wallet, Long>, WalletLockRepository {
 
     //List<Wallet> findByUserId(Long userId);
     //List<Wallet> findByBalanceGreaterThan(BigDecimal threshold);
     Optional<Wallet> findByIdAndBlacklistedFalse(Long id);
 
+    //  Owner only, for WalletOwnerIndex misses. Read-write so it runs on the primary and a
+    //  wallet created a moment ago is already visible
+    @Transactional
+    @Query("SELECT w.userId FROM Wallet w WHERE w.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+
     //  Corrected query - use w.userId
 //    @Query("SELECT SUM(w.balance) FROM Wallet w WHERE w.userId = :userId")
 //    BigDecimal getTotalBalanceByUserId(@Param("userId") Long userId);
@@ -0,0 +1,74 @@
+package com.example.wallet_service.repository.walletSummaryRepository;
+
+import com.example.wallet_service.dto.transactionDto.TransactionSummaryDTO;
+import com.example.wallet_service.model.walletSummary.WalletSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface WalletSummaryRepository extends JpaRepository<WalletSummary, WalletSummary.Key> {
+
+    //  Primary-key lookup: at most one row per transaction type
+    @Query("""
+    SELECT new com.example.wallet_service.dto.transactionDto.TransactionSummaryDTO(s.type, s.totalAmount)
+    FROM WalletSummary s
+    WHERE s.walletId = :walletId
+    ORDER BY s.type
+    """)
+    List<TransactionSummaryDTO> findSummaryByWalletId(@Param("walletId") Long walletId);
+
+    //  Native writes declare the table they touch; without it Hibernate drops every second-level cache region
+
+    //  Single-statement upsert; the row lock it takes serialises concurrent writers of the same wallet/type
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "wallet_summary"))
+    @Query(value = """
+    INSERT INTO wallet_summary (wallet_id, type, total_amount, tx_count)
+    VALUES (:walletId, :type, :amount, 1)
+    ON DUPLICATE KEY UPDATE total_amount = total_amount + :amount, tx_count = tx_count + 1
+    """, nativeQuery = true)
+    int addTransaction(@Param("walletId") Long walletId,
+                       @Param("type") String type,
+                       @Param("amount") BigDecimal amount);
+
+    // ======================== Rebuild ========================
+
+    @Query("SELECT MIN(w.id) FROM Wallet w")
+    Long findMinWalletId();
+
+    @Query("SELECT MAX(w.id) FROM Wallet w")
+    Long findMaxWalletId();
+
+    //  Credit, debit and transfer lock their wallet row (WalletRepository#findByIdForUpdate) before
+    //  writing anything, so holding these locks keeps writers out of the range until the chunk commits
+    @Query(value = "SELECT id FROM wallets WHERE id BETWEEN :fromId AND :toId FOR UPDATE", nativeQuery = true)
+    List<Long> lockWalletRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "wallet_summary"))
+    @Query(value = "DELETE FROM wallet_summary WHERE wallet_id BETWEEN :fromId AND :toId", nativeQuery = true)
+    int deleteRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "wallet_summary"))
+    @Query(value = """
+    INSERT INTO wallet_summary (wallet_id, type, total_amount, tx_count)
+    SELECT t.wallet_id, t.type, SUM(t.amount), COUNT(*)
+    FROM (
+        SELECT wallet_id, type, amount FROM transactions WHERE wallet_id BETWEEN :fromId AND :toId
+        UNION ALL
+        SELECT wallet_id, type, amount FROM transactions_archive WHERE wallet_id BETWEEN :fromId AND :toId
+    ) t
+    GROUP BY t.wallet_id, t.type
+    """, nativeQuery = true)
+    int rebuildRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+}
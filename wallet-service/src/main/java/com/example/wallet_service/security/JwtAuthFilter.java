@@ -3,6 +3,7 @@ package com.example.wallet_service.security;
 
 
 import com.example.wallet_service.exception.JwtValidationException;
+import com.example.wallet_service.service.walletMetricsService.WalletPhaseTimings;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,9 +19,11 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final WalletPhaseTimings phaseTimings;
 
-    public JwtAuthFilter(JwtUtil jwtUtil) {
+    public JwtAuthFilter(JwtUtil jwtUtil, WalletPhaseTimings phaseTimings) {
         this.jwtUtil = jwtUtil;
+        this.phaseTimings = phaseTimings;
     }
 
 
@@ -29,9 +32,11 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         String header = request.getHeader("Authorization");
+        phaseTimings.begin();
 
         try {
             if (header != null && header.startsWith("Bearer ")) {
+                long jwtStarted = System.nanoTime();
                 String token = header.substring(7);
 
                 //  Store it for downstream RestTemplate calls
@@ -49,6 +54,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                 }
+                phaseTimings.record(WalletPhaseTimings.Phase.JWT, System.nanoTime() - jwtStarted);
             }
 
             filterChain.doFilter(request, response);
@@ -64,6 +70,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         } finally {
             // ✅ Always clear after request completes
             JwtRequestContext.clear();
+            phaseTimings.end();
         }
     }
 
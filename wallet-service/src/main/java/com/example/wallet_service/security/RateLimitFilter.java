@@ -0,0 +1,116 @@
+package com.example.wallet_service.security;
+
+import com.example.wallet_service.config.rateLimitConfig.RateLimitConfig;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits {@code /api/**} per caller and route class.
+ * <p>
+ * Runs after {@link JwtAuthFilter}, so authenticated callers are keyed by their user id and
+ * anonymous callers by client IP. Each route class has its own bucket per caller.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    enum RouteClass { MUTATIONS, READS, ADMIN, AUTH }
+
+    private final RateLimitConfig config;
+    private final TokenBucketLimiter limiter;
+    private final Map<RouteClass, TokenBucketLimiter.Limit> limits = new EnumMap<>(RouteClass.class);
+
+    public RateLimitFilter(RateLimitConfig config) {
+        this.config = config;
+        this.limiter = new TokenBucketLimiter(
+                config.getMaxBuckets(),
+                config.getStripes(),
+                TimeUnit.SECONDS.toNanos(config.getIdleSweepSeconds()),
+                System::nanoTime
+        );
+        limits.put(RouteClass.MUTATIONS, new TokenBucketLimiter.Limit(config.getMutationsCapacity(), config.getMutationsRefillPerSecond()));
+        limits.put(RouteClass.READS, new TokenBucketLimiter.Limit(config.getReadsCapacity(), config.getReadsRefillPerSecond()));
+        limits.put(RouteClass.ADMIN, new TokenBucketLimiter.Limit(config.getAdminCapacity(), config.getAdminRefillPerSecond()));
+        limits.put(RouteClass.AUTH, new TokenBucketLimiter.Limit(config.getAuthCapacity(), config.getAuthRefillPerSecond()));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !config.isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RouteClass routeClass = classify(request);
+        String key = routeClass.ordinal() + ":" + callerKey(request);
+
+        TokenBucketLimiter.Decision decision = limiter.tryAcquire(key, limits.get(routeClass));
+
+        response.setHeader("X-RateLimit-Limit", String.valueOf(decision.limit()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.setHeader("X-RateLimit-Reset", String.valueOf(decision.resetSeconds()));
+
+        if (!decision.allowed()) {
+            logger.warn("Rate limit exceeded for {} on {} {}", key, request.getMethod(), request.getRequestURI());
+            response.setHeader("Retry-After", String.valueOf(decision.retryAfterSeconds()));
+            response.setStatus(429);
+            response.setContentType("application/json");
+            response.getWriter().write(
+                    "{\"errorCode\":\"RATE_LIMIT_EXCEEDED\",\"message\":\"Too many requests, retry after "
+                            + decision.retryAfterSeconds() + "s\"}"
+            );
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    RouteClass classify(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (uri.startsWith("/api/admin/") || uri.startsWith("/api/wallets/admin/")) {
+            return RouteClass.ADMIN;
+        }
+        if (uri.startsWith("/api/auth/")) {
+            return RouteClass.AUTH;
+        }
+        return switch (request.getMethod()) {
+            case "GET", "HEAD", "OPTIONS" -> RouteClass.READS;
+            default -> RouteClass.MUTATIONS;
+        };
+    }
+
+    private String callerKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return "u" + principal.getUserId();
+        }
+        return "ip" + clientIp(request);
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (config.isTrustForwardedFor()) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                int comma = forwarded.indexOf(',');
+                return (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
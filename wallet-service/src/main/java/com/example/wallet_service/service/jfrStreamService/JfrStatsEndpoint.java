@@ -0,0 +1,24 @@
+package com.example.wallet_service.service.jfrStreamService;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/** {@code GET /actuator/jfrstats}: rolling GC, contention, allocation, thread and request-executor figures. */
+@Component
+@Endpoint(id = "jfrstats")
+public class JfrStatsEndpoint {
+
+    private final JfrStreamStats jfrStreamStats;
+
+    public JfrStatsEndpoint(JfrStreamStats jfrStreamStats) {
+        this.jfrStreamStats = jfrStreamStats;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return jfrStreamStats.snapshot();
+    }
+}
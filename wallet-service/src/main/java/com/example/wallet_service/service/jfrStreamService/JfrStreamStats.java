@@ -0,0 +1,377 @@
+package com.example.wallet_service.service.jfrStreamService;
+
+import com.example.wallet_service.config.jfrStreamConfig.JfrStreamConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/**
+ * Rolling JVM health figures from an in-process JFR {@link RecordingStream}, served at
+ * {@code /actuator/jfrstats}: GC pauses, contention on application paths, sampled allocation hot
+ * spots, connection-pool waits, live thread counts and saturation of the Tomcat request executor.
+ * <p>
+ * Events are bucketed into {@code jfr-stream.windows} windows of {@code window-seconds} each;
+ * a snapshot merges the windows still inside that span. Monitor and park events are only kept when
+ * a frame of {@code app-package} is on the stack, so idle pool threads waiting for work do not
+ * count as contention. Parks under HikariCP are reported separately as pool waits. The request
+ * executor is not a JFR event: its busy workers and queued connections are sampled on the
+ * once-a-second thread statistics tick, so short bursts between samples are not seen.
+ */
+@Component
+public class JfrStreamStats {
+
+    private static final Logger logger = LoggerFactory.getLogger(JfrStreamStats.class);
+
+    static final String HIKARI_PACKAGE = "com.zaxxer.hikari";
+
+    //  Distinct frames kept per window and table; the rest are folded into OTHER
+    static final int MAX_FRAMES_PER_WINDOW = 500;
+    static final String OTHER = "(other)";
+
+    private final JfrStreamConfig config;
+    private final ArrayDeque<Window> windows = new ArrayDeque<>();
+
+    private RecordingStream stream;
+    private volatile ThreadPoolExecutor requestExecutor;
+
+    public JfrStreamStats(JfrStreamConfig config) {
+        this.config = config;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        Duration threshold = Duration.ofMillis(config.getContentionThresholdMs());
+
+        stream = new RecordingStream();
+        stream.setMaxAge(Duration.ofSeconds((long) config.getWindowSeconds() * config.getWindows()));
+        stream.enable("jdk.GarbageCollection");
+        stream.enable("jdk.JavaMonitorEnter").withThreshold(threshold).withStackTrace();
+        stream.enable("jdk.ThreadPark").withThreshold(threshold).withStackTrace();
+        stream.enable("jdk.ObjectAllocationSample")
+                .with("throttle", config.getAllocationSamplesPerSecond() + "/s")
+                .withStackTrace();
+        stream.enable("jdk.JavaThreadStatistics").withPeriod(Duration.ofSeconds(1));
+
+        stream.onEvent("jdk.GarbageCollection", this::onGarbageCollection);
+        stream.onEvent("jdk.JavaMonitorEnter", this::onBlocked);
+        stream.onEvent("jdk.ThreadPark", this::onBlocked);
+        stream.onEvent("jdk.ObjectAllocationSample", this::onAllocation);
+        stream.onEvent("jdk.JavaThreadStatistics", this::onThreadStatistics);
+        stream.startAsync();
+        logger.info("JFR stream started: {} x {}s windows", config.getWindows(), config.getWindowSeconds());
+    }
+
+    //  The connector's worker pool only exists once the web server is up
+    @EventListener
+    void onWebServerInitialized(WebServerInitializedEvent event) {
+        if ("management".equals(event.getApplicationContext().getServerNamespace())) {
+            return;
+        }
+        if (event.getWebServer() instanceof TomcatWebServer tomcat
+                && tomcat.getTomcat().getConnector().getProtocolHandler().getExecutor() instanceof ThreadPoolExecutor executor) {
+            requestExecutor = executor;
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    // ======================== JFR callbacks ========================
+
+    private void onGarbageCollection(RecordedEvent event) {
+        recordGc(event.getEndTime(), event.getString("name"),
+                event.getDuration("sumOfPauses"), event.getDuration("longestPause"));
+    }
+
+    private void onBlocked(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return;
+        }
+        boolean poolWait = false;
+        String appFrame = null;
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            poolWait |= type.startsWith(HIKARI_PACKAGE);
+            if (type.startsWith(config.getAppPackage())) {
+                appFrame = format(frame);
+                break;
+            }
+        }
+        if (appFrame == null) {
+            return;
+        }
+        if (poolWait) {
+            recordPoolWait(event.getEndTime(), event.getDuration(), appFrame);
+        } else {
+            recordContention(event.getEndTime(), event.getDuration(), appFrame);
+        }
+    }
+
+    private void onAllocation(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return;
+        }
+        recordAllocation(event.getEndTime(), event.getLong("weight"), allocationFrame(stackTrace.getFrames()));
+    }
+
+    private void onThreadStatistics(RecordedEvent event) {
+        recordThreads(event.getEndTime(), event.getLong("activeCount"), event.getLong("peakCount"));
+        ThreadPoolExecutor executor = requestExecutor;
+        if (executor != null) {
+            recordRequestExecutor(event.getEndTime(), executor.getActiveCount(), executor.getQueue().size(),
+                    executor.getMaximumPoolSize());
+        }
+    }
+
+    //  The innermost application frame says which of our code paths allocates; JDK frames alone
+    //  (Arrays.copyOf, StringBuilder) rarely do
+    private String allocationFrame(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            if (frame.getMethod().getType().getName().startsWith(config.getAppPackage())) {
+                return format(frame);
+            }
+        }
+        return format(frames.get(0));
+    }
+
+    private static String format(RecordedFrame frame) {
+        String method = frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+        return frame.getLineNumber() > 0 ? method + ":" + frame.getLineNumber() : method;
+    }
+
+    // ======================== Aggregation ========================
+
+    synchronized void recordGc(Instant at, String collector, Duration sumOfPauses, Duration longestPause) {
+        Window window = window(at);
+        window.gcCount++;
+        window.gcPauseNanos += sumOfPauses.toNanos();
+        window.gcMaxPauseNanos = Math.max(window.gcMaxPauseNanos, longestPause.toNanos());
+        window.collectors.merge(collector, 1L, Long::sum);
+    }
+
+    synchronized void recordContention(Instant at, Duration blocked, String frame) {
+        window(at).contention.add(frame, blocked.toNanos());
+    }
+
+    synchronized void recordPoolWait(Instant at, Duration waited, String frame) {
+        window(at).poolWaits.add(frame, waited.toNanos());
+    }
+
+    synchronized void recordAllocation(Instant at, long bytes, String frame) {
+        window(at).allocations.add(frame, bytes);
+    }
+
+    synchronized void recordThreads(Instant at, long active, long peak) {
+        Window window = window(at);
+        window.maxActiveThreads = Math.max(window.maxActiveThreads, active);
+        window.peakThreads = Math.max(window.peakThreads, peak);
+    }
+
+    synchronized void recordRequestExecutor(Instant at, long busy, long queued, long maxThreads) {
+        Window window = window(at);
+        window.executorSamples++;
+        window.maxBusyWorkers = Math.max(window.maxBusyWorkers, busy);
+        window.maxQueuedRequests = Math.max(window.maxQueuedRequests, queued);
+        window.maxWorkers = Math.max(window.maxWorkers, maxThreads);
+    }
+
+    /** Totals over the windows that still fall inside the rolling span ending at {@code now}. */
+    public synchronized Map<String, Object> snapshot(Instant now) {
+        long oldest = slot(now) - config.getWindows() + 1;
+        evictBefore(oldest);
+
+        long gcCount = 0;
+        long gcPauseNanos = 0;
+        long gcMaxPauseNanos = 0;
+        long maxActive = 0;
+        long peak = 0;
+        long executorSamples = 0;
+        long maxBusy = 0;
+        long maxQueued = 0;
+        long maxWorkers = 0;
+        Map<String, Long> collectors = new HashMap<>();
+        FrameTable contention = new FrameTable();
+        FrameTable poolWaits = new FrameTable();
+        FrameTable allocations = new FrameTable();
+
+        for (Window window : windows) {
+            gcCount += window.gcCount;
+            gcPauseNanos += window.gcPauseNanos;
+            gcMaxPauseNanos = Math.max(gcMaxPauseNanos, window.gcMaxPauseNanos);
+            maxActive = Math.max(maxActive, window.maxActiveThreads);
+            peak = Math.max(peak, window.peakThreads);
+            executorSamples += window.executorSamples;
+            maxBusy = Math.max(maxBusy, window.maxBusyWorkers);
+            maxQueued = Math.max(maxQueued, window.maxQueuedRequests);
+            maxWorkers = Math.max(maxWorkers, window.maxWorkers);
+            window.collectors.forEach((name, count) -> collectors.merge(name, count, Long::sum));
+            contention.addAll(window.contention);
+            poolWaits.addAll(window.poolWaits);
+            allocations.addAll(window.allocations);
+        }
+
+        Map<String, Object> gc = new LinkedHashMap<>();
+        gc.put("count", gcCount);
+        gc.put("totalPauseMs", millis(gcPauseNanos));
+        gc.put("maxPauseMs", millis(gcMaxPauseNanos));
+        gc.put("collectors", collectors);
+
+        Map<String, Object> threads = new LinkedHashMap<>();
+        threads.put("maxActive", maxActive);
+        threads.put("peak", peak);
+
+        //  Busy close to maxThreads with a growing queue means requests wait for a worker
+        Map<String, Object> requestExecutor = new LinkedHashMap<>();
+        requestExecutor.put("samples", executorSamples);
+        requestExecutor.put("maxBusy", maxBusy);
+        requestExecutor.put("maxQueued", maxQueued);
+        requestExecutor.put("maxThreads", maxWorkers);
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", stream != null);
+        snapshot.put("spanSeconds", (long) config.getWindowSeconds() * config.getWindows());
+        snapshot.put("gc", gc);
+        snapshot.put("contention", contention.summary("blockedMs", JfrStreamStats::millis, config.getTopFrames()));
+        snapshot.put("poolWaits", poolWaits.summary("waitedMs", JfrStreamStats::millis, config.getTopFrames()));
+        snapshot.put("allocation", allocations.summary("sampledBytes", Long::valueOf, config.getTopFrames()));
+        snapshot.put("threads", threads);
+        snapshot.put("requestExecutor", requestExecutor);
+        return snapshot;
+    }
+
+    public Map<String, Object> snapshot() {
+        return snapshot(Instant.now());
+    }
+
+    private Window window(Instant at) {
+        long slot = slot(at);
+        Window newest = windows.peekLast();
+        if (newest != null && slot <= newest.slot) {
+            //  Late events land in their own window if it is still kept, else in the newest
+            for (Iterator<Window> it = windows.descendingIterator(); it.hasNext(); ) {
+                Window window = it.next();
+                if (window.slot == slot) {
+                    return window;
+                }
+            }
+            return newest;
+        }
+        Window window = new Window(slot);
+        windows.addLast(window);
+        evictBefore(slot - config.getWindows() + 1);
+        return window;
+    }
+
+    private void evictBefore(long oldestSlot) {
+        while (!windows.isEmpty() && windows.peekFirst().slot < oldestSlot) {
+            windows.removeFirst();
+        }
+    }
+
+    private long slot(Instant at) {
+        return at.getEpochSecond() / Math.max(1, config.getWindowSeconds());
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    // ======================== Window state ========================
+
+    private static final class Window {
+        final long slot;
+        long gcCount;
+        long gcPauseNanos;
+        long gcMaxPauseNanos;
+        long maxActiveThreads;
+        long peakThreads;
+        long executorSamples;
+        long maxBusyWorkers;
+        long maxQueuedRequests;
+        long maxWorkers;
+        final Map<String, Long> collectors = new HashMap<>();
+        final FrameTable contention = new FrameTable();
+        final FrameTable poolWaits = new FrameTable();
+        final FrameTable allocations = new FrameTable();
+
+        Window(long slot) {
+            this.slot = slot;
+        }
+    }
+
+    /** Event count and summed value (nanos or bytes) per frame. */
+    private static final class FrameTable {
+        private final Map<String, long[]> frames = new HashMap<>();
+        private long count;
+        private long total;
+
+        void add(String frame, long value) {
+            String key = frames.containsKey(frame) || frames.size() < MAX_FRAMES_PER_WINDOW ? frame : OTHER;
+            long[] stat = frames.computeIfAbsent(key, k -> new long[2]);
+            stat[0]++;
+            stat[1] += value;
+            count++;
+            total += value;
+        }
+
+        void addAll(FrameTable other) {
+            other.frames.forEach((frame, stat) -> {
+                long[] merged = frames.computeIfAbsent(frame, k -> new long[2]);
+                merged[0] += stat[0];
+                merged[1] += stat[1];
+            });
+            count += other.count;
+            total += other.total;
+        }
+
+        Map<String, Object> summary(String valueName, LongFunction<Object> value, int limit) {
+            List<Map<String, Object>> top = frames.entrySet().stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<String, long[]> e) -> e.getValue()[1]).reversed())
+                    .limit(Math.max(0, limit))
+                    .map(e -> {
+                        Map<String, Object> row = new LinkedHashMap<>();
+                        row.put("frame", e.getKey());
+                        row.put("events", e.getValue()[0]);
+                        row.put(valueName, value.apply(e.getValue()[1]));
+                        return row;
+                    })
+                    .toList();
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("events", count);
+            summary.put(valueName, value.apply(total));
+            summary.put("topFrames", top);
+            return summary;
+        }
+    }
+}
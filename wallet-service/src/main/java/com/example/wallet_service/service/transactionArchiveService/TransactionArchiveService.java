@@ -0,0 +1,176 @@
+package com.example.wallet_service.service.transactionArchiveService;
+
+import com.example.wallet_service.config.transactionArchiveConfig.TransactionArchiveConfig;
+import com.example.wallet_service.repository.transactionArchiveRepository.TransactionArchiveRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Splits transaction storage into a hot table and a single archive table, with the boundary on
+ * a calendar month.
+ * <p>
+ * {@code transactions} keeps the current month plus {@code retention-months} full months before
+ * it; {@link #archive} moves everything older into {@code transactions_archive}, in id-range
+ * batches that each copy and delete in one transaction. The job runs every
+ * {@code interval-minutes} in the background, besides the admin endpoint and the optional startup
+ * run. {@link #touchesArchive} tells readers whether a date range can reach archived rows, so
+ * recent-data queries stay on the hot table.
+ * <p>
+ * Two tiers instead of monthly partitions or per-month tables: native partitioning would drop the
+ * {@code wallet_id} foreign keys (InnoDB partitioned tables cannot have them), and per-month
+ * tables would turn every history, export and summary-rebuild read into a union over a growing
+ * set of tables. Only the hot/archive split is needed to keep the hot indexes small.
+ */
+@Service
+public class TransactionArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionArchiveService.class);
+
+    public record ArchiveResult(LocalDateTime cutoff, int batches, long rows, long elapsedMillis) {}
+
+    private final TransactionArchiveRepository archiveRepository;
+    private final TransactionArchiveConfig archiveConfig;
+    private final TransactionTemplate batchTransaction;
+
+    //  Newest archived timestamp, loaded on first use; null inside means the archive was empty
+    private final AtomicReference<Horizon> horizon = new AtomicReference<>();
+
+    private record Horizon(LocalDateTime newest) {}
+
+    private ScheduledExecutorService scheduler;
+
+    public TransactionArchiveService(TransactionArchiveRepository archiveRepository,
+                                     TransactionArchiveConfig archiveConfig,
+                                     PlatformTransactionManager transactionManager) {
+        this.archiveRepository = archiveRepository;
+        this.archiveConfig = archiveConfig;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // ======================== Routing ========================
+
+    /** Start of the oldest month kept hot; rows before it belong in the archive. */
+    public LocalDateTime cutoff() {
+        return LocalDate.now(ZoneOffset.UTC)
+                .withDayOfMonth(1)
+                .minusMonths(Math.max(0, archiveConfig.getRetentionMonths()))
+                .atStartOfDay();
+    }
+
+    /**
+     * Whether rows at or after {@code start} may live in the archive ({@code null} = unbounded).
+     * Only rows older than the cutoff are ever moved, so a range starting at or after it is
+     * hot-only; the horizon check covers rows archived under a shorter retention setting.
+     */
+    public boolean touchesArchive(LocalDateTime start) {
+        if (start == null || start.isBefore(cutoff())) {
+            return true;
+        }
+        LocalDateTime newest = horizon().newest();
+        return newest != null && !start.isAfter(newest);
+    }
+
+    private Horizon horizon() {
+        Horizon current = horizon.get();
+        if (current == null) {
+            current = new Horizon(archiveRepository.findNewestTimestamp());
+            horizon.compareAndSet(null, current);
+        }
+        return current;
+    }
+
+    // ======================== Archive job ========================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void archiveOnStartup() {
+        if (archiveConfig.isRunOnStartup()) {
+            archive();
+        }
+    }
+
+    @PostConstruct
+    void startSchedule() {
+        long interval = archiveConfig.getIntervalMinutes();
+        //  0 turns the background run off, e.g. when an external job calls the admin endpoint
+        if (interval <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "transaction-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::scheduledArchive, interval, interval, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void stopSchedule() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    //  Package-private so tests can trigger a run without waiting on the scheduler
+    void scheduledArchive() {
+        try {
+            archive();
+        } catch (RuntimeException e) {
+            //  Batches already moved stay moved; the next run picks up the rest
+            logger.error("Scheduled transaction archive run failed", e);
+        }
+    }
+
+    //  Synchronized so a scheduled run and an admin-triggered one never move the same id range at once
+    public synchronized ArchiveResult archive() {
+        long started = System.nanoTime();
+        LocalDateTime cutoff = cutoff();
+
+        Long minId = archiveRepository.findMinHotIdBefore(cutoff);
+        Long maxId = archiveRepository.findMaxHotIdBefore(cutoff);
+        if (minId == null || maxId == null) {
+            return new ArchiveResult(cutoff, 0, 0, 0);
+        }
+
+        int batchSize = Math.max(1, archiveConfig.getBatchSize());
+        logger.info("Archiving transactions before {} (ids {}..{}) in batches of {}", cutoff, minId, maxId, batchSize);
+
+        int batches = 0;
+        long rows = 0;
+        for (long from = minId; from <= maxId; from += batchSize) {
+            long fromId = from;
+            long toId = Math.min(maxId, from + batchSize - 1);
+            Integer moved = batchTransaction.execute(status -> {
+                int copied = archiveRepository.copyToArchive(fromId, toId, cutoff);
+                int deleted = archiveRepository.deleteFromHot(fromId, toId, cutoff);
+                if (copied != deleted) {
+                    throw new IllegalStateException("Archive batch " + fromId + ".." + toId
+                            + " copied " + copied + " rows but deleted " + deleted);
+                }
+                return copied;
+            });
+            rows += moved == null ? 0 : moved;
+            batches++;
+        }
+
+        horizon.set(new Horizon(archiveRepository.findNewestTimestamp()));
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        logger.info("Archived {} transactions older than {} in {} batches ({} ms)", rows, cutoff, batches, elapsedMillis);
+        return new ArchiveResult(cutoff, batches, rows, elapsedMillis);
+    }
+}
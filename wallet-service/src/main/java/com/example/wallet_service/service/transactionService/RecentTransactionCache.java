@@ -0,0 +1,199 @@
+package com.example.wallet_service.service.transactionService;
+
+import com.example.wallet_service.config.recentTransactionsConfig.RecentTransactionsConfig;
+import com.example.wallet_service.dto.transactionDto.TransactionView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Latest transactions per wallet, held in fixed-capacity ring buffers.
+ * <p>
+ * A wallet's ring is loaded from the database on its first read and from then on kept current by
+ * {@link #append} after each committed credit/debit, so repeated reads never reach the database.
+ * Memory is bounded at {@code capacity x maxWallets} entries: when the wallet limit is reached
+ * the least recently used tenth of the rings is dropped in one pass.
+ */
+@Component
+public class RecentTransactionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecentTransactionCache.class);
+
+    /** Newest-first rows plus the owner, so callers can authorise without loading the wallet. */
+    public record Snapshot(Long ownerId, List<TransactionView> items) {}
+
+    /** What a miss loads: the wallet owner and its newest {@code limit} rows, newest first. */
+    public record Loaded(Long ownerId, List<TransactionView> latest) {}
+
+    private final int capacity;
+    private final int maxWallets;
+    private final ConcurrentHashMap<Long, Ring> rings = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+
+    public RecentTransactionCache(RecentTransactionsConfig config) {
+        this.capacity = Math.max(1, config.getCapacity());
+        this.maxWallets = Math.max(1, config.getMaxWallets());
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return rings.size();
+    }
+
+    /**
+     * Returns the newest {@code n} rows, loading the wallet on a miss. The loader returns
+     * {@code null} when the wallet does not exist, in which case nothing is cached.
+     */
+    public Snapshot latest(Long walletId, int n, Function<Long, Loaded> loader) {
+        Ring ring = rings.get(walletId);
+        if (ring == null) {
+            if (rings.size() >= maxWallets) {
+                evictLeastRecentlyUsed();
+            }
+            ring = rings.computeIfAbsent(walletId, id -> new Ring(capacity));
+        }
+        ring.lastUsed = clock.incrementAndGet();
+
+        Snapshot snapshot = ring.read(n, () -> loader.apply(walletId));
+        if (snapshot == null) {
+            rings.remove(walletId, ring);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Adds a freshly written row once the surrounding transaction commits. Only wallets that are
+     * already cached are touched; anything else picks the row up when it is first loaded.
+     */
+    public void append(TransactionView view) {
+        if (view == null || view.walletId() == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    appendNow(view);
+                }
+            });
+        } else {
+            appendNow(view);
+        }
+    }
+
+    private void appendNow(TransactionView view) {
+        Ring ring = rings.get(view.walletId());
+        if (ring != null) {
+            ring.add(view);
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        synchronized (rings) {
+            if (rings.size() < maxWallets) {
+                return;
+            }
+            long[] stamps = new long[rings.size()];
+            int i = 0;
+            for (Ring ring : rings.values()) {
+                if (i == stamps.length) {
+                    break;
+                }
+                stamps[i++] = ring.lastUsed;
+            }
+            Arrays.sort(stamps, 0, i);
+            long cutoff = stamps[Math.max(0, i / 10 - 1)];
+
+            int before = rings.size();
+            rings.values().removeIf(ring -> ring.lastUsed <= cutoff);
+            logger.debug("Evicted {} recent-transaction rings (limit {})", before - rings.size(), maxWallets);
+        }
+    }
+
+    // ======================== Ring ========================
+
+    /**
+     * Circular buffer kept in newest-first order. Appends normally land at the head in O(1);
+     * a commit that finishes out of order is slotted into place by walking back from the head.
+     */
+    private static final class Ring {
+
+        private final TransactionView[] slots;
+        private int head = -1;      //  index of the newest entry
+        private int size;
+        private boolean loaded;
+        private Long ownerId;
+        volatile long lastUsed;
+
+        Ring(int capacity) {
+            this.slots = new TransactionView[capacity];
+        }
+
+        synchronized Snapshot read(int n, Supplier<Loaded> loader) {
+            if (!loaded) {
+                Loaded fromDb = loader.get();
+                if (fromDb == null) {
+                    return null;
+                }
+                ownerId = fromDb.ownerId();
+                //  Oldest first so each add lands at the head; rows appended while loading are deduplicated
+                List<TransactionView> rows = fromDb.latest();
+                for (int i = rows.size() - 1; i >= 0; i--) {
+                    add(rows.get(i));
+                }
+                loaded = true;
+            }
+
+            int count = Math.min(n, size);
+            List<TransactionView> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                items.add(slots[index(head - i)]);
+            }
+            return new Snapshot(ownerId, items);
+        }
+
+        synchronized void add(TransactionView view) {
+            for (int i = 0; i < size; i++) {
+                if (view.id() != null && view.id().equals(slots[index(head - i)].id())) {
+                    return;
+                }
+            }
+
+            //  Number of entries newer than the incoming one
+            int newer = 0;
+            while (newer < size && TransactionView.NEWEST_FIRST.compare(slots[index(head - newer)], view) < 0) {
+                newer++;
+            }
+            if (newer == slots.length) {
+                return;     //  older than everything in a full ring
+            }
+
+            head = index(head + 1);
+            if (size < slots.length) {
+                size++;
+            }
+            //  Shift the newer entries one step towards the head and drop the new row behind them
+            for (int i = 0; i < newer; i++) {
+                slots[index(head - i)] = slots[index(head - i - 1)];
+            }
+            slots[index(head - newer)] = view;
+        }
+
+        private int index(int i) {
+            return Math.floorMod(i, slots.length);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.wallet_service.service.transactionService;
+
+import com.example.wallet_service.dto.transactionDto.TransactionView;
+import com.example.wallet_service.repository.transactionArchiveRepository.TransactionArchiveRepository;
+import com.example.wallet_service.repository.transactionRepository.TransactionRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Streams every transaction of a wallet straight to an output stream.
+ * <p>
+ * Rows come from a forward-only JDBC cursor in fetch-size batches and each entity is detached
+ * once read, so neither the result set nor the persistence context grows with the wallet.
+ * Archived rows are streamed first, then the hot table; each cursor is only opened once the
+ * previous one is exhausted.
+ */
+@Service
+public class TransactionExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionExportService.class);
+
+    private static final int FLUSH_EVERY_ROWS = 1000;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+
+        public static Format from(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + value + ". Use ndjson or csv.");
+        }
+    }
+
+    public record ExportStats(long rows, long elapsedNanos) {
+        public double rowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rows * 1_000_000_000.0 / elapsedNanos;
+        }
+    }
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchiveRepository transactionArchiveRepository;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public TransactionExportService(TransactionRepository transactionRepository,
+                                    TransactionArchiveRepository transactionArchiveRepository) {
+        this.transactionRepository = transactionRepository;
+        this.transactionArchiveRepository = transactionArchiveRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public ExportStats export(Long walletId, Format format, OutputStream out) {
+        long startNanos = System.nanoTime();
+        long rows;
+
+        try (Stream<TransactionView> stream = streamRows(walletId)) {
+            Iterator<TransactionView> it = stream.iterator();
+            rows = switch (format) {
+                case NDJSON -> writeNdjson(walletId, it, out);
+                case CSV -> writeCsv(walletId, it, out);
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException("Export of wallet " + walletId + " failed", e);
+        }
+
+        ExportStats stats = new ExportStats(rows, System.nanoTime() - startNanos);
+        logger.info("Exported {} transactions of wallet {} as {} in {} ms ({} rows/s)",
+                stats.rows(), walletId, format, stats.elapsedNanos() / 1_000_000, Math.round(stats.rowsPerSecond()));
+        return stats;
+    }
+
+    //  flatMap opens each source lazily and closes it as soon as it is drained
+    private Stream<TransactionView> streamRows(Long walletId) {
+        Supplier<Stream<TransactionView>> archived = () -> transactionArchiveRepository.streamByWalletId(walletId)
+                .map(a -> {
+                    TransactionView row = a.toView();
+                    entityManager.detach(a);
+                    return row;
+                });
+        Supplier<Stream<TransactionView>> hot = () -> transactionRepository.streamByWalletId(walletId)
+                .map(t -> {
+                    TransactionView row = TransactionView.of(t);
+                    entityManager.detach(t);
+                    return row;
+                });
+        return Stream.of(archived, hot).flatMap(Supplier::get);
+    }
+
+    private long writeNdjson(Long walletId, Iterator<TransactionView> it, OutputStream out) throws IOException {
+        long rows = 0;
+        BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_BYTES);
+        JsonGenerator json = jsonFactory.createGenerator(buffered, JsonEncoding.UTF8);
+        json.setRootValueSeparator(null);
+
+        while (it.hasNext()) {
+            TransactionView t = it.next();
+            json.writeStartObject();
+            json.writeNumberField("id", t.id());
+            json.writeNumberField("walletId", walletId);
+            json.writeNumberField("amount", t.amount());
+            json.writeStringField("type", t.type() != null ? t.type().name() : null);
+            json.writeStringField("description", t.description());
+            json.writeStringField("timestamp", t.timestamp() != null ? t.timestamp().toString() : null);
+            json.writeEndObject();
+            json.writeRaw('\n');
+
+            if (++rows % FLUSH_EVERY_ROWS == 0) {
+                json.flush();
+            }
+        }
+        json.flush();
+        return rows;
+    }
+
+    private long writeCsv(Long walletId, Iterator<TransactionView> it, OutputStream out) throws IOException {
+        long rows = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_BYTES);
+        writer.write("id,walletId,amount,type,description,timestamp\n");
+
+        while (it.hasNext()) {
+            TransactionView t = it.next();
+            writer.write(String.valueOf(t.id()));
+            writer.write(',');
+            writer.write(String.valueOf(walletId));
+            writer.write(',');
+            writer.write(t.amount() != null ? t.amount().toPlainString() : "");
+            writer.write(',');
+            writer.write(t.type() != null ? t.type().name() : "");
+            writer.write(',');
+            writeCsvField(writer, t.description());
+            writer.write(',');
+            writer.write(t.timestamp() != null ? t.timestamp().toString() : "");
+            writer.write('\n');
+
+            if (++rows % FLUSH_EVERY_ROWS == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
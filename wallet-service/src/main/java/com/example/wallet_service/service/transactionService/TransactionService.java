@@ -1,19 +1,30 @@
 package com.example.wallet_service.service.transactionService;
 
 import com.example.wallet_service.config.walletConfig.WalletConfig;
+import com.example.wallet_service.dto.transactionDto.TransactionCursorPageDTO;
 import com.example.wallet_service.dto.transactionDto.TransactionDTO;
+import com.example.wallet_service.dto.transactionDto.TransactionOwnerView;
+import com.example.wallet_service.dto.transactionDto.TransactionView;
 import com.example.wallet_service.exception.WalletIdNotFoundException;
 import com.example.wallet_service.model.transaction.Transaction;
 import com.example.wallet_service.model.wallet.Wallet;
+import com.example.wallet_service.repository.transactionArchiveRepository.TransactionArchiveRepository;
 import com.example.wallet_service.repository.transactionRepository.TransactionRepository;
 import com.example.wallet_service.repository.walletRepository.WalletRepository;
+import com.example.wallet_service.service.transactionArchiveService.TransactionArchiveService;
+import com.example.wallet_service.service.walletMetricsService.WalletMetrics;
 import com.example.wallet_service.service.walletService.WalletService;
+import com.example.wallet_service.service.walletSummaryService.WalletSummaryService;
+import com.example.wallet_service.util.TransactionCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.data.domain.Page;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -22,26 +33,51 @@ import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 public class TransactionService {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionService.class);
+    //  "within limits" line of every limit check; sampled in prod (logback-prod.xml)
+    private static final Logger limitsLogger = LoggerFactory.getLogger(TransactionService.class.getName() + ".limits");
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    private static final DateTimeFormatter HISTORY_DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
 
     private final TransactionRepository transactionRepository;
 
     private final WalletConfig walletConfig;
     private final WalletRepository walletRepository;
+    private final WalletSummaryService walletSummaryService;
+    private final RecentTransactionCache recentTransactionCache;
+    private final TransactionUserBackfillService transactionUserBackfillService;
+    private final TransactionArchiveService transactionArchiveService;
+    private final TransactionArchiveRepository transactionArchiveRepository;
+    private final WalletMetrics walletMetrics;
 
     public TransactionService(TransactionRepository transactionRepository,
-                              WalletConfig walletConfig, WalletRepository walletRepository) {
+                              WalletConfig walletConfig, WalletRepository walletRepository,
+                              WalletSummaryService walletSummaryService,
+                              RecentTransactionCache recentTransactionCache,
+                              TransactionUserBackfillService transactionUserBackfillService,
+                              TransactionArchiveService transactionArchiveService,
+                              TransactionArchiveRepository transactionArchiveRepository,
+                              WalletMetrics walletMetrics) {
         this.transactionRepository = transactionRepository;
 
         this.walletConfig = walletConfig;
         this.walletRepository = walletRepository;
+        this.walletSummaryService = walletSummaryService;
+        this.recentTransactionCache = recentTransactionCache;
+        this.transactionUserBackfillService = transactionUserBackfillService;
+        this.transactionArchiveService = transactionArchiveService;
+        this.transactionArchiveRepository = transactionArchiveRepository;
+        this.walletMetrics = walletMetrics;
 
     }
 
@@ -50,30 +86,72 @@ public class TransactionService {
      * Get all transactions for a specific wallet.
      */
 
-    public List<TransactionDTO> getTransactionsByWallet(Long walletId) {
+    @Transactional(readOnly = true)
+    public List<TransactionView> getTransactionsByWallet(Long walletId) {
         logger.info("Fetching transactions for wallet ID {}", walletId);
 
-        Wallet wallet = walletRepository.findById(walletId)
-                .orElseThrow(() -> new WalletIdNotFoundException("Wallet ID not found: " + walletId));
+        if (!walletRepository.existsById(walletId)) {
+            throw new WalletIdNotFoundException("Wallet ID not found: " + walletId);
+        }
 
         //wallet.ifPresent(w -> {})
 //        if (!wallet.isPresent()) {
 //            throw new WalletIdNotFoundException("Wallet ID not found: " + walletId);
 //        }
 
-        return transactionRepository.findByWalletId(walletId)
-                .stream()
-                .map(TransactionDTO::new)
-                .collect(Collectors.toList());
+        //  No date range: the wallet's whole history, hot and archived
+        return mergeNewestFirst(
+                transactionRepository.findViewsByWalletId(walletId),
+                transactionArchiveRepository.findViewsByWalletId(walletId),
+                Integer.MAX_VALUE);
+    }
+
+
+    /**
+     * Latest {@code n} transactions of a wallet, served from {@link RecentTransactionCache}.
+     * The database is only read the first time a wallet is requested (or after it is evicted).
+     * Misses load from the primary: a ring filled from a lagging replica would never see the rows
+     * it missed, since appends only reach rings that already exist.
+     */
+    @Transactional
+    public RecentTransactionCache.Snapshot getRecentTransactions(Long walletId, int n) {
+        if (n < 1 || n > recentTransactionCache.getCapacity()) {
+            throw new IllegalArgumentException("n must be between 1 and " + recentTransactionCache.getCapacity());
+        }
+
+        RecentTransactionCache.Snapshot snapshot = recentTransactionCache.latest(walletId, n, this::loadRecent);
+        if (snapshot == null) {
+            throw new WalletIdNotFoundException("Wallet ID not found: " + walletId);
+        }
+        return snapshot;
+    }
+
+    private RecentTransactionCache.Loaded loadRecent(Long walletId) {
+        logger.debug("Recent transactions miss for wallet {}, loading from database", walletId);
+        int capacity = recentTransactionCache.getCapacity();
+        return walletRepository.findById(walletId)
+                .map(wallet -> {
+                    List<TransactionView> latest = transactionRepository.findTopTransactionsByWalletId(walletId, Limit.of(capacity));
+                    //  Quiet wallets may not fill the ring from the hot table alone
+                    if (latest.size() < capacity) {
+                        latest = mergeNewestFirst(latest,
+                                transactionArchiveRepository.findTopTransactionsByWalletId(walletId, Limit.of(capacity)),
+                                capacity);
+                    }
+                    return new RecentTransactionCache.Loaded(wallet.getUserId(), latest);
+                })
+                .orElse(null);
     }
 
 
     // ----------------- GET TRANSACTION BY TRANSACTION ID ----------
 
-    public Optional<Transaction> getTransactionById(Long transactionId) {
+    @Transactional(readOnly = true)
+    public Optional<TransactionOwnerView> getTransactionById(Long transactionId) {
         logger.info("Fetching transaction by ID: {}", transactionId);
 
-        Optional<Transaction> transaction = transactionRepository.findById(transactionId);
+        Optional<TransactionOwnerView> transaction = transactionRepository.findViewById(transactionId)
+                .or(() -> transactionArchiveRepository.findViewById(transactionId));
 
         if (transaction.isPresent()) {
             logger.debug("Transaction found: {}", transaction.get());
@@ -91,6 +169,7 @@ public class TransactionService {
      * Get transactions for a specific user between two dates, optionally filtered by type.
      */
 
+    @Transactional(readOnly = true)
     public Object getUserTransactions(Long userId, String start, String end, String type) {
         logger.info("Fetching transactions for user {} from {} to {} with type {}", userId, start, end, type);
 
@@ -104,10 +183,17 @@ public class TransactionService {
                 transactionType = Transaction.Type.valueOf(type.toUpperCase());
             }
 
-            return transactionRepository.findUserTransactionsBetweenDates(userId, startDate, endDate, transactionType)
-                    .stream()
-                    .map(TransactionDTO::new)
-                    .collect(Collectors.toList());
+            //  Rows written before user_id existed are only reachable through wallets until the backfill finishes
+            List<TransactionView> hot = transactionUserBackfillService.isComplete()
+                    ? transactionRepository.findUserTransactionsBetweenDates(userId, startDate, endDate, transactionType)
+                    : transactionRepository.findUserTransactionsBetweenDatesViaWallets(userId, startDate, endDate, transactionType);
+
+            if (!transactionArchiveService.touchesArchive(startDate)) {
+                return hot;
+            }
+            return mergeNewestFirst(hot,
+                    transactionRepository.findArchivedUserTransactionsBetweenDates(userId, startDate, endDate, transactionType),
+                    Integer.MAX_VALUE);
 
         } catch (DateTimeParseException e) {
             logger.error("Invalid date format provided: start={}, end={}", start, end, e);
@@ -119,7 +205,8 @@ public class TransactionService {
     }
 
 
-    public Page<TransactionDTO> getTransactionHistory(
+    @Transactional(readOnly = true)
+    public Slice<TransactionView> getTransactionHistory(
             Long walletId,
             String type,
             String start,
@@ -130,41 +217,173 @@ public class TransactionService {
         logger.info("Fetching transaction history:  walletId={}, type={}, start={}, end={}, page={}, size={}",
                  walletId, type, start, end, page, size);
 
-        Transaction.Type transactionType = null;
-        if (type != null && !type.isBlank()) {
-            try {
-                transactionType = Transaction.Type.valueOf(type.toUpperCase());
-            } catch (IllegalArgumentException e) {
-                throw new IllegalArgumentException("Invalid transaction type: " + type);
-            }
+        Transaction.Type transactionType = parseHistoryType(type);
+        LocalDateTime startDate = parseHistoryStart(start);
+        LocalDateTime endDate = parseHistoryEnd(end);
+
+        Pageable pageable = PageRequest.of(page, size);
+
+        if (!transactionArchiveService.touchesArchive(startDate)) {
+            return transactionRepository.findTransactionsWithFilters(
+                    walletId,
+                    transactionType,
+                    startDate,
+                    endDate,
+                    pageable
+            );
         }
 
-        LocalDateTime startDate = null;
-        LocalDateTime endDate = null;
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+        //  Offsets cannot be split across two tables, so take the first offset + size rows of each and merge
+        int window = (int) pageable.getOffset() + size;
+        Slice<TransactionView> hot = transactionRepository.findTransactionsWithFilters(
+                walletId, transactionType, startDate, endDate, PageRequest.of(0, window));
+        Slice<TransactionView> archived = transactionRepository.findArchivedTransactionsWithFilters(
+                walletId, transactionType, startDate, endDate, PageRequest.of(0, window));
+
+        List<TransactionView> merged = mergeNewestFirst(hot.getContent(), archived.getContent(), window + 1);
+        int from = Math.min((int) pageable.getOffset(), merged.size());
+        boolean hasNext = merged.size() > window || hot.hasNext() || archived.hasNext();
+        return new SliceImpl<>(merged.subList(from, Math.min(window, merged.size())), pageable, hasNext);
+    }
 
-        try {
-            if (start != null && !start.isBlank()) {
-                startDate = LocalDate.parse(start, formatter).atStartOfDay();
+    /**
+     * Keyset-paginated history on (timestamp, id). Fetches size + 1 rows to learn whether another
+     * page exists, so no COUNT query is needed and deep pages cost the same as the first one.
+     */
+    @Transactional(readOnly = true)
+    public TransactionCursorPageDTO getTransactionHistoryByCursor(
+            Long walletId,
+            String type,
+            String start,
+            String end,
+            String cursor,
+            int size
+    ) {
+        logger.info("Fetching transaction history by cursor: walletId={}, type={}, start={}, end={}, size={}",
+                walletId, type, start, end, size);
+
+        if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+        }
+
+        Transaction.Type transactionType = parseHistoryType(type);
+        LocalDateTime startDate = parseHistoryStart(start);
+        LocalDateTime endDate = parseHistoryEnd(end);
+        Limit limit = Limit.of(size + 1);
+
+        boolean touchesArchive = transactionArchiveService.touchesArchive(startDate);
+        List<TransactionView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = transactionRepository.findHistoryFirstPage(walletId, transactionType, startDate, endDate, limit);
+            if (touchesArchive) {
+                rows = mergeNewestFirst(rows,
+                        transactionRepository.findArchivedHistoryFirstPage(walletId, transactionType, startDate, endDate, limit),
+                        size + 1);
             }
-            if (end != null && !end.isBlank()) {
-                endDate = LocalDate.parse(end, formatter).atTime(23, 59, 59);
+        } else {
+            //  Ids are kept when rows are archived, so the same (timestamp, id) cursor seeks in both tables
+            TransactionCursor position = TransactionCursor.decode(cursor);
+            rows = transactionRepository.findHistoryPageAfter(
+                    walletId, transactionType, startDate, endDate,
+                    position.timestamp(), position.id(), limit);
+            if (touchesArchive) {
+                rows = mergeNewestFirst(rows,
+                        transactionRepository.findArchivedHistoryPageAfter(
+                                walletId, transactionType, startDate, endDate,
+                                position.timestamp(), position.id(), limit),
+                        size + 1);
             }
-        } catch (DateTimeParseException e) {
-            throw new IllegalArgumentException("Invalid date format. Please use dd-MM-yyyy.");
         }
 
-        Pageable pageable = PageRequest.of(page, size);
+        boolean hasNext = rows.size() > size;
+        List<TransactionView> pageRows = hasNext ? rows.subList(0, size) : rows;
 
-        Page<Transaction> transactionPage = transactionRepository.findTransactionsWithFilters(
-                walletId,
-                transactionType,
-                startDate,
-                endDate,
-                pageable
+        String nextCursor = null;
+        if (hasNext) {
+            TransactionView last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new TransactionCursor(last.timestamp(), last.id()).encode();
+        }
+
+        return new TransactionCursorPageDTO(
+                List.copyOf(pageRows),
+                nextCursor,
+                hasNext
         );
+    }
 
-        return transactionPage.map(TransactionDTO::new);
+    // ========================= HOT / ARCHIVE MERGING =========================
+
+    /**
+     * Newest-first union of hot and archived rows, cut to {@code limit}. Hot is always read first,
+     * so a row archived between the two reads shows up twice rather than not at all; duplicates
+     * are dropped by id.
+     */
+    private static List<TransactionView> mergeNewestFirst(List<TransactionView> hot,
+                                                          List<TransactionView> archived,
+                                                          int limit) {
+        if (archived.isEmpty()) {
+            return hot.size() > limit ? hot.subList(0, limit) : hot;
+        }
+        List<TransactionView> merged = new ArrayList<>(hot.size() + archived.size());
+        merged.addAll(hot);
+        merged.addAll(archived);
+        merged.sort(TransactionView.NEWEST_FIRST);
+
+        Set<Long> seen = new HashSet<>();
+        List<TransactionView> result = new ArrayList<>(Math.min(limit, merged.size()));
+        for (TransactionView row : merged) {
+            if (result.size() == limit) {
+                break;
+            }
+            if (row.id() == null || seen.add(row.id())) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    //  Limit windows are recent, so this is normally a single hot-table sum
+    private BigDecimal totalBetween(Long walletId, Transaction.Type type, LocalDateTime start, LocalDateTime end) {
+        BigDecimal total = transactionRepository.getTotalAmountByWalletAndTypeBetweenDates(walletId, type, start, end);
+        if (!transactionArchiveService.touchesArchive(start)) {
+            return total;
+        }
+        BigDecimal archived = transactionArchiveRepository.getTotalAmountByWalletAndTypeBetweenDates(walletId, type, start, end);
+        if (total == null) return archived;
+        return archived == null ? total : total.add(archived);
+    }
+
+    private Transaction.Type parseHistoryType(String type) {
+        if (type == null || type.isBlank()) {
+            return null;
+        }
+        try {
+            return Transaction.Type.valueOf(type.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid transaction type: " + type);
+        }
+    }
+
+    private LocalDateTime parseHistoryStart(String start) {
+        if (start == null || start.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(start, HISTORY_DATE_FORMAT).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date format. Please use dd-MM-yyyy.");
+        }
+    }
+
+    private LocalDateTime parseHistoryEnd(String end) {
+        if (end == null || end.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(end, HISTORY_DATE_FORMAT).atTime(23, 59, 59);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date format. Please use dd-MM-yyyy.");
+        }
     }
 
 
@@ -178,13 +397,14 @@ public class TransactionService {
      */
 
 
-    public void validateTransactionLimits(Long walletId, BigDecimal amount, Transaction.Type type) {
+    /** IST day and month boundaries, converted to the UTC timestamps stored in the database. */
+    public record LimitWindows(LocalDateTime startOfDayUTC, LocalDateTime endOfDayUTC,
+                               LocalDateTime startOfMonthUTC, LocalDateTime endOfMonthUTC) {}
+
+    public static LimitWindows limitWindows(LocalDate todayIST) {
         ZoneId appZone = ZoneId.of("Asia/Kolkata");
         ZoneOffset dbZone = ZoneOffset.UTC;
 
-        // Get current time in IST
-        LocalDate todayIST = LocalDate.now(appZone);
-
         // Compute IST day/month boundaries
         LocalDateTime startOfDayIST = todayIST.atStartOfDay();
         LocalDateTime endOfDayIST = startOfDayIST.plusDays(1).minusNanos(1);
@@ -192,17 +412,25 @@ public class TransactionService {
         LocalDateTime endOfMonthIST = startOfMonthIST.plusMonths(1).minusNanos(1);
 
         // Convert to UTC before querying DB
-        LocalDateTime startOfDayUTC = startOfDayIST.atZone(appZone).withZoneSameInstant(dbZone).toLocalDateTime();
-        LocalDateTime endOfDayUTC = endOfDayIST.atZone(appZone).withZoneSameInstant(dbZone).toLocalDateTime();
-        LocalDateTime startOfMonthUTC = startOfMonthIST.atZone(appZone).withZoneSameInstant(dbZone).toLocalDateTime();
-        LocalDateTime endOfMonthUTC = endOfMonthIST.atZone(appZone).withZoneSameInstant(dbZone).toLocalDateTime();
+        return new LimitWindows(
+                startOfDayIST.atZone(appZone).withZoneSameInstant(dbZone).toLocalDateTime(),
+                endOfDayIST.atZone(appZone).withZoneSameInstant(dbZone).toLocalDateTime(),
+                startOfMonthIST.atZone(appZone).withZoneSameInstant(dbZone).toLocalDateTime(),
+                endOfMonthIST.atZone(appZone).withZoneSameInstant(dbZone).toLocalDateTime());
+    }
+
+    public void validateTransactionLimits(Long walletId, BigDecimal amount, Transaction.Type type) {
+        walletMetrics.timeLimitCheck(walletId, amount, type, () -> checkTransactionLimits(walletId, amount, type));
+    }
+
+    private void checkTransactionLimits(Long walletId, BigDecimal amount, Transaction.Type type) {
+        // Get current time in IST
+        LimitWindows windows = limitWindows(LocalDate.now(ZoneId.of("Asia/Kolkata")));
 
-        logger.debug("Checking limits for wallet {} [{}]: {} - {}", walletId, type, startOfDayUTC, endOfDayUTC);
+        logger.debug("Checking limits for wallet {} [{}]: {} - {}", walletId, type, windows.startOfDayUTC(), windows.endOfDayUTC());
 
-        BigDecimal dailyTotal = transactionRepository
-                .getTotalAmountByWalletAndTypeBetweenDates(walletId, type, startOfDayUTC, endOfDayUTC);
-        BigDecimal monthlyTotal = transactionRepository
-                .getTotalAmountByWalletAndTypeBetweenDates(walletId, type, startOfMonthUTC, endOfMonthUTC);
+        BigDecimal dailyTotal = totalBetween(walletId, type, windows.startOfDayUTC(), windows.endOfDayUTC());
+        BigDecimal monthlyTotal = totalBetween(walletId, type, windows.startOfMonthUTC(), windows.endOfMonthUTC());
 
         if (dailyTotal == null) dailyTotal = BigDecimal.ZERO;
         if (monthlyTotal == null) monthlyTotal = BigDecimal.ZERO;
@@ -230,8 +458,8 @@ public class TransactionService {
                     type, monthlyTotal.add(amount), monthlyLimit));
         }
 
-        logger.info("{} transaction within limits. Daily total: {}, Monthly total: {}",
-                type, dailyTotal, monthlyTotal);
+        limitsLogger.info("Wallet {} {} transaction within limits. Daily total: {}, Monthly total: {}",
+                walletId, type, dailyTotal, monthlyTotal);
     }
 
 
@@ -239,6 +467,7 @@ public class TransactionService {
     /**
      * Example method to create a transaction with validation.
      */
+    @Transactional
     public TransactionDTO createTransaction(Long walletId, BigDecimal amount, Transaction.Type type) {
         Wallet wallet = walletRepository.findById(walletId)
                 .orElseThrow(() -> new WalletIdNotFoundException("Wallet ID not found: " + walletId));
@@ -252,6 +481,8 @@ public class TransactionService {
         transaction.setTimestamp(LocalDateTime.now(ZoneId.of("Asia/Kolkata")));
 
         Transaction saved = transactionRepository.save(transaction);
+        walletSummaryService.record(walletId, type, amount);
+        recentTransactionCache.append(TransactionView.of(saved));
         return new TransactionDTO(saved);
     }
 
@@ -0,0 +1,87 @@
+package com.example.wallet_service.service.transactionService;
+
+import com.example.wallet_service.config.transactionBackfillConfig.TransactionBackfillConfig;
+import com.example.wallet_service.repository.transactionRepository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fills {@code transactions.user_id} for rows written before the column existed.
+ * <p>
+ * New rows get {@code user_id} from their wallet at insert time, so the set of rows to fix only
+ * shrinks. The job walks the id range of those rows in fixed-size batches, each batch in its own
+ * short transaction so live credits/debits are never blocked for long. Until no row is left
+ * without a user id, {@link #isComplete} is false and per-user reads keep using the wallets join.
+ */
+@Service
+public class TransactionUserBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionUserBackfillService.class);
+
+    public record BackfillResult(int batches, long rows, long elapsedMillis) {}
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionBackfillConfig transactionBackfillConfig;
+    private final TransactionTemplate batchTransaction;
+
+    //  Only ever flips to true: once every row has a user id, new writes keep it that way
+    private volatile boolean complete;
+
+    public TransactionUserBackfillService(TransactionRepository transactionRepository,
+                                          TransactionBackfillConfig transactionBackfillConfig,
+                                          PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.transactionBackfillConfig = transactionBackfillConfig;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isComplete() {
+        if (!complete) {
+            complete = !transactionRepository.existsByUserIdIsNull();
+        }
+        return complete;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (transactionBackfillConfig.isRunOnStartup() && !isComplete()) {
+            backfill();
+        }
+    }
+
+    public BackfillResult backfill() {
+        long started = System.nanoTime();
+
+        Long minId = transactionRepository.findMinIdWithoutUserId();
+        Long maxId = transactionRepository.findMaxIdWithoutUserId();
+        if (minId == null || maxId == null) {
+            complete = true;
+            return new BackfillResult(0, 0, 0);
+        }
+
+        int batchSize = Math.max(1, transactionBackfillConfig.getBatchSize());
+        logger.info("Backfilling transactions.user_id for ids {}..{} in batches of {}", minId, maxId, batchSize);
+
+        int batches = 0;
+        long rows = 0;
+        for (long from = minId; from <= maxId; from += batchSize) {
+            long fromId = from;
+            long toId = Math.min(maxId, from + batchSize - 1);
+            Integer updated = batchTransaction.execute(status -> transactionRepository.backfillUserIds(fromId, toId));
+            rows += updated == null ? 0 : updated;
+            batches++;
+        }
+
+        isComplete();
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        logger.info("Backfilled user_id on {} transactions in {} batches ({} ms), complete={}",
+                rows, batches, elapsedMillis, complete);
+        return new BackfillResult(batches, rows, elapsedMillis);
+    }
+}
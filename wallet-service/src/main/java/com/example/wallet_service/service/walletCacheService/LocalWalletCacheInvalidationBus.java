@@ -0,0 +1,17 @@
+package com.example.wallet_service.service.walletCacheService;
+
+import java.util.function.Consumer;
+
+/**
+ * Single-instance default: there is nobody else to tell, so publishing does nothing.
+ */
+public class LocalWalletCacheInvalidationBus implements WalletCacheInvalidationBus {
+
+    @Override
+    public void publish(Long walletId) {
+    }
+
+    @Override
+    public void onInvalidation(Consumer<Long> handler) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.wallet_service.service.walletCacheService;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries wallet cache invalidations between service instances.
+ * <p>
+ * Each instance's own cache is kept current by Hibernate; what the bus adds is telling the
+ * <em>other</em> instances to drop their copy once a wallet change commits. Declare a bean of this
+ * type (Redis pub/sub, Kafka, ...) to replace the single-instance default.
+ */
+public interface WalletCacheInvalidationBus {
+
+    /** Announces, after commit, that the wallet with this id changed. */
+    void publish(Long walletId);
+
+    /** Registers the handler called for invalidations published by other instances. */
+    void onInvalidation(Consumer<Long> handler);
+}
@@ -0,0 +1,101 @@
+package com.example.wallet_service.service.walletCacheService;
+
+import com.example.wallet_service.model.wallet.Wallet;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cross-instance invalidation and hit-rate reporting for the {@link Wallet} second-level cache.
+ * <p>
+ * A Hibernate post-commit listener publishes the id of every updated or deleted wallet on the
+ * {@link WalletCacheInvalidationBus}; ids arriving from other instances are evicted locally.
+ * Only committed changes are published, so a rolled-back update never costs a remote miss.
+ */
+@Service
+public class WalletCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalletCacheService.class);
+
+    public record WalletCacheStats(long hits, long misses, long puts, long dbLoads, double hitRatio) {}
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final WalletCacheInvalidationBus invalidationBus;
+
+    public WalletCacheService(EntityManagerFactory entityManagerFactory,
+                              ObjectProvider<WalletCacheInvalidationBus> invalidationBus) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.invalidationBus = invalidationBus.getIfAvailable(LocalWalletCacheInvalidationBus::new);
+    }
+
+    @PostConstruct
+    void registerListeners() {
+        WalletCommitListener listener = new WalletCommitListener();
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        invalidationBus.onInvalidation(this::evict);
+    }
+
+    public void evict(Long walletId) {
+        logger.debug("Evicting wallet {} from the second-level cache", walletId);
+        sessionFactory.getCache().evictEntityData(Wallet.class, walletId);
+    }
+
+    public WalletCacheStats stats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(Wallet.CACHE_REGION);
+        EntityStatistics entity = statistics.getEntityStatistics(Wallet.class.getName());
+        if (region == null) {
+            //  wallet-cache.enabled=false: no region, every load goes to the database
+            return new WalletCacheStats(0, 0, 0, entity.getLoadCount(), 0);
+        }
+
+        long hits = region.getHitCount();
+        long misses = region.getMissCount();
+        double hitRatio = hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+        return new WalletCacheStats(hits, misses, region.getPutCount(), entity.getLoadCount(), hitRatio);
+    }
+
+    // ======================== Commit listener ========================
+
+    private final class WalletCommitListener implements PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            invalidationBus.publish((Long) event.getId());
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            invalidationBus.publish((Long) event.getId());
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return Wallet.class.equals(persister.getMappedClass());
+        }
+    }
+}
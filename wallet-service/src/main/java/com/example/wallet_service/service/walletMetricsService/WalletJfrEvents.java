@@ -0,0 +1,144 @@
+package com.example.wallet_service.service.walletMetricsService;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.math.BigDecimal;
+
+/**
+ * JDK Flight Recorder events for the wallet hot path, emitted next to the Micrometer meters in
+ * {@link WalletMetrics}, so a recording and the flame graphs built from it can be narrowed to one
+ * wallet. Every event carries the wallet id, an amount bucket and an outcome; JFR adds the thread
+ * and the duration.
+ * <p>
+ * The events are off by default and switched on by {@code jfr/wallet-events.jfc}. While no
+ * recording enables them, begin/commit are no-ops and the fields are never filled in.
+ */
+public final class WalletJfrEvents {
+
+    public static final String OPERATION = "com.example.wallet.Operation";
+    public static final String LIMIT_CHECK = "com.example.wallet.LimitCheck";
+    public static final String USER_SERVICE_CALL = "com.example.wallet.UserServiceCall";
+    public static final String CONFLICT = "com.example.wallet.OptimisticLockConflict";
+
+    private static final String CATEGORY = "Wallet Service";
+
+    //  Wallet ids start at 1; 0 marks an event where the id is not known
+    static final long UNKNOWN_WALLET = 0L;
+
+    private WalletJfrEvents() {
+    }
+
+    @Name(OPERATION)
+    @Label("Wallet Operation")
+    @Description("A credit, debit, transfer or balance read; transfers also record their debit and credit legs")
+    @Category(CATEGORY)
+    @Enabled(false)
+    @StackTrace(false)
+    static final class Operation extends Event {
+        @Label("Operation")
+        String operation;
+
+        @Label("Wallet Id")
+        long walletId;
+
+        @Label("Amount Bucket")
+        String amountBucket;
+
+        @Label("Outcome")
+        @Description("SUCCESS, the WalletOperationResult failure code, or EXCEPTION")
+        String outcome;
+    }
+
+    @Name(LIMIT_CHECK)
+    @Label("Transaction Limit Check")
+    @Category(CATEGORY)
+    @Enabled(false)
+    @StackTrace(false)
+    static final class LimitCheck extends Event {
+        @Label("Type")
+        String type;
+
+        @Label("Wallet Id")
+        long walletId;
+
+        @Label("Amount Bucket")
+        String amountBucket;
+
+        @Label("Outcome")
+        @Description("within or exceeded")
+        String outcome;
+    }
+
+    @Name(USER_SERVICE_CALL)
+    @Label("User Service Call")
+    @Description("Blacklist lookup of a wallet owner in user-service")
+    @Category(CATEGORY)
+    @Enabled(false)
+    @StackTrace(false)
+    static final class UserServiceCall extends Event {
+        @Label("Wallet Id")
+        long walletId;
+
+        @Label("User Id")
+        long userId;
+
+        @Label("Amount Bucket")
+        String amountBucket;
+
+        @Label("Outcome")
+        @Description("allowed, blacklisted, or the exception type")
+        String outcome;
+    }
+
+    @Name(CONFLICT)
+    @Label("Optimistic Lock Conflict")
+    @Category(CATEGORY)
+    @Enabled(false)
+    static final class OptimisticLockConflict extends Event {
+        @Label("Stage")
+        @Description("The operation that caught it, or commit when the version check failed at commit")
+        String stage;
+
+        @Label("Wallet Id")
+        long walletId;
+
+        @Label("Amount Bucket")
+        String amountBucket;
+
+        @Label("Outcome")
+        String outcome;
+    }
+
+    static long walletId(Long walletId) {
+        return walletId == null ? UNKNOWN_WALLET : walletId;
+    }
+
+    /**
+     * Decade buckets, so events group by order of magnitude without recording exact amounts:
+     * {@code <1}, {@code 1-10}, {@code 10-100}, {@code 100-1k}, {@code 1k-10k}, {@code 10k-100k},
+     * {@code 100k+}.
+     */
+    static String amountBucket(BigDecimal amount) {
+        if (amount == null) {
+            return "none";
+        }
+        if (amount.signum() <= 0) {
+            return "invalid";
+        }
+        int integerDigits = amount.precision() - amount.scale();
+        return switch (integerDigits) {
+            case 1 -> "1-10";
+            case 2 -> "10-100";
+            case 3 -> "100-1k";
+            case 4 -> "1k-10k";
+            case 5 -> "10k-100k";
+            default -> integerDigits < 1 ? "<1" : "100k+";
+        };
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.wallet_service.service.walletMetricsService;
+
+import com.example.wallet_service.data.WalletOperationResult;
+import com.example.wallet_service.model.transaction.Transaction;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters for the wallet hot path, scraped from {@code /actuator/prometheus}.
+ * <p>
+ * Operation timers are tagged with the outcome (SUCCESS or the WalletOperationResult failure
+ * code), so latency and error rate per code come from one series. Pool saturation is not
+ * recorded here: Boot binds {@code hikaricp.connections.*} for every Hikari pool.
+ * <p>
+ * The same hooks emit the {@link WalletJfrEvents} Flight Recorder events, which add the wallet id
+ * that tags cannot carry.
+ */
+@Component
+public class WalletMetrics {
+
+    public static final String OPERATION_TIMER = "wallet.operation";
+    public static final String CONFLICT_COUNTER = "wallet.optimistic.lock.conflicts";
+    public static final String USER_CLIENT_TIMER = "wallet.user.client";
+    public static final String LIMIT_CHECK_TIMER = "wallet.limit.check";
+
+    public static final String SUCCESS = "SUCCESS";
+    public static final String EXCEPTION = "EXCEPTION";
+    public static final String CONFLICT = "CONFLICT";
+
+    private final MeterRegistry registry;
+
+    public WalletMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Times a WalletService operation; a thrown exception is recorded as {@code EXCEPTION}, except
+     * an optimistic-lock failure, which is {@code CONFLICT}. {@code amount} is null for reads.
+     * <p>
+     * Mutations must call this outside their transaction, so flush and commit are timed and a
+     * version check failing at commit is not recorded as {@code SUCCESS}.
+     */
+    public WalletOperationResult timeOperation(String operation, Long walletId, BigDecimal amount,
+                                               Supplier<WalletOperationResult> call) {
+        Timer.Sample sample = Timer.start(registry);
+        WalletJfrEvents.Operation event = new WalletJfrEvents.Operation();
+        event.begin();
+        String result = EXCEPTION;
+        try {
+            WalletOperationResult outcome = call.get();
+            result = resultCode(outcome);
+            return outcome;
+        } catch (OptimisticLockingFailureException e) {
+            //  Surfaced at commit; GlobalExceptionHandler answers 409 and counts the conflict
+            result = CONFLICT;
+            throw e;
+        } finally {
+            sample.stop(registry.timer(OPERATION_TIMER, "operation", operation, "result", result));
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.walletId = WalletJfrEvents.walletId(walletId);
+                event.amountBucket = WalletJfrEvents.amountBucket(amount);
+                event.outcome = result;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Counts an optimistic-lock conflict. {@code stage} is where it surfaced: the operation name
+     * when the service caught it, {@code commit} when the version check failed at commit. Either
+     * id or amount may be null when the caller does not know it.
+     */
+    public void conflict(String stage, Long walletId, BigDecimal amount) {
+        registry.counter(CONFLICT_COUNTER, "stage", stage).increment();
+
+        WalletJfrEvents.OptimisticLockConflict event = new WalletJfrEvents.OptimisticLockConflict();
+        if (event.shouldCommit()) {
+            event.stage = stage;
+            event.walletId = WalletJfrEvents.walletId(walletId);
+            event.amountBucket = WalletJfrEvents.amountBucket(amount);
+            event.outcome = CONFLICT;
+            event.commit();
+        }
+    }
+
+    /** Times one call to user-service; errors are tagged with the exception type and rethrown. */
+    public <T> T timeUserClient(String call, Supplier<T> request) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+        String exception = "none";
+        try {
+            T response = request.get();
+            outcome = "success";
+            return response;
+        } catch (RuntimeException e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(registry.timer(USER_CLIENT_TIMER, "call", call, "outcome", outcome, "exception", exception));
+        }
+    }
+
+    /** Times the daily/monthly limit check; a limit breach is tagged {@code exceeded}. */
+    public void timeLimitCheck(Long walletId, BigDecimal amount, Transaction.Type type, Runnable check) {
+        Timer.Sample sample = Timer.start(registry);
+        WalletJfrEvents.LimitCheck event = new WalletJfrEvents.LimitCheck();
+        event.begin();
+        String outcome = "exceeded";
+        try {
+            check.run();
+            outcome = "within";
+        } finally {
+            sample.stop(registry.timer(LIMIT_CHECK_TIMER, "type", String.valueOf(type), "outcome", outcome));
+            if (event.shouldCommit()) {
+                event.type = String.valueOf(type);
+                event.walletId = WalletJfrEvents.walletId(walletId);
+                event.amountBucket = WalletJfrEvents.amountBucket(amount);
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Records the blacklist lookup of a wallet's owner as a JFR event only; the HTTP call itself
+     * is already timed by {@link #timeUserClient}, which does not know the wallet.
+     */
+    public boolean traceUserCheck(Long walletId, Long userId, BigDecimal amount, BooleanSupplier blacklisted) {
+        WalletJfrEvents.UserServiceCall event = new WalletJfrEvents.UserServiceCall();
+        event.begin();
+        String outcome = EXCEPTION;
+        try {
+            boolean result = blacklisted.getAsBoolean();
+            outcome = result ? "blacklisted" : "allowed";
+            return result;
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            if (event.shouldCommit()) {
+                event.walletId = WalletJfrEvents.walletId(walletId);
+                event.userId = userId == null ? 0L : userId;
+                event.amountBucket = WalletJfrEvents.amountBucket(amount);
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    static String resultCode(WalletOperationResult result) {
+        return result instanceof WalletOperationResult.Failure failure ? failure.errorCode() : SUCCESS;
+    }
+}
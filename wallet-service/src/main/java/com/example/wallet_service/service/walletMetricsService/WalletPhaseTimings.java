@@ -0,0 +1,244 @@
+package com.example.wallet_service.service.walletMetricsService;
+
+import com.example.wallet_service.config.phaseTimingConfig.PhaseTimingConfig;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Where the time of a wallet mutation goes, phase by phase, in HdrHistograms (microseconds).
+ * <p>
+ * Each request thread carries a trace: JwtAuthFilter opens it and adds the JWT phase,
+ * WalletService names the operation and times its own phases, and the commit is timed by a
+ * transaction synchronization. When the operation returns, the per-request total of every phase
+ * it went through is recorded under that operation, so a transfer's two fetches are one sample.
+ * Requests that never reach a mutation record nothing.
+ */
+@Component
+public class WalletPhaseTimings {
+
+    public enum Phase {
+        JWT("jwt"),
+        WALLET_FETCH("wallet-fetch"),
+        USER_CHECK("user-check"),
+        LIMIT_CHECK("limit-check"),
+        SAVE("save"),
+        COMMIT("commit");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final boolean enabled;
+    private final ConcurrentHashMap<String, Histogram[]> histograms = new ConcurrentHashMap<>();
+    private final ThreadLocal<Trace> traces = new ThreadLocal<>();
+
+    public WalletPhaseTimings(PhaseTimingConfig config) {
+        this.enabled = config.isEnabled();
+    }
+
+    // ======================== Request trace ========================
+
+    /** Opens a fresh trace for the current request; {@link #end} must follow in a finally. */
+    public void begin() {
+        if (enabled) {
+            traces.set(new Trace());
+        }
+    }
+
+    public void end() {
+        traces.remove();
+    }
+
+    /**
+     * Runs {@code call} as {@code operation}. An operation started inside another one (the debit
+     * and credit legs of a transfer) is timed as part of the outer one.
+     */
+    public <T> T inOperation(String operation, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        Trace trace = traces.get();
+        boolean ownTrace = trace == null;
+        if (ownTrace) {
+            trace = new Trace();
+            traces.set(trace);
+        }
+        if (trace.operation != null) {
+            return call.get();
+        }
+
+        trace.operation = operation;
+        trace.mutated = true;
+        timeCommit(operation);
+        try {
+            return call.get();
+        } finally {
+            Histogram[] byPhase = histogramsFor(operation);
+            for (Phase phase : PHASES) {
+                if (phase != Phase.COMMIT && trace.ran(phase)) {
+                    recordMicros(byPhase[phase.ordinal()], trace.nanos[phase.ordinal()]);
+                }
+            }
+            trace.operation = null;
+            if (ownTrace) {
+                traces.remove();
+            }
+        }
+    }
+
+    public <T> T time(Phase phase, Supplier<T> call) {
+        long started = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            record(phase, System.nanoTime() - started);
+        }
+    }
+
+    public void run(Phase phase, Runnable call) {
+        long started = System.nanoTime();
+        try {
+            call.run();
+        } finally {
+            record(phase, System.nanoTime() - started);
+        }
+    }
+
+    public void record(Phase phase, long elapsedNanos) {
+        Trace trace = traces.get();
+        if (trace != null) {
+            trace.add(phase, elapsedNanos);
+        }
+    }
+
+    /**
+     * Value for a {@code Server-Timing} header (durations in milliseconds), or {@code null} when
+     * the current request ran no wallet mutation.
+     */
+    public String serverTiming() {
+        Trace trace = traces.get();
+        if (trace == null || !trace.mutated) {
+            return null;
+        }
+        StringJoiner header = new StringJoiner(", ");
+        for (Phase phase : PHASES) {
+            if (trace.ran(phase)) {
+                header.add(String.format("%s;dur=%.3f", phase.label(), trace.nanos[phase.ordinal()] / 1_000_000.0));
+            }
+        }
+        return header.toString();
+    }
+
+    //  Flush plus commit, measured around the commit of the surrounding transaction
+    private void timeCommit(String operation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long started;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                started = System.nanoTime();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (started == 0 || status != STATUS_COMMITTED) {
+                    return;
+                }
+                long elapsed = System.nanoTime() - started;
+                recordMicros(histogramsFor(operation)[Phase.COMMIT.ordinal()], elapsed);
+                record(Phase.COMMIT, elapsed);
+            }
+        });
+    }
+
+    // ======================== Histograms ========================
+
+    /** Operation -> phase -> count and percentiles in microseconds. */
+    public Map<String, Map<String, Map<String, Object>>> snapshot() {
+        Map<String, Map<String, Map<String, Object>>> operations = new TreeMap<>();
+        histograms.forEach((operation, byPhase) -> {
+            Map<String, Map<String, Object>> phases = new LinkedHashMap<>();
+            for (Phase phase : PHASES) {
+                Histogram histogram = byPhase[phase.ordinal()].copy();
+                if (histogram.getTotalCount() == 0) {
+                    continue;
+                }
+                Map<String, Object> stats = new LinkedHashMap<>();
+                stats.put("count", histogram.getTotalCount());
+                stats.put("p50", histogram.getValueAtPercentile(50));
+                stats.put("p90", histogram.getValueAtPercentile(90));
+                stats.put("p99", histogram.getValueAtPercentile(99));
+                stats.put("p999", histogram.getValueAtPercentile(99.9));
+                stats.put("max", histogram.getMaxValue());
+                stats.put("mean", Math.round(histogram.getMean()));
+                phases.put(phase.label(), stats);
+            }
+            operations.put(operation, phases);
+        });
+        return operations;
+    }
+
+    public void reset() {
+        histograms.values().forEach(byPhase -> {
+            for (Histogram histogram : byPhase) {
+                histogram.reset();
+            }
+        });
+    }
+
+    private Histogram[] histogramsFor(String operation) {
+        return histograms.computeIfAbsent(operation, op -> {
+            Histogram[] byPhase = new Histogram[PHASES.length];
+            for (int i = 0; i < byPhase.length; i++) {
+                byPhase[i] = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+            }
+            return byPhase;
+        });
+    }
+
+    private static void recordMicros(Histogram histogram, long nanos) {
+        histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_MICROS));
+    }
+
+    // ======================== Trace ========================
+
+    private static final class Trace {
+        final long[] nanos = new long[PHASES.length];
+        int ranMask;
+        String operation;
+        boolean mutated;
+
+        void add(Phase phase, long elapsedNanos) {
+            nanos[phase.ordinal()] += elapsedNanos;
+            ranMask |= 1 << phase.ordinal();
+        }
+
+        boolean ran(Phase phase) {
+            return (ranMask & (1 << phase.ordinal())) != 0;
+        }
+    }
+}
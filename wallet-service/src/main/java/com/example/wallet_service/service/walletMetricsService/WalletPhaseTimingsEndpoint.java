@@ -0,0 +1,30 @@
+package com.example.wallet_service.service.walletMetricsService;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/** {@code GET /actuator/walletphases}: per-phase latency percentiles (µs); {@code DELETE} resets them. */
+@Component
+@Endpoint(id = "walletphases")
+public class WalletPhaseTimingsEndpoint {
+
+    private final WalletPhaseTimings phaseTimings;
+
+    public WalletPhaseTimingsEndpoint(WalletPhaseTimings phaseTimings) {
+        this.phaseTimings = phaseTimings;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Map<String, Object>>> phases() {
+        return phaseTimings.snapshot();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        phaseTimings.reset();
+    }
+}
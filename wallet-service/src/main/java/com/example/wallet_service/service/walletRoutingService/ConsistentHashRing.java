@@ -0,0 +1,87 @@
+package com.example.wallet_service.service.walletRoutingService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Immutable consistent-hash ring mapping wallet ids to instance base URLs.
+ * <p>
+ * Every instance owns {@code virtualNodes} points on a 64-bit ring; a wallet belongs to the first
+ * point at or after its hash. Adding or removing an instance only moves the wallets whose nearest
+ * point changed, roughly {@code 1/n} of them. Hashes depend only on the URL strings and the wallet
+ * id, so every instance with the same membership computes the same owners.
+ */
+public final class ConsistentHashRing {
+
+    private final SortedSet<String> nodes;
+    private final int virtualNodes;
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        this.nodes = Collections.unmodifiableSortedSet(new TreeSet<>(nodes));
+        this.virtualNodes = Math.max(1, virtualNodes);
+        //  Sorted order makes the winner of a (very unlikely) point collision the same everywhere
+        for (String node : this.nodes) {
+            for (int i = 0; i < this.virtualNodes; i++) {
+                points.putIfAbsent(hash(node + "#" + i), node);
+            }
+        }
+    }
+
+    /** Owning instance, or {@code null} when the ring is empty. */
+    public String ownerOf(long walletId) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> entry = points.ceilingEntry(mix(walletId));
+        return (entry != null ? entry : points.firstEntry()).getValue();
+    }
+
+    public SortedSet<String> nodes() {
+        return nodes;
+    }
+
+    public ConsistentHashRing withNode(String node) {
+        if (nodes.contains(node)) {
+            return this;
+        }
+        TreeSet<String> next = new TreeSet<>(nodes);
+        next.add(node);
+        return new ConsistentHashRing(next, virtualNodes);
+    }
+
+    public ConsistentHashRing withoutNode(String node) {
+        if (!nodes.contains(node)) {
+            return this;
+        }
+        TreeSet<String> next = new TreeSet<>(nodes);
+        next.remove(node);
+        return new ConsistentHashRing(next, virtualNodes);
+    }
+
+    //  FNV-1a over the UTF-8 bytes, then a finalizer so similar URLs land far apart
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    //  MurmurHash3 fmix64; spreads sequential wallet ids over the whole ring
+    static long mix(long z) {
+        z ^= z >>> 33;
+        z *= 0xff51afd7ed558ccdL;
+        z ^= z >>> 33;
+        z *= 0xc4ceb9fe1a85ec53L;
+        z ^= z >>> 33;
+        return z;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.wallet_service.service.walletRoutingService;
+
+import com.example.wallet_service.config.walletRoutingConfig.WalletRoutingConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Which wallet-service instance owns a wallet id, so that all requests for one wallet serialize on
+ * one instance instead of contending for the same row lock from several.
+ * <p>
+ * Membership starts as the full {@code wallet-routing.instances} list, so instances starting
+ * together agree on owners from the first request. Peers are probed on {@code /actuator/health};
+ * a peer that fails a probe or refuses a forwarded connection leaves the ring and rejoins after its
+ * next healthy probe. This instance is always a member of its own ring.
+ */
+@Component
+public class WalletRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalletRouter.class);
+
+    private final WalletRoutingConfig config;
+    private final String self;
+    private final List<String> peers;
+
+    private volatile ConsistentHashRing ring;
+    private RestTemplate restTemplate;
+    private ScheduledExecutorService scheduler;
+
+    public WalletRouter(WalletRoutingConfig config) {
+        this.config = config;
+        this.self = normalize(config.getSelfUrl());
+
+        Set<String> members = new LinkedHashSet<>();
+        for (String instance : config.getInstances()) {
+            if (!instance.isBlank()) {
+                members.add(normalize(instance));
+            }
+        }
+        members.add(self);
+        this.peers = members.stream().filter(member -> !member.equals(self)).toList();
+        this.ring = new ConsistentHashRing(members, config.getVirtualNodes());
+    }
+
+    @PostConstruct
+    void start() {
+        if (!isActive()) {
+            return;
+        }
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(config.getConnectTimeoutMillis()))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(config.getForwardTimeoutMillis()));
+
+        restTemplate = new RestTemplate(requestFactory);
+        //  Forwarded error responses are relayed to the caller as they are
+        restTemplate.setErrorHandler(new DefaultResponseErrorHandler() {
+            @Override
+            public boolean hasError(ClientHttpResponse response) {
+                return false;
+            }
+        });
+
+        long interval = Math.max(100, config.getHealthCheckIntervalMillis());
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "wallet-router-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkPeers, interval, interval, TimeUnit.MILLISECONDS);
+        logger.info("Wallet routing enabled: self {}, peers {}", self, peers);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /** Routing only does anything with routing enabled and at least one configured peer. */
+    public boolean isActive() {
+        return config.isEnabled() && !self.isEmpty() && !peers.isEmpty();
+    }
+
+    public String ownerOf(long walletId) {
+        return ring.ownerOf(walletId);
+    }
+
+    public boolean isSelf(String instance) {
+        return self.equals(instance);
+    }
+
+    public String getSelf() {
+        return self;
+    }
+
+    public ConsistentHashRing getRing() {
+        return ring;
+    }
+
+    RestTemplate restTemplate() {
+        return restTemplate;
+    }
+
+    /** Takes a peer out of the ring right away, e.g. after it refused a forwarded request. */
+    public void markDown(String peer) {
+        update(peer, false);
+    }
+
+    //  Package-private so tests can drive probes without waiting on the scheduler
+    void checkPeers() {
+        for (String peer : peers) {
+            update(peer, isHealthy(peer));
+        }
+    }
+
+    private boolean isHealthy(String peer) {
+        try {
+            return restTemplate.getForEntity(URI.create(peer + "/actuator/health"), String.class)
+                    .getStatusCode().is2xxSuccessful();
+        } catch (RuntimeException e) {
+            logger.debug("Health probe of {} failed: {}", peer, e.getMessage());
+            return false;
+        }
+    }
+
+    private synchronized void update(String peer, boolean healthy) {
+        if (isSelf(peer) || healthy == ring.nodes().contains(peer)) {
+            return;
+        }
+        ring = healthy ? ring.withNode(peer) : ring.withoutNode(peer);
+        if (healthy) {
+            logger.info("Wallet-service instance {} joined the routing ring, members now {}", peer, ring.nodes());
+        } else {
+            logger.warn("Wallet-service instance {} left the routing ring, members now {}", peer, ring.nodes());
+        }
+    }
+
+    private static String normalize(String url) {
+        String trimmed = url == null ? "" : url.trim();
+        while (trimmed.endsWith("/")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        return trimmed;
+    }
+}
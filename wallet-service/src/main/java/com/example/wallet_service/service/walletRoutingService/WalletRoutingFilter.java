@@ -0,0 +1,194 @@
+package com.example.wallet_service.service.walletRoutingService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpConnectTimeoutException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Forwards wallet-scoped {@code /api/**} requests to the instance owning the wallet on the
+ * {@link WalletRouter} ring and relays its response; requests already on the owner, and requests
+ * without a wallet id (create, history, user-wide listings), are served here.
+ * <p>
+ * Runs ahead of Spring Security so a forwarded request is authenticated and rate limited once, on
+ * the owner. Forwarded requests carry {@value #ROUTED_BY_HEADER} and are always served by the
+ * receiver, so instances that briefly disagree on membership cannot bounce a request around.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 10)
+public class WalletRoutingFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalletRoutingFilter.class);
+
+    static final String ROUTED_BY_HEADER = "X-Wallet-Routed-By";
+    static final String INSTANCE_HEADER = "X-Wallet-Instance";
+
+    //  /api/wallets/{id}/..., /api/wallets/admin/{id}/... and /api/transactions/wallet/{id}/...
+    private static final Pattern WALLET_PATH =
+            Pattern.compile("^/api/(?:wallets(?:/admin)?|transactions/wallet)/(\\d+)(?:/.*)?$");
+    private static final String TRANSFER_PATH = "/api/wallets/transfer";
+
+    //  Connection-level headers that belong to each hop, not to the forwarded request
+    private static final Set<String> HOP_BY_HOP = caseInsensitive(
+            "Connection", "Keep-Alive", "Proxy-Authenticate", "Proxy-Authorization", "TE", "Trailer",
+            "Transfer-Encoding", "Upgrade", "Host", "Content-Length", "Expect");
+
+    private final WalletRouter router;
+
+    public WalletRoutingFilter(WalletRouter router) {
+        this.router = router;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !router.isActive() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Long walletId = walletIdOf(request);
+        if (walletId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String owner = router.ownerOf(walletId);
+        if (!router.isSelf(owner) && request.getHeader(ROUTED_BY_HEADER) == null) {
+            byte[] body = request.getInputStream().readAllBytes();
+            do {
+                if (forward(owner, request, body, response)) {
+                    return;
+                }
+                //  Owner unreachable: drop it from the ring and retry on the next owner, possibly us
+                router.markDown(owner);
+                owner = router.ownerOf(walletId);
+            } while (!router.isSelf(owner));
+            if (body.length > 0) {
+                //  The body was consumed for forwarding; wallet-scoped endpoints take none
+                writeError(response, 503, "Wallet owner unreachable, retry the request");
+                return;
+            }
+        }
+
+        response.setHeader(INSTANCE_HEADER, router.getSelf());
+        filterChain.doFilter(request, response);
+    }
+
+    /** Wallet the request operates on; transfers are routed by their source wallet. */
+    Long walletIdOf(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String id = null;
+        if (uri.equals(TRANSFER_PATH)) {
+            if (request.getQueryString() != null) {
+                id = UriComponentsBuilder.newInstance().query(request.getQueryString()).build()
+                        .getQueryParams().getFirst("fromWalletId");
+            }
+        } else {
+            Matcher matcher = WALLET_PATH.matcher(uri);
+            if (matcher.matches()) {
+                id = matcher.group(1);
+            }
+        }
+        if (id == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            //  Left for the controller to reject
+            return null;
+        }
+    }
+
+    /** {@code false} when the owner could not be reached and nothing was sent, so retrying elsewhere is safe. */
+    private boolean forward(String owner, HttpServletRequest request, byte[] body, HttpServletResponse response)
+            throws IOException {
+        String query = request.getQueryString();
+        URI target = URI.create(owner + request.getRequestURI() + (query != null ? "?" + query : ""));
+
+        try {
+            router.restTemplate().execute(target, HttpMethod.valueOf(request.getMethod()),
+                    outgoing -> {
+                        for (String name : Collections.list(request.getHeaderNames())) {
+                            if (!HOP_BY_HOP.contains(name)) {
+                                outgoing.getHeaders().put(name, Collections.list(request.getHeaders(name)));
+                            }
+                        }
+                        String forwardedFor = request.getHeader("X-Forwarded-For");
+                        outgoing.getHeaders().set("X-Forwarded-For", forwardedFor == null
+                                ? request.getRemoteAddr() : forwardedFor + ", " + request.getRemoteAddr());
+                        outgoing.getHeaders().set(ROUTED_BY_HEADER, router.getSelf());
+                        if (body.length > 0) {
+                            outgoing.getBody().write(body);
+                        }
+                    },
+                    incoming -> {
+                        response.setStatus(incoming.getStatusCode().value());
+                        incoming.getHeaders().forEach((name, values) -> {
+                            if (!HOP_BY_HOP.contains(name)) {
+                                values.forEach(value -> response.addHeader(name, value));
+                            }
+                        });
+                        //  Streamed through, so large exports are not buffered here
+                        StreamUtils.copy(incoming.getBody(), response.getOutputStream());
+                        return null;
+                    });
+            return true;
+        } catch (ResourceAccessException e) {
+            if (notSent(e)) {
+                logger.warn("Wallet owner {} unreachable for {} {}: {}",
+                        owner, request.getMethod(), request.getRequestURI(), e.getMostSpecificCause().toString());
+                return false;
+            }
+            //  The owner may have applied the request; retrying could apply it twice
+            logger.error("Forwarding {} {} to {} failed", request.getMethod(), request.getRequestURI(), owner, e);
+            if (!response.isCommitted()) {
+                writeError(response, 502, "Wallet owner did not answer");
+            }
+            return true;
+        }
+    }
+
+    private static boolean notSent(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof HttpConnectTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType("application/json");
+        response.getWriter().write("{\"errorCode\":\"WALLET_ROUTING_FAILED\",\"message\":\"" + message + "\"}");
+    }
+
+    private static Set<String> caseInsensitive(String... names) {
+        Set<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        Collections.addAll(set, names);
+        return Collections.unmodifiableSet(set);
+    }
+}
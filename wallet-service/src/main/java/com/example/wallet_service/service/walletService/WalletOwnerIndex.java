@@ -0,0 +1,139 @@
+package com.example.wallet_service.service.walletService;
+
+import com.example.wallet_service.config.walletOwnerIndexConfig.WalletOwnerIndexConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * walletId → userId for ownership checks, so authorising a request never has to load the wallet.
+ * <p>
+ * A wallet's owner is fixed when it is created, so entries are never invalidated. Pairs live in one
+ * open-addressed {@code long[]} (key, value, key, value, ...): no boxing, no per-entry objects, and
+ * nothing for the collector to trace however many wallets are indexed. Reads are optimistic
+ * {@link StampedLock} reads that only fall back to a read lock when a write raced them. Once
+ * {@code max-entries} is reached new wallets are simply not indexed and are looked up in the database.
+ */
+@Component
+public class WalletOwnerIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalletOwnerIndex.class);
+
+    /** Returned by {@link #ownerOf} for wallets that are not indexed. */
+    public static final long MISSING = Long.MIN_VALUE;
+
+    //  Wallet ids come from AUTO_INCREMENT and start at 1, so 0 can mark a free slot
+    private static final long FREE = 0L;
+    private static final int INITIAL_SLOTS = 1024;
+
+    private final int maxEntries;
+    private final StampedLock lock = new StampedLock();
+    private long[] table = new long[INITIAL_SLOTS * 2];
+    private int size;
+    private boolean fullLogged;
+
+    public WalletOwnerIndex(WalletOwnerIndexConfig config) {
+        this.maxEntries = Math.max(0, config.getMaxEntries());
+    }
+
+    public long ownerOf(long walletId) {
+        if (walletId <= FREE) {
+            return MISSING;
+        }
+        long stamp = lock.tryOptimisticRead();
+        long owner = find(table, walletId);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                owner = find(table, walletId);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return owner;
+    }
+
+    public void put(long walletId, long ownerId) {
+        if (walletId <= FREE) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (find(table, walletId) != MISSING) {
+                return;
+            }
+            if (size >= maxEntries) {
+                if (!fullLogged) {
+                    logger.warn("Wallet owner index is full ({} entries); further wallets are checked against the database", size);
+                    fullLogged = true;
+                }
+                return;
+            }
+            //  Keep the load factor at or below one half so probe runs stay short
+            if ((size + 1) * 2 > table.length / 2) {
+                table = resize(table);
+            }
+            insert(table, walletId, ownerId);
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //  Safe on a table that is being written to: bounded by the table length and the caller
+    //  discards the answer unless its optimistic stamp is still valid
+    private static long find(long[] table, long walletId) {
+        int slots = table.length / 2;
+        int mask = slots - 1;
+        int slot = hash(walletId) & mask;
+        for (int probes = 0; probes < slots; probes++) {
+            long key = table[slot * 2];
+            if (key == walletId) {
+                return table[slot * 2 + 1];
+            }
+            if (key == FREE) {
+                return MISSING;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    private static void insert(long[] table, long walletId, long ownerId) {
+        int mask = table.length / 2 - 1;
+        int slot = hash(walletId) & mask;
+        while (table[slot * 2] != FREE) {
+            slot = (slot + 1) & mask;
+        }
+        //  Value first, so a reader that sees the key never sees an unset owner
+        table[slot * 2 + 1] = ownerId;
+        table[slot * 2] = walletId;
+    }
+
+    private static long[] resize(long[] old) {
+        long[] grown = new long[old.length * 2];
+        for (int i = 0; i < old.length; i += 2) {
+            if (old[i] != FREE) {
+                insert(grown, old[i], old[i + 1]);
+            }
+        }
+        return grown;
+    }
+
+    //  Sequential ids would otherwise fill neighbouring slots and build long probe runs
+    private static int hash(long walletId) {
+        long h = walletId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
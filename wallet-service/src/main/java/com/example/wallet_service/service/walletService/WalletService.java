@@ -2,9 +2,11 @@ package com.example.wallet_service.service.walletService;
 
 import com.example.wallet_service.client.userClient.UserClient;
 import com.example.wallet_service.config.walletConfig.WalletConfig;
+import com.example.wallet_service.data.WalletAccessResult;
 import com.example.wallet_service.data.WalletOperationResult;
 import com.example.wallet_service.dto.walletDto.CreateWalletDTO;
 import com.example.wallet_service.dto.transactionDto.TransactionSummaryDTO;
+import com.example.wallet_service.dto.transactionDto.TransactionView;
 import com.example.wallet_service.exception.WalletBlacklistedException;
 import com.example.wallet_service.exception.WalletIdNotFoundException;
 import com.example.wallet_service.model.transaction.Transaction;
@@ -12,41 +14,69 @@ import com.example.wallet_service.model.wallet.Wallet;
 import com.example.wallet_service.repository.transactionRepository.TransactionRepository;
 import com.example.wallet_service.repository.walletRepository.WalletRepository;
 import com.example.wallet_service.security.UserPrincipal;
+import com.example.wallet_service.service.transactionService.RecentTransactionCache;
 import com.example.wallet_service.service.transactionService.TransactionService;
+import com.example.wallet_service.service.walletMetricsService.WalletMetrics;
+import com.example.wallet_service.service.walletMetricsService.WalletPhaseTimings;
+import com.example.wallet_service.service.walletMetricsService.WalletPhaseTimings.Phase;
+import com.example.wallet_service.service.walletSummaryService.WalletSummaryService;
 import jakarta.persistence.OptimisticLockException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 @Service
 public class WalletService {
 
     private static final Logger logger = LoggerFactory.getLogger(WalletService.class);
+    //  Per-operation request/success lines; sampled in prod (logback-prod.xml), everything else is not
+    private static final Logger opsLogger = LoggerFactory.getLogger(WalletService.class.getName() + ".ops");
 
     private final WalletRepository walletRepository;
     private final TransactionRepository transactionRepository;
     private final WalletConfig walletConfig;
     private final TransactionService transactionService;
     private final UserClient userClient;
+    private final WalletSummaryService walletSummaryService;
+    private final RecentTransactionCache recentTransactionCache;
+    private final WalletOwnerIndex walletOwnerIndex;
+    private final WalletMetrics walletMetrics;
+    private final WalletPhaseTimings phaseTimings;
+    //  Mutations open their transaction inside the operation timer, so commit is part of the timing
+    private final TransactionTemplate transactionTemplate;
 
     public WalletService(WalletRepository walletRepository,
                          TransactionRepository transactionRepository,
                          WalletConfig walletConfig,
-                         TransactionService transactionService, UserClient userClient) {
+                         TransactionService transactionService, UserClient userClient,
+                         WalletSummaryService walletSummaryService,
+                         RecentTransactionCache recentTransactionCache,
+                         WalletOwnerIndex walletOwnerIndex,
+                         WalletMetrics walletMetrics,
+                         WalletPhaseTimings phaseTimings,
+                         PlatformTransactionManager transactionManager) {
         this.walletRepository = walletRepository;
         this.transactionRepository = transactionRepository;
         this.walletConfig = walletConfig;
         this.transactionService = transactionService;
         this.userClient = userClient;
+        this.walletSummaryService = walletSummaryService;
+        this.recentTransactionCache = recentTransactionCache;
+        this.walletOwnerIndex = walletOwnerIndex;
+        this.walletMetrics = walletMetrics;
+        this.phaseTimings = phaseTimings;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
 
@@ -62,7 +92,9 @@ public class WalletService {
         wallet.setBalance(walletDTO.getInitialBalance());
         wallet.setUserId(userId); // since we now store userId instead of a User entity
 
-        return walletRepository.save(wallet);
+        Wallet saved = walletRepository.save(wallet);
+        walletOwnerIndex.put(saved.getId(), userId);
+        return saved;
     }
 
 
@@ -70,8 +102,42 @@ public class WalletService {
 
 
 
+    // ========================= AUTHORIZATION =========================
+
+    /**
+     * Runs {@code action} only if the wallet exists and the caller owns it (or is ADMIN).
+     * The owner comes from {@link WalletOwnerIndex}, so the check itself normally reads nothing
+     * and the action is the only thing in the request that touches the wallet row.
+     */
+    public <T> WalletAccessResult<T> authorizeAndExecute(Long walletId, UserPrincipal principal, Supplier<T> action) {
+        if (walletId == null) {
+            return new WalletAccessResult.NotFound<>(null);
+        }
+        long ownerId = walletOwnerIndex.ownerOf(walletId);
+        if (ownerId == WalletOwnerIndex.MISSING) {
+            Optional<Long> fromDb = walletRepository.findUserIdById(walletId);
+            if (fromDb.isEmpty()) {
+                logger.warn("Wallet not found for access check: {}", walletId);
+                return new WalletAccessResult.NotFound<>(walletId);
+            }
+            ownerId = fromDb.get();
+            walletOwnerIndex.put(walletId, ownerId);
+        }
+
+        boolean isAdmin = "ADMIN".equalsIgnoreCase(principal.getRole());
+        boolean ownsWallet = principal.getUserId() != null && ownerId == principal.getUserId();
+        if (!isAdmin && !ownsWallet) {
+            logger.warn("User {} denied access to wallet {}", principal.getUserId(), walletId);
+            return new WalletAccessResult.Denied<>(walletId);
+        }
+        return new WalletAccessResult.Granted<>(action.get());
+    }
+
     // ========================= BASIC READ METHODS =========================
 
+    //  Read-your-write (a wallet is fetched right after it is created/credited): a read-write
+    //  transaction keeps this on the primary even when read-only work is routed to a replica
+    @Transactional
     public Optional<Wallet> getWalletById(Long id) {
         logger.info("Fetching wallet by ID: {}", id);
         Optional<Wallet> wallet = walletRepository.findById(id);
@@ -85,12 +151,11 @@ public class WalletService {
 
 
 
+    //  Served from the wallet_summary running totals, not a GROUP BY over the wallet's history
+    @Transactional(readOnly = true)
     public List<TransactionSummaryDTO> getTransactionSummary(Long walletId) {
         logger.info("Fetching transaction summary for wallet ID: {}", walletId);
-        List<Object[]> results = transactionRepository.getTransactionSumsByType(walletId);
-        List<TransactionSummaryDTO> summary = results.stream()
-                .map(r -> new TransactionSummaryDTO((Transaction.Type) r[0], (BigDecimal) r[1]))
-                .collect(Collectors.toList());
+        List<TransactionSummaryDTO> summary = walletSummaryService.getSummary(walletId);
         logger.debug("Transaction summary for wallet {}: {}", walletId, summary);
         return summary;
     }
@@ -98,9 +163,13 @@ public class WalletService {
     // ========================= TRANSACTION OPERATIONS =========================
 
     // @Transactional(noRollbackFor = IllegalArgumentException.class)
-    @Transactional
     public WalletOperationResult credit(Long walletId, BigDecimal amount, String description) {
-        logger.info("Credit request - walletId: {}, amount: {}, description: {}", walletId, amount, description);
+        return walletMetrics.timeOperation("credit", walletId, amount, () -> transactionTemplate.execute(
+                status -> phaseTimings.inOperation("credit", () -> applyCredit(walletId, amount, description))));
+    }
+
+    private WalletOperationResult applyCredit(Long walletId, BigDecimal amount, String description) {
+        opsLogger.info("Credit request - walletId: {}, amount: {}, description: {}", walletId, amount, description);
         try {
             if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
                 logger.warn("Invalid credit amount: {}", amount);
@@ -108,7 +177,7 @@ public class WalletService {
             }
 
 
-            Optional<Wallet> walletOpt = walletRepository.findById(walletId);
+            Optional<Wallet> walletOpt = phaseTimings.time(Phase.WALLET_FETCH, () -> walletRepository.findByIdForUpdate(walletId));
             if (walletOpt.isEmpty()) {
                 logger.warn("Wallet not found: {}", walletId);
                 return new WalletOperationResult.Failure("WALLET_NOT_FOUND", "Wallet ID " + walletId + " not found.");
@@ -125,7 +194,7 @@ public class WalletService {
 
             Long userId = wallet.getUserId();
 
-            verifyUserNotBlacklisted(userId);
+            verifyUserNotBlacklisted(walletId, userId, amount);
 
            // UserPrincipal principal = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
@@ -135,13 +204,19 @@ public class WalletService {
                 return new WalletOperationResult.Failure("LIMIT_EXCEEDED", "Amount exceeds max credit limit.");
             }
 
-            transactionService.validateTransactionLimits(walletId, amount, Transaction.Type.CREDIT);
+            phaseTimings.run(Phase.LIMIT_CHECK,
+                    () -> transactionService.validateTransactionLimits(walletId, amount, Transaction.Type.CREDIT));
 
             wallet.setBalance(wallet.getBalance().add(amount));
-            walletRepository.save(wallet);
-            transactionRepository.save(new Transaction(wallet, amount, Transaction.Type.CREDIT, description));
-
-            logger.info("Credit successful - walletId: {}, new balance: {}", walletId, wallet.getBalance());
+            Transaction saved = phaseTimings.time(Phase.SAVE, () -> {
+                walletRepository.save(wallet);
+                Transaction transaction = transactionRepository.save(new Transaction(wallet, amount, Transaction.Type.CREDIT, description));
+                walletSummaryService.record(walletId, Transaction.Type.CREDIT, amount);
+                return transaction;
+            });
+            recentTransactionCache.append(TransactionView.of(saved));
+
+            opsLogger.info("Credit successful - walletId: {}, new balance: {}", walletId, wallet.getBalance());
             return new WalletOperationResult.Success("New Balance: " + wallet.getBalance().setScale(2));
 
         } catch (IllegalArgumentException e) {
@@ -149,6 +224,7 @@ public class WalletService {
             return new WalletOperationResult.Failure("LIMIT_EXCEEDED", e.getMessage());
         } catch (OptimisticLockException e) {
             logger.error("Credit conflict - wallet {} updated concurrently", walletId);
+            walletMetrics.conflict("credit", walletId, amount);
             return new WalletOperationResult.Failure("CONFLICT", "Wallet was updated by another transaction. Please retry.");
         } catch (Exception e) {
             logger.error("Unexpected error during credit for wallet {}: {}", walletId, e.getMessage(), e);
@@ -167,16 +243,20 @@ public class WalletService {
 
 
     // @Transactional(noRollbackFor = IllegalArgumentException.class)
-    @Transactional
     public WalletOperationResult debit(Long walletId, BigDecimal amount, String description) {
-        logger.info("Debit request - walletId: {}, amount: {}, description: {}", walletId, amount, description);
+        return walletMetrics.timeOperation("debit", walletId, amount, () -> transactionTemplate.execute(
+                status -> phaseTimings.inOperation("debit", () -> applyDebit(walletId, amount, description))));
+    }
+
+    private WalletOperationResult applyDebit(Long walletId, BigDecimal amount, String description) {
+        opsLogger.info("Debit request - walletId: {}, amount: {}, description: {}", walletId, amount, description);
         try {
             if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
                 logger.warn("Invalid debit amount: {}", amount);
                 return new WalletOperationResult.Failure("INVALID_AMOUNT", "Amount must be greater than zero.");
             }
 
-            Optional<Wallet> walletOpt = walletRepository.findById(walletId);
+            Optional<Wallet> walletOpt = phaseTimings.time(Phase.WALLET_FETCH, () -> walletRepository.findByIdForUpdate(walletId));
             if (walletOpt.isEmpty()) {
                 logger.warn("Wallet not found: {}", walletId);
                 return new WalletOperationResult.Failure("WALLET_NOT_FOUND", "Wallet ID " + walletId + " not found.");
@@ -193,7 +273,7 @@ public class WalletService {
             Long userId = wallet.getUserId();
 
             // check the blackListed user
-            verifyUserNotBlacklisted(userId);
+            verifyUserNotBlacklisted(walletId, userId, amount);
 
 
             if (amount.compareTo(walletConfig.getMaxDebitLimit()) > 0) {
@@ -206,13 +286,19 @@ public class WalletService {
                 return new WalletOperationResult.Failure("INSUFFICIENT_FUNDS", "Not enough balance.");
             }
 
-            transactionService.validateTransactionLimits(walletId, amount, Transaction.Type.DEBIT);
+            phaseTimings.run(Phase.LIMIT_CHECK,
+                    () -> transactionService.validateTransactionLimits(walletId, amount, Transaction.Type.DEBIT));
 
             wallet.setBalance(wallet.getBalance().subtract(amount));
-            walletRepository.save(wallet);
-            transactionRepository.save(new Transaction(wallet, amount, Transaction.Type.DEBIT, description));
-
-            logger.info("Debit successful - walletId: {}, new balance: {}", walletId, wallet.getBalance());
+            Transaction saved = phaseTimings.time(Phase.SAVE, () -> {
+                walletRepository.save(wallet);
+                Transaction transaction = transactionRepository.save(new Transaction(wallet, amount, Transaction.Type.DEBIT, description));
+                walletSummaryService.record(walletId, Transaction.Type.DEBIT, amount);
+                return transaction;
+            });
+            recentTransactionCache.append(TransactionView.of(saved));
+
+            opsLogger.info("Debit successful - walletId: {}, new balance: {}", walletId, wallet.getBalance());
             return new WalletOperationResult.Success("New Balance: " + wallet.getBalance().setScale(2));
 
         } catch (IllegalArgumentException e) {
@@ -220,6 +306,7 @@ public class WalletService {
             return new WalletOperationResult.Failure("LIMIT_EXCEEDED", e.getMessage());
         } catch (OptimisticLockException e) {
             logger.error("Debit conflict - wallet {} updated concurrently", walletId);
+            walletMetrics.conflict("debit", walletId, amount);
             return new WalletOperationResult.Failure("CONFLICT", "Wallet was updated by another transaction. Please retry.");
         } catch (Exception e) {
             logger.error("Unexpected error during debit for wallet {}: {}", walletId, e.getMessage(), e);
@@ -230,16 +317,29 @@ public class WalletService {
 
 
 
-    @Transactional
+    //  The debit and credit legs are also recorded under their own operation names; they join the
+    //  transfer's transaction, so its commit is timed (and a commit conflict tagged) on transfer only
     public WalletOperationResult transfer(Long fromWalletId, Long toWalletId, BigDecimal amount, String description) {
-        logger.info("Transfer request: fromWallet={}, toWallet={}, amount={}", fromWalletId, toWalletId, amount);
+        return walletMetrics.timeOperation("transfer", fromWalletId, amount, () -> transactionTemplate.execute(
+                status -> phaseTimings.inOperation("transfer", () -> applyTransfer(fromWalletId, toWalletId, amount, description))));
+    }
+
+    private WalletOperationResult applyTransfer(Long fromWalletId, Long toWalletId, BigDecimal amount, String description) {
+        opsLogger.info("Transfer request: fromWallet={}, toWallet={}, amount={}", fromWalletId, toWalletId, amount);
 
         if (fromWalletId.equals(toWalletId)) {
             return new WalletOperationResult.Failure("INVALID_TRANSFER", "Cannot transfer to the same wallet.");
         }
 
-        Optional<Wallet> fromOpt = walletRepository.findById(fromWalletId);
-        Optional<Wallet> toOpt = walletRepository.findById(toWalletId);
+        //  Both rows are locked in id order, as the summary rebuild locks its range, so two transfers
+        //  in opposite directions (or a transfer and a rebuild) cannot deadlock
+        boolean fromFirst = fromWalletId < toWalletId;
+        Optional<Wallet> firstOpt = phaseTimings.time(Phase.WALLET_FETCH,
+                () -> walletRepository.findByIdForUpdate(fromFirst ? fromWalletId : toWalletId));
+        Optional<Wallet> secondOpt = phaseTimings.time(Phase.WALLET_FETCH,
+                () -> walletRepository.findByIdForUpdate(fromFirst ? toWalletId : fromWalletId));
+        Optional<Wallet> fromOpt = fromFirst ? firstOpt : secondOpt;
+        Optional<Wallet> toOpt = fromFirst ? secondOpt : firstOpt;
 
         if (fromOpt.isEmpty() || toOpt.isEmpty()) {
             return new WalletOperationResult.Failure("NOT_FOUND", "One or both wallets not found.");
@@ -254,8 +354,8 @@ public class WalletService {
         }
 
         // Check if users of either wallet are blacklisted
-        verifyUserNotBlacklisted(fromWallet.getUserId());
-        verifyUserNotBlacklisted(toWallet.getUserId());
+        verifyUserNotBlacklisted(fromWalletId, fromWallet.getUserId(), amount);
+        verifyUserNotBlacklisted(toWalletId, toWallet.getUserId(), amount);
 
         // Check amount
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
@@ -269,7 +369,7 @@ public class WalletService {
         }
 
         credit(toWalletId, amount, description);
-        logger.info("Transfer completed: fromWallet={} → toWallet={} amount={}", fromWalletId, toWalletId, amount);
+        opsLogger.info("Transfer completed: fromWallet={} → toWallet={} amount={}", fromWalletId, toWalletId, amount);
 
         return new WalletOperationResult.Success("Transfer successful");
     }
@@ -291,8 +391,9 @@ public class WalletService {
 
 
 
-    private void verifyUserNotBlacklisted(Long userId) {
-        if (userClient.isUserBlacklisted(userId)) {
+    private void verifyUserNotBlacklisted(Long walletId, Long userId, BigDecimal amount) {
+        if (phaseTimings.time(Phase.USER_CHECK, () -> walletMetrics.traceUserCheck(walletId, userId, amount,
+                () -> userClient.isUserBlacklisted(userId)))) {
             throw new WalletBlacklistedException(
                     "User " + userId + " is blacklisted. Transactions are not allowed."
             );
@@ -303,7 +404,13 @@ public class WalletService {
 
     // ========================= BALANCE CHECK =========================
 
+    //  Always answered by the primary, so a balance read after a credit/debit sees it
+    @Transactional
     public WalletOperationResult getBalance(Long walletId) {
+        return walletMetrics.timeOperation("balance", walletId, null, () -> readBalance(walletId));
+    }
+
+    private WalletOperationResult readBalance(Long walletId) {
         logger.info("Fetching balance for wallet ID: {}", walletId);
         try {
             Optional<Wallet> walletOpt = walletRepository.findById(walletId);
@@ -314,7 +421,7 @@ public class WalletService {
 
             Wallet wallet = walletOpt.get();
             logger.debug("Current balance for wallet {} is {}", walletId, wallet.getBalance());
-            return new WalletOperationResult.Balance(walletId, wallet.getBalance().setScale(2).toPlainString());
+            return new WalletOperationResult.Balance(walletId, wallet.getBalance().setScale(2).toPlainString(), wallet.getVersion());
         } catch (Exception e) {
             logger.error("Error fetching balance for wallet {}: {}", walletId, e.getMessage(), e);
             return new WalletOperationResult.Failure("UNKNOWN_ERROR", "An unexpected error occurred: " + e.getMessage());
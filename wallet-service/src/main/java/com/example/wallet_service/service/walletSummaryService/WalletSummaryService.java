@@ -0,0 +1,124 @@
+package com.example.wallet_service.service.walletSummaryService;
+
+import com.example.wallet_service.config.walletSummaryConfig.WalletSummaryConfig;
+import com.example.wallet_service.dto.transactionDto.TransactionSummaryDTO;
+import com.example.wallet_service.model.transaction.Transaction;
+import com.example.wallet_service.repository.walletSummaryRepository.WalletSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Maintains the {@code wallet_summary} table: one running total per wallet and transaction type.
+ * <p>
+ * {@link #record} is called inside the same transaction that inserts the transaction row, so the
+ * summary commits or rolls back with it. {@link #rebuild} recomputes every summary from
+ * {@code transactions}, splitting the wallet id space into ranges that are rebuilt in parallel,
+ * each in its own transaction.
+ */
+@Service
+public class WalletSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalletSummaryService.class);
+
+    public record RebuildResult(int chunks, long wallets, long rows, long elapsedMillis) {}
+
+    private record Range(long fromId, long toId) {}
+
+    private record ChunkResult(long wallets, long rows) {}
+
+    private final WalletSummaryRepository walletSummaryRepository;
+    private final WalletSummaryConfig walletSummaryConfig;
+    private final TransactionTemplate chunkTransaction;
+
+    public WalletSummaryService(WalletSummaryRepository walletSummaryRepository,
+                                WalletSummaryConfig walletSummaryConfig,
+                                PlatformTransactionManager transactionManager) {
+        this.walletSummaryRepository = walletSummaryRepository;
+        this.walletSummaryConfig = walletSummaryConfig;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TransactionSummaryDTO> getSummary(Long walletId) {
+        return walletSummaryRepository.findSummaryByWalletId(walletId);
+    }
+
+    // ======================== Write path ========================
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long walletId, Transaction.Type type, BigDecimal amount) {
+        walletSummaryRepository.addTransaction(walletId, type.name(), amount);
+    }
+
+    // ======================== Rebuild ========================
+
+    public RebuildResult rebuild() {
+        long started = System.nanoTime();
+
+        Long minId = walletSummaryRepository.findMinWalletId();
+        Long maxId = walletSummaryRepository.findMaxWalletId();
+        if (minId == null || maxId == null) {
+            return new RebuildResult(0, 0, 0, 0);
+        }
+
+        List<Range> ranges = split(minId, maxId, Math.max(1, walletSummaryConfig.getRebuildChunkSize()));
+        int threads = Math.max(1, Math.min(walletSummaryConfig.getRebuildThreads(), ranges.size()));
+        logger.info("Rebuilding wallet summaries for wallet ids {}..{} in {} chunks on {} threads",
+                minId, maxId, ranges.size(), threads);
+
+        long wallets = 0;
+        long rows = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<CompletableFuture<ChunkResult>> futures = new ArrayList<>(ranges.size());
+            for (Range range : ranges) {
+                futures.add(CompletableFuture.supplyAsync(() -> rebuildRange(range), executor));
+            }
+            for (CompletableFuture<ChunkResult> future : futures) {
+                ChunkResult result = future.join();
+                wallets += result.wallets();
+                rows += result.rows();
+            }
+        } catch (CompletionException e) {
+            logger.error("Wallet summary rebuild failed: {}", e.getCause().getMessage(), e.getCause());
+            throw new IllegalStateException("Wallet summary rebuild failed: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        logger.info("Rebuilt {} summary rows for {} wallets in {} ms", rows, wallets, elapsedMillis);
+        return new RebuildResult(ranges.size(), wallets, rows, elapsedMillis);
+    }
+
+    private ChunkResult rebuildRange(Range range) {
+        return chunkTransaction.execute(status -> {
+            List<Long> locked = walletSummaryRepository.lockWalletRange(range.fromId(), range.toId());
+            if (locked.isEmpty()) {
+                return new ChunkResult(0, 0);
+            }
+            walletSummaryRepository.deleteRange(range.fromId(), range.toId());
+            int rows = walletSummaryRepository.rebuildRange(range.fromId(), range.toId());
+            return new ChunkResult(locked.size(), rows);
+        });
+    }
+
+    private static List<Range> split(long minId, long maxId, int chunkSize) {
+        List<Range> ranges = new ArrayList<>();
+        for (long from = minId; from <= maxId; from += chunkSize) {
+            ranges.add(new Range(from, Math.min(maxId, from + chunkSize - 1)));
+        }
+        return ranges;
+    }
+}
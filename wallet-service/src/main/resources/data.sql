@@ -1,5 +1,8 @@
 -- Drop and recreate wallet and transaction tables
 
+DROP TABLE IF EXISTS replica_heartbeat;
+DROP TABLE IF EXISTS wallet_summary;
+DROP TABLE IF EXISTS transactions_archive;
 DROP TABLE IF EXISTS transactions;
 DROP TABLE IF EXISTS wallets;
 
@@ -20,9 +23,67 @@ CREATE TABLE transactions (
     type VARCHAR(20) NOT NULL,
     description VARCHAR(255),
     timestamp TIMESTAMP(6),
+    -- Owner of the wallet at write time; NULL only on rows awaiting the user_id backfill
+    user_id BIGINT,
     CONSTRAINT fk_wallet_transaction FOREIGN KEY (wallet_id) REFERENCES wallets(id) ON DELETE CASCADE
 );
 
+-- Transactions older than the retention window (transaction-archive.retention-months), moved out of
+-- transactions by the archive job in id-range batches. Same columns and original ids, so reads can
+-- merge both tables; queries whose date range starts inside the window never touch this table.
+-- One archive table rather than monthly partitions: InnoDB partitioned tables cannot have foreign
+-- keys, and this script also runs on H2, which has no PARTITION BY.
+CREATE TABLE transactions_archive (
+    id BIGINT PRIMARY KEY,
+    wallet_id BIGINT NOT NULL,
+    amount DECIMAL(19, 5) NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    description VARCHAR(255),
+    timestamp TIMESTAMP(6),
+    user_id BIGINT,
+    CONSTRAINT fk_wallet_transaction_archive FOREIGN KEY (wallet_id) REFERENCES wallets(id) ON DELETE CASCADE
+);
+
+-- Running totals per wallet and type, updated in the same transaction as each credit/debit.
+-- Serves /transactions/summary by primary key instead of aggregating the wallet's history.
+CREATE TABLE wallet_summary (
+    wallet_id BIGINT NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    total_amount DECIMAL(19, 5) NOT NULL DEFAULT 0,
+    tx_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (wallet_id, type),
+    CONSTRAINT fk_wallet_summary FOREIGN KEY (wallet_id) REFERENCES wallets(id) ON DELETE CASCADE
+);
+
+-- Single row the primary stamps every heartbeat; reading it back from a replica gives its lag.
+CREATE TABLE replica_heartbeat (
+    id INT PRIMARY KEY,
+    beat_at BIGINT NOT NULL
+);
+
+-- Wallet lookups by owner (user transaction reports join on wallets.user_id)
+CREATE INDEX idx_wallets_user ON wallets (user_id);
+
+-- Daily/monthly limit sums and per-type summaries: equality on wallet + type, range on timestamp.
+-- amount is included so the SUM is answered from the index alone.
+CREATE INDEX idx_tx_wallet_type_ts ON transactions (wallet_id, type, timestamp, amount);
+
+-- History / latest-first listings and keyset pagination on (timestamp, id) within a wallet.
+-- Also serves as the index backing fk_wallet_transaction.
+CREATE INDEX idx_tx_wallet_ts_id ON transactions (wallet_id, timestamp, id);
+
+-- Admin history searches without a wallet filter: range on timestamp, newest first.
+CREATE INDEX idx_tx_ts_id ON transactions (timestamp, id);
+
+-- Per-user reports across all of a user's wallets: one range scan, no wallets join.
+CREATE INDEX idx_tx_user_ts ON transactions (user_id, timestamp);
+
+-- Archive mirrors the hot indexes its reads need.
+CREATE INDEX idx_txa_wallet_type_ts ON transactions_archive (wallet_id, type, timestamp, amount);
+CREATE INDEX idx_txa_wallet_ts_id ON transactions_archive (wallet_id, timestamp, id);
+CREATE INDEX idx_txa_user_ts ON transactions_archive (user_id, timestamp);
+CREATE INDEX idx_txa_ts_id ON transactions_archive (timestamp, id);
+
 -- Insert sample wallets"
 INSERT INTO wallets (wallet_name, balance,blacklisted, user_id, version)
 VALUES ('Default Wallet', 500.00, FALSE, 1, 0),
@@ -31,7 +92,15 @@ VALUES ('Default Wallet', 500.00, FALSE, 1, 0),
 
 
 -- Insert sample transactions
-INSERT INTO transactions (wallet_id, amount, type, description, timestamp)
-VALUES (1, 100.00, 'CREDIT', 'Initial Deposit', CURRENT_TIMESTAMP),
-       (1, 50.00, 'DEBIT', 'Purchase', CURRENT_TIMESTAMP),
-       (2, 500.00, 'CREDIT', 'Transfer from User 1', CURRENT_TIMESTAMP);
+INSERT INTO transactions (wallet_id, amount, type, description, timestamp, user_id)
+VALUES (1, 100.00, 'CREDIT', 'Initial Deposit', CURRENT_TIMESTAMP, 1),
+       (1, 50.00, 'DEBIT', 'Purchase', CURRENT_TIMESTAMP, 1),
+       (2, 500.00, 'CREDIT', 'Transfer from User 1', CURRENT_TIMESTAMP, 2);
+
+-- Seed summaries for the sample transactions above
+INSERT INTO wallet_summary (wallet_id, type, total_amount, tx_count)
+SELECT wallet_id, type, SUM(amount), COUNT(*)
+FROM transactions
+GROUP BY wallet_id, type;
+
+INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, 0);
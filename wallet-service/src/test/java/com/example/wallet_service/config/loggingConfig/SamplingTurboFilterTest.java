@@ -0,0 +1,132 @@
+package com.example.wallet_service.config.loggingConfig;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SamplingTurboFilterTest {
+
+    private static final String SERVICE = "com.example.wallet_service.service.walletService.WalletService";
+    private static final String SAMPLED = SERVICE + ".ops";
+
+    private LoggerContext context;
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setContext(context);
+        filter.setLoggerName(SAMPLED);
+        filter.setLevel("INFO");
+        filter.setEvery(10);
+        filter.start();
+        context.addTurboFilter(filter);
+
+        appender = new ListAppender<>();
+        appender.setContext(context);
+        appender.start();
+
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.DEBUG);
+        root.addAppender(appender);
+    }
+
+    @Test
+    void keepsOneInEveryInfoEvents() {
+        Logger logger = context.getLogger(SAMPLED);
+        for (int i = 0; i < 100; i++) {
+            logger.info("Credit request - walletId: {}", i);
+        }
+
+        assertEquals(10, appender.list.size());
+        assertEquals("Credit request - walletId: 0", appender.list.get(0).getFormattedMessage());
+        assertEquals("Credit request - walletId: 10", appender.list.get(1).getFormattedMessage());
+    }
+
+    @Test
+    void levelsAboveTheSampledLevelAlwaysPass() {
+        Logger logger = context.getLogger(SAMPLED);
+        for (int i = 0; i < 20; i++) {
+            logger.warn("Wallet not found: {}", i);
+        }
+
+        assertEquals(20, appender.list.size());
+    }
+
+    @Test
+    void otherLoggersAreNotSampled() {
+        //  Same prefix but a different class
+        Logger sibling = context.getLogger(SAMPLED + "Helper");
+        Logger unrelated = context.getLogger("com.example.wallet_service.service.walletCacheService.WalletCacheService");
+        for (int i = 0; i < 20; i++) {
+            sibling.info("sibling {}", i);
+            unrelated.info("unrelated {}", i);
+        }
+
+        assertEquals(40, appender.list.size());
+    }
+
+    @Test
+    void parentLoggerIsNotSampled() {
+        Logger service = context.getLogger(SERVICE);
+        for (int i = 0; i < 20; i++) {
+            service.info("Wallet {} blacklisted status set to {}", i, true);
+        }
+
+        assertEquals(20, appender.list.size());
+    }
+
+    @Test
+    void samplingByFirstArgumentKeepsAWalletsLinesTogether() {
+        SamplingTurboFilter byWallet = new SamplingTurboFilter();
+        byWallet.setContext(context);
+        byWallet.setLoggerName(SAMPLED);
+        byWallet.setEvery(10);
+        byWallet.setSampleBy("firstArgument");
+        byWallet.start();
+        context.resetTurboFilterList();
+        context.addTurboFilter(byWallet);
+
+        Logger logger = context.getLogger(SAMPLED);
+        for (long walletId = 1; walletId <= 1000; walletId++) {
+            logger.info("Credit request - walletId: {}, amount: {}", walletId, 5);
+            logger.info("Credit successful - walletId: {}, new balance: {}", walletId, 10);
+        }
+
+        int kept = appender.list.size();
+        assertEquals(0, kept % 2);
+        for (int i = 0; i < kept; i += 2) {
+            assertEquals(appender.list.get(i).getArgumentArray()[0], appender.list.get(i + 1).getArgumentArray()[0]);
+        }
+        //  About one wallet in ten
+        assertTrue(kept / 2 >= 60 && kept / 2 <= 140, "kept " + kept / 2 + " of 1000 wallets");
+    }
+
+    @Test
+    void enabledChecksDoNotCountAsEvents() {
+        Logger logger = context.getLogger(SAMPLED);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(logger.isInfoEnabled());
+        }
+        logger.info("first");
+
+        assertEquals(1, appender.list.size());
+    }
+
+    @Test
+    void doesNotStartWithoutALoggerName() {
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setContext(context);
+        filter.start();
+
+        assertFalse(filter.isStarted());
+    }
+}
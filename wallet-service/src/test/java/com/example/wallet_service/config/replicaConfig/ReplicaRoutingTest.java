@@ -0,0 +1,158 @@
+package com.example.wallet_service.config.replicaConfig;
+
+import com.example.wallet_service.config.walletSummaryConfig.WalletSummaryConfig;
+import com.example.wallet_service.dto.transactionDto.TransactionSummaryDTO;
+import com.example.wallet_service.model.transaction.Transaction;
+import com.example.wallet_service.repository.walletRepository.WalletRepository;
+import com.example.wallet_service.service.walletSummaryService.WalletSummaryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routing between two embedded databases standing in for a primary and its replica. Replication
+ * is simulated by copying the heartbeat row by hand, so lag can be dialled in per test.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:wallet_routing_primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "replica.datasource.url=jdbc:h2:mem:wallet_routing_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "replica.max-lag-ms=2000",
+        //  Ticks are driven by the tests, not the scheduler
+        "replica.heartbeat-interval-ms=3600000"
+})
+@ActiveProfiles("h2")
+@Import({ReplicaDataSourceConfig.class, ReplicaConfig.class, WalletSummaryService.class, WalletSummaryConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReplicaRoutingTest {
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private WalletSummaryService walletSummaryService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+
+        //  Same schema and seed on the replica, then mark its rows so reads show where they ran
+        new ResourceDatabasePopulator(new ClassPathResource("data.sql")).execute(replicaDataSource);
+        replica.update("UPDATE wallets SET wallet_name = 'replica copy' WHERE id = 1");
+        replica.update("UPDATE wallet_summary SET total_amount = 999 WHERE wallet_id = 1 AND type = 'CREDIT'");
+    }
+
+    private void replicateHeartbeat() {
+        Long beat = primary.queryForObject("SELECT beat_at FROM replica_heartbeat WHERE id = 1", Long.class);
+        replica.update("UPDATE replica_heartbeat SET beat_at = ? WHERE id = 1", beat);
+    }
+
+    private void bringReplicaInSync() {
+        lagMonitor.check();
+        replicateHeartbeat();
+        lagMonitor.check();
+    }
+
+    private String walletName(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> walletRepository.findById(1L).orElseThrow().getWalletName());
+    }
+
+    private BigDecimal creditTotal(List<TransactionSummaryDTO> summary) {
+        return summary.stream()
+                .filter(s -> s.type() == Transaction.Type.CREDIT)
+                .findFirst().orElseThrow().totalAmount();
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaOnceInSync() {
+        bringReplicaInSync();
+
+        assertTrue(lagMonitor.isReplicaUsable());
+        assertEquals(0, lagMonitor.getLagMillis());
+        assertEquals("replica copy", walletName(true));
+        assertEquals("Default Wallet", walletName(false));
+    }
+
+    @Test
+    void readOnlyServiceMethodReadsReplicaWhileWritesStayOnPrimary() {
+        bringReplicaInSync();
+
+        //  @Transactional(readOnly = true) service method
+        assertEquals(0, new BigDecimal("999").compareTo(creditTotal(walletSummaryService.getSummary(1L))));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                walletSummaryService.record(1L, Transaction.Type.CREDIT, new BigDecimal("5.00")));
+
+        assertEquals(0, new BigDecimal("105.00").compareTo(primary.queryForObject(
+                "SELECT total_amount FROM wallet_summary WHERE wallet_id = 1 AND type = 'CREDIT'", BigDecimal.class)));
+        assertEquals(0, new BigDecimal("999").compareTo(replica.queryForObject(
+                "SELECT total_amount FROM wallet_summary WHERE wallet_id = 1 AND type = 'CREDIT'", BigDecimal.class)));
+    }
+
+    @Test
+    void laggingReplicaSendsReadsToPrimary() {
+        bringReplicaInSync();
+        assertEquals("replica copy", walletName(true));
+
+        //  Replica is 5 s behind the last beat the primary wrote; tolerance is 2 s
+        Long lastBeat = primary.queryForObject("SELECT beat_at FROM replica_heartbeat WHERE id = 1", Long.class);
+        replica.update("UPDATE replica_heartbeat SET beat_at = ? WHERE id = 1", lastBeat - 5_000);
+        lagMonitor.check();
+
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertEquals(5_000, lagMonitor.getLagMillis());
+        assertEquals("Default Wallet", walletName(true));
+
+        //  Catching up puts it back in rotation
+        replicateHeartbeat();
+        lagMonitor.check();
+        assertTrue(lagMonitor.isReplicaUsable());
+    }
+
+    @Test
+    void unreachableReplicaSendsReadsToPrimary() {
+        bringReplicaInSync();
+        replica.update("DROP TABLE replica_heartbeat");
+
+        lagMonitor.check();
+
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertEquals("Default Wallet", walletName(true));
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.wallet_service.controller;
+
+import com.example.wallet_service.client.userClient.UserClient;
+import com.example.wallet_service.repository.CapturingStatementInspector;
+import com.example.wallet_service.service.transactionArchiveService.TransactionArchiveService;
+import com.example.wallet_service.service.walletService.WalletOwnerIndex;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement budget of every WalletController and TransactionController endpoint, counted
+ * per HTTP call through {@link CapturingStatementInspector}. An extra query (N+1, a repeated
+ * findById) fails the build; a budget only goes down when a change removes statements.
+ * <p>
+ * Counts are for the H2 profile with the wallet owner already in WalletOwnerIndex (the steady
+ * state), the archive horizon loaded, and the second-level cache off (the h2 profile sets
+ * wallet-cache.enabled=false), so every wallet read is counted; the cold owner lookup is pinned separately.
+ */
+@SpringBootTest(properties = {
+        "rate-limit.enabled=false",
+        "transaction-backfill.user-id.run-on-startup=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class EndpointStatementBudgetTest {
+
+    private static final long OWNER = 500L;
+    private static final long OTHER_USER = 501L;
+    private static final long WALLET = 1000L;
+    private static final long OTHER_WALLET = 1001L;
+    private static final long COLD_WALLET = 1002L;
+    private static final long FIRST_TX = 1000L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WalletOwnerIndex walletOwnerIndex;
+
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+
+    @MockitoBean
+    private UserClient userClient;
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    private String token;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("INSERT INTO wallets (id, wallet_name, balance, blacklisted, user_id, version) VALUES (?, 'budget', 1000, FALSE, ?, 0)", WALLET, OWNER);
+        jdbcTemplate.update("INSERT INTO wallets (id, wallet_name, balance, blacklisted, user_id, version) VALUES (?, 'budget', 1000, FALSE, ?, 0)", OTHER_WALLET, OTHER_USER);
+        jdbcTemplate.update("INSERT INTO wallets (id, wallet_name, balance, blacklisted, user_id, version) VALUES (?, 'budget', 1000, FALSE, ?, 0)", COLD_WALLET, OWNER);
+
+        List<Object[]> rows = new ArrayList<>();
+        LocalDateTime base = LocalDateTime.now().minusHours(12);
+        for (int i = 0; i < 5; i++) {
+            rows.add(new Object[]{FIRST_TX + i, WALLET, 10 + i, i % 2 == 0 ? "CREDIT" : "DEBIT", "seed " + i,
+                    Timestamp.valueOf(base.plusMinutes(i)), OWNER});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO transactions (id, wallet_id, amount, type, description, timestamp, user_id) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                rows);
+
+        walletOwnerIndex.put(WALLET, OWNER);
+        walletOwnerIndex.put(OTHER_WALLET, OTHER_USER);
+        //  Loads the archive horizon, which is read once per process
+        transactionArchiveService.touchesArchive(LocalDateTime.now());
+        when(userClient.isUserBlacklisted(anyLong())).thenReturn(false);
+
+        token = token(OWNER, "USER");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM transactions WHERE wallet_id >= ?", WALLET);
+        jdbcTemplate.update("DELETE FROM wallet_summary WHERE wallet_id >= ?", WALLET);
+        jdbcTemplate.update("DELETE FROM wallets WHERE id >= ? OR user_id = ?", WALLET, OWNER);
+    }
+
+    // ======================== WalletController ========================
+
+    @Test
+    void createWallet() throws Exception {
+        assertBudget(1, post("/api/wallets/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"walletName\":\"new\",\"initialBalance\":10}"), 201);
+    }
+
+    @Test
+    void getBalance() throws Exception {
+        assertBudget(1, get("/api/wallets/{id}", WALLET), 200);
+    }
+
+    @Test
+    void getBalanceNotModified() throws Exception {
+        assertBudget(1, get("/api/wallets/{id}", WALLET).header(HttpHeaders.IF_NONE_MATCH, "\"0\""), 304);
+    }
+
+    @Test
+    void getBalanceColdOwnerLookup() throws Exception {
+        assertBudget(2, get("/api/wallets/{id}", COLD_WALLET), 200);
+    }
+
+    @Test
+    void getBalanceOfSomeoneElsesWallet() throws Exception {
+        assertBudget(0, get("/api/wallets/{id}", OTHER_WALLET), 403);
+    }
+
+    @Test
+    void getTransactionSummary() throws Exception {
+        assertBudget(1, get("/api/wallets/{id}/transactions/summary", WALLET), 200);
+    }
+
+    @Test
+    void credit() throws Exception {
+        assertBudget(6, post("/api/wallets/{id}/credit", WALLET).param("amount", "5"), 200);
+    }
+
+    @Test
+    void debit() throws Exception {
+        assertBudget(6, post("/api/wallets/{id}/debit", WALLET).param("amount", "5"), 200);
+    }
+
+    @Test
+    void transfer() throws Exception {
+        assertBudget(12, post("/api/wallets/transfer")
+                .param("fromWalletId", String.valueOf(WALLET))
+                .param("toWalletId", String.valueOf(OTHER_WALLET))
+                .param("amount", "5"), 200);
+    }
+
+    // ======================== TransactionController ========================
+
+    @Test
+    void getTransactionsByWallet() throws Exception {
+        assertBudget(3, get("/api/transactions/wallet/{id}", WALLET), 200);
+    }
+
+    @Test
+    void getRecentTransactionsColdThenWarm() throws Exception {
+        assertBudget(3, get("/api/transactions/wallet/{id}/recent", WALLET).param("n", "3"), 200);
+        assertBudget(0, get("/api/transactions/wallet/{id}/recent", WALLET).param("n", "3"), 200);
+    }
+
+    @Test
+    void exportTransactions() throws Exception {
+        CapturingStatementInspector.clear();
+        MvcResult started = mockMvc.perform(authorized(get("/api/transactions/wallet/{id}/export", WALLET)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+        assertStatements(2, CapturingStatementInspector.statements());
+    }
+
+    @Test
+    void getTransactionHistory() throws Exception {
+        assertBudget(2, get("/api/transactions/history").param("walletId", String.valueOf(WALLET)), 200);
+    }
+
+    @Test
+    void getTransactionHistoryByCursor() throws Exception {
+        assertBudget(2, get("/api/transactions/history/cursor").param("walletId", String.valueOf(WALLET)), 200);
+    }
+
+    @Test
+    void getUserTransactions() throws Exception {
+        DateTimeFormatter format = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+        assertBudget(2, get("/api/transactions/usertransactions")
+                .param("start", LocalDate.now().minusDays(2).format(format))
+                .param("end", LocalDate.now().format(format)), 200);
+    }
+
+    @Test
+    void getTransactionById() throws Exception {
+        assertBudget(1, get("/api/transactions/{id}", FIRST_TX), 200);
+    }
+
+    // ======================================================================
+    // Helpers
+    // ======================================================================
+
+    private void assertBudget(int budget, MockHttpServletRequestBuilder request, int expectedStatus) throws Exception {
+        CapturingStatementInspector.clear();
+        mockMvc.perform(authorized(request)).andExpect(status().is(expectedStatus));
+        assertStatements(budget, CapturingStatementInspector.statements());
+    }
+
+    private static void assertStatements(int budget, List<String> statements) {
+        assertEquals(budget, statements.size(), () -> "statement budget changed; SQL sent:\n  " + String.join("\n  ", statements));
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    private String token(long userId, String role) {
+        return Jwts.builder()
+                .setSubject("user-" + userId)
+                .claim("userId", userId)
+                .claim("role", role)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
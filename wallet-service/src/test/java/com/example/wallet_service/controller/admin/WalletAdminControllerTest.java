@@ -3,7 +3,11 @@ package com.example.wallet_service.controller.admin;
 import com.example.wallet_service.dto.walletDto.CreateWalletDTO;
 import com.example.wallet_service.model.wallet.Wallet;
 import com.example.wallet_service.security.UserPrincipal;
+import com.example.wallet_service.service.transactionArchiveService.TransactionArchiveService;
+import com.example.wallet_service.service.transactionService.TransactionUserBackfillService;
+import com.example.wallet_service.service.walletCacheService.WalletCacheService;
 import com.example.wallet_service.service.walletService.WalletService;
+import com.example.wallet_service.service.walletSummaryService.WalletSummaryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -15,6 +19,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,6 +30,18 @@ class WalletAdminControllerTest {
     @Mock
     private WalletService walletService;
 
+    @Mock
+    private WalletSummaryService walletSummaryService;
+
+    @Mock
+    private TransactionUserBackfillService transactionUserBackfillService;
+
+    @Mock
+    private TransactionArchiveService transactionArchiveService;
+
+    @Mock
+    private WalletCacheService walletCacheService;
+
     @InjectMocks
     private WalletAdminController walletAdminController;
 
@@ -139,4 +156,131 @@ class WalletAdminControllerTest {
 
         verify(walletService, never()).createWalletForUser(anyLong(), any());
     }
+
+    // ------------------------------------------------------------
+    // SUMMARY REBUILD
+    // ------------------------------------------------------------
+    @Test
+    void testRebuildSummaries_AdminSuccess() {
+
+        mockAuth(1L, "admin", "ADMIN");
+
+        when(walletSummaryService.rebuild())
+                .thenReturn(new WalletSummaryService.RebuildResult(2, 3, 5, 12));
+
+        ResponseEntity<?> response = walletAdminController.rebuildSummaries();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertEquals(3L, body.get("wallets"));
+        assertEquals(5L, body.get("rows"));
+    }
+
+    @Test
+    void testRebuildSummaries_NonAdminForbidden() {
+
+        mockAuth(3L, "user", "USER");
+
+        ResponseEntity<?> response = walletAdminController.rebuildSummaries();
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verify(walletSummaryService, never()).rebuild();
+    }
+
+    // ------------------------------------------------------------
+    // TRANSACTION USER_ID BACKFILL
+    // ------------------------------------------------------------
+    @Test
+    void testBackfillTransactionUserIds_AdminSuccess() {
+
+        mockAuth(1L, "admin", "ADMIN");
+
+        when(transactionUserBackfillService.backfill())
+                .thenReturn(new TransactionUserBackfillService.BackfillResult(4, 17, 9));
+        when(transactionUserBackfillService.isComplete()).thenReturn(true);
+
+        ResponseEntity<?> response = walletAdminController.backfillTransactionUserIds();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertEquals(4, body.get("batches"));
+        assertEquals(17L, body.get("rows"));
+        assertEquals(true, body.get("complete"));
+    }
+
+    @Test
+    void testBackfillTransactionUserIds_NonAdminForbidden() {
+
+        mockAuth(3L, "user", "USER");
+
+        ResponseEntity<?> response = walletAdminController.backfillTransactionUserIds();
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verify(transactionUserBackfillService, never()).backfill();
+    }
+
+    // ------------------------------------------------------------
+    // TRANSACTION ARCHIVING
+    // ------------------------------------------------------------
+    @Test
+    void testArchiveTransactions_AdminSuccess() {
+
+        mockAuth(1L, "admin", "ADMIN");
+
+        when(transactionArchiveService.archive())
+                .thenReturn(new TransactionArchiveService.ArchiveResult(LocalDateTime.of(2024, 1, 1, 0, 0), 3, 120, 40));
+
+        ResponseEntity<?> response = walletAdminController.archiveTransactions();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertEquals("2024-01-01T00:00", body.get("cutoff"));
+        assertEquals(120L, body.get("rows"));
+    }
+
+    @Test
+    void testArchiveTransactions_NonAdminForbidden() {
+
+        mockAuth(3L, "user", "USER");
+
+        ResponseEntity<?> response = walletAdminController.archiveTransactions();
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verify(transactionArchiveService, never()).archive();
+    }
+
+    // ------------------------------------------------------------
+    // WALLET CACHE STATS
+    // ------------------------------------------------------------
+    @Test
+    void testWalletCacheStats_AdminSuccess() {
+
+        mockAuth(1L, "admin", "ADMIN");
+
+        when(walletCacheService.stats())
+                .thenReturn(new WalletCacheService.WalletCacheStats(90, 10, 10, 10, 0.9));
+
+        ResponseEntity<?> response = walletAdminController.walletCacheStats();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertEquals("wallets", body.get("region"));
+        assertEquals(90L, body.get("hits"));
+        assertEquals(0.9, body.get("hitRatio"));
+    }
+
+    @Test
+    void testWalletCacheStats_NonAdminForbidden() {
+
+        mockAuth(3L, "user", "USER");
+
+        ResponseEntity<?> response = walletAdminController.walletCacheStats();
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verify(walletCacheService, never()).stats();
+    }
 }
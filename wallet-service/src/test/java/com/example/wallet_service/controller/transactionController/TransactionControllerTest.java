@@ -1,9 +1,15 @@
 package com.example.wallet_service.controller.transactionController;
 
-import com.example.wallet_service.dto.transactionDto.TransactionDTO;
+import com.example.wallet_service.data.WalletAccessResult;
+import com.example.wallet_service.dto.transactionDto.TransactionCursorPageDTO;
+import com.example.wallet_service.dto.transactionDto.TransactionOwnerView;
+import com.example.wallet_service.dto.transactionDto.TransactionView;
+import com.example.wallet_service.exception.WalletIdNotFoundException;
 import com.example.wallet_service.model.transaction.Transaction;
 import com.example.wallet_service.model.wallet.Wallet;
 import com.example.wallet_service.security.UserPrincipal;
+import com.example.wallet_service.service.transactionService.RecentTransactionCache;
+import com.example.wallet_service.service.transactionService.TransactionExportService;
 import com.example.wallet_service.service.transactionService.TransactionService;
 import com.example.wallet_service.service.walletService.WalletService;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,12 +20,14 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -32,6 +40,9 @@ class TransactionControllerTest {
     @Mock
     private WalletService walletService;
 
+    @Mock
+    private TransactionExportService transactionExportService;
+
     @InjectMocks
     private TransactionController transactionController;
 
@@ -53,6 +64,27 @@ class TransactionControllerTest {
         SecurityContextHolder.getContext().setAuthentication(auth);
     }
 
+    //  Stands in for WalletService.authorizeAndExecute: the action runs for ADMIN or the owner only
+    private void givenWallet(Long walletId, Long ownerId) {
+        when(walletService.authorizeAndExecute(eq(walletId), any(), any())).thenAnswer(invocation -> {
+            UserPrincipal principal = invocation.getArgument(1);
+            if (!"ADMIN".equalsIgnoreCase(principal.getRole()) && !ownerId.equals(principal.getUserId())) {
+                return new WalletAccessResult.Denied<>(walletId);
+            }
+            Supplier<?> action = invocation.getArgument(2);
+            return new WalletAccessResult.Granted<>(action.get());
+        });
+    }
+
+    private void givenNoWallet(Long walletId) {
+        when(walletService.authorizeAndExecute(eq(walletId), any(), any()))
+                .thenReturn(new WalletAccessResult.NotFound<>(walletId));
+    }
+
+    private TransactionView sampleView() {
+        return new TransactionView(1L, 100L, BigDecimal.TEN, Transaction.Type.CREDIT, "Deposit", LocalDateTime.now());
+    }
+
     // ----------------------------------------------------------------------------------
     // 1) GET TRANSACTIONS BY WALLET (ADMIN or OWNER)
     // ----------------------------------------------------------------------------------
@@ -65,9 +97,9 @@ class TransactionControllerTest {
         wallet.setId(100L);
         wallet.setUserId(5L);
 
-        when(walletService.getWalletById(100L)).thenReturn(Optional.of(wallet));
+        givenWallet(100L, wallet.getUserId());
         when(transactionService.getTransactionsByWallet(100L))
-                .thenReturn(List.of(new TransactionDTO()));
+                .thenReturn(List.of(sampleView()));
 
         ResponseEntity<?> response = transactionController.getTransactionsByWallet(100L);
 
@@ -82,9 +114,9 @@ class TransactionControllerTest {
         wallet.setId(100L);
         wallet.setUserId(5L);
 
-        when(walletService.getWalletById(100L)).thenReturn(Optional.of(wallet));
+        givenWallet(100L, wallet.getUserId());
         when(transactionService.getTransactionsByWallet(100L))
-                .thenReturn(List.of(new TransactionDTO()));
+                .thenReturn(List.of(sampleView()));
 
         ResponseEntity<?> response = transactionController.getTransactionsByWallet(100L);
 
@@ -99,7 +131,7 @@ class TransactionControllerTest {
         wallet.setId(100L);
         wallet.setUserId(5L);
 
-        when(walletService.getWalletById(100L)).thenReturn(Optional.of(wallet));
+        givenWallet(100L, wallet.getUserId());
 
         ResponseEntity<?> response = transactionController.getTransactionsByWallet(100L);
 
@@ -110,7 +142,7 @@ class TransactionControllerTest {
     void testGetTransactionsByWallet_NotFound() {
         mockAuth(1L, "admin", "ADMIN");
 
-        when(walletService.getWalletById(100L)).thenReturn(Optional.empty());
+        givenNoWallet(100L);
 
         ResponseEntity<?> response = transactionController.getTransactionsByWallet(100L);
 
@@ -129,9 +161,9 @@ class TransactionControllerTest {
         wallet.setId(5L);
         wallet.setUserId(999L);
 
-        when(walletService.getWalletById(5L)).thenReturn(Optional.of(wallet));
+        givenWallet(5L, wallet.getUserId());
 
-        var p = new org.springframework.data.domain.PageImpl<>(List.of(new TransactionDTO()));
+        var p = new org.springframework.data.domain.PageImpl<>(List.of(sampleView()));
         when(transactionService.getTransactionHistory(any(), any(), any(), any(), anyInt(), anyInt()))
                 .thenReturn(p);
 
@@ -151,7 +183,7 @@ class TransactionControllerTest {
         wallet.setId(5L);
         wallet.setUserId(999L);
 
-        when(walletService.getWalletById(5L)).thenReturn(Optional.of(wallet));
+        givenWallet(5L, wallet.getUserId());
 
         ResponseEntity<?> response = transactionController.getTransactionHistory(
                 5L, null, null, null, 0, 10
@@ -168,7 +200,7 @@ class TransactionControllerTest {
         wallet.setId(5L);
         wallet.setUserId(999L);
 
-        when(walletService.getWalletById(5L)).thenReturn(Optional.of(wallet));
+        givenWallet(5L, wallet.getUserId());
         when(transactionService.getTransactionHistory(eq(5L), eq("abcd"), any(), any(), anyInt(), anyInt()))
                 .thenThrow(new IllegalArgumentException("Invalid transaction type"));
 
@@ -179,6 +211,149 @@ class TransactionControllerTest {
         assertEquals(400, response.getStatusCode().value());
     }
 
+    @Test
+    void testGetTransactionHistoryByCursor_OwnerSuccess() {
+        mockAuth(999L, "owner", "USER");
+
+        Wallet wallet = new Wallet();
+        wallet.setId(5L);
+        wallet.setUserId(999L);
+
+        givenWallet(5L, wallet.getUserId());
+        TransactionCursorPageDTO page = new TransactionCursorPageDTO(List.of(sampleView()), "next", true);
+        when(transactionService.getTransactionHistoryByCursor(5L, null, null, null, null, 10)).thenReturn(page);
+
+        ResponseEntity<?> response = transactionController.getTransactionHistoryByCursor(
+                5L, null, null, null, null, 10
+        );
+
+        assertEquals(200, response.getStatusCode().value());
+        assertSame(page, response.getBody());
+    }
+
+    @Test
+    void testGetTransactionHistoryByCursor_InvalidCursor() {
+        mockAuth(1L, "admin", "ADMIN");
+
+        Wallet wallet = new Wallet();
+        wallet.setId(5L);
+        wallet.setUserId(999L);
+
+        givenWallet(5L, wallet.getUserId());
+        when(transactionService.getTransactionHistoryByCursor(eq(5L), any(), any(), any(), eq("bad"), anyInt()))
+                .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        ResponseEntity<?> response = transactionController.getTransactionHistoryByCursor(
+                5L, null, null, null, "bad", 10
+        );
+
+        assertEquals(400, response.getStatusCode().value());
+    }
+
+    @Test
+    void testExportTransactions_OwnerStreamsCsv() throws Exception {
+        mockAuth(999L, "owner", "USER");
+
+        Wallet wallet = new Wallet();
+        wallet.setId(5L);
+        wallet.setUserId(999L);
+        givenWallet(5L, wallet.getUserId());
+
+        ResponseEntity<?> response = transactionController.exportTransactions(5L, "csv");
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("text/csv", response.getHeaders().getContentType().toString());
+        assertInstanceOf(StreamingResponseBody.class, response.getBody());
+
+        //  Nothing is read until the body is written to the response
+        verifyNoInteractions(transactionExportService);
+        ((StreamingResponseBody) response.getBody()).writeTo(new java.io.ByteArrayOutputStream());
+        verify(transactionExportService).export(eq(5L), eq(TransactionExportService.Format.CSV), any());
+    }
+
+    @Test
+    void testExportTransactions_NotOwnerForbidden() {
+        mockAuth(2L, "user", "USER");
+
+        Wallet wallet = new Wallet();
+        wallet.setId(5L);
+        wallet.setUserId(999L);
+        givenWallet(5L, wallet.getUserId());
+
+        ResponseEntity<?> response = transactionController.exportTransactions(5L, "ndjson");
+
+        assertEquals(403, response.getStatusCode().value());
+    }
+
+    @Test
+    void testExportTransactions_InvalidFormat() {
+        mockAuth(1L, "admin", "ADMIN");
+
+        Wallet wallet = new Wallet();
+        wallet.setId(5L);
+        wallet.setUserId(999L);
+        givenWallet(5L, wallet.getUserId());
+
+        ResponseEntity<?> response = transactionController.exportTransactions(5L, "xml");
+
+        assertEquals(400, response.getStatusCode().value());
+    }
+
+    // ----------------------------------------------------------------------------------
+    // RECENT TRANSACTIONS (served from the ring buffer, no wallet lookup)
+    // ----------------------------------------------------------------------------------
+
+    @Test
+    void testGetRecentTransactions_OwnerSuccess() {
+        mockAuth(5L, "john", "USER");
+
+        List<TransactionView> items = List.of(sampleView());
+        when(transactionService.getRecentTransactions(100L, 10))
+                .thenReturn(new RecentTransactionCache.Snapshot(5L, items));
+
+        ResponseEntity<?> response = transactionController.getRecentTransactions(100L, 10);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(items, response.getBody());
+        verifyNoInteractions(walletService);
+    }
+
+    @Test
+    void testGetRecentTransactions_NotOwnerForbidden() {
+        mockAuth(9L, "john", "USER");
+
+        when(transactionService.getRecentTransactions(100L, 10))
+                .thenReturn(new RecentTransactionCache.Snapshot(5L, List.of(sampleView())));
+
+        ResponseEntity<?> response = transactionController.getRecentTransactions(100L, 10);
+
+        assertEquals(403, response.getStatusCode().value());
+    }
+
+    @Test
+    void testGetRecentTransactions_NotFound() {
+        mockAuth(1L, "admin", "ADMIN");
+
+        when(transactionService.getRecentTransactions(100L, 10))
+                .thenThrow(new WalletIdNotFoundException("Wallet ID not found: 100"));
+
+        ResponseEntity<?> response = transactionController.getRecentTransactions(100L, 10);
+
+        assertEquals(404, response.getStatusCode().value());
+    }
+
+    @Test
+    void testGetRecentTransactions_InvalidN() {
+        mockAuth(1L, "admin", "ADMIN");
+
+        when(transactionService.getRecentTransactions(100L, 500))
+                .thenThrow(new IllegalArgumentException("n must be between 1 and 50"));
+
+        ResponseEntity<?> response = transactionController.getRecentTransactions(100L, 500);
+
+        assertEquals(400, response.getStatusCode().value());
+    }
+
     // ----------------------------------------------------------------------------------
     // 3) GET USER TRANSACTIONS  (/usertransactions)
     // ----------------------------------------------------------------------------------
@@ -188,7 +363,7 @@ class TransactionControllerTest {
         mockAuth(5L, "john", "USER");
 
         when(transactionService.getUserTransactions(eq(5L), any(), any(), any()))
-                .thenReturn(List.of(new TransactionDTO()));
+                .thenReturn(List.of(sampleView()));
 
         ResponseEntity<?> response = transactionController.getUserTransactions(
                 "01-01-2025", "31-01-2025", null
@@ -219,34 +394,23 @@ class TransactionControllerTest {
     void testGetTransactionById_AdminSuccess() {
         mockAuth(1L, "admin", "ADMIN");
 
-        Transaction t = new Transaction();
-        Wallet w = new Wallet();
-        w.setId(10L);
-        w.setUserId(5L);
-        t.setId(100L);
-        t.setWallet(w);
-        t.setAmount(BigDecimal.TEN);
-        t.setType(Transaction.Type.CREDIT);
-        t.setTimestamp(LocalDateTime.now());
+        TransactionOwnerView t = new TransactionOwnerView(
+                100L, 10L, 5L, BigDecimal.TEN, Transaction.Type.CREDIT, "Deposit", LocalDateTime.now());
 
         when(transactionService.getTransactionById(100L)).thenReturn(Optional.of(t));
 
         ResponseEntity<?> response = transactionController.getTransactionById(100L);
 
         assertEquals(200, response.getStatusCode().value());
-        assertTrue(response.getBody() instanceof TransactionDTO);
+        assertEquals(t.toView(), response.getBody());
     }
 
     @Test
     void testGetTransactionById_NotOwnerForbidden() {
         mockAuth(20L, "stranger", "USER");
 
-        Transaction t = new Transaction();
-        Wallet w = new Wallet();
-        w.setId(10L);
-        w.setUserId(5L);
-        t.setId(100L);
-        t.setWallet(w);
+        TransactionOwnerView t = new TransactionOwnerView(
+                100L, 10L, 5L, BigDecimal.TEN, Transaction.Type.CREDIT, "Deposit", LocalDateTime.now());
 
         when(transactionService.getTransactionById(100L)).thenReturn(Optional.of(t));
 
@@ -1,6 +1,7 @@
 package com.example.wallet_service.controller.walletController;
 
 import com.example.wallet_service.client.userClient.UserClient;
+import com.example.wallet_service.data.WalletAccessResult;
 import com.example.wallet_service.data.WalletOperationResult;
 import com.example.wallet_service.dto.walletDto.CreateWalletDTO;
 import com.example.wallet_service.model.wallet.Wallet;
@@ -19,7 +20,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -52,6 +53,23 @@ class WalletControllerTest {
         SecurityContextHolder.getContext().setAuthentication(auth);
     }
 
+    //  Stands in for WalletService.authorizeAndExecute: the action runs for ADMIN or the owner only
+    private void givenWallet(Long walletId, Long ownerId) {
+        when(walletService.authorizeAndExecute(eq(walletId), any(), any())).thenAnswer(invocation -> {
+            UserPrincipal principal = invocation.getArgument(1);
+            if (!"ADMIN".equalsIgnoreCase(principal.getRole()) && !ownerId.equals(principal.getUserId())) {
+                return new WalletAccessResult.Denied<>(walletId);
+            }
+            Supplier<?> action = invocation.getArgument(2);
+            return new WalletAccessResult.Granted<>(action.get());
+        });
+    }
+
+    private void givenNoWallet(Long walletId) {
+        when(walletService.authorizeAndExecute(eq(walletId), any(), any()))
+                .thenReturn(new WalletAccessResult.NotFound<>(walletId));
+    }
+
     // ===================== CREATE WALLET (SELF) =====================
 
     @Test
@@ -81,9 +99,9 @@ class WalletControllerTest {
     void getWalletBalance_shouldReturn404WhenWalletNotFound() {
         mockAuth(10L, "shivam", "USER");
 
-        when(walletService.getWalletById(99L)).thenReturn(Optional.empty());
+        givenNoWallet(99L);
 
-        ResponseEntity<?> response = walletController.getWalletBalance(99L);
+        ResponseEntity<?> response = walletController.getWalletBalance(99L, null);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         Map<String, Object> body = (Map<String, Object>) response.getBody();
@@ -95,11 +113,11 @@ class WalletControllerTest {
         mockAuth(10L, "shivam", "USER");
 
         Wallet wallet = new Wallet(1L, "Main", BigDecimal.valueOf(1000), 10L);
-        when(walletService.getWalletById(1L)).thenReturn(Optional.of(wallet));
+        givenWallet(1L, wallet.getUserId());
         when(walletService.getBalance(1L))
-                .thenReturn(new WalletOperationResult.Balance(1L, "1000.00"));
+                .thenReturn(new WalletOperationResult.Balance(1L, "1000.00", 0L));
 
-        ResponseEntity<?> response = walletController.getWalletBalance(1L);
+        ResponseEntity<?> response = walletController.getWalletBalance(1L, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         Map<String, Object> body = (Map<String, Object>) response.getBody();
@@ -112,11 +130,11 @@ class WalletControllerTest {
         mockAuth(99L, "admin", "ADMIN");
 
         Wallet wallet = new Wallet(1L, "Main", BigDecimal.valueOf(1000), 10L);
-        when(walletService.getWalletById(1L)).thenReturn(Optional.of(wallet));
+        givenWallet(1L, wallet.getUserId());
         when(walletService.getBalance(1L))
-                .thenReturn(new WalletOperationResult.Balance(1L, "1000.00"));
+                .thenReturn(new WalletOperationResult.Balance(1L, "1000.00", 0L));
 
-        ResponseEntity<?> response = walletController.getWalletBalance(1L);
+        ResponseEntity<?> response = walletController.getWalletBalance(1L, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
@@ -126,9 +144,9 @@ class WalletControllerTest {
         mockAuth(20L, "randomUser", "USER");
 
         Wallet wallet = new Wallet(1L, "Main", BigDecimal.valueOf(1000), 10L);
-        when(walletService.getWalletById(1L)).thenReturn(Optional.of(wallet));
+        givenWallet(1L, wallet.getUserId());
 
-        ResponseEntity<?> response = walletController.getWalletBalance(1L);
+        ResponseEntity<?> response = walletController.getWalletBalance(1L, null);
 
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
         Map<String, Object> body = (Map<String, Object>) response.getBody();
@@ -142,24 +160,69 @@ class WalletControllerTest {
         mockAuth(10L, "shivam", "USER");
 
         Wallet wallet = new Wallet(1L, "Main", BigDecimal.valueOf(1000), 10L);
-        when(walletService.getWalletById(1L)).thenReturn(Optional.of(wallet));
+        givenWallet(1L, wallet.getUserId());
         when(walletService.getBalance(1L))
                 .thenReturn(new WalletOperationResult.Failure("SOME_ERROR", "Something went wrong"));
 
-        ResponseEntity<?> response = walletController.getWalletBalance(1L);
+        ResponseEntity<?> response = walletController.getWalletBalance(1L, null);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         Map<String, Object> body = (Map<String, Object>) response.getBody();
         assertEquals("SOME_ERROR", body.get("errorCode"));
     }
 
+    @Test
+    void getWalletBalance_shouldTagResponseWithWalletVersion() {
+        mockAuth(10L, "shivam", "USER");
+
+        givenWallet(1L, 10L);
+        when(walletService.getBalance(1L))
+                .thenReturn(new WalletOperationResult.Balance(1L, "1000.00", 4L));
+
+        ResponseEntity<?> response = walletController.getWalletBalance(1L, "\"2\"");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+        assertEquals("no-cache, private", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void getWalletBalance_shouldReturn304WhenVersionUnchanged() {
+        mockAuth(10L, "shivam", "USER");
+
+        givenWallet(1L, 10L);
+        when(walletService.getBalance(1L))
+                .thenReturn(new WalletOperationResult.Balance(1L, "1000.00", 3L));
+
+        ResponseEntity<?> strong = walletController.getWalletBalance(1L, "\"3\"");
+        ResponseEntity<?> weakInList = walletController.getWalletBalance(1L, "\"1\", W/\"3\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, strong.getStatusCode());
+        assertNull(strong.getBody());
+        assertEquals("\"3\"", strong.getHeaders().getETag());
+        assertEquals(HttpStatus.NOT_MODIFIED, weakInList.getStatusCode());
+        assertNull(weakInList.getBody());
+    }
+
+    @Test
+    void getWalletBalance_shouldNotLeak304ToNonOwner() {
+        mockAuth(20L, "randomUser", "USER");
+
+        givenWallet(1L, 10L);
+
+        ResponseEntity<?> response = walletController.getWalletBalance(1L, "*");
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verify(walletService, never()).getBalance(anyLong());
+    }
+
     // ===================== TRANSACTION SUMMARY =====================
 
     @Test
     void getTransactionSummary_shouldReturn404IfWalletNotFound() {
         mockAuth(10L, "shivam", "USER");
 
-        when(walletService.getWalletById(1L)).thenReturn(Optional.empty());
+        givenNoWallet(1L);
 
         ResponseEntity<?> response = walletController.getTransactionSummary(1L);
 
@@ -171,7 +234,7 @@ class WalletControllerTest {
         mockAuth(10L, "shivam", "USER");
 
         Wallet wallet = new Wallet(1L, "Main", BigDecimal.valueOf(500), 10L);
-        when(walletService.getWalletById(1L)).thenReturn(Optional.of(wallet));
+        givenWallet(1L, wallet.getUserId());
         when(walletService.getTransactionSummary(1L)).thenReturn(List.of());
 
         ResponseEntity<?> response = walletController.getTransactionSummary(1L);
@@ -185,7 +248,7 @@ class WalletControllerTest {
         mockAuth(20L, "otherUser", "USER");
 
         Wallet wallet = new Wallet(1L, "Main", BigDecimal.valueOf(500), 10L);
-        when(walletService.getWalletById(1L)).thenReturn(Optional.of(wallet));
+        givenWallet(1L, wallet.getUserId());
 
         ResponseEntity<?> response = walletController.getTransactionSummary(1L);
 
@@ -199,7 +262,7 @@ class WalletControllerTest {
     void creditWallet_shouldReturn404WhenWalletNotFound() {
         mockAuth(10L, "shivam", "USER");
 
-        when(walletService.getWalletById(1L)).thenReturn(Optional.empty());
+        givenNoWallet(1L);
 
         ResponseEntity<?> response =
                 walletController.creditWallet(1L, BigDecimal.valueOf(100), "test");
@@ -212,7 +275,7 @@ class WalletControllerTest {
         mockAuth(20L, "user", "USER");
 
         Wallet wallet = new Wallet(1L, "Main", BigDecimal.valueOf(500), 10L);
-        when(walletService.getWalletById(1L)).thenReturn(Optional.of(wallet));
+        givenWallet(1L, wallet.getUserId());
 
         ResponseEntity<?> response =
                 walletController.creditWallet(1L, BigDecimal.valueOf(100), "test");
@@ -226,7 +289,7 @@ class WalletControllerTest {
         mockAuth(10L, "shivam", "USER");
 
         Wallet wallet = new Wallet(1L, "Main", BigDecimal.valueOf(500), 10L);
-        when(walletService.getWalletById(1L)).thenReturn(Optional.of(wallet));
+        givenWallet(1L, wallet.getUserId());
 
         ResponseEntity<?> response =
                 walletController.creditWallet(1L, BigDecimal.ZERO, "test");
@@ -241,7 +304,7 @@ class WalletControllerTest {
         mockAuth(10L, "shivam", "USER");
 
         Wallet wallet = new Wallet(1L, "Main", BigDecimal.valueOf(500), 10L);
-        when(walletService.getWalletById(1L)).thenReturn(Optional.of(wallet));
+        givenWallet(1L, wallet.getUserId());
         when(walletService.credit(1L, BigDecimal.valueOf(100), "test"))
                 .thenReturn(new WalletOperationResult.Success("New Balance: 600.00"));
 
@@ -259,7 +322,7 @@ class WalletControllerTest {
     void debitWallet_shouldReturn404WhenWalletNotFound() {
         mockAuth(10L, "shivam", "USER");
 
-        when(walletService.getWalletById(1L)).thenReturn(Optional.empty());
+        givenNoWallet(1L);
 
         ResponseEntity<?> response =
                 walletController.debitWallet(1L, BigDecimal.valueOf(100), "test");
@@ -272,7 +335,7 @@ class WalletControllerTest {
         mockAuth(20L, "user", "USER");
 
         Wallet wallet = new Wallet(1L, "Main", BigDecimal.valueOf(500), 10L);
-        when(walletService.getWalletById(1L)).thenReturn(Optional.of(wallet));
+        givenWallet(1L, wallet.getUserId());
 
         ResponseEntity<?> response =
                 walletController.debitWallet(1L, BigDecimal.valueOf(100), "test");
@@ -286,7 +349,7 @@ class WalletControllerTest {
         mockAuth(10L, "shivam", "USER");
 
         Wallet wallet = new Wallet(1L, "Main", BigDecimal.valueOf(500), 10L);
-        when(walletService.getWalletById(1L)).thenReturn(Optional.of(wallet));
+        givenWallet(1L, wallet.getUserId());
 
         ResponseEntity<?> response =
                 walletController.debitWallet(1L, BigDecimal.ZERO, "test");
@@ -301,7 +364,7 @@ class WalletControllerTest {
         mockAuth(10L, "shivam", "USER");
 
         Wallet wallet = new Wallet(1L, "Main", BigDecimal.valueOf(500), 10L);
-        when(walletService.getWalletById(1L)).thenReturn(Optional.of(wallet));
+        givenWallet(1L, wallet.getUserId());
         when(walletService.debit(1L, BigDecimal.valueOf(100), "test"))
                 .thenReturn(new WalletOperationResult.Success("New Balance: 400.00"));
 
@@ -319,7 +382,7 @@ class WalletControllerTest {
     void transfer_shouldReturn404WhenSourceWalletNotFound() {
         mockAuth(10L, "shivam", "USER");
 
-        when(walletService.getWalletById(1L)).thenReturn(Optional.empty());
+        givenNoWallet(1L);
 
         ResponseEntity<?> response =
                 walletController.transfer(1L, 2L, BigDecimal.valueOf(100), "test");
@@ -334,7 +397,7 @@ class WalletControllerTest {
         mockAuth(20L, "user", "USER");
 
         Wallet fromWallet = new Wallet(1L, "From", BigDecimal.valueOf(500), 10L);
-        when(walletService.getWalletById(1L)).thenReturn(Optional.of(fromWallet));
+        givenWallet(1L, fromWallet.getUserId());
 
         ResponseEntity<?> response =
                 walletController.transfer(1L, 2L, BigDecimal.valueOf(100), "test");
@@ -348,7 +411,7 @@ class WalletControllerTest {
         mockAuth(10L, "shivam", "USER");
 
         Wallet fromWallet = new Wallet(1L, "From", BigDecimal.valueOf(500), 10L);
-        when(walletService.getWalletById(1L)).thenReturn(Optional.of(fromWallet));
+        givenWallet(1L, fromWallet.getUserId());
         when(walletService.transfer(1L, 2L, BigDecimal.valueOf(100), "test"))
                 .thenReturn(new WalletOperationResult.Success("Transfer successful"));
 
@@ -365,7 +428,7 @@ class WalletControllerTest {
         mockAuth(10L, "shivam", "USER");
 
         Wallet fromWallet = new Wallet(1L, "From", BigDecimal.valueOf(500), 10L);
-        when(walletService.getWalletById(1L)).thenReturn(Optional.of(fromWallet));
+        givenWallet(1L, fromWallet.getUserId());
         when(walletService.transfer(1L, 2L, BigDecimal.valueOf(100), "test"))
                 .thenReturn(new WalletOperationResult.Failure("INVALID_AMOUNT", "Amount must be greater than zero"));
 
@@ -0,0 +1,284 @@
+package com.example.wallet_service.repository;
+
+import com.example.wallet_service.model.transaction.Transaction;
+import com.example.wallet_service.repository.transactionArchiveRepository.TransactionArchiveRepository;
+import com.example.wallet_service.repository.transactionRepository.TransactionRepository;
+import com.example.wallet_service.repository.walletRepository.WalletRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query-plan regression suite: every hot repository query is executed against the embedded
+ * database with the production schema from data.sql, the SQL Hibernate generated is captured,
+ * and EXPLAIN must show an index access for the wallets and transactions tables.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+class QueryPlanTest {
+
+    private static final Set<String> HOT_TABLES = Set.of("transactions", "transactions_archive", "wallets");
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 1, 31, 23, 59, 59);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TransactionArchiveRepository transactionArchiveRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void clearCapturedStatements() {
+        CapturingStatementInspector.clear();
+    }
+
+    // ======================================================================
+    // TransactionRepository
+    // ======================================================================
+
+    @Test
+    void findViewsByWalletId_usesIndex() throws Exception {
+        transactionRepository.findViewsByWalletId(1L);
+        assertNoFullScan("findViewsByWalletId");
+    }
+
+    @Test
+    void getTotalAmountByWalletAndTypeBetweenDates_usesIndex() throws Exception {
+        transactionRepository.getTotalAmountByWalletAndTypeBetweenDates(1L, Transaction.Type.DEBIT, FROM, TO);
+        assertNoFullScan("getTotalAmountByWalletAndTypeBetweenDates");
+    }
+
+    @Test
+    void getTransactionSumsByType_usesIndex() throws Exception {
+        transactionRepository.getTransactionSumsByType(1L);
+        assertNoFullScan("getTransactionSumsByType");
+    }
+
+    @Test
+    void findTopTransactionsByWalletId_usesIndex() throws Exception {
+        transactionRepository.findTopTransactionsByWalletId(1L, Limit.of(50));
+        assertNoFullScan("findTopTransactionsByWalletId");
+    }
+
+    @Test
+    void findUserTransactionsBetweenDates_usesIndex() throws Exception {
+        transactionRepository.findUserTransactionsBetweenDates(1L, FROM, TO, null);
+        assertNoFullScan("findUserTransactionsBetweenDates");
+    }
+
+    @Test
+    void findUserTransactionsBetweenDates_readsOnlyTheUserIndex() throws Exception {
+        transactionRepository.findUserTransactionsBetweenDates(1L, FROM, TO, Transaction.Type.CREDIT);
+        String sql = CapturingStatementInspector.statements().get(0).toLowerCase(Locale.ROOT);
+        assertFalse(sql.contains("wallets"), "user report should not join wallets:\n" + sql);
+        assertFalse(sql.contains(" is null"), "type filter should not be a catch-all:\n" + sql);
+        assertTrue(explain(sql).toLowerCase(Locale.ROOT).contains("idx_tx_user_ts"));
+    }
+
+    @Test
+    void findUserTransactionsBetweenDatesViaWallets_usesIndex() throws Exception {
+        transactionRepository.findUserTransactionsBetweenDatesViaWallets(1L, FROM, TO, null);
+        assertNoFullScan("findUserTransactionsBetweenDatesViaWallets");
+    }
+
+    @Test
+    void findUserTransactionsBetweenDatesViaWallets_withType_usesIndex() throws Exception {
+        transactionRepository.findUserTransactionsBetweenDatesViaWallets(1L, FROM, TO, Transaction.Type.DEBIT);
+        assertNoFullScan("findUserTransactionsBetweenDatesViaWallets with type");
+    }
+
+    //  Bit 0 type, bit 1 start, bit 2 end: every filter combination /history/cursor can send
+    @ParameterizedTest(name = "cursor shape {0}")
+    @ValueSource(ints = {0, 1, 2, 3, 4, 5, 6, 7})
+    void cursorHistory_everyShapeUsesIndex(int shape) throws Exception {
+        Transaction.Type type = (shape & 1) != 0 ? Transaction.Type.CREDIT : null;
+        LocalDateTime start = (shape & 2) != 0 ? FROM : null;
+        LocalDateTime end = (shape & 4) != 0 ? TO : null;
+
+        transactionRepository.findHistoryFirstPage(1L, type, start, end, Limit.of(11));
+        transactionRepository.findHistoryPageAfter(1L, type, start, end, TO, 100L, Limit.of(11));
+        assertNoCatchAll("cursor history shape " + shape);
+        assertNoFullScan("cursor history shape " + shape);
+    }
+
+    //  Bit 0 wallet, bit 1 type, bit 2 start, bit 3 end: every combination the admin search can send
+    @ParameterizedTest(name = "filter shape {0}")
+    @ValueSource(ints = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15})
+    void findTransactionsWithFilters_everyShapeUsesIndex(int shape) throws Exception {
+        transactionRepository.findTransactionsWithFilters(
+                (shape & 1) != 0 ? 1L : null,
+                (shape & 2) != 0 ? Transaction.Type.CREDIT : null,
+                (shape & 4) != 0 ? FROM : null,
+                (shape & 8) != 0 ? TO : null,
+                PageRequest.of(3, 10));
+        assertNoFullScan("findTransactionsWithFilters shape " + shape);
+    }
+
+    @Test
+    void findViewById_usesPrimaryKeys() throws Exception {
+        transactionRepository.findViewById(1L);
+        assertNoFullScan("findViewById");
+    }
+
+    @Test
+    void findById_usesPrimaryKey() throws Exception {
+        transactionRepository.findById(1L);
+        assertNoFullScan("TransactionRepository.findById");
+    }
+
+    // ======================================================================
+    // TransactionArchiveRepository
+    // ======================================================================
+
+    @Test
+    void archiveFindViewsByWalletId_usesIndex() throws Exception {
+        transactionArchiveRepository.findViewsByWalletId(1L);
+        assertNoFullScan("archive findViewsByWalletId");
+    }
+
+    @Test
+    void archiveFindUserTransactionsBetweenDates_usesIndex() throws Exception {
+        transactionRepository.findArchivedUserTransactionsBetweenDates(1L, FROM, TO, null);
+        transactionRepository.findArchivedUserTransactionsBetweenDates(1L, FROM, TO, Transaction.Type.CREDIT);
+        assertNoCatchAll("archive findUserTransactionsBetweenDates");
+        assertNoFullScan("archive findUserTransactionsBetweenDates");
+    }
+
+    @Test
+    void archiveGetTotalAmountByWalletAndTypeBetweenDates_usesIndex() throws Exception {
+        transactionArchiveRepository.getTotalAmountByWalletAndTypeBetweenDates(1L, Transaction.Type.DEBIT, FROM, TO);
+        assertNoFullScan("archive getTotalAmountByWalletAndTypeBetweenDates");
+    }
+
+    @Test
+    void archiveTopTransactions_usesIndex() throws Exception {
+        transactionArchiveRepository.findTopTransactionsByWalletId(1L, Limit.of(50));
+        assertNoFullScan("archive findTopTransactionsByWalletId");
+    }
+
+    @ParameterizedTest(name = "archive cursor shape {0}")
+    @ValueSource(ints = {0, 1, 2, 3, 4, 5, 6, 7})
+    void archiveCursorHistory_everyShapeUsesIndex(int shape) throws Exception {
+        Transaction.Type type = (shape & 1) != 0 ? Transaction.Type.CREDIT : null;
+        LocalDateTime start = (shape & 2) != 0 ? FROM : null;
+        LocalDateTime end = (shape & 4) != 0 ? TO : null;
+
+        transactionRepository.findArchivedHistoryFirstPage(1L, type, start, end, Limit.of(11));
+        transactionRepository.findArchivedHistoryPageAfter(1L, type, start, end, TO, 100L, Limit.of(11));
+        assertNoCatchAll("archive cursor history shape " + shape);
+        assertNoFullScan("archive cursor history shape " + shape);
+    }
+
+    @ParameterizedTest(name = "archive filter shape {0}")
+    @ValueSource(ints = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15})
+    void findArchivedTransactionsWithFilters_everyShapeUsesIndex(int shape) throws Exception {
+        transactionRepository.findArchivedTransactionsWithFilters(
+                (shape & 1) != 0 ? 1L : null,
+                (shape & 2) != 0 ? Transaction.Type.CREDIT : null,
+                (shape & 4) != 0 ? FROM : null,
+                (shape & 8) != 0 ? TO : null,
+                PageRequest.of(3, 10));
+        assertNoFullScan("findArchivedTransactionsWithFilters shape " + shape);
+    }
+
+    @Test
+    void archiveFindViewById_usesPrimaryKey() throws Exception {
+        transactionArchiveRepository.findViewById(1L);
+        assertNoFullScan("archive findViewById");
+    }
+
+    @Test
+    void archiveNewestTimestamp_usesIndex() throws Exception {
+        transactionArchiveRepository.findNewestTimestamp();
+        transactionArchiveRepository.findMinHotIdBefore(FROM);
+        assertNoFullScan("archive horizon / cutoff lookups");
+    }
+
+    // ======================================================================
+    // WalletRepository
+    // ======================================================================
+
+    @Test
+    void walletFindById_usesPrimaryKey() throws Exception {
+        walletRepository.findById(1L);
+        assertNoFullScan("WalletRepository.findById");
+    }
+
+    @Test
+    void findByIdAndBlacklistedFalse_usesPrimaryKey() throws Exception {
+        walletRepository.findByIdAndBlacklistedFalse(1L);
+        assertNoFullScan("findByIdAndBlacklistedFalse");
+    }
+
+    // ======================================================================
+    // EXPLAIN helpers
+    // ======================================================================
+
+    private void assertNoFullScan(String queryName) throws Exception {
+        List<String> selects = CapturingStatementInspector.statements().stream()
+                .filter(sql -> sql.trim().toLowerCase(Locale.ROOT).startsWith("select"))
+                .toList();
+        assertFalse(selects.isEmpty(), queryName + " issued no SELECT");
+
+        List<String> violations = new ArrayList<>();
+        for (String sql : selects) {
+            String plan = explain(sql);
+            for (String table : HOT_TABLES) {
+                if (plan.toLowerCase(Locale.ROOT).contains(table + ".tablescan")) {
+                    violations.add(table + " full scan in:\n" + plan);
+                }
+            }
+        }
+        assertTrue(violations.isEmpty(), queryName + " fell back to a full table scan:\n" + String.join("\n", violations));
+    }
+
+    //  A catch-all like (? IS NULL OR t.type = ?) is what forced the scans the shapes replace
+    private static void assertNoCatchAll(String queryName) {
+        for (String sql : CapturingStatementInspector.statements()) {
+            assertFalse(sql.toLowerCase(Locale.ROOT).contains(" is null"), queryName + " still has a catch-all predicate:\n" + sql);
+        }
+    }
+
+    //  Parameters only affect H2's plan through their presence, so binding NULL is enough
+    private String explain(String sql) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.wallet_service.repository;
+
+import com.example.wallet_service.dto.transactionDto.TransactionView;
+import com.example.wallet_service.model.transaction.Transaction;
+import com.example.wallet_service.repository.transactionRepository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Per-shape timing of the history search: the old catch-all query against the per-shape query
+ * built by TransactionHistoryRepositoryImpl, on a generated dataset.
+ * <p>
+ * Excluded from {@code test}; run with {@code ./gradlew benchmarkTest} (row count via
+ * {@code -Dbenchmark.rows}, default 1,000,000).
+ */
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionHistoryQueryBenchmark {
+
+    private static final long FIRST_WALLET = 100_000L;
+    private static final int WALLETS = 1_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP = 20;
+    private static final int RUNS = 51;
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2023, 1, 1, 0, 0);
+
+    //  The query findTransactionsWithFilters used before it was split into shapes
+    private static final String CATCH_ALL = """
+            SELECT new com.example.wallet_service.dto.transactionDto.TransactionView(t.id, t.wallet.id, t.amount, t.type, t.description, t.timestamp)
+            FROM Transaction t
+            JOIN t.wallet w
+            WHERE (:walletId IS NULL OR w.id = :walletId)
+            AND (:type IS NULL OR t.type = :type)
+            AND (:startDate IS NULL OR t.timestamp >= :startDate)
+            AND (:endDate IS NULL OR t.timestamp <= :endDate)
+            ORDER BY t.timestamp DESC, t.id DESC
+            """;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM transactions WHERE wallet_id >= ?", FIRST_WALLET);
+        jdbcTemplate.update("DELETE FROM wallets WHERE id >= ?", FIRST_WALLET);
+    }
+
+    @Test
+    void benchmarkEveryFilterShape() {
+        int rows = Integer.getInteger("benchmark.rows", 1_000_000);
+        long seedStarted = System.nanoTime();
+        seed(rows);
+        System.out.printf("Seeded %,d transactions over %d wallets in %d ms%n",
+                rows, WALLETS, (System.nanoTime() - seedStarted) / 1_000_000);
+
+        Long walletId = FIRST_WALLET + WALLETS / 2;
+        LocalDateTime start = BASE.plusDays(200);
+        LocalDateTime end = BASE.plusDays(230);
+
+        System.out.printf("%-6s %-24s %12s %12s%n", "shape", "filters", "catch-all ms", "per-shape ms");
+        for (int shape = 0; shape < 16; shape++) {
+            Long w = (shape & 1) != 0 ? walletId : null;
+            Transaction.Type type = (shape & 2) != 0 ? Transaction.Type.DEBIT : null;
+            LocalDateTime from = (shape & 4) != 0 ? start : null;
+            LocalDateTime to = (shape & 8) != 0 ? end : null;
+
+            Supplier<List<TransactionView>> catchAll = () -> catchAll(w, type, from, to);
+            Supplier<List<TransactionView>> perShape = () -> transactionRepository
+                    .findTransactionsWithFilters(w, type, from, to, PageRequest.of(0, PAGE_SIZE))
+                    .getContent();
+
+            assertEquals(catchAll.get(), perShape.get(), "shape " + shape + " returned different rows");
+
+            System.out.printf("%-6d %-24s %12.2f %12.2f%n",
+                    shape, describe(shape), medianMillis(catchAll), medianMillis(perShape));
+        }
+    }
+
+    // ======================================================================
+    // Helpers
+    // ======================================================================
+
+    private List<TransactionView> catchAll(Long walletId, Transaction.Type type,
+                                           LocalDateTime startDate, LocalDateTime endDate) {
+        TypedQuery<TransactionView> query = entityManager.createQuery(CATCH_ALL, TransactionView.class);
+        query.setParameter("walletId", walletId);
+        query.setParameter("type", type);
+        query.setParameter("startDate", startDate);
+        query.setParameter("endDate", endDate);
+        query.setMaxResults(PAGE_SIZE);
+        return query.getResultList();
+    }
+
+    private static double medianMillis(Supplier<?> call) {
+        for (int i = 0; i < WARMUP; i++) {
+            call.get();
+        }
+        long[] samples = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long started = System.nanoTime();
+            call.get();
+            samples[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(samples);
+        return samples[RUNS / 2] / 1_000_000.0;
+    }
+
+    private static String describe(int shape) {
+        List<String> filters = new ArrayList<>();
+        if ((shape & 1) != 0) filters.add("wallet");
+        if ((shape & 2) != 0) filters.add("type");
+        if ((shape & 4) != 0) filters.add("start");
+        if ((shape & 8) != 0) filters.add("end");
+        return filters.isEmpty() ? "(none)" : String.join("+", filters);
+    }
+
+    private void seed(int rows) {
+        List<Object[]> wallets = new ArrayList<>(WALLETS);
+        for (int i = 0; i < WALLETS; i++) {
+            wallets.add(new Object[]{FIRST_WALLET + i, 10_000 + i});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO wallets (id, wallet_name, balance, blacklisted, user_id, version) VALUES (?, 'bench', 0, FALSE, ?, 0)",
+                wallets);
+
+        //  Two years of activity, spread evenly over wallets and time
+        long spanSeconds = 2L * 365 * 24 * 3600;
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{
+                    FIRST_WALLET + i % WALLETS,
+                    1 + i % 500,
+                    i % 3 == 0 ? "DEBIT" : "CREDIT",
+                    "bench " + i,
+                    Timestamp.valueOf(BASE.plusSeconds((long) i * spanSeconds / rows))
+            });
+            if (batch.size() == 10_000) {
+                insert(batch);
+            }
+        }
+        insert(batch);
+    }
+
+    private void insert(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO transactions (wallet_id, amount, type, description, timestamp) VALUES (?, ?, ?, ?, ?)",
+                batch);
+        batch.clear();
+    }
+}
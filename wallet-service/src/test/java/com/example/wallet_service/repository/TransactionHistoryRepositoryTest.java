@@ -0,0 +1,106 @@
+package com.example.wallet_service.repository;
+
+import com.example.wallet_service.dto.transactionDto.TransactionView;
+import com.example.wallet_service.model.transaction.Transaction;
+import com.example.wallet_service.repository.transactionRepository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Filter semantics and slicing of the dynamically built history query.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+class TransactionHistoryRepositoryTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    //  Wallet 3: 10 rows on consecutive days, alternating CREDIT/DEBIT
+    @BeforeEach
+    void seed() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int day = 0; day < 10; day++) {
+            rows.add(new Object[]{3L, 10 + day, day % 2 == 0 ? "CREDIT" : "DEBIT", "day " + day,
+                    Timestamp.valueOf(BASE.plusDays(day))});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO transactions (wallet_id, amount, type, description, timestamp) VALUES (?, ?, ?, ?, ?)",
+                rows);
+    }
+
+    @Test
+    void appliesOnlySuppliedFilters() {
+        Slice<TransactionView> credits = transactionRepository.findTransactionsWithFilters(
+                3L, Transaction.Type.CREDIT, null, null, PageRequest.of(0, 50));
+        assertEquals(5, credits.getNumberOfElements());
+        assertTrue(credits.getContent().stream().allMatch(t -> t.type() == Transaction.Type.CREDIT));
+
+        Slice<TransactionView> range = transactionRepository.findTransactionsWithFilters(
+                3L, null, BASE.plusDays(2), BASE.plusDays(5), PageRequest.of(0, 50));
+        assertEquals(4, range.getNumberOfElements());
+        assertEquals(BASE.plusDays(5), range.getContent().get(0).timestamp());
+
+        Slice<TransactionView> beforeOnly = transactionRepository.findTransactionsWithFilters(
+                null, null, null, BASE.plusDays(1), PageRequest.of(0, 50));
+        assertEquals(2, beforeOnly.getNumberOfElements());
+    }
+
+    @Test
+    void slicesNewestFirstWithoutCounting() {
+        Slice<TransactionView> first = transactionRepository.findTransactionsWithFilters(
+                3L, null, BASE, null, PageRequest.of(0, 4));
+        Slice<TransactionView> last = transactionRepository.findTransactionsWithFilters(
+                3L, null, BASE, null, PageRequest.of(2, 4));
+
+        assertEquals(4, first.getNumberOfElements());
+        assertTrue(first.hasNext());
+        assertEquals(BASE.plusDays(9), first.getContent().get(0).timestamp());
+
+        assertEquals(2, last.getNumberOfElements());
+        assertFalse(last.hasNext());
+        assertEquals(BASE, last.getContent().get(1).timestamp());
+    }
+
+    @Test
+    void eachShapeIsCompiledOnce() {
+        Statistics statistics = entityManager.unwrap(Session.class).getSessionFactory().getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        //  Warm one shape, then repeat it with different values
+        transactionRepository.findTransactionsWithFilters(3L, Transaction.Type.DEBIT, null, null, PageRequest.of(0, 5));
+        statistics.clear();
+
+        for (int i = 0; i < 5; i++) {
+            transactionRepository.findTransactionsWithFilters(
+                    3L, i % 2 == 0 ? Transaction.Type.CREDIT : Transaction.Type.DEBIT, null, null, PageRequest.of(i, 5));
+        }
+
+        assertEquals(0, statistics.getQueryPlanCacheMissCount(), "repeated shape must not be recompiled");
+        assertTrue(statistics.getQueryPlanCacheHitCount() >= 5);
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.wallet_service.repository;
+
+import com.example.wallet_service.dto.transactionDto.TransactionDTO;
+import com.example.wallet_service.dto.transactionDto.TransactionOwnerView;
+import com.example.wallet_service.dto.transactionDto.TransactionView;
+import com.example.wallet_service.model.transaction.Transaction;
+import com.example.wallet_service.repository.transactionRepository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the old entity-loading read path with the record projections the repository now
+ * returns: statements sent, entities materialised and bytes allocated per call.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+class TransactionProjectionTest {
+
+    private static final long WALLET_ID = 3L;
+    private static final int ROWS = 2_000;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Object[]> batch = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(new Object[]{WALLET_ID, 10 + i % 50, i % 2 == 0 ? "DEBIT" : "CREDIT", "Purchase " + i,
+                    Timestamp.valueOf(base.plusSeconds(i))});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO transactions (wallet_id, amount, type, description, timestamp) VALUES (?, ?, ?, ?, ?)",
+                batch);
+
+        statistics = entityManager.unwrap(Session.class).getSessionFactory().getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void walletListing_projectionLoadsNoEntities() {
+        //  Warm both paths so class loading and query-plan caching are not measured
+        loadEntitiesAsDtos();
+        transactionRepository.findViewsByWalletId(WALLET_ID);
+
+        Measurement entities = measure(this::loadEntitiesAsDtos);
+        Measurement views = measure(() -> transactionRepository.findViewsByWalletId(WALLET_ID));
+
+        assertEquals(ROWS, entities.rows);
+        assertEquals(ROWS, views.rows);
+        assertEquals(ROWS, entities.entitiesLoaded);
+        assertEquals(0, views.entitiesLoaded);
+        assertEquals(1, views.statements);
+        assertTrue(views.bytes < entities.bytes,
+                "projection should allocate less than entity hydration + DTO copy: projection "
+                        + views.bytes / 1024 + " KB, entities " + entities.bytes / 1024 + " KB");
+    }
+
+    @Test
+    void singleLookup_projectionResolvesOwnerInOneStatement() {
+        Long id = jdbcTemplate.queryForObject(
+                "SELECT MAX(id) FROM transactions WHERE wallet_id = ?", Long.class, WALLET_ID);
+
+        Measurement entity = measure(() -> {
+            Transaction t = transactionRepository.findById(id).orElseThrow();
+            return List.of(t.getWallet().getUserId());
+        });
+        Measurement view = measure(() -> List.of(transactionRepository.findViewById(id).orElseThrow()));
+
+        assertEquals(2, entity.statements, "entity path needs a second select for the lazy wallet");
+        assertEquals(1, view.statements);
+        assertEquals(0, view.entitiesLoaded);
+
+        TransactionOwnerView owner = transactionRepository.findViewById(id).orElseThrow();
+        assertEquals(WALLET_ID, owner.walletId());
+        assertNotNull(owner.walletOwnerId());
+    }
+
+    @Test
+    void projectionMatchesEntityDto() {
+        entityManager.clear();
+        List<TransactionDTO> dtos = loadEntitiesAsDtos();
+        Map<Long, TransactionView> views = transactionRepository.findViewsByWalletId(WALLET_ID)
+                .stream()
+                .collect(Collectors.toMap(TransactionView::id, Function.identity()));
+
+        assertEquals(dtos.size(), views.size());
+        for (TransactionDTO dto : dtos) {
+            TransactionView view = views.get(dto.getId());
+            assertNotNull(view);
+            assertEquals(dto.getWalletId(), view.walletId());
+            assertEquals(0, dto.getAmount().compareTo(view.amount()));
+            assertEquals(dto.getType(), view.type().name());
+            assertEquals(dto.getTimestamp(), view.timestamp());
+        }
+    }
+
+    // ======================================================================
+    // Helpers
+    // ======================================================================
+
+    //  What getTransactionsByWallet did before: managed entities, then a DTO copy of each
+    private List<TransactionDTO> loadEntitiesAsDtos() {
+        return entityManager.createQuery(
+                        "SELECT t FROM Transaction t WHERE t.wallet.id = :walletId "
+                                + "ORDER BY t.timestamp DESC, t.id DESC", Transaction.class)
+                .setParameter("walletId", WALLET_ID)
+                .getResultList()
+                .stream()
+                .map(TransactionDTO::new)
+                .toList();
+    }
+
+    private record Measurement(int rows, long statements, long entitiesLoaded, long bytes) {}
+
+    private Measurement measure(Supplier<List<?>> call) {
+        entityManager.clear();
+        statistics.clear();
+        CapturingStatementInspector.clear();
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+
+        int rows = call.get().size();
+
+        long bytes = threads.getThreadAllocatedBytes(threadId) - before;
+        return new Measurement(rows, CapturingStatementInspector.statements().size(),
+                statistics.getEntityLoadCount(), bytes);
+    }
+}
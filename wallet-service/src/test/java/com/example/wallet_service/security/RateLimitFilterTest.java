@@ -0,0 +1,104 @@
+package com.example.wallet_service.security;
+
+import com.example.wallet_service.config.rateLimitConfig.RateLimitConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RateLimitFilterTest {
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitConfig config = mock(RateLimitConfig.class);
+        when(config.isEnabled()).thenReturn(true);
+        when(config.getMaxBuckets()).thenReturn(1000);
+        when(config.getStripes()).thenReturn(4);
+        when(config.getIdleSweepSeconds()).thenReturn(60L);
+        when(config.getMutationsCapacity()).thenReturn(2L);
+        when(config.getMutationsRefillPerSecond()).thenReturn(0.01);
+        when(config.getReadsCapacity()).thenReturn(5L);
+        when(config.getReadsRefillPerSecond()).thenReturn(0.01);
+        when(config.getAdminCapacity()).thenReturn(1L);
+        when(config.getAdminRefillPerSecond()).thenReturn(0.01);
+        when(config.getAuthCapacity()).thenReturn(1L);
+        when(config.getAuthRefillPerSecond()).thenReturn(0.01);
+        filter = new RateLimitFilter(config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletResponse perform(String method, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRequestURI(uri);
+        request.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private void authenticateAs(long userId) {
+        UserPrincipal principal = new UserPrincipal(userId, "user" + userId, "USER");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Test
+    void testDebitThrottledAfterCapacityWithHeaders() throws Exception {
+        authenticateAs(1L);
+
+        MockHttpServletResponse first = perform("POST", "/api/wallets/1/debit");
+        assertEquals(200, first.getStatus());
+        assertEquals("2", first.getHeader("X-RateLimit-Limit"));
+        assertEquals("1", first.getHeader("X-RateLimit-Remaining"));
+        assertNotNull(first.getHeader("X-RateLimit-Reset"));
+
+        assertEquals(200, perform("POST", "/api/wallets/1/debit").getStatus());
+
+        MockHttpServletResponse throttled = perform("POST", "/api/wallets/1/debit");
+        assertEquals(429, throttled.getStatus());
+        assertNotNull(throttled.getHeader("Retry-After"));
+        assertTrue(throttled.getContentAsString().contains("RATE_LIMIT_EXCEEDED"));
+    }
+
+    @Test
+    void testReadsHaveSeparateBucketFromMutations() throws Exception {
+        authenticateAs(1L);
+        perform("POST", "/api/wallets/1/debit");
+        perform("POST", "/api/wallets/1/debit");
+        assertEquals(429, perform("POST", "/api/wallets/1/debit").getStatus());
+
+        assertEquals(200, perform("GET", "/api/transactions/history").getStatus());
+    }
+
+    @Test
+    void testUsersAreLimitedIndependently() throws Exception {
+        authenticateAs(1L);
+        perform("PATCH", "/api/wallets/admin/5/blacklist");
+        assertEquals(429, perform("PATCH", "/api/wallets/admin/5/blacklist").getStatus());
+
+        authenticateAs(2L);
+        assertEquals(200, perform("PATCH", "/api/wallets/admin/5/blacklist").getStatus());
+    }
+
+    @Test
+    void testNonApiPathsAreNotLimited() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            MockHttpServletResponse response = perform("GET", "/actuator/health");
+            assertEquals(200, response.getStatus());
+            assertNull(response.getHeader("X-RateLimit-Limit"));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.wallet_service.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final TokenBucketLimiter.Limit limit = new TokenBucketLimiter.Limit(5, 1);
+
+    private TokenBucketLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new TokenBucketLimiter(1000, 4, TimeUnit.SECONDS.toNanos(60), clock::get);
+    }
+
+    private void advanceSeconds(long seconds) {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    @Test
+    void testBurstUpToCapacityThenRejected() {
+        for (int i = 0; i < 5; i++) {
+            TokenBucketLimiter.Decision decision = limiter.tryAcquire("u1", limit);
+            assertTrue(decision.allowed());
+            assertEquals(4 - i, decision.remaining());
+        }
+
+        TokenBucketLimiter.Decision rejected = limiter.tryAcquire("u1", limit);
+        assertFalse(rejected.allowed());
+        assertEquals(0, rejected.remaining());
+        assertEquals(1, rejected.retryAfterSeconds());
+    }
+
+    @Test
+    void testTokensRefillOverTime() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("u1", limit);
+        }
+        assertFalse(limiter.tryAcquire("u1", limit).allowed());
+
+        advanceSeconds(2);
+
+        assertTrue(limiter.tryAcquire("u1", limit).allowed());
+        assertTrue(limiter.tryAcquire("u1", limit).allowed());
+        assertFalse(limiter.tryAcquire("u1", limit).allowed());
+    }
+
+    @Test
+    void testKeysAreIndependent() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("u1", limit);
+        }
+        assertFalse(limiter.tryAcquire("u1", limit).allowed());
+        assertTrue(limiter.tryAcquire("u2", limit).allowed());
+    }
+
+    @Test
+    void testBucketCountIsBounded() {
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("ip" + i, limit);
+        }
+        assertTrue(limiter.size() <= 1000, "size was " + limiter.size());
+    }
+
+    @Test
+    void testIdleBucketsAreSwept() {
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("ip" + i, limit);
+        }
+        assertEquals(100, limiter.size());
+
+        advanceSeconds(120);
+        for (int i = 0; i < 4; i++) {
+            // one new key per stripe is enough to trigger each stripe's sweep
+            for (int k = 0; limiter.size() > 4 && k < 64; k++) {
+                limiter.tryAcquire("fresh" + i + "-" + k, limit);
+            }
+        }
+        assertTrue(limiter.size() < 100, "size was " + limiter.size());
+    }
+
+    @Test
+    void testConcurrentAcquireNeverExceedsCapacity() throws Exception {
+        TokenBucketLimiter.Limit big = new TokenBucketLimiter.Limit(1000, 1);
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int t = 0; t < 8; t++) {
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 500; i++) {
+                    if (limiter.tryAcquire("hot", big).allowed()) {
+                        allowed.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1000, allowed.get());
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.wallet_service.service.jfrStreamService;
+
+import com.example.wallet_service.config.jfrStreamConfig.JfrStreamConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JfrStreamStatsTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    private JfrStreamStats stats;
+
+    @BeforeEach
+    void setUp() {
+        JfrStreamConfig config = mock(JfrStreamConfig.class);
+        when(config.getWindowSeconds()).thenReturn(10);
+        when(config.getWindows()).thenReturn(3);
+        when(config.getTopFrames()).thenReturn(2);
+        when(config.getAppPackage()).thenReturn("com.example.wallet_service");
+
+        //  No stream is started; events are fed through the record methods
+        stats = new JfrStreamStats(config);
+    }
+
+    @Test
+    void testSnapshotMergesWindowsInsideTheSpan() {
+        stats.recordGc(T0, "G1New", Duration.ofMillis(4), Duration.ofMillis(3));
+        stats.recordGc(T0.plusSeconds(12), "G1New", Duration.ofMillis(6), Duration.ofMillis(6));
+        stats.recordGc(T0.plusSeconds(25), "G1Old", Duration.ofMillis(20), Duration.ofMillis(20));
+        stats.recordThreads(T0.plusSeconds(25), 40, 55);
+
+        Map<String, Object> snapshot = stats.snapshot(T0.plusSeconds(29));
+
+        Map<?, ?> gc = (Map<?, ?>) snapshot.get("gc");
+        assertEquals(3L, gc.get("count"));
+        assertEquals(30.0, gc.get("totalPauseMs"));
+        assertEquals(20.0, gc.get("maxPauseMs"));
+        assertEquals(Map.of("G1New", 2L, "G1Old", 1L), gc.get("collectors"));
+        assertEquals(40L, ((Map<?, ?>) snapshot.get("threads")).get("maxActive"));
+        assertEquals(30L, snapshot.get("spanSeconds"));
+    }
+
+    @Test
+    void testOldWindowsRollOff() {
+        stats.recordGc(T0, "G1New", Duration.ofMillis(4), Duration.ofMillis(4));
+        stats.recordGc(T0.plusSeconds(35), "G1New", Duration.ofMillis(1), Duration.ofMillis(1));
+
+        Map<?, ?> gc = (Map<?, ?>) stats.snapshot(T0.plusSeconds(35)).get("gc");
+
+        assertEquals(1L, gc.get("count"));
+        assertEquals(1.0, gc.get("maxPauseMs"));
+    }
+
+    @Test
+    void testRequestExecutorKeepsTheWorstSampleInTheSpan() {
+        stats.recordRequestExecutor(T0, 200, 35, 200);
+        stats.recordRequestExecutor(T0.plusSeconds(15), 12, 0, 200);
+        stats.recordRequestExecutor(T0.plusSeconds(25), 150, 0, 200);
+
+        Map<?, ?> executor = (Map<?, ?>) stats.snapshot(T0.plusSeconds(29)).get("requestExecutor");
+        assertEquals(3L, executor.get("samples"));
+        assertEquals(200L, executor.get("maxBusy"));
+        assertEquals(35L, executor.get("maxQueued"));
+        assertEquals(200L, executor.get("maxThreads"));
+
+        //  Once the saturated window rolls off, only the later samples count
+        executor = (Map<?, ?>) stats.snapshot(T0.plusSeconds(35)).get("requestExecutor");
+        assertEquals(2L, executor.get("samples"));
+        assertEquals(150L, executor.get("maxBusy"));
+        assertEquals(0L, executor.get("maxQueued"));
+    }
+
+    @Test
+    void testTopFramesOrderedByTotal() {
+        stats.recordContention(T0, Duration.ofMillis(15), "WalletService.credit:120");
+        stats.recordContention(T0, Duration.ofMillis(15), "WalletService.credit:120");
+        stats.recordContention(T0, Duration.ofMillis(50), "RecentTransactionCache.append:90");
+        stats.recordContention(T0, Duration.ofMillis(11), "WalletOwnerIndex.put:40");
+        stats.recordPoolWait(T0, Duration.ofMillis(200), "WalletService.debit:250");
+
+        Map<?, ?> contention = (Map<?, ?>) stats.snapshot(T0.plusSeconds(1)).get("contention");
+        List<?> top = (List<?>) contention.get("topFrames");
+
+        assertEquals(4L, contention.get("events"));
+        assertEquals(91.0, contention.get("blockedMs"));
+        assertEquals(2, top.size());
+        assertEquals("RecentTransactionCache.append:90", ((Map<?, ?>) top.get(0)).get("frame"));
+        assertEquals(2L, ((Map<?, ?>) top.get(1)).get("events"));
+
+        Map<?, ?> poolWaits = (Map<?, ?>) stats.snapshot(T0.plusSeconds(1)).get("poolWaits");
+        assertEquals(200.0, poolWaits.get("waitedMs"));
+    }
+
+    @Test
+    void testAllocationFramesFoldIntoOtherPastTheCap() {
+        stats.recordAllocation(T0, 1_000_000, "TransactionExportService.export:140");
+        for (int i = 0; i < JfrStreamStats.MAX_FRAMES_PER_WINDOW + 10; i++) {
+            stats.recordAllocation(T0, 1_000, "Frame.method:" + i);
+        }
+
+        Map<?, ?> allocation = (Map<?, ?>) stats.snapshot(T0).get("allocation");
+        List<?> top = (List<?>) allocation.get("topFrames");
+
+        assertEquals((long) JfrStreamStats.MAX_FRAMES_PER_WINDOW + 11, allocation.get("events"));
+        assertEquals("TransactionExportService.export:140", ((Map<?, ?>) top.get(0)).get("frame"));
+        assertEquals(JfrStreamStats.OTHER, ((Map<?, ?>) top.get(1)).get("frame"));
+        assertEquals(11L, ((Map<?, ?>) top.get(1)).get("events"));
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.wallet_service.service.transactionArchiveService;
+
+import com.example.wallet_service.config.recentTransactionsConfig.RecentTransactionsConfig;
+import com.example.wallet_service.config.transactionArchiveConfig.TransactionArchiveConfig;
+import com.example.wallet_service.config.transactionBackfillConfig.TransactionBackfillConfig;
+import com.example.wallet_service.config.walletConfig.WalletConfig;
+import com.example.wallet_service.config.walletSummaryConfig.WalletSummaryConfig;
+import com.example.wallet_service.dto.transactionDto.TransactionCursorPageDTO;
+import com.example.wallet_service.dto.transactionDto.TransactionOwnerView;
+import com.example.wallet_service.dto.transactionDto.TransactionView;
+import com.example.wallet_service.repository.CapturingStatementInspector;
+import com.example.wallet_service.service.transactionService.RecentTransactionCache;
+import com.example.wallet_service.service.transactionService.TransactionService;
+import com.example.wallet_service.service.transactionService.TransactionUserBackfillService;
+import com.example.wallet_service.service.walletMetricsService.WalletMetrics;
+import com.example.wallet_service.service.walletSummaryService.WalletSummaryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Archive job plus the hot/archive routing of TransactionService reads, against the embedded
+ * database: wallet 1000 has 10 transactions from three years ago and 5 from the last few hours.
+ */
+@DataJpaTest(properties = {
+        "transaction-archive.retention-months=12",
+        "transaction-archive.batch-size=3"
+})
+@ActiveProfiles("h2")
+@Import({TransactionArchiveService.class, TransactionArchiveConfig.class,
+        TransactionService.class, WalletConfig.class,
+        WalletSummaryService.class, WalletSummaryConfig.class,
+        RecentTransactionCache.class, RecentTransactionsConfig.class,
+        TransactionUserBackfillService.class, TransactionBackfillConfig.class,
+        WalletMetrics.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionArchiveServiceTest {
+
+    private static final long WALLET = 1_000L;
+    private static final long OWNER = 600L;
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    private final LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+
+    @Autowired
+    private TransactionArchiveService archiveService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update(
+                "INSERT INTO wallets (id, wallet_name, balance, blacklisted, user_id, version) VALUES (?, 'archive', 0, FALSE, ?, 0)",
+                WALLET, OWNER);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int month = 0; month < 10; month++) {
+            rows.add(new Object[]{WALLET, OWNER, 10 + month, "old " + month,
+                    Timestamp.valueOf(now.minusYears(3).plusMonths(month))});
+        }
+        for (int hour = 1; hour <= 5; hour++) {
+            rows.add(new Object[]{WALLET, OWNER, hour, "recent " + hour, Timestamp.valueOf(now.minusHours(hour))});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO transactions (wallet_id, user_id, amount, type, description, timestamp) VALUES (?, ?, ?, 'CREDIT', ?, ?)",
+                rows);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        //  Cascades to both transaction tables
+        jdbcTemplate.update("DELETE FROM wallets WHERE id >= ?", WALLET);
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE wallet_id = ?", Integer.class, WALLET);
+    }
+
+    private List<Long> allIdsNewestFirst() {
+        return jdbcTemplate.queryForList("""
+                SELECT id FROM (
+                    SELECT id, timestamp FROM transactions WHERE wallet_id = ?
+                    UNION ALL
+                    SELECT id, timestamp FROM transactions_archive WHERE wallet_id = ?
+                ) t ORDER BY timestamp DESC, id DESC
+                """, Long.class, WALLET, WALLET);
+    }
+
+    @Test
+    void archive_movesRowsOlderThanCutoffKeepingIds() {
+        List<Long> before = allIdsNewestFirst();
+
+        TransactionArchiveService.ArchiveResult result = archiveService.archive();
+
+        assertEquals(10, result.rows());
+        assertTrue(result.cutoff().isBefore(now.minusMonths(12)));
+        assertEquals(5, count("transactions"));
+        assertEquals(10, count("transactions_archive"));
+        assertEquals(before, allIdsNewestFirst());
+        assertEquals(10, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions_archive WHERE wallet_id = ? AND user_id = ?", Integer.class, WALLET, OWNER));
+
+        assertEquals(0, archiveService.archive().rows(), "second run has nothing left to move");
+    }
+
+    @Test
+    void scheduledRun_movesRowsPastTheRetentionWindow() {
+        archiveService.scheduledArchive();
+
+        assertEquals(5, count("transactions"));
+        assertEquals(10, count("transactions_archive"));
+    }
+
+    @Test
+    void touchesArchive_onlyForRangesReachingBehindTheCutoff() {
+        archiveService.archive();
+
+        assertTrue(archiveService.touchesArchive(null));
+        assertTrue(archiveService.touchesArchive(now.minusYears(2)));
+        assertFalse(archiveService.touchesArchive(now.minusDays(2)));
+        assertFalse(archiveService.touchesArchive(archiveService.cutoff()));
+    }
+
+    @Test
+    void recentUserRangeReadsOnlyTheHotTable() {
+        archiveService.archive();
+        CapturingStatementInspector.clear();
+
+        Object recent = transactionService.getUserTransactions(
+                OWNER, now.minusDays(2).format(DAY), now.format(DAY), null);
+
+        assertEquals(5, ((List<?>) recent).size());
+        assertTrue(CapturingStatementInspector.statements().stream()
+                        .noneMatch(sql -> sql.toLowerCase(Locale.ROOT).contains("transactions_archive")),
+                "recent range must not query the archive");
+
+        Object everything = transactionService.getUserTransactions(
+                OWNER, now.minusYears(4).format(DAY), now.format(DAY), "credit");
+        assertEquals(allIdsNewestFirst(), ((List<?>) everything).stream().map(t -> ((TransactionView) t).id()).toList());
+    }
+
+    @Test
+    void walletReadsSpanBothTables() {
+        archiveService.archive();
+        Long archivedId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM transactions_archive WHERE wallet_id = ?", Long.class, WALLET);
+
+        assertEquals(15, transactionService.getTransactionsByWallet(WALLET).size());
+
+        Optional<TransactionOwnerView> archived = transactionService.getTransactionById(archivedId);
+        assertTrue(archived.isPresent());
+        assertEquals(OWNER, archived.get().walletOwnerId());
+    }
+
+    @Test
+    void cursorPagesWalkFromHotIntoArchive() {
+        archiveService.archive();
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionCursorPageDTO page = transactionService.getTransactionHistoryByCursor(WALLET, null, null, null, cursor, 4);
+            page.items().forEach(t -> walked.add(t.id()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(allIdsNewestFirst(), walked);
+    }
+
+    @Test
+    void offsetPagesMergeBothTables() {
+        archiveService.archive();
+        List<Long> all = allIdsNewestFirst();
+
+        Slice<TransactionView> second = transactionService.getTransactionHistory(WALLET, null, null, null, 1, 4);
+        Slice<TransactionView> last = transactionService.getTransactionHistory(WALLET, null, null, null, 3, 4);
+
+        assertEquals(all.subList(4, 8), second.getContent().stream().map(TransactionView::id).toList());
+        assertTrue(second.hasNext());
+        assertEquals(all.subList(12, 15), last.getContent().stream().map(TransactionView::id).toList());
+        assertFalse(last.hasNext());
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.wallet_service.service.transactionService;
+
+import com.example.wallet_service.config.recentTransactionsConfig.RecentTransactionsConfig;
+import com.example.wallet_service.dto.transactionDto.TransactionView;
+import com.example.wallet_service.model.transaction.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RecentTransactionCacheTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private RecentTransactionCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = newCache(5, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private RecentTransactionCache newCache(int capacity, int maxWallets) {
+        RecentTransactionsConfig config = mock(RecentTransactionsConfig.class);
+        when(config.getCapacity()).thenReturn(capacity);
+        when(config.getMaxWallets()).thenReturn(maxWallets);
+        return new RecentTransactionCache(config);
+    }
+
+    private static TransactionView tx(long walletId, long id) {
+        return new TransactionView(id, walletId, BigDecimal.TEN, Transaction.Type.CREDIT, "t" + id, BASE.plusSeconds(id));
+    }
+
+    //  Newest-first rows, ids from..to inclusive, as findTopTransactionsByWalletId returns them
+    private Function<Long, RecentTransactionCache.Loaded> loader(long ownerId, long from, long to) {
+        return walletId -> {
+            loads.incrementAndGet();
+            List<TransactionView> rows = new ArrayList<>();
+            for (long id = to; id >= from; id--) {
+                rows.add(tx(walletId, id));
+            }
+            return new RecentTransactionCache.Loaded(ownerId, rows);
+        };
+    }
+
+    private static List<Long> ids(RecentTransactionCache.Snapshot snapshot) {
+        return snapshot.items().stream().map(TransactionView::id).toList();
+    }
+
+    @Test
+    void testLoadsOnceThenServesFromMemory() {
+        RecentTransactionCache.Snapshot first = cache.latest(1L, 3, loader(42L, 1, 5));
+        RecentTransactionCache.Snapshot second = cache.latest(1L, 5, loader(42L, 1, 5));
+
+        assertEquals(1, loads.get());
+        assertEquals(42L, first.ownerId());
+        assertEquals(List.of(5L, 4L, 3L), ids(first));
+        assertEquals(List.of(5L, 4L, 3L, 2L, 1L), ids(second));
+    }
+
+    @Test
+    void testAppendKeepsNewestCapacityEntries() {
+        cache.latest(1L, 5, loader(42L, 1, 5));
+
+        cache.append(tx(1L, 6));
+        cache.append(tx(1L, 7));
+
+        assertEquals(List.of(7L, 6L, 5L, 4L, 3L), ids(cache.latest(1L, 5, loader(42L, 1, 5))));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testOutOfOrderAppendIsSlottedByTimestampAndDuplicatesIgnored() {
+        cache.latest(1L, 5, loader(42L, 1, 3));
+
+        cache.append(tx(1L, 6));
+        cache.append(tx(1L, 4));    //  committed after 6
+        cache.append(tx(1L, 6));    //  duplicate
+        cache.append(tx(1L, 0));    //  older than everything but the ring still has room
+
+        assertEquals(List.of(6L, 4L, 3L, 2L, 1L), ids(cache.latest(1L, 5, loader(42L, 1, 3))));
+    }
+
+    @Test
+    void testAppendToUncachedWalletIsIgnored() {
+        cache.append(tx(1L, 99));
+
+        assertEquals(0, cache.size());
+        assertEquals(List.of(3L, 2L, 1L), ids(cache.latest(1L, 5, loader(42L, 1, 3))));
+    }
+
+    @Test
+    void testMissingWalletIsNotCached() {
+        assertNull(cache.latest(9L, 5, id -> null));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testAppendWaitsForCommit() {
+        cache.latest(1L, 5, loader(42L, 1, 3));
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.append(tx(1L, 4));
+        assertEquals(3L, ids(cache.latest(1L, 1, loader(42L, 1, 3))).get(0));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertEquals(4L, ids(cache.latest(1L, 1, loader(42L, 1, 3))).get(0));
+    }
+
+    @Test
+    void testWalletCountIsBoundedAndLeastRecentlyUsedGoFirst() {
+        RecentTransactionCache small = newCache(5, 20);
+
+        for (long walletId = 1; walletId <= 20; walletId++) {
+            small.latest(walletId, 1, loader(walletId, 1, 2));
+        }
+        small.latest(1L, 1, loader(1L, 1, 2));     //  wallet 1 becomes most recently used
+        int loadsBefore = loads.get();
+
+        for (long walletId = 21; walletId <= 200; walletId++) {
+            small.latest(walletId, 1, loader(walletId, 1, 2));
+            assertTrue(small.size() <= 20, "cache grew past max-wallets: " + small.size());
+        }
+
+        assertEquals(loadsBefore + 180, loads.get());
+        small.latest(2L, 1, loader(2L, 1, 2));
+        assertEquals(loadsBefore + 181, loads.get(), "wallet 2 was least recently used and should be reloaded");
+    }
+}
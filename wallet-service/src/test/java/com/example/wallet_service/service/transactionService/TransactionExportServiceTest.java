@@ -0,0 +1,125 @@
+package com.example.wallet_service.service.transactionService;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import(TransactionExportService.class)
+class TransactionExportServiceTest {
+
+    private static final long WALLET_ID = 3L;
+    private static final int ROWS = 20_000;
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Object[]> batch = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            String description = i == 0 ? "Coffee, \"large\"" : "Purchase " + i;
+            batch.add(new Object[]{WALLET_ID, 10 + i % 50, i % 2 == 0 ? "DEBIT" : "CREDIT", description,
+                    Timestamp.valueOf(base.plusSeconds(i))});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO transactions (wallet_id, amount, type, description, timestamp) VALUES (?, ?, ?, ?, ?)",
+                batch);
+    }
+
+    @Test
+    void testNdjsonExportWritesEveryRowAndDetaches() {
+        CountingOutputStream out = new CountingOutputStream();
+
+        TransactionExportService.ExportStats stats =
+                transactionExportService.export(WALLET_ID, TransactionExportService.Format.NDJSON, out);
+
+        assertEquals(ROWS, stats.rows());
+        assertEquals(ROWS, out.newlines);
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount(),
+                "exported entities must not accumulate in the persistence context");
+    }
+
+    @Test
+    void testCsvExportEscapesAndOrdersByTimestamp() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        TransactionExportService.ExportStats stats =
+                transactionExportService.export(WALLET_ID, TransactionExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(ROWS, stats.rows());
+        assertEquals(ROWS + 1, lines.length);
+        assertEquals("id,walletId,amount,type,description,timestamp", lines[0]);
+        assertTrue(lines[1].contains(",DEBIT,\"Coffee, \"\"large\"\"\",2024-01-01T00:00"), lines[1]);
+        assertTrue(lines[ROWS].contains("Purchase " + (ROWS - 1)));
+    }
+
+    @Test
+    void testArchivedRowsAreExportedFirst() {
+        jdbcTemplate.update("""
+                INSERT INTO transactions_archive (id, wallet_id, user_id, amount, type, description, timestamp)
+                VALUES (900000001, 3, 3, 7.00, 'CREDIT', 'archived', TIMESTAMP '2020-06-01 00:00:00')
+                """);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        TransactionExportService.ExportStats stats =
+                transactionExportService.export(WALLET_ID, TransactionExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(ROWS + 1, stats.rows());
+        assertTrue(lines[1].startsWith("900000001,3,7.00000,CREDIT,archived,2020-06-01T00:00"), lines[1]);
+        assertTrue(lines[2].contains("Coffee"), lines[2]);
+    }
+
+    @Test
+    void testUnknownFormatRejected() {
+        assertThrows(IllegalArgumentException.class, () -> TransactionExportService.Format.from("xml"));
+        assertEquals(TransactionExportService.Format.CSV, TransactionExportService.Format.from("CSV"));
+    }
+
+    //  Counts lines and discards the rest, so the full export is never held in memory
+    private static final class CountingOutputStream extends OutputStream {
+        long newlines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                newlines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    newlines++;
+                }
+            }
+        }
+    }
+}
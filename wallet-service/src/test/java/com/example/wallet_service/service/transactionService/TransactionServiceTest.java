@@ -1,13 +1,22 @@
 package com.example.wallet_service.service.transactionService;
 
 import com.example.wallet_service.config.walletConfig.WalletConfig;
+import com.example.wallet_service.dto.transactionDto.TransactionCursorPageDTO;
 import com.example.wallet_service.dto.transactionDto.TransactionDTO;
+import com.example.wallet_service.dto.transactionDto.TransactionOwnerView;
+import com.example.wallet_service.dto.transactionDto.TransactionView;
+import com.example.wallet_service.util.TransactionCursor;
 import com.example.wallet_service.exception.WalletIdNotFoundException;
 import com.example.wallet_service.model.transaction.Transaction;
 import com.example.wallet_service.model.wallet.Wallet;
+import com.example.wallet_service.repository.transactionArchiveRepository.TransactionArchiveRepository;
 import com.example.wallet_service.repository.transactionRepository.TransactionRepository;
 import com.example.wallet_service.repository.walletRepository.WalletRepository;
+import com.example.wallet_service.service.transactionArchiveService.TransactionArchiveService;
+import com.example.wallet_service.service.walletMetricsService.WalletMetrics;
+import com.example.wallet_service.service.walletSummaryService.WalletSummaryService;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -15,6 +24,8 @@ import org.mockito.*;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -34,6 +45,24 @@ class TransactionServiceTest {
     @Mock
     private WalletConfig walletConfig;
 
+    @Mock
+    private WalletSummaryService walletSummaryService;
+
+    @Mock
+    private RecentTransactionCache recentTransactionCache;
+
+    @Mock
+    private TransactionUserBackfillService transactionUserBackfillService;
+
+    @Mock
+    private TransactionArchiveService transactionArchiveService;
+
+    @Mock
+    private TransactionArchiveRepository transactionArchiveRepository;
+
+    @Spy
+    private WalletMetrics walletMetrics = new WalletMetrics(new SimpleMeterRegistry());
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -54,54 +83,81 @@ class TransactionServiceTest {
 
     @Test
     void testGetTransactionsByWallet_Success() {
-        Wallet wallet = new Wallet();
-        wallet.setId(1L);
-
-        Transaction t = new Transaction();
-        t.setId(100L);
-        t.setAmount(BigDecimal.TEN);
-        t.setWallet(wallet);
+        TransactionView t = view(100L, LocalDateTime.now());
 
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
-        when(transactionRepository.findByWalletId(1L))
+        when(walletRepository.existsById(1L)).thenReturn(true);
+        when(transactionRepository.findViewsByWalletId(1L))
                 .thenReturn(List.of(t));
 
-        List<TransactionDTO> result = transactionService.getTransactionsByWallet(1L);
+        List<TransactionView> result = transactionService.getTransactionsByWallet(1L);
 
         assertEquals(1, result.size());
-        assertEquals(100L, result.get(0).getId());
+        assertEquals(100L, result.get(0).id());
     }
 
     @Test
     void testGetTransactionsByWallet_NotFound() {
-        when(walletRepository.findById(999L)).thenReturn(Optional.empty());
+        when(walletRepository.existsById(999L)).thenReturn(false);
         assertThrows(WalletIdNotFoundException.class,
                 () -> transactionService.getTransactionsByWallet(999L));
     }
 
+    // ======================================================================
+    // getRecentTransactions
+    // ======================================================================
+
+    @Test
+    void testGetRecentTransactions_ServedFromCache() {
+        RecentTransactionCache.Snapshot snapshot =
+                new RecentTransactionCache.Snapshot(42L, List.of(view(9L, LocalDateTime.now())));
+        when(recentTransactionCache.getCapacity()).thenReturn(50);
+        when(recentTransactionCache.latest(eq(1L), eq(10), any())).thenReturn(snapshot);
+
+        assertSame(snapshot, transactionService.getRecentTransactions(1L, 10));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void testGetRecentTransactions_MissingWallet() {
+        when(recentTransactionCache.getCapacity()).thenReturn(50);
+        when(recentTransactionCache.latest(eq(999L), eq(10), any())).thenReturn(null);
+
+        assertThrows(WalletIdNotFoundException.class,
+                () -> transactionService.getRecentTransactions(999L, 10));
+    }
+
+    @Test
+    void testGetRecentTransactions_InvalidN() {
+        when(recentTransactionCache.getCapacity()).thenReturn(50);
+
+        assertThrows(IllegalArgumentException.class, () -> transactionService.getRecentTransactions(1L, 0));
+        assertThrows(IllegalArgumentException.class, () -> transactionService.getRecentTransactions(1L, 51));
+    }
+
     // ======================================================================
     // getTransactionById
     // ======================================================================
 
     @Test
     void testGetTransactionById_Found() {
-        Transaction t = new Transaction();
-        t.setId(7L);
+        TransactionOwnerView t = new TransactionOwnerView(
+                7L, 1L, 42L, BigDecimal.TEN, Transaction.Type.CREDIT, "Deposit", LocalDateTime.now());
 
-        when(transactionRepository.findById(7L)).thenReturn(Optional.of(t));
+        when(transactionRepository.findViewById(7L)).thenReturn(Optional.of(t));
 
-        Optional<Transaction> result = transactionService.getTransactionById(7L);
+        Optional<TransactionOwnerView> result = transactionService.getTransactionById(7L);
 
         assertTrue(result.isPresent());
-        assertEquals(7L, result.get().getId());
+        assertEquals(7L, result.get().id());
+        assertEquals(42L, result.get().walletOwnerId());
     }
 
     @Test
     void testGetTransactionById_NotFound() {
-        when(transactionRepository.findById(500L))
+        when(transactionRepository.findViewById(500L))
                 .thenReturn(Optional.empty());
 
-        Optional<Transaction> result = transactionService.getTransactionById(500L);
+        Optional<TransactionOwnerView> result = transactionService.getTransactionById(500L);
 
         assertTrue(result.isEmpty());
     }
@@ -112,9 +168,9 @@ class TransactionServiceTest {
 
     @Test
     void testGetUserTransactions_Valid() {
-        Transaction t = new Transaction();
-        t.setId(10L);
+        TransactionView t = view(10L, LocalDateTime.now());
 
+        when(transactionUserBackfillService.isComplete()).thenReturn(true);
         when(transactionRepository.findUserTransactionsBetweenDates(anyLong(), any(), any(), any()))
                 .thenReturn(List.of(t));
 
@@ -123,6 +179,22 @@ class TransactionServiceTest {
 
         assertTrue(result instanceof List<?>);
         assertEquals(1, ((List<?>) result).size());
+        verify(transactionRepository, never()).findUserTransactionsBetweenDatesViaWallets(any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetUserTransactions_BeforeBackfillJoinsWallets() {
+        TransactionView t = view(10L, LocalDateTime.now());
+
+        when(transactionUserBackfillService.isComplete()).thenReturn(false);
+        when(transactionRepository.findUserTransactionsBetweenDatesViaWallets(anyLong(), any(), any(), any()))
+                .thenReturn(List.of(t));
+
+        Object result = transactionService.getUserTransactions(
+                1L, "01-01-2024", "02-01-2024", null);
+
+        assertEquals(List.of(t), result);
+        verify(transactionRepository, never()).findUserTransactionsBetweenDates(any(), any(), any(), any());
     }
 
     @Test
@@ -147,22 +219,21 @@ class TransactionServiceTest {
 
     @Test
     void testGetTransactionHistory_Success() {
-        Transaction t = new Transaction();
-        t.setId(55L);
+        TransactionView t = view(55L, LocalDateTime.now());
 
-        Page<Transaction> page = new PageImpl<>(List.of(t));
+        Page<TransactionView> page = new PageImpl<>(List.of(t));
 
         when(transactionRepository.findTransactionsWithFilters(
                 anyLong(), any(), any(), any(), any()))
                 .thenReturn(page);
 
-        Page<TransactionDTO> result =
+        Slice<TransactionView> result =
                 transactionService.getTransactionHistory(
                         1L, null, "01-01-2024", "02-01-2024", 0, 10
                 );
 
         assertEquals(1, result.getContent().size());
-        assertEquals(55L, result.getContent().get(0).getId());
+        assertEquals(55L, result.getContent().get(0).id());
     }
 
     @Test
@@ -179,6 +250,60 @@ class TransactionServiceTest {
                         1L, "WRONG", "01-01-2024", "02-01-2024", 0, 10));
     }
 
+    // ======================================================================
+    // getTransactionHistoryByCursor
+    // ======================================================================
+
+    private static TransactionView view(long id, LocalDateTime timestamp) {
+        return new TransactionView(id, 1L, BigDecimal.TEN, Transaction.Type.CREDIT, "Deposit", timestamp);
+    }
+
+    @Test
+    void testGetTransactionHistoryByCursor_FirstPageHasNext() {
+        LocalDateTime ts = LocalDateTime.of(2024, 1, 10, 12, 0);
+        when(transactionRepository.findHistoryFirstPage(eq(1L), isNull(), isNull(), isNull(), eq(Limit.of(3))))
+                .thenReturn(List.of(view(9L, ts), view(8L, ts), view(7L, ts.minusMinutes(1))));
+
+        TransactionCursorPageDTO result =
+                transactionService.getTransactionHistoryByCursor(1L, null, null, null, null, 2);
+
+        assertEquals(2, result.items().size());
+        assertTrue(result.hasNext());
+        assertEquals(new TransactionCursor(ts, 8L), TransactionCursor.decode(result.nextCursor()));
+        verify(transactionRepository, never()).findTransactionsWithFilters(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetTransactionHistoryByCursor_SeeksFromCursor() {
+        LocalDateTime ts = LocalDateTime.of(2024, 1, 10, 12, 0);
+        String cursor = new TransactionCursor(ts, 8L).encode();
+
+        when(transactionRepository.findHistoryPageAfter(eq(1L), eq(Transaction.Type.DEBIT), any(), any(),
+                eq(ts), eq(8L), eq(Limit.of(3))))
+                .thenReturn(List.of(view(7L, ts.minusMinutes(1))));
+
+        TransactionCursorPageDTO result =
+                transactionService.getTransactionHistoryByCursor(1L, "debit", "01-01-2024", "31-01-2024", cursor, 2);
+
+        assertEquals(1, result.items().size());
+        assertFalse(result.hasNext());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    void testGetTransactionHistoryByCursor_InvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () ->
+                transactionService.getTransactionHistoryByCursor(1L, null, null, null, "%%not-a-cursor", 10));
+    }
+
+    @Test
+    void testGetTransactionHistoryByCursor_InvalidSize() {
+        assertThrows(IllegalArgumentException.class, () ->
+                transactionService.getTransactionHistoryByCursor(1L, null, null, null, null, 0));
+        assertThrows(IllegalArgumentException.class, () ->
+                transactionService.getTransactionHistoryByCursor(1L, null, null, null, null, 1000));
+    }
+
     // ======================================================================
     // validateTransactionLimits
     // ======================================================================
@@ -259,5 +384,7 @@ class TransactionServiceTest {
 
         assertEquals(123L, dto.getId());
         assertEquals(BigDecimal.TEN, dto.getAmount());
+        verify(walletSummaryService).record(1L, Transaction.Type.CREDIT, BigDecimal.TEN);
+        verify(recentTransactionCache).append(any(TransactionView.class));
     }
 }
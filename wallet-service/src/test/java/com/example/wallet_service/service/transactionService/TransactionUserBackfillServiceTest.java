@@ -0,0 +1,105 @@
+package com.example.wallet_service.service.transactionService;
+
+import com.example.wallet_service.config.transactionBackfillConfig.TransactionBackfillConfig;
+import com.example.wallet_service.model.transaction.Transaction;
+import com.example.wallet_service.model.wallet.Wallet;
+import com.example.wallet_service.repository.transactionRepository.TransactionRepository;
+import com.example.wallet_service.repository.walletRepository.WalletRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "transaction-backfill.user-id.batch-size=7")
+@ActiveProfiles("h2")
+@Import({TransactionUserBackfillService.class, TransactionBackfillConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionUserBackfillServiceTest {
+
+    private static final long FIRST_TEST_WALLET = 1_000L;
+
+    @Autowired
+    private TransactionUserBackfillService backfillService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        //  Backfill batches commit; the cascade removes the test transactions
+        jdbcTemplate.update("DELETE FROM wallets WHERE id >= ?", FIRST_TEST_WALLET);
+    }
+
+    //  Legacy rows: inserted without user_id, as they were before the column existed
+    private void seedLegacyRows(int walletCount, int perWallet) {
+        for (int w = 0; w < walletCount; w++) {
+            jdbcTemplate.update(
+                    "INSERT INTO wallets (id, wallet_name, balance, blacklisted, user_id, version) VALUES (?, 'legacy', 0, FALSE, ?, 0)",
+                    FIRST_TEST_WALLET + w, 500 + w % 2);
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < walletCount * perWallet; i++) {
+            rows.add(new Object[]{FIRST_TEST_WALLET + i % walletCount, 1 + i, "CREDIT", "legacy " + i});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO transactions (wallet_id, amount, type, description, timestamp) VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)",
+                rows);
+    }
+
+    @Test
+    void backfill_copiesWalletOwnerInBatches() {
+        seedLegacyRows(5, 6);
+        assertTrue(transactionRepository.existsByUserIdIsNull());
+
+        TransactionUserBackfillService.BackfillResult result = backfillService.backfill();
+
+        assertEquals(30, result.rows());
+        assertTrue(result.batches() >= 5, "30 rows in batches of 7 take at least 5 batches");
+        assertTrue(backfillService.isComplete());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions t JOIN wallets w ON w.id = t.wallet_id WHERE t.user_id IS NULL OR t.user_id <> w.user_id",
+                Integer.class));
+        assertEquals(18, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE user_id = 500", Integer.class));
+    }
+
+    @Test
+    void backfill_isANoOpWhenNothingIsMissing() {
+        TransactionUserBackfillService.BackfillResult result = backfillService.backfill();
+
+        assertEquals(0, result.batches());
+        assertEquals(0, result.rows());
+        assertTrue(backfillService.isComplete());
+    }
+
+    @Test
+    void newTransactionsCarryTheWalletOwner() {
+        jdbcTemplate.update(
+                "INSERT INTO wallets (id, wallet_name, balance, blacklisted, user_id, version) VALUES (?, 'fresh', 0, FALSE, 77, 0)",
+                FIRST_TEST_WALLET);
+        Wallet wallet = walletRepository.findById(FIRST_TEST_WALLET).orElseThrow();
+
+        Transaction saved = transactionRepository.save(
+                new Transaction(wallet, new BigDecimal("12.00"), Transaction.Type.CREDIT, "fresh"));
+
+        assertEquals(77L, jdbcTemplate.queryForObject(
+                "SELECT user_id FROM transactions WHERE id = ?", Long.class, saved.getId()));
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.wallet_service.service.walletCacheService;
+
+import com.example.wallet_service.config.walletCacheConfig.SecondLevelCacheConfig;
+import com.example.wallet_service.config.walletCacheConfig.WalletCacheConfig;
+import com.example.wallet_service.model.wallet.Wallet;
+import com.example.wallet_service.repository.walletRepository.WalletRepository;
+import com.example.wallet_service.repository.walletSummaryRepository.WalletSummaryRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Wallet second-level cache against the embedded database. Every repository call runs in its own
+ * transaction, so a second read can only avoid the database by hitting the cache.
+ */
+@DataJpaTest(properties = "wallet-cache.enabled=true")
+@ActiveProfiles("h2")
+@Import({SecondLevelCacheConfig.class, WalletCacheConfig.class, WalletCacheService.class,
+        WalletSecondLevelCacheTest.RecordingBus.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WalletSecondLevelCacheTest {
+
+    private static final long WALLET = 1_000L;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private WalletSummaryRepository walletSummaryRepository;
+
+    @Autowired
+    private WalletCacheService walletCacheService;
+
+    @Autowired
+    private RecordingBus bus;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update(
+                "INSERT INTO wallets (id, wallet_name, balance, blacklisted, user_id, version) VALUES (?, 'cached', 100, FALSE, 700, 0)",
+                WALLET);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        bus.published.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM wallets WHERE id >= 1000");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    private long walletLoads() {
+        return statistics.getEntityStatistics(Wallet.class.getName()).getLoadCount();
+    }
+
+    @Test
+    void repeatedReadsAreServedFromCache() {
+        walletRepository.findById(WALLET);
+        walletRepository.findById(WALLET);
+        walletRepository.findById(WALLET);
+
+        assertEquals(1, walletLoads());
+        assertEquals(2, walletCacheService.stats().hits());
+        assertTrue(entityManagerFactory.getCache().contains(Wallet.class, WALLET));
+    }
+
+    @Test
+    void updateRefreshesCachedEntryAndPublishesAfterCommit() {
+        walletRepository.findById(WALLET);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Wallet wallet = walletRepository.findById(WALLET).orElseThrow();
+            wallet.setBalance(new BigDecimal("150.00"));
+            walletRepository.save(wallet);
+            assertTrue(bus.published.isEmpty(), "published before commit");
+        });
+
+        Wallet reread = walletRepository.findById(WALLET).orElseThrow();
+        assertEquals(0, new BigDecimal("150.00").compareTo(reread.getBalance()));
+        assertEquals(1L, reread.getVersion());
+        assertEquals(1, walletLoads(), "updated entry should be re-read from the cache");
+        assertEquals(List.of(WALLET), bus.published);
+    }
+
+    @Test
+    void rolledBackUpdateIsNotPublished() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Wallet wallet = walletRepository.findById(WALLET).orElseThrow();
+            wallet.setBalance(new BigDecimal("1.00"));
+            walletRepository.saveAndFlush(wallet);
+            status.setRollbackOnly();
+        });
+
+        assertTrue(bus.published.isEmpty());
+        assertEquals(0, new BigDecimal("100.00").compareTo(walletRepository.findById(WALLET).orElseThrow().getBalance()));
+    }
+
+    @Test
+    void nativeSummaryWritesDoNotEvictWallets() {
+        walletRepository.findById(WALLET);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                walletSummaryRepository.addTransaction(WALLET, "CREDIT", BigDecimal.TEN));
+
+        walletRepository.findById(WALLET);
+        assertEquals(1, walletLoads());
+    }
+
+    @Test
+    void invalidationFromAnotherInstanceEvicts() {
+        walletRepository.findById(WALLET);
+        jdbcTemplate.update("UPDATE wallets SET balance = 5, version = version + 1 WHERE id = ?", WALLET);
+
+        bus.deliver(WALLET);
+
+        assertFalse(entityManagerFactory.getCache().contains(Wallet.class, WALLET));
+        Wallet reread = walletRepository.findById(WALLET).orElseThrow();
+        assertEquals(0, BigDecimal.valueOf(5).compareTo(reread.getBalance()));
+        assertEquals(2, walletLoads());
+    }
+
+    // ======================== Test bus ========================
+
+    static class RecordingBus implements WalletCacheInvalidationBus {
+
+        final List<Long> published = new CopyOnWriteArrayList<>();
+        private Consumer<Long> handler;
+
+        @Override
+        public void publish(Long walletId) {
+            published.add(walletId);
+        }
+
+        @Override
+        public void onInvalidation(Consumer<Long> handler) {
+            this.handler = handler;
+        }
+
+        void deliver(Long walletId) {
+            handler.accept(walletId);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.wallet_service.service.walletMetricsService;
+
+import com.example.wallet_service.data.WalletOperationResult;
+import com.example.wallet_service.model.transaction.Transaction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WalletMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private WalletMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new WalletMetrics(registry);
+    }
+
+    private long operations(String operation, String result) {
+        return registry.get(WalletMetrics.OPERATION_TIMER).tags("operation", operation, "result", result).timer().count();
+    }
+
+    @Test
+    void testOperationTaggedWithResultCode() {
+        metrics.timeOperation("debit", 1L, BigDecimal.TEN, () -> new WalletOperationResult.Success("ok"));
+        metrics.timeOperation("debit", 1L, BigDecimal.TEN, () -> new WalletOperationResult.Failure("INSUFFICIENT_FUNDS", "no"));
+        metrics.timeOperation("debit", 1L, BigDecimal.TEN, () -> new WalletOperationResult.Failure("INSUFFICIENT_FUNDS", "no"));
+        metrics.timeOperation("balance", 1L, null, () -> new WalletOperationResult.Balance(1L, "10.00", 0L));
+
+        assertEquals(1, operations("debit", WalletMetrics.SUCCESS));
+        assertEquals(2, operations("debit", "INSUFFICIENT_FUNDS"));
+        assertEquals(1, operations("balance", WalletMetrics.SUCCESS));
+    }
+
+    @Test
+    void testThrowingOperationRecordedAsException() {
+        assertThrows(IllegalStateException.class,
+                () -> metrics.timeOperation("transfer", 1L, BigDecimal.TEN, () -> { throw new IllegalStateException("boom"); }));
+
+        assertEquals(1, operations("transfer", WalletMetrics.EXCEPTION));
+    }
+
+    @Test
+    void testUserClientErrorsTaggedAndRethrown() {
+        assertEquals("ok", metrics.timeUserClient("status", () -> "ok"));
+        assertThrows(RuntimeException.class,
+                () -> metrics.timeUserClient("status", () -> { throw new IllegalArgumentException("down"); }));
+
+        assertEquals(1, registry.get(WalletMetrics.USER_CLIENT_TIMER)
+                .tags("call", "status", "outcome", "success").timer().count());
+        assertEquals(1, registry.get(WalletMetrics.USER_CLIENT_TIMER)
+                .tags("call", "status", "outcome", "error", "exception", "IllegalArgumentException").timer().count());
+    }
+
+    @Test
+    void testLimitCheckOutcome() {
+        metrics.timeLimitCheck(1L, BigDecimal.TEN, Transaction.Type.DEBIT, () -> {});
+        assertThrows(IllegalArgumentException.class,
+                () -> metrics.timeLimitCheck(1L, BigDecimal.TEN, Transaction.Type.DEBIT, () -> { throw new IllegalArgumentException("limit"); }));
+
+        assertEquals(1, registry.get(WalletMetrics.LIMIT_CHECK_TIMER).tags("type", "DEBIT", "outcome", "within").timer().count());
+        assertEquals(1, registry.get(WalletMetrics.LIMIT_CHECK_TIMER).tags("type", "DEBIT", "outcome", "exceeded").timer().count());
+    }
+
+    @Test
+    void testConflictsCountedByStage() {
+        metrics.conflict("credit", 1L, BigDecimal.TEN);
+        metrics.conflict("commit", 1L, null);
+        metrics.conflict("commit", 1L, null);
+
+        assertEquals(1.0, registry.get(WalletMetrics.CONFLICT_COUNTER).tag("stage", "credit").counter().count());
+        assertEquals(2.0, registry.get(WalletMetrics.CONFLICT_COUNTER).tag("stage", "commit").counter().count());
+    }
+
+    // ======================== JFR events ========================
+
+    @Test
+    void testJfrEventsCarryWalletAmountBucketAndOutcome() throws Exception {
+        List<RecordedEvent> events = record(() -> {
+            metrics.timeOperation("credit", 42L, new BigDecimal("250.00"), () -> new WalletOperationResult.Success("ok"));
+            metrics.timeLimitCheck(42L, new BigDecimal("250.00"), Transaction.Type.CREDIT, () -> {});
+            metrics.traceUserCheck(42L, 7L, new BigDecimal("250.00"), () -> false);
+            metrics.conflict("commit", null, null);
+        });
+
+        RecordedEvent operation = only(events, WalletJfrEvents.OPERATION);
+        assertEquals("credit", operation.getString("operation"));
+        assertEquals(42L, operation.getLong("walletId"));
+        assertEquals("100-1k", operation.getString("amountBucket"));
+        assertEquals(WalletMetrics.SUCCESS, operation.getString("outcome"));
+        assertFalse(operation.getDuration().isNegative());
+
+        assertEquals("within", only(events, WalletJfrEvents.LIMIT_CHECK).getString("outcome"));
+        assertEquals("allowed", only(events, WalletJfrEvents.USER_SERVICE_CALL).getString("outcome"));
+
+        RecordedEvent conflict = only(events, WalletJfrEvents.CONFLICT);
+        assertEquals("commit", conflict.getString("stage"));
+        assertEquals(WalletJfrEvents.UNKNOWN_WALLET, conflict.getLong("walletId"));
+        assertEquals("none", conflict.getString("amountBucket"));
+    }
+
+    @Test
+    void testJfrEventsOffWithoutSettings() throws Exception {
+        //  A recording that does not enable the wallet events sees none of them
+        Path file = Files.createTempFile("wallet-events", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.ThreadSleep");
+            recording.start();
+            metrics.timeOperation("debit", 1L, BigDecimal.ONE, () -> new WalletOperationResult.Success("ok"));
+            recording.stop();
+            recording.dump(file);
+            assertTrue(RecordingFile.readAllEvents(file).stream()
+                    .noneMatch(e -> e.getEventType().getName().startsWith("com.example.wallet")));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testAmountBuckets() {
+        assertEquals("none", WalletJfrEvents.amountBucket(null));
+        assertEquals("invalid", WalletJfrEvents.amountBucket(BigDecimal.ZERO));
+        assertEquals("<1", WalletJfrEvents.amountBucket(new BigDecimal("0.50")));
+        assertEquals("1-10", WalletJfrEvents.amountBucket(new BigDecimal("1.00")));
+        assertEquals("10-100", WalletJfrEvents.amountBucket(new BigDecimal("10")));
+        assertEquals("1k-10k", WalletJfrEvents.amountBucket(new BigDecimal("1E+3")));
+        assertEquals("10k-100k", WalletJfrEvents.amountBucket(new BigDecimal("99999.99")));
+        assertEquals("100k+", WalletJfrEvents.amountBucket(new BigDecimal("100000")));
+    }
+
+    private static List<RecordedEvent> record(Runnable work) throws Exception {
+        Path file = Files.createTempFile("wallet-events", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : List.of(WalletJfrEvents.OPERATION, WalletJfrEvents.LIMIT_CHECK,
+                    WalletJfrEvents.USER_SERVICE_CALL, WalletJfrEvents.CONFLICT)) {
+                recording.enable(name).withoutThreshold();
+            }
+            recording.start();
+            work.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.wallet_service.service.walletMetricsService;
+
+import com.example.wallet_service.config.phaseTimingConfig.PhaseTimingConfig;
+import com.example.wallet_service.service.walletMetricsService.WalletPhaseTimings.Phase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class WalletPhaseTimingsTest {
+
+    private WalletPhaseTimings timings;
+
+    @BeforeEach
+    void setUp() {
+        timings = newTimings(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timings.end();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static WalletPhaseTimings newTimings(boolean enabled) {
+        PhaseTimingConfig config = mock(PhaseTimingConfig.class);
+        when(config.isEnabled()).thenReturn(enabled);
+        return new WalletPhaseTimings(config);
+    }
+
+    private Map<String, Object> stats(String operation, String phase) {
+        return timings.snapshot().get(operation).get(phase);
+    }
+
+    @Test
+    void testJwtBeforeOperationIsRecordedUnderIt() {
+        timings.begin();
+        timings.record(Phase.JWT, TimeUnit.MILLISECONDS.toNanos(2));
+
+        timings.inOperation("debit", () -> {
+            timings.record(Phase.WALLET_FETCH, TimeUnit.MILLISECONDS.toNanos(1));
+            return null;
+        });
+
+        assertEquals(1L, stats("debit", "jwt").get("count"));
+        assertEquals(1000L, stats("debit", "wallet-fetch").get("p50"));
+        assertFalse(timings.snapshot().get("debit").containsKey("save"), "phases that did not run are omitted");
+    }
+
+    @Test
+    void testNestedOperationsCountAsOneSampleOfTheOuter() {
+        timings.inOperation("transfer", () -> {
+            timings.record(Phase.WALLET_FETCH, 1_000_000);
+            timings.record(Phase.WALLET_FETCH, 1_000_000);
+            return timings.inOperation("debit", () -> {
+                timings.record(Phase.SAVE, 1_000_000);
+                return null;
+            });
+        });
+
+        assertEquals(1L, stats("transfer", "wallet-fetch").get("count"));
+        assertTrue((Long) stats("transfer", "wallet-fetch").get("p50") >= 1990);
+        assertEquals(1L, stats("transfer", "save").get("count"));
+        assertNull(timings.snapshot().get("debit"));
+    }
+
+    @Test
+    void testCommitTimedFromTransactionSynchronization() {
+        TransactionSynchronizationManager.initSynchronization();
+        timings.begin();
+
+        timings.inOperation("credit", () -> null);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(s -> s.beforeCommit(false));
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertEquals(1L, stats("credit", "commit").get("count"));
+        assertTrue(timings.serverTiming().contains("commit;dur="));
+    }
+
+    @Test
+    void testServerTimingOnlyForMutations() {
+        timings.begin();
+        timings.record(Phase.JWT, 1_500_000);
+        assertNull(timings.serverTiming());
+
+        timings.inOperation("debit", () -> {
+            timings.record(Phase.LIMIT_CHECK, 250_000);
+            return null;
+        });
+
+        assertEquals("jwt;dur=1.500, limit-check;dur=0.250", timings.serverTiming());
+    }
+
+    @Test
+    void testDisabledRecordsNothing() {
+        WalletPhaseTimings disabled = newTimings(false);
+        disabled.begin();
+
+        assertEquals("ok", disabled.inOperation("debit", () -> disabled.time(Phase.SAVE, () -> "ok")));
+        assertTrue(disabled.snapshot().isEmpty());
+        assertNull(disabled.serverTiming());
+    }
+}
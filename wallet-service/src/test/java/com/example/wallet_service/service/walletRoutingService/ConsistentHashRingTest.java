@@ -0,0 +1,77 @@
+package com.example.wallet_service.service.walletRoutingService;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTest {
+
+    private static final List<String> INSTANCES =
+            List.of("http://wallet-a:8082", "http://wallet-b:8082", "http://wallet-c:8082");
+    private static final int WALLETS = 100_000;
+
+    @Test
+    void ownersDoNotDependOnMembershipOrder() {
+        ConsistentHashRing ring = new ConsistentHashRing(INSTANCES, 160);
+        ConsistentHashRing reversed = new ConsistentHashRing(INSTANCES.reversed(), 160);
+
+        for (long walletId = 1; walletId <= 10_000; walletId++) {
+            assertThat(reversed.ownerOf(walletId)).isEqualTo(ring.ownerOf(walletId));
+        }
+    }
+
+    @Test
+    void virtualNodesSpreadSequentialWalletIdsEvenly() {
+        ConsistentHashRing ring = new ConsistentHashRing(INSTANCES, 160);
+
+        Map<String, Integer> owned = new HashMap<>();
+        for (long walletId = 1; walletId <= WALLETS; walletId++) {
+            owned.merge(ring.ownerOf(walletId), 1, Integer::sum);
+        }
+
+        assertThat(owned).containsOnlyKeys(INSTANCES);
+        owned.values().forEach(count -> assertThat(count).isBetween(WALLETS / 3 * 3 / 4, WALLETS / 3 * 5 / 4));
+    }
+
+    @Test
+    void leavingInstanceOnlyMovesItsOwnWallets() {
+        ConsistentHashRing ring = new ConsistentHashRing(INSTANCES, 160);
+        ConsistentHashRing shrunk = ring.withoutNode("http://wallet-b:8082");
+
+        for (long walletId = 1; walletId <= WALLETS; walletId++) {
+            String before = ring.ownerOf(walletId);
+            String after = shrunk.ownerOf(walletId);
+            if (before.equals("http://wallet-b:8082")) {
+                assertThat(after).isNotEqualTo(before);
+            } else {
+                assertThat(after).isEqualTo(before);
+            }
+        }
+    }
+
+    @Test
+    void joiningInstanceTakesAboutItsShareFromTheOthers() {
+        ConsistentHashRing ring = new ConsistentHashRing(INSTANCES, 160);
+        ConsistentHashRing grown = ring.withNode("http://wallet-d:8082");
+
+        int moved = 0;
+        for (long walletId = 1; walletId <= WALLETS; walletId++) {
+            String after = grown.ownerOf(walletId);
+            if (!after.equals(ring.ownerOf(walletId))) {
+                assertThat(after).isEqualTo("http://wallet-d:8082");
+                moved++;
+            }
+        }
+        assertThat(moved).isBetween(WALLETS / 4 * 3 / 4, WALLETS / 4 * 5 / 4);
+    }
+
+    @Test
+    void emptyRingHasNoOwner() {
+        assertThat(new ConsistentHashRing(List.of(), 160).ownerOf(42L)).isNull();
+        assertThat(new ConsistentHashRing(List.of("http://wallet-a:8082"), 160).withoutNode("http://wallet-a:8082").ownerOf(42L)).isNull();
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.wallet_service.service.walletRoutingService;
+
+import com.example.wallet_service.WalletServiceApplication;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Three wallet-service instances on one shared H2 database, plus a stub user-service, running
+ * in this JVM on their own ports. Requests for a wallet sent to any instance must be served by
+ * the wallet's owner on the ring, and the ring must shrink when an instance stops.
+ */
+class WalletRoutingMultiInstanceTest {
+
+    private static final String JWT_SECRET = "routing-test-secret-routing-test-secret";
+    private static final long OWNER = 700L;
+    private static final int INSTANCES = 3;
+    //  An instance owning none of 100 wallets would mean a broken ring, not bad luck
+    private static final int MAX_WALLETS = 100;
+
+    private static final HttpClient http = HttpClient.newHttpClient();
+    private static final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private static final List<String> urls = new ArrayList<>();
+    private static HttpServer userService;
+    private static String token;
+
+    @BeforeAll
+    static void startInstances() throws IOException {
+        userService = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        userService.createContext("/internal/users/", exchange -> {
+            byte[] body = "{\"blacklisted\":false}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        userService.start();
+
+        List<Integer> ports = new ArrayList<>();
+        for (int i = 0; i < INSTANCES; i++) {
+            ports.add(freePort());
+            urls.add("http://localhost:" + ports.get(i));
+        }
+
+        for (int i = 0; i < INSTANCES; i++) {
+            contexts.add(new SpringApplicationBuilder(WalletServiceApplication.class)
+                    .profiles("h2")
+                    //  Arguments rather than default properties, which application.yml would override
+                    .run(
+                            "--server.port=" + ports.get(i),
+                            "--spring.datasource.url=jdbc:h2:mem:wallet_routing_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                            //  The first instance creates the shared schema
+                            "--spring.sql.init.mode=" + (i == 0 ? "always" : "never"),
+                            "--user.service.url=http://localhost:" + userService.getAddress().getPort(),
+                            "--jwt.secret=" + JWT_SECRET,
+                            "--rate-limit.enabled=false",
+                            "--jfr-stream.enabled=false",
+                            "--transaction-backfill.user-id.run-on-startup=false",
+                            "--wallet-routing.enabled=true",
+                            "--wallet-routing.self-url=" + urls.get(i),
+                            "--wallet-routing.instances=" + String.join(",", urls),
+                            //  Probes are driven by the test
+                            "--wallet-routing.health-check-interval-ms=3600000"));
+        }
+
+        token = Jwts.builder()
+                .setSubject("router")
+                .claim("userId", OWNER)
+                .claim("role", "USER")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 600_000))
+                .signWith(Keys.hmacShaKeyFor(JWT_SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        contexts.forEach(ConfigurableApplicationContext::close);
+        userService.stop(0);
+    }
+
+    @Test
+    void walletRequestsAreServedByTheOwnerAndTheRingShrinksWhenAnInstanceStops() throws Exception {
+        WalletRouter first = router(0);
+        for (int i = 1; i < INSTANCES; i++) {
+            assertThat(router(i).getRing().nodes()).isEqualTo(first.getRing().nodes());
+        }
+
+        //  Ownership depends on the (random) ports, so keep creating wallets until every instance owns one
+        List<Long> wallets = new ArrayList<>();
+        while (wallets.size() < MAX_WALLETS && wallets.stream().map(first::ownerOf).distinct().count() < INSTANCES) {
+            wallets.add(createWallet(wallets.size() % INSTANCES));
+        }
+        assertThat(wallets.stream().map(first::ownerOf).distinct()).hasSize(INSTANCES);
+
+        for (long walletId : wallets) {
+            String owner = first.ownerOf(walletId);
+            for (int i = 0; i < INSTANCES; i++) {
+                HttpResponse<String> balance = send(i, "GET", "/api/wallets/" + walletId);
+                assertThat(balance.statusCode()).isEqualTo(200);
+                assertThat(balance.headers().firstValue(WalletRoutingFilter.INSTANCE_HEADER)).hasValue(owner);
+
+                HttpResponse<String> credit = send(i, "POST", "/api/wallets/" + walletId + "/credit?amount=5");
+                assertThat(credit.statusCode()).isEqualTo(200);
+                assertThat(credit.headers().firstValue(WalletRoutingFilter.INSTANCE_HEADER)).hasValue(owner);
+            }
+            HttpResponse<String> transfer = send((int) (walletId % INSTANCES), "POST",
+                    "/api/wallets/transfer?fromWalletId=" + walletId + "&toWalletId=" + wallets.get(0) + "&amount=1");
+            assertThat(transfer.headers().firstValue(WalletRoutingFilter.INSTANCE_HEADER)).hasValue(owner);
+        }
+
+        //  Stop the last instance; wallets it owned move to the survivors, all others stay put
+        String stopped = urls.get(INSTANCES - 1);
+        contexts.get(INSTANCES - 1).close();
+
+        List<String> ownersBefore = wallets.stream().map(first::ownerOf).toList();
+        long orphan = wallets.get(ownersBefore.indexOf(stopped));
+
+        //  Instance 0 finds out by a refused forward, instance 1 by its health probe
+        HttpResponse<String> rerouted = send(0, "GET", "/api/wallets/" + orphan);
+        assertThat(rerouted.statusCode()).isEqualTo(200);
+        router(1).checkPeers();
+
+        for (int i = 0; i < INSTANCES - 1; i++) {
+            assertThat(router(i).getRing().nodes()).doesNotContain(stopped);
+        }
+        for (int w = 0; w < wallets.size(); w++) {
+            long walletId = wallets.get(w);
+            String owner = first.ownerOf(walletId);
+            if (!ownersBefore.get(w).equals(stopped)) {
+                assertThat(owner).isEqualTo(ownersBefore.get(w));
+            }
+            for (int i = 0; i < INSTANCES - 1; i++) {
+                HttpResponse<String> balance = send(i, "GET", "/api/wallets/" + walletId);
+                assertThat(balance.statusCode()).isEqualTo(200);
+                assertThat(balance.headers().firstValue(WalletRoutingFilter.INSTANCE_HEADER)).hasValue(owner);
+            }
+        }
+    }
+
+    private static WalletRouter router(int instance) {
+        return contexts.get(instance).getBean(WalletRouter.class);
+    }
+
+    private static long createWallet(int instance) throws Exception {
+        HttpResponse<String> created = http.send(HttpRequest.newBuilder(URI.create(urls.get(instance) + "/api/wallets/create"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"walletName\":\"routed\",\"initialBalance\":100}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(created.statusCode()).isEqualTo(201);
+
+        Matcher id = Pattern.compile("\"walletId\":(\\d+)").matcher(created.body());
+        assertThat(id.find()).isTrue();
+        return Long.parseLong(id.group(1));
+    }
+
+    private static HttpResponse<String> send(int instance, String method, String path) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(urls.get(instance) + path))
+                .header("Authorization", "Bearer " + token)
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
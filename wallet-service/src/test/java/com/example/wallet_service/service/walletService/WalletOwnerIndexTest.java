@@ -0,0 +1,101 @@
+package com.example.wallet_service.service.walletService;
+
+import com.example.wallet_service.config.walletOwnerIndexConfig.WalletOwnerIndexConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class WalletOwnerIndexTest {
+
+    private static WalletOwnerIndex newIndex(int maxEntries) {
+        WalletOwnerIndexConfig config = mock(WalletOwnerIndexConfig.class);
+        when(config.getMaxEntries()).thenReturn(maxEntries);
+        return new WalletOwnerIndex(config);
+    }
+
+    @Test
+    void testUnknownWalletIsMissing() {
+        WalletOwnerIndex index = newIndex(100);
+
+        assertEquals(WalletOwnerIndex.MISSING, index.ownerOf(1L));
+        assertEquals(WalletOwnerIndex.MISSING, index.ownerOf(0L));
+    }
+
+    @Test
+    void testOwnerIsFixedOnceIndexed() {
+        WalletOwnerIndex index = newIndex(100);
+
+        index.put(1L, 10L);
+        index.put(1L, 20L);
+
+        assertEquals(10L, index.ownerOf(1L));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testGrowsPastInitialCapacity() {
+        WalletOwnerIndex index = newIndex(1_000_000);
+
+        for (long walletId = 1; walletId <= 50_000; walletId++) {
+            index.put(walletId, walletId * 7);
+        }
+
+        assertEquals(50_000, index.size());
+        for (long walletId = 1; walletId <= 50_000; walletId++) {
+            assertEquals(walletId * 7, index.ownerOf(walletId));
+        }
+    }
+
+    @Test
+    void testStopsIndexingAtMaxEntries() {
+        WalletOwnerIndex index = newIndex(3);
+
+        for (long walletId = 1; walletId <= 5; walletId++) {
+            index.put(walletId, 100L);
+        }
+
+        assertEquals(3, index.size());
+        assertEquals(100L, index.ownerOf(3L));
+        assertEquals(WalletOwnerIndex.MISSING, index.ownerOf(4L));
+    }
+
+    @Test
+    void testReadersNeverSeeWrongOwnerWhileTableGrows() throws Exception {
+        WalletOwnerIndex index = newIndex(1_000_000);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            Future<?> writer = pool.submit(() -> {
+                for (long walletId = 1; walletId <= 200_000; walletId++) {
+                    index.put(walletId, walletId + 1);
+                }
+                writing.set(false);
+            });
+            Runnable reader = () -> {
+                while (writing.get()) {
+                    for (long walletId = 1; walletId <= 1_000; walletId++) {
+                        long owner = index.ownerOf(walletId);
+                        assertTrue(owner == WalletOwnerIndex.MISSING || owner == walletId + 1,
+                                "wallet " + walletId + " read owner " + owner);
+                    }
+                }
+            };
+            Future<?> first = pool.submit(reader);
+            Future<?> second = pool.submit(reader);
+
+            writer.get(30, TimeUnit.SECONDS);
+            first.get(30, TimeUnit.SECONDS);
+            second.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(200_000, index.size());
+    }
+}
@@ -1,8 +1,13 @@
 package com.example.wallet_service.service.walletService;
 
 import com.example.wallet_service.client.userClient.UserClient;
+import com.example.wallet_service.config.phaseTimingConfig.PhaseTimingConfig;
 import com.example.wallet_service.config.walletConfig.WalletConfig;
+import com.example.wallet_service.config.walletOwnerIndexConfig.WalletOwnerIndexConfig;
+import com.example.wallet_service.data.WalletAccessResult;
 import com.example.wallet_service.data.WalletOperationResult;
+import com.example.wallet_service.dto.transactionDto.TransactionSummaryDTO;
+import com.example.wallet_service.dto.transactionDto.TransactionView;
 import com.example.wallet_service.dto.walletDto.CreateWalletDTO;
 import com.example.wallet_service.exception.WalletBlacklistedException;
 import com.example.wallet_service.exception.WalletIdNotFoundException;
@@ -10,13 +15,21 @@ import com.example.wallet_service.model.transaction.Transaction;
 import com.example.wallet_service.model.wallet.Wallet;
 import com.example.wallet_service.repository.transactionRepository.TransactionRepository;
 import com.example.wallet_service.repository.walletRepository.WalletRepository;
+import com.example.wallet_service.security.UserPrincipal;
+import com.example.wallet_service.service.transactionService.RecentTransactionCache;
 import com.example.wallet_service.service.transactionService.TransactionService;
+import com.example.wallet_service.service.walletMetricsService.WalletMetrics;
+import com.example.wallet_service.service.walletMetricsService.WalletPhaseTimings;
+import com.example.wallet_service.service.walletSummaryService.WalletSummaryService;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.OptimisticLockException;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.util.*;
@@ -31,12 +44,31 @@ class WalletServiceTest {
     @Mock private WalletConfig walletConfig;
     @Mock private TransactionService transactionService;
     @Mock private UserClient userClient;
+    @Mock private WalletSummaryService walletSummaryService;
+    @Mock private RecentTransactionCache recentTransactionCache;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Spy private WalletOwnerIndex walletOwnerIndex = newOwnerIndex();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy private WalletMetrics walletMetrics = new WalletMetrics(meterRegistry);
+    @Spy private WalletPhaseTimings phaseTimings = newPhaseTimings();
 
     @InjectMocks @Spy
     private WalletService walletService;
 
     Wallet wallet;
 
+    private static WalletOwnerIndex newOwnerIndex() {
+        WalletOwnerIndexConfig config = mock(WalletOwnerIndexConfig.class);
+        when(config.getMaxEntries()).thenReturn(100);
+        return new WalletOwnerIndex(config);
+    }
+
+    private static WalletPhaseTimings newPhaseTimings() {
+        PhaseTimingConfig config = mock(PhaseTimingConfig.class);
+        when(config.isEnabled()).thenReturn(true);
+        return new WalletPhaseTimings(config);
+    }
+
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
@@ -56,13 +88,71 @@ class WalletServiceTest {
         CreateWalletDTO dto = new CreateWalletDTO("TestWallet", BigDecimal.TEN);
 
         when(walletRepository.save(any()))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+                .thenAnswer(invocation -> {
+                    Wallet saved = invocation.getArgument(0);
+                    saved.setId(7L);
+                    return saved;
+                });
 
         Wallet result = walletService.createWalletForUser(10L, dto);
 
         assertEquals(10L, result.getUserId());
         assertEquals("TestWallet", result.getWalletName());
         assertEquals(BigDecimal.TEN, result.getBalance());
+        assertEquals(10L, walletOwnerIndex.ownerOf(7L));
+    }
+
+    // ------------------------------------------------------------
+    // authorizeAndExecute()
+    // ------------------------------------------------------------
+    @Test
+    void testAuthorizeAndExecute_IndexedOwnerNeedsNoLookup() {
+        walletOwnerIndex.put(1L, 10L);
+
+        WalletAccessResult<String> result =
+                walletService.authorizeAndExecute(1L, new UserPrincipal(10L, "owner", "USER"), () -> "done");
+
+        assertEquals(new WalletAccessResult.Granted<>("done"), result);
+        verifyNoInteractions(walletRepository);
+    }
+
+    @Test
+    void testAuthorizeAndExecute_MissIsLoadedOnceThenIndexed() {
+        when(walletRepository.findUserIdById(1L)).thenReturn(Optional.of(10L));
+        UserPrincipal owner = new UserPrincipal(10L, "owner", "USER");
+
+        walletService.authorizeAndExecute(1L, owner, () -> "first");
+        WalletAccessResult<String> second = walletService.authorizeAndExecute(1L, owner, () -> "second");
+
+        assertEquals(new WalletAccessResult.Granted<>("second"), second);
+        verify(walletRepository, times(1)).findUserIdById(1L);
+        verify(walletRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testAuthorizeAndExecute_NotFoundAndDeniedSkipTheAction() {
+        when(walletRepository.findUserIdById(99L)).thenReturn(Optional.empty());
+        walletOwnerIndex.put(1L, 10L);
+        Runnable action = mock(Runnable.class);
+
+        WalletAccessResult<Object> missing = walletService.authorizeAndExecute(99L, new UserPrincipal(10L, "owner", "USER"),
+                () -> { action.run(); return null; });
+        WalletAccessResult<Object> denied = walletService.authorizeAndExecute(1L, new UserPrincipal(20L, "other", "USER"),
+                () -> { action.run(); return null; });
+
+        assertInstanceOf(WalletAccessResult.NotFound.class, missing);
+        assertInstanceOf(WalletAccessResult.Denied.class, denied);
+        verifyNoInteractions(action);
+    }
+
+    @Test
+    void testAuthorizeAndExecute_AdminMayUseAnyWallet() {
+        walletOwnerIndex.put(1L, 10L);
+
+        WalletAccessResult<String> result =
+                walletService.authorizeAndExecute(1L, new UserPrincipal(99L, "admin", "ADMIN"), () -> "done");
+
+        assertEquals(new WalletAccessResult.Granted<>("done"), result);
     }
 
 
@@ -95,7 +185,7 @@ class WalletServiceTest {
 
     @Test
     void testCredit_WalletNotFound() {
-        when(walletRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(walletRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.empty());
 
         WalletOperationResult result = walletService.credit(1L, BigDecimal.TEN, "test");
 
@@ -106,7 +196,7 @@ class WalletServiceTest {
     @Test
     void testCredit_WalletBlacklisted_ReturnsFailureUNKNOWN() {
         wallet.setBlacklisted(true);
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
 
         WalletOperationResult result =
                 walletService.credit(1L, BigDecimal.TEN, "test");
@@ -117,7 +207,7 @@ class WalletServiceTest {
 
     @Test
     void testCredit_UserBlacklisted_ReturnsFailureUNKNOWN() {
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
         when(userClient.isUserBlacklisted(10L)).thenReturn(true);
 
         WalletOperationResult result =
@@ -129,7 +219,7 @@ class WalletServiceTest {
 
     @Test
     void testCredit_ExceedsConfiguredLimit() {
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
         when(userClient.isUserBlacklisted(anyLong())).thenReturn(false);
         when(walletConfig.getMaxCreditLimit()).thenReturn(BigDecimal.ONE);
 
@@ -142,7 +232,7 @@ class WalletServiceTest {
 
     @Test
     void testCredit_LimitValidationThrows_MapsToFailure() {
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
         when(userClient.isUserBlacklisted(anyLong())).thenReturn(false);
         when(walletConfig.getMaxCreditLimit()).thenReturn(BigDecimal.valueOf(5000));
 
@@ -158,7 +248,7 @@ class WalletServiceTest {
 
     @Test
     void testCredit_OptimisticLock_MappedToConflict() {
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
         when(userClient.isUserBlacklisted(anyLong())).thenReturn(false);
         when(walletConfig.getMaxCreditLimit()).thenReturn(BigDecimal.valueOf(5000));
         doNothing().when(transactionService).validateTransactionLimits(anyLong(), any(), any());
@@ -171,11 +261,35 @@ class WalletServiceTest {
 
         assertEquals("CONFLICT",
                 ((WalletOperationResult.Failure) result).errorCode());
+        assertEquals(1, meterRegistry.get(WalletMetrics.OPERATION_TIMER)
+                .tags("operation", "credit", "result", "CONFLICT").timer().count());
+        assertEquals(1.0, meterRegistry.get(WalletMetrics.CONFLICT_COUNTER).tag("stage", "credit").counter().count());
+    }
+
+    @Test
+    void testCredit_CommitConflict_TimedAsConflict() {
+        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
+        when(userClient.isUserBlacklisted(anyLong())).thenReturn(false);
+        when(walletConfig.getMaxCreditLimit()).thenReturn(BigDecimal.valueOf(5000));
+        doNothing().when(transactionService).validateTransactionLimits(anyLong(), any(), any());
+        when(walletRepository.save(any())).thenReturn(wallet);
+
+        //  The version check fails when the transaction commits, after credit() itself succeeded
+        doThrow(new ObjectOptimisticLockingFailureException(Wallet.class, 1L))
+                .when(transactionManager).commit(any());
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> walletService.credit(1L, BigDecimal.TEN, "test"));
+
+        assertEquals(1, meterRegistry.get(WalletMetrics.OPERATION_TIMER)
+                .tags("operation", "credit", "result", "CONFLICT").timer().count());
+        assertNull(meterRegistry.find(WalletMetrics.OPERATION_TIMER)
+                .tags("operation", "credit", "result", "SUCCESS").timer());
     }
 
     @Test
     void testCredit_UnexpectedError_MapsToUnknown() {
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
         when(userClient.isUserBlacklisted(anyLong())).thenReturn(false);
         when(walletConfig.getMaxCreditLimit()).thenReturn(BigDecimal.valueOf(5000));
 
@@ -191,7 +305,7 @@ class WalletServiceTest {
 
     @Test
     void testCredit_Success() {
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
         when(userClient.isUserBlacklisted(anyLong())).thenReturn(false);
         when(walletConfig.getMaxCreditLimit()).thenReturn(BigDecimal.valueOf(5000));
         doNothing().when(transactionService).validateTransactionLimits(anyLong(), any(), any());
@@ -202,6 +316,20 @@ class WalletServiceTest {
                 walletService.credit(1L, BigDecimal.valueOf(50), "ok");
 
         assertTrue(result instanceof WalletOperationResult.Success);
+        verify(walletSummaryService).record(1L, Transaction.Type.CREDIT, BigDecimal.valueOf(50));
+        verify(recentTransactionCache).append(any(TransactionView.class));
+        assertEquals(Set.of("wallet-fetch", "user-check", "limit-check", "save"),
+                phaseTimings.snapshot().get("credit").keySet());
+    }
+
+    @Test
+    void testGetTransactionSummary_ReadsSummaryTable() {
+        List<TransactionSummaryDTO> summary =
+                List.of(new TransactionSummaryDTO(Transaction.Type.CREDIT, BigDecimal.TEN));
+        when(walletSummaryService.getSummary(1L)).thenReturn(summary);
+
+        assertEquals(summary, walletService.getTransactionSummary(1L));
+        verifyNoInteractions(transactionRepository);
     }
 
     // ------------------------------------------------------------
@@ -218,7 +346,7 @@ class WalletServiceTest {
 
     @Test
     void testDebit_WalletNotFound() {
-        when(walletRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(walletRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.empty());
 
         WalletOperationResult result =
                 walletService.debit(1L, BigDecimal.TEN, "test");
@@ -231,7 +359,7 @@ class WalletServiceTest {
     void testDebit_BlacklistedWallet_ReturnsFailureUnknown() {
         wallet.setBlacklisted(true);
 
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
 
         WalletOperationResult result =
                 walletService.debit(1L, BigDecimal.TEN, "test");
@@ -242,7 +370,7 @@ class WalletServiceTest {
 
     @Test
     void testDebit_UserBlacklisted_ReturnsFailureUnknown() {
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
         when(userClient.isUserBlacklisted(anyLong())).thenReturn(true);
 
         WalletOperationResult result =
@@ -254,7 +382,7 @@ class WalletServiceTest {
 
     @Test
     void testDebit_LimitExceeded() {
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
         when(walletConfig.getMaxDebitLimit()).thenReturn(BigDecimal.ONE);
         when(userClient.isUserBlacklisted(anyLong())).thenReturn(false);
 
@@ -269,7 +397,7 @@ class WalletServiceTest {
     void testDebit_InsufficientFunds() {
         wallet.setBalance(BigDecimal.valueOf(10));
 
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
         when(userClient.isUserBlacklisted(anyLong())).thenReturn(false);
         when(walletConfig.getMaxDebitLimit()).thenReturn(BigDecimal.valueOf(5000));
 
@@ -282,7 +410,7 @@ class WalletServiceTest {
 
     @Test
     void testDebit_LimitValidationThrows() {
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
         when(walletConfig.getMaxDebitLimit()).thenReturn(BigDecimal.valueOf(5000));
         when(userClient.isUserBlacklisted(anyLong())).thenReturn(false);
 
@@ -298,7 +426,7 @@ class WalletServiceTest {
 
     @Test
     void testDebit_OptimisticLock() {
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
         when(walletConfig.getMaxDebitLimit()).thenReturn(BigDecimal.valueOf(5000));
         when(userClient.isUserBlacklisted(anyLong())).thenReturn(false);
         doNothing().when(transactionService).validateTransactionLimits(anyLong(), any(), any());
@@ -315,7 +443,7 @@ class WalletServiceTest {
 
     @Test
     void testDebit_Unexpected() {
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
         when(walletConfig.getMaxDebitLimit()).thenReturn(BigDecimal.valueOf(5000));
         when(userClient.isUserBlacklisted(anyLong())).thenReturn(false);
 
@@ -332,7 +460,7 @@ class WalletServiceTest {
 
     @Test
     void testDebit_Success() {
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
         when(walletConfig.getMaxDebitLimit()).thenReturn(BigDecimal.valueOf(5000));
         when(userClient.isUserBlacklisted(anyLong())).thenReturn(false);
 
@@ -361,7 +489,7 @@ class WalletServiceTest {
 
     @Test
     void testTransfer_WalletNotFound() {
-        when(walletRepository.findById(1L)).thenReturn(Optional.empty());
+        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
 
         WalletOperationResult result =
                 walletService.transfer(1L, 2L, BigDecimal.TEN, "test");
@@ -373,8 +501,8 @@ class WalletServiceTest {
     @Test
     void testTransfer_BlacklistedWallet_Throws() {
         wallet.setBlacklisted(true);
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
-        when(walletRepository.findById(2L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(wallet));
 
         assertThrows(WalletBlacklistedException.class,
                 () -> walletService.transfer(1L, 2L, BigDecimal.TEN, "test"));
@@ -385,8 +513,8 @@ class WalletServiceTest {
         Wallet w1 = new Wallet(1L, "w1", BigDecimal.valueOf(500), 10L);
         Wallet w2 = new Wallet(2L, "w2", BigDecimal.valueOf(500), 20L);
 
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(w1));
-        when(walletRepository.findById(2L)).thenReturn(Optional.of(w2));
+        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(w1));
+        when(walletRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(w2));
         when(userClient.isUserBlacklisted(anyLong())).thenReturn(true);
 
         assertThrows(WalletBlacklistedException.class,
@@ -398,8 +526,8 @@ class WalletServiceTest {
         Wallet w1 = new Wallet(1L, "w1", BigDecimal.valueOf(500), 10L);
         Wallet w2 = new Wallet(2L, "w2", BigDecimal.valueOf(500), 20L);
 
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(w1));
-        when(walletRepository.findById(2L)).thenReturn(Optional.of(w2));
+        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(w1));
+        when(walletRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(w2));
 
         WalletOperationResult result =
                 walletService.transfer(1L, 2L, BigDecimal.ZERO, "test");
@@ -413,8 +541,8 @@ class WalletServiceTest {
         Wallet w1 = new Wallet(1L, "W1", BigDecimal.valueOf(500), 10L);
         Wallet w2 = new Wallet(2L, "W2", BigDecimal.valueOf(300), 20L);
 
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(w1));
-        when(walletRepository.findById(2L)).thenReturn(Optional.of(w2));
+        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(w1));
+        when(walletRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(w2));
         when(userClient.isUserBlacklisted(anyLong())).thenReturn(false);
 
         doReturn(new WalletOperationResult.Success("OK"))
@@ -428,6 +556,26 @@ class WalletServiceTest {
         assertTrue(result instanceof WalletOperationResult.Success);
     }
 
+    @Test
+    void testTransfer_LocksWalletsInIdOrder() {
+        Wallet w1 = new Wallet(1L, "W1", BigDecimal.valueOf(500), 10L);
+        Wallet w2 = new Wallet(2L, "W2", BigDecimal.valueOf(300), 20L);
+
+        when(walletRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(w1));
+        when(walletRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(w2));
+        when(userClient.isUserBlacklisted(anyLong())).thenReturn(false);
+        doReturn(new WalletOperationResult.Success("OK"))
+                .when(walletService).debit(anyLong(), any(), any());
+        doReturn(new WalletOperationResult.Success("OK"))
+                .when(walletService).credit(anyLong(), any(), any());
+
+        walletService.transfer(2L, 1L, BigDecimal.valueOf(100), "test");
+
+        InOrder locks = inOrder(walletRepository);
+        locks.verify(walletRepository).findByIdForUpdate(1L);
+        locks.verify(walletRepository).findByIdForUpdate(2L);
+    }
+
     // ------------------------------------------------------------
     // getBalance()
     // ------------------------------------------------------------
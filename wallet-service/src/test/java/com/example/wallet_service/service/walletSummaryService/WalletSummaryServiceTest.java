@@ -0,0 +1,177 @@
+package com.example.wallet_service.service.walletSummaryService;
+
+import com.example.wallet_service.config.walletSummaryConfig.WalletSummaryConfig;
+import com.example.wallet_service.dto.transactionDto.TransactionSummaryDTO;
+import com.example.wallet_service.model.transaction.Transaction;
+import com.example.wallet_service.model.wallet.Wallet;
+import com.example.wallet_service.repository.transactionRepository.TransactionRepository;
+import com.example.wallet_service.repository.walletRepository.WalletRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "wallet-summary.rebuild.threads=4",
+        "wallet-summary.rebuild.chunk-size=5"
+})
+@ActiveProfiles("h2")
+@Import({WalletSummaryService.class, WalletSummaryConfig.class})
+class WalletSummaryServiceTest {
+
+    private static final long FIRST_TEST_WALLET = 1_000L;
+    private static final int TEST_WALLETS = 23;
+
+    @Autowired
+    private WalletSummaryService walletSummaryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @AfterEach
+    void cleanUp() {
+        //  Rebuild tests commit; cascades remove their transactions and summary rows
+        jdbcTemplate.update("DELETE FROM wallets WHERE id >= ?", FIRST_TEST_WALLET);
+    }
+
+    @Test
+    void record_upsertsRunningTotalsPerType() {
+        walletSummaryService.record(3L, Transaction.Type.CREDIT, new BigDecimal("100.00"));
+        walletSummaryService.record(3L, Transaction.Type.CREDIT, new BigDecimal("25.50"));
+        walletSummaryService.record(3L, Transaction.Type.DEBIT, new BigDecimal("40.00"));
+
+        List<TransactionSummaryDTO> summary = walletSummaryService.getSummary(3L);
+
+        assertEquals(2, summary.size());
+        assertEquals(Transaction.Type.CREDIT, summary.get(0).type());
+        assertEquals(0, new BigDecimal("125.50").compareTo(summary.get(0).totalAmount()));
+        assertEquals(Transaction.Type.DEBIT, summary.get(1).type());
+        assertEquals(0, new BigDecimal("40.00").compareTo(summary.get(1).totalAmount()));
+        assertEquals(2L, jdbcTemplate.queryForObject(
+                "SELECT tx_count FROM wallet_summary WHERE wallet_id = 3 AND type = 'CREDIT'", Long.class));
+    }
+
+    @Test
+    void getSummary_seededFromSampleTransactions() {
+        List<TransactionSummaryDTO> summary = walletSummaryService.getSummary(1L);
+
+        assertEquals(2, summary.size());
+        assertEquals(0, new BigDecimal("100.00").compareTo(summary.get(0).totalAmount()));
+        assertEquals(0, new BigDecimal("50.00").compareTo(summary.get(1).totalAmount()));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void rebuild_recomputesEveryWalletInParallelChunks() {
+        seedWallets();
+        jdbcTemplate.update("UPDATE wallet_summary SET total_amount = 0, tx_count = 0 WHERE wallet_id >= ?",
+                FIRST_TEST_WALLET);
+
+        WalletSummaryService.RebuildResult result = walletSummaryService.rebuild();
+
+        assertTrue(result.chunks() > 1, "test wallets should span several chunks");
+        assertEquals(3 + TEST_WALLETS, result.wallets());
+        assertSummariesMatchHistory();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void rebuild_concurrentCreditsAreNeitherLostNorDoubleCounted() throws Exception {
+        seedWallets();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        try (ExecutorService writers = Executors.newFixedThreadPool(4)) {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                long walletId = FIRST_TEST_WALLET + i % TEST_WALLETS;
+                futures.add(CompletableFuture.runAsync(() -> tx.executeWithoutResult(status -> credit(walletId)), writers));
+            }
+            walletSummaryService.rebuild();
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        }
+
+        assertSummariesMatchHistory();
+        assertEquals(200, jdbcTemplate.queryForObject(
+                "SELECT SUM(balance) FROM wallets WHERE id >= ?", Integer.class, FIRST_TEST_WALLET));
+    }
+
+    // ======================================================================
+    // Helpers
+    // ======================================================================
+
+    //  Same calls as WalletService.credit: the wallet row is locked first, then the transaction and
+    //  summary rows are written, and the wallet UPDATE is flushed at commit
+    private void credit(long walletId) {
+        BigDecimal amount = BigDecimal.ONE;
+        Wallet wallet = walletRepository.findByIdForUpdate(walletId).orElseThrow();
+        wallet.setBalance(wallet.getBalance().add(amount));
+        walletRepository.save(wallet);
+        transactionRepository.save(new Transaction(wallet, amount, Transaction.Type.CREDIT, "concurrent"));
+        walletSummaryService.record(walletId, Transaction.Type.CREDIT, amount);
+    }
+
+    private void seedWallets() {
+        for (int i = 0; i < TEST_WALLETS; i++) {
+            long walletId = FIRST_TEST_WALLET + i;
+            jdbcTemplate.update("INSERT INTO wallets (id, wallet_name, balance, blacklisted, user_id, version) "
+                    + "VALUES (?, 'test', 0, FALSE, ?, 0)", walletId, 500 + i);
+            for (int j = 0; j <= i % 4; j++) {
+                String type = j % 2 == 0 ? "CREDIT" : "DEBIT";
+                jdbcTemplate.update("INSERT INTO transactions (wallet_id, amount, type, description, timestamp) "
+                        + "VALUES (?, ?, ?, 'seed', CURRENT_TIMESTAMP)", walletId, 10 + j, type);
+                jdbcTemplate.update("""
+                        INSERT INTO wallet_summary (wallet_id, type, total_amount, tx_count) VALUES (?, ?, ?, 1)
+                        ON DUPLICATE KEY UPDATE total_amount = total_amount + ?, tx_count = tx_count + 1
+                        """, walletId, type, 10 + j, 10 + j);
+            }
+        }
+    }
+
+    private void assertSummariesMatchHistory() {
+        List<Map<String, Object>> expected = jdbcTemplate.queryForList("""
+                SELECT wallet_id, type, SUM(amount) AS total_amount, COUNT(*) AS tx_count
+                FROM transactions GROUP BY wallet_id, type ORDER BY wallet_id, type
+                """);
+        List<Map<String, Object>> actual = jdbcTemplate.queryForList("""
+                SELECT wallet_id, type, total_amount, tx_count
+                FROM wallet_summary ORDER BY wallet_id, type
+                """);
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Map<String, Object> e = expected.get(i);
+            Map<String, Object> a = actual.get(i);
+            assertEquals(e.get("wallet_id"), a.get("wallet_id"));
+            assertEquals(e.get("type"), a.get("type"));
+            assertEquals(0, ((BigDecimal) e.get("total_amount")).compareTo((BigDecimal) a.get("total_amount")),
+                    "total for wallet " + e.get("wallet_id") + " " + e.get("type"));
+            assertEquals(((Number) e.get("tx_count")).longValue(), ((Number) a.get("tx_count")).longValue());
+        }
+    }
+}